@@ -0,0 +1,52 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTSignException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Algorithm#sign(byte[])} and {@link Algorithm#verify(byte[], byte[])} on a typical
+ * 300 byte signing input.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlgorithmBenchmark {
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "RS384", "RS512", "ES256", "ES384", "ES512", "EdDSA"})
+    public String algorithmName;
+
+    private Algorithm algorithm;
+    private byte[] data;
+    private byte[] signature;
+
+    @Setup
+    public void setUp() throws JWTSignException {
+        algorithm = Fixtures.algorithm(algorithmName);
+
+        char[] chars = new char[300];
+        Arrays.fill(chars, 'x');
+        data = new String(chars).getBytes(StandardCharsets.US_ASCII);
+        signature = algorithm.sign(data);
+    }
+
+    @Benchmark
+    public byte[] sign() throws JWTSignException {
+        return algorithm.sign(data);
+    }
+
+    @Benchmark
+    public boolean verify() throws JWTValidationException {
+        return algorithm.verify(data, signature);
+    }
+}
@@ -0,0 +1,69 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.utils.Base64Utils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Base64Utils} on ranges, as tokens are encoded and decoded, with {@link java.util.Base64}
+ * on whole arrays. Both write into reused arrays. Run with
+ * {@code -jvmArgsAppend --add-modules=jdk.incubator.vector} on Java 17 or newer to measure the Vector API
+ * implementation.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Base64Benchmark {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Param({"32", "512", "8192"})
+    public int size;
+
+    private byte[] data;
+    private byte[] encoded;
+    private byte[] encodedRange;
+    private byte[] encodeOutput;
+    private byte[] decodeOutput;
+
+    @Setup
+    public void setUp() {
+        data = new byte[size + 1];
+        new Random(42).nextBytes(data);
+        encoded = ENCODER.encode(Arrays.copyOfRange(data, 1, size + 1));
+        encodedRange = new byte[encoded.length + 1];
+        System.arraycopy(encoded, 0, encodedRange, 1, encoded.length);
+        encodeOutput = new byte[encoded.length + 1];
+        decodeOutput = new byte[size + 1];
+    }
+
+    @Benchmark
+    public int encode() {
+        return Base64Utils.encodeBase64URL(data, 1, size, encodeOutput, 1);
+    }
+
+    @Benchmark
+    public int encodeJDK() {
+        return ENCODER.encode(Arrays.copyOfRange(data, 1, size + 1), encodeOutput);
+    }
+
+    @Benchmark
+    public int decode() {
+        return Base64Utils.decodeBase64URL(encodedRange, 1, encoded.length, decodeOutput, 1);
+    }
+
+    @Benchmark
+    public int decodeJDK() {
+        return DECODER.decode(encoded, decodeOutput);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.BatchJWTValidator;
+import com.bastiaanjansen.jwt.DefaultJWTValidator;
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.ValidationResult;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures validating a batch of distinct tokens with {@link BatchJWTValidator} against validating them
+ * one by one on the benchmark thread. Scores are per token, run with a single benchmark thread
+ * ({@code -t 1}) to see how the batch scales with the available cores.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchValidateBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({"HS256", "RS256"})
+    public String algorithmName;
+
+    private Algorithm algorithm;
+    private String[] tokens;
+    private DefaultJWTValidator validator;
+    private BatchJWTValidator batchValidator;
+
+    @Setup
+    public void setUp() throws JWTCreationException {
+        algorithm = Fixtures.algorithm(algorithmName);
+        tokens = new String[BATCH_SIZE];
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            tokens[i] = new JWT.Builder(algorithm)
+                    .withPayload(Fixtures.payload(PayloadSize.SMALL))
+                    .withClaim("index", i)
+                    .sign();
+        }
+
+        validator = new DefaultJWTValidator();
+        batchValidator = new BatchJWTValidator.Builder(algorithm).withValidator(validator).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<ValidationResult> validateBatch() {
+        return batchValidator.validate(tokens);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int validateOneByOne() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        int valid = 0;
+
+        for (String token: tokens) {
+            JWT.fromRawJWT(algorithm, token).validate(validator);
+            valid++;
+        }
+
+        return valid;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs the selected benchmarks once for every thread count from 1 up to the number of available
+ * processors (doubling each step), with the GC profiler attached so allocation rates are reported
+ * next to the timings.
+ *
+ * <p>Accepts the regular JMH command line options, for example a benchmark regex or {@code -p}.
+ * Pass {@code -t} to run a single thread count instead of the sweep.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+
+        List<Integer> threadCounts = commandLineOptions.getThreads().hasValue()
+                ? Collections.singletonList(commandLineOptions.getThreads().get())
+                : threadCounts(Runtime.getRuntime().availableProcessors());
+
+        for (int threads: threadCounts) {
+            new Runner(new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build()).run();
+        }
+    }
+
+    static List<Integer> threadCounts(int processors) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < processors; threads *= 2)
+            counts.add(threads);
+        counts.add(processors);
+        return counts;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.BatchJWTSigner;
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.Payload;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures issuing a batch of tokens with {@link BatchJWTSigner} on a fork-join pool of 1 to 8 workers,
+ * against signing them one by one with {@link JWT.Builder} on the benchmark thread. Scores are per token,
+ * run with a single benchmark thread ({@code -t 1}) on a machine with at least as many cores as workers.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkSignBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({"HS256", "RS256"})
+    public String algorithmName;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Algorithm algorithm;
+    private List<Payload> payloads;
+    private ForkJoinPool pool;
+    private BatchJWTSigner signer;
+
+    @Setup
+    public void setUp() {
+        algorithm = Fixtures.algorithm(algorithmName);
+        payloads = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Payload payload = Fixtures.payload(PayloadSize.SMALL);
+            payload.addClaim("index", i);
+            payloads.add(payload);
+        }
+
+        pool = new ForkJoinPool(parallelism);
+        signer = new BatchJWTSigner.Builder(algorithm).withExecutor(pool).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void signBatch(Blackhole blackhole) throws JWTCreationException {
+        signer.sign(payloads, blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void signOneByOne(Blackhole blackhole) throws JWTCreationException {
+        for (Payload payload: payloads)
+            blackhole.consume(new JWT.Builder(algorithm).withPayload(payload).sign());
+    }
+}
@@ -0,0 +1,57 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.Claims;
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Reports the retained heap size of claims per token with <a href="https://github.com/openjdk/jol">JOL</a>,
+ * for tokens which are built, parsed, and parsed then validated and read. Sizes are the growth of the heap
+ * for one more token, so objects shared by all tokens, like the algorithm and the JSON codec, are not counted.
+ *
+ * <pre>java -Djdk.attach.allowAttachSelf -cp benchmarks/target/benchmarks.jar com.bastiaanjansen.jwt.benchmarks.ClaimsFootprint</pre>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class ClaimsFootprint {
+
+    private ClaimsFootprint() {}
+
+    public static void main(String[] args) throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        Algorithm algorithm = Fixtures.algorithm("HS256");
+
+        System.out.printf("%-8s %10s %10s %10s %10s%n", "payload", "built", "parsed", "validated", "header");
+
+        for (PayloadSize size: PayloadSize.values()) {
+            JWT.Builder builder = new JWT.Builder(algorithm).withPayload(Fixtures.payload(size));
+            String token = builder.sign();
+
+            JWT[] built = {
+                    new JWT.Builder(algorithm).withPayload(Fixtures.payload(size)).build(),
+                    new JWT.Builder(algorithm).withPayload(Fixtures.payload(size)).build()
+            };
+            JWT[] parsed = { JWT.fromRawJWT(algorithm, token), JWT.fromRawJWT(algorithm, token) };
+            JWT[] validated = { JWT.fromRawJWT(algorithm, token), JWT.fromRawJWT(algorithm, token) };
+
+            for (JWT jwt: validated) {
+                jwt.validate();
+                jwt.getPayload().getSubject();
+                jwt.getPayload().getIssuer();
+            }
+
+            System.out.printf("%-8s %10d %10d %10d %10d%n", size,
+                    footprint(built[0].getPayload(), built[1].getPayload()),
+                    footprint(parsed[0].getPayload(), parsed[1].getPayload()),
+                    footprint(validated[0].getPayload(), validated[1].getPayload()),
+                    footprint(parsed[0].getHeader(), parsed[1].getHeader()));
+        }
+    }
+
+    private static long footprint(Claims first, Claims second) {
+        return GraphLayout.parseInstance(first, second).totalSize() - GraphLayout.parseInstance(first).totalSize();
+    }
+}
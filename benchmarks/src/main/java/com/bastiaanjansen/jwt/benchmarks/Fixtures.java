@@ -0,0 +1,96 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.Payload;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.ECGenParameterSpec;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared fixtures for the benchmarks: algorithms by JWA name and payloads of several sizes.
+ *
+ * @author Bastiaan Jansen
+ */
+final class Fixtures {
+
+    private static final String SECRET = "a-benchmark-secret-that-is-long-enough-for-hs512-0123456789abcdef";
+
+    private static KeyPair rsaKeyPair;
+    private static final Map<String, KeyPair> ecKeyPairs = new HashMap<>();
+
+    private Fixtures() {}
+
+    /**
+     * Create the algorithm registered under the given JWA name
+     *
+     * @param name JWA name, for example HS256, RS512 or ES256
+     * @return a new algorithm instance
+     */
+    static Algorithm algorithm(String name) {
+        switch (name) {
+            case "HS256": return Algorithm.HMAC256(SECRET);
+            case "HS384": return Algorithm.HMAC384(SECRET);
+            case "HS512": return Algorithm.HMAC512(SECRET);
+            case "RS256": return Algorithm.RSA256(rsaKeyPair());
+            case "RS384": return Algorithm.RSA384(rsaKeyPair());
+            case "RS512": return Algorithm.RSA512(rsaKeyPair());
+            case "ES256": return Algorithm.ECDSA256(ecKeyPair("secp256r1"));
+            case "ES384": return Algorithm.ECDSA384(ecKeyPair("secp384r1"));
+            case "ES512": return Algorithm.ECDSA512(ecKeyPair("secp521r1"));
+            case "EdDSA": return Algorithm.EdDSA(ecKeyPair("Ed25519"));
+            default: throw new IllegalArgumentException("Unknown algorithm " + name);
+        }
+    }
+
+    /**
+     * Create a payload that expires far in the future
+     *
+     * @param size size of the payload
+     * @return a new payload
+     */
+    static Payload payload(PayloadSize size) {
+        Payload payload = new Payload();
+        payload.setIssuer("https://issuer.example.com");
+        payload.setSubject("user-1234567890");
+        payload.setIssuedAt(System.currentTimeMillis());
+        payload.setExpirationTime(System.currentTimeMillis() + 24L * 60 * 60 * 1000);
+
+        for (int i = 0; i < size.customClaims; i++)
+            payload.addClaim("claim" + i, "value-" + i + "-of-a-custom-claim");
+
+        return payload;
+    }
+
+    private static synchronized KeyPair rsaKeyPair() {
+        if (rsaKeyPair == null) {
+            try {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                rsaKeyPair = generator.generateKeyPair();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        return rsaKeyPair;
+    }
+
+    private static synchronized KeyPair ecKeyPair(String curve) {
+        return ecKeyPairs.computeIfAbsent(curve, name -> {
+            try {
+                if (name.startsWith("Ed")) return KeyPairGenerator.getInstance(name).generateKeyPair();
+
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec(name));
+                return generator.generateKeyPair();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
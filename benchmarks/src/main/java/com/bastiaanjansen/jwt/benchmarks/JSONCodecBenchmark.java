@@ -0,0 +1,87 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.Payload;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.json.FlatJSONCodec;
+import com.bastiaanjansen.jwt.json.JSONCodec;
+import com.bastiaanjansen.jwt.json.JSONCodecs;
+import com.bastiaanjansen.jwt.json.OrgJSONCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the org.json codec with the built-in flat codec: decoding a whole payload, reading the time
+ * claims of a parsed payload, encoding claims and signing a token with HS256.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JSONCodecBenchmark {
+
+    @Param({"orgjson", "flat"})
+    public String codecName;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PayloadSize payloadSize;
+
+    private JSONCodec codec;
+    private JSONCodec previousCodec;
+    private Algorithm algorithm;
+    private Payload payload;
+    private Map<String, Object> claims;
+    private byte[] json;
+    private String encodedPayload;
+
+    @Setup
+    public void setUp() {
+        codec = "flat".equals(codecName) ? new FlatJSONCodec() : new OrgJSONCodec();
+        previousCodec = JSONCodecs.getDefault();
+        JSONCodecs.setDefault(codec);
+
+        algorithm = Fixtures.algorithm("HS256");
+        payload = Fixtures.payload(payloadSize);
+        claims = payload.getAsMap();
+        json = codec.encode(claims);
+        encodedPayload = payload.base64Encoded();
+    }
+
+    @TearDown
+    public void tearDown() {
+        JSONCodecs.setDefault(previousCodec);
+    }
+
+    @Benchmark
+    public Object decodeClaims() {
+        return codec.decode(json, 0, json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeClaims() {
+        return codec.encode(claims);
+    }
+
+    @Benchmark
+    public Date parseAndReadExpirationTime() {
+        return Payload.fromBase64EncodedJSON(encodedPayload).getExpirationTime();
+    }
+
+    @Benchmark
+    public Map<String, Object> parseAndReadAllClaims() {
+        return Payload.fromBase64EncodedJSON(encodedPayload).getAsMap();
+    }
+
+    @Benchmark
+    public String sign() throws JWTCreationException {
+        return new JWT.Builder(algorithm).withPayload(payload).sign();
+    }
+}
@@ -0,0 +1,83 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.AlgorithmRegistry;
+import com.bastiaanjansen.jwt.Header;
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing tokens signed by one of many keys with an {@link AlgorithmRegistry}, against decoding
+ * the header up front to look up the key and then parsing the token with that key.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeyResolverBenchmark {
+
+    private static final int ISSUERS = 12;
+    private static final int KEYS_PER_ISSUER = 4;
+    private static final int TOKENS = 256;
+
+    private AlgorithmRegistry registry;
+    private Map<String, Algorithm> algorithmsByKeyId;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() throws JWTCreationException {
+        AlgorithmRegistry.Builder builder = new AlgorithmRegistry.Builder();
+        algorithmsByKeyId = new HashMap<>();
+        Algorithm[] algorithms = new Algorithm[ISSUERS * KEYS_PER_ISSUER];
+
+        for (int i = 0; i < algorithms.length; i++) {
+            String keyId = "issuer-" + (i / KEYS_PER_ISSUER) + "-key-" + (i % KEYS_PER_ISSUER);
+            algorithms[i] = Algorithm.HMAC256("a-benchmark-secret-for-key-" + keyId);
+            builder.withAlgorithm(keyId, algorithms[i]);
+            algorithmsByKeyId.put(keyId, algorithms[i]);
+        }
+
+        registry = builder.build();
+        tokens = new String[TOKENS];
+
+        for (int i = 0; i < TOKENS; i++) {
+            int key = i % algorithms.length;
+            tokens[i] = new JWT.Builder(algorithms[key])
+                    .withKeyId("issuer-" + (key / KEYS_PER_ISSUER) + "-key-" + (key % KEYS_PER_ISSUER))
+                    .withPayload(Fixtures.payload(PayloadSize.SMALL))
+                    .sign();
+        }
+    }
+
+    @Benchmark
+    public JWT registry() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        return JWT.fromVerifiedRawJWT(registry, nextToken());
+    }
+
+    @Benchmark
+    public JWT headerThenParse() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        String token = nextToken();
+        Header header = Header.fromBase64EncodedJSON(token.substring(0, token.indexOf('.')));
+        Algorithm algorithm = algorithmsByKeyId.get(header.getKeyId());
+
+        return JWT.fromVerifiedRawJWT(algorithm, token);
+    }
+
+    private String nextToken() {
+        String token = tokens[next];
+        next = (next + 1) % TOKENS;
+        return token;
+    }
+}
@@ -0,0 +1,66 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.DefaultJWTValidator;
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.JWTValidator;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import com.bastiaanjansen.jwt.metrics.JWTListener;
+import com.bastiaanjansen.jwt.metrics.JWTMetrics;
+import com.bastiaanjansen.jwt.metrics.MetricsListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures signing, and parsing and validating, an HS256 token without a listener and with a
+ * {@link MetricsListener}, to show what the hooks cost when they are not used and when they record.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    @Param({"none", "metrics"})
+    public String listener;
+
+    private Algorithm algorithm;
+    private String token;
+    private JWTValidator validator;
+
+    @Setup
+    public void setUp() throws JWTCreationException {
+        JWTMetrics.setListener("none".equals(listener) ? JWTListener.NONE : new MetricsListener());
+
+        algorithm = Fixtures.algorithm("HS256");
+        token = new JWT.Builder(algorithm).withPayload(Fixtures.payload(PayloadSize.SMALL)).sign();
+        validator = new DefaultJWTValidator.Builder()
+                .withType("JWT")
+                .withIssuer("https://issuer.example.com")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        JWTMetrics.setListener(JWTListener.NONE);
+    }
+
+    @Benchmark
+    public String sign() throws JWTCreationException {
+        return new JWT.Builder(algorithm).withIssuer("https://issuer.example.com").sign();
+    }
+
+    @Benchmark
+    public JWT parseAndValidate() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        JWT parsed = JWT.fromRawJWT(algorithm, token);
+        validator.validate(parsed);
+        return parsed;
+    }
+}
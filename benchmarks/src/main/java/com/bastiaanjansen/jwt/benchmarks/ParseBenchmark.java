@@ -0,0 +1,84 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JWT#fromRawJWT(Algorithm, String)} and its byte based variants for every algorithm
+ * and payload size, signature verification straight from a direct buffer, and the verify-first parsing
+ * mode for valid and forged tokens.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "RS384", "RS512", "ES256", "ES384", "ES512", "EdDSA"})
+    public String algorithmName;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PayloadSize payloadSize;
+
+    private Algorithm algorithm;
+    private String token;
+    private byte[] tokenBytes;
+    private ByteBuffer directBuffer;
+    private String forgedToken;
+
+    @Setup
+    public void setUp() throws JWTCreationException {
+        algorithm = Fixtures.algorithm(algorithmName);
+        token = new JWT.Builder(algorithm).withPayload(Fixtures.payload(payloadSize)).sign();
+        tokenBytes = token.getBytes(StandardCharsets.US_ASCII);
+        directBuffer = ByteBuffer.allocateDirect(tokenBytes.length);
+        directBuffer.put(tokenBytes).flip();
+        forgedToken = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA" + token.substring(token.lastIndexOf('.') + 5);
+    }
+
+    @Benchmark
+    public JWT fromRawJWT() throws JWTDecodeException, JWTCreationException {
+        return JWT.fromRawJWT(algorithm, token);
+    }
+
+    @Benchmark
+    public JWT fromRawJWTByteArray() throws JWTDecodeException, JWTCreationException {
+        return JWT.fromRawJWT(algorithm, tokenBytes, 0, tokenBytes.length);
+    }
+
+    @Benchmark
+    public boolean verifySignatureDirectBuffer() throws JWTDecodeException, JWTValidationException {
+        return JWT.verifySignature(algorithm, directBuffer);
+    }
+
+    @Benchmark
+    public String fromRawJWTAndReadSubject() throws JWTDecodeException, JWTCreationException {
+        return JWT.fromRawJWT(algorithm, token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String fromVerifiedRawJWTAndReadSubject() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        return JWT.fromVerifiedRawJWT(algorithm, token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public Object rejectForgedToken() throws JWTDecodeException, JWTCreationException {
+        try {
+            return JWT.fromVerifiedRawJWT(algorithm, forgedToken);
+        } catch (JWTValidationException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+/**
+ * Payload sizes used as benchmark parameter. Every payload carries iss, sub, iat and exp, plus the
+ * given number of custom string claims.
+ *
+ * @author Bastiaan Jansen
+ */
+public enum PayloadSize {
+    SMALL(0),
+    MEDIUM(10),
+    LARGE(100);
+
+    final int customClaims;
+
+    PayloadSize(int customClaims) {
+        this.customClaims = customClaims;
+    }
+}
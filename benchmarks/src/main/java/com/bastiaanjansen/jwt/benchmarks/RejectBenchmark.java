@@ -0,0 +1,96 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.DefaultJWTValidator;
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.JWTValidator;
+import com.bastiaanjansen.jwt.ValidationResult;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rejecting HS256 tokens with a forged signature and expired tokens, by throwing with and
+ * without stack traces and by returning a {@link ValidationResult}, next to accepting a valid token.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RejectBenchmark {
+
+    @Param({"true", "false"})
+    public boolean stackTrace;
+
+    private Algorithm algorithm;
+    private JWTValidator validator;
+    private String valid;
+    private String forged;
+    private String expired;
+
+    @Setup
+    public void setUp() throws JWTCreationException {
+        JWTException.setStackTraceEnabled(stackTrace);
+
+        algorithm = Fixtures.algorithm("HS256");
+        validator = new DefaultJWTValidator.Builder().withIssuer("https://issuer.example.com").build();
+        valid = new JWT.Builder(algorithm).withPayload(Fixtures.payload(PayloadSize.SMALL)).sign();
+        forged = new JWT.Builder(Algorithm.HMAC256("forged")).withPayload(Fixtures.payload(PayloadSize.SMALL)).sign();
+        expired = new JWT.Builder(algorithm)
+                .withPayload(Fixtures.payload(PayloadSize.SMALL))
+                .withExpirationTime(new Date(System.currentTimeMillis() - 60_000))
+                .sign();
+    }
+
+    @TearDown
+    public void tearDown() {
+        JWTException.setStackTraceEnabled(true);
+    }
+
+    @Benchmark
+    public ValidationResult acceptValid() {
+        return check(valid);
+    }
+
+    @Benchmark
+    public Object throwForged() {
+        return validateThrowing(forged);
+    }
+
+    @Benchmark
+    public ValidationResult checkForged() {
+        return check(forged);
+    }
+
+    @Benchmark
+    public Object throwExpired() {
+        return validateThrowing(expired);
+    }
+
+    @Benchmark
+    public ValidationResult checkExpired() {
+        return check(expired);
+    }
+
+    private ValidationResult check(String token) {
+        ValidationResult parsed = JWT.tryFromVerifiedRawJWT(algorithm, token);
+        return parsed.isValid() ? validator.check(parsed.getJWT()) : parsed;
+    }
+
+    private Object validateThrowing(String token) {
+        try {
+            JWT jwt = JWT.fromVerifiedRawJWT(algorithm, token);
+            validator.validate(jwt);
+            return jwt;
+        } catch (JWTException e) {
+            return e;
+        }
+    }
+}
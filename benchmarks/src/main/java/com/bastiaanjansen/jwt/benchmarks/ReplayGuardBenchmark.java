@@ -0,0 +1,47 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.ReplayGuard;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures recording the first use of unique JWT ID's with a {@link ReplayGuard}. Tokens live for 100
+ * milliseconds, so the guard keeps removing expired ID's while new ones are added.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayGuardBenchmark {
+
+    private static final long LIFETIME = 100;
+
+    private final AtomicLong next = new AtomicLong();
+    private ReplayGuard guard;
+
+    @Setup
+    public void setUp() {
+        guard = new ReplayGuard.Builder()
+                .withTickDuration(Duration.ofMillis(10))
+                .withMaximumSize(4_000_000)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (guard.getOverflowCount() > 0)
+            throw new IllegalStateException("The guard was full " + guard.getOverflowCount() + " times");
+    }
+
+    @Benchmark
+    public boolean markUsed() {
+        return guard.markUsed(Long.toString(next.incrementAndGet()), System.currentTimeMillis() + LIFETIME);
+    }
+}
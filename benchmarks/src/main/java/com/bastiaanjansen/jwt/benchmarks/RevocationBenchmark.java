@@ -0,0 +1,77 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.RevocationList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checking JWT ID's against a {@link RevocationList} holding a million ID's, against a
+ * {@link ConcurrentHashMap} holding the same ID's. Most checked ID's are not revoked.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class RevocationBenchmark {
+
+    private static final int REVOKED = 1_000_000;
+    private static final int CHECKED = 4096;
+
+    private RevocationList revocationList;
+    private Map<String, Long> map;
+    private String[] notRevoked;
+    private String[] revoked;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        revocationList = new RevocationList.Builder().withExpectedSize(REVOKED).build();
+        map = new ConcurrentHashMap<>();
+        revoked = new String[CHECKED];
+
+        long expirationTime = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        for (int i = 0; i < REVOKED; i++) {
+            String id = UUID.randomUUID().toString();
+            revocationList.revoke(id, expirationTime);
+            map.put(id, expirationTime);
+            if (i < CHECKED) revoked[i] = id;
+        }
+
+        notRevoked = new String[CHECKED];
+        for (int i = 0; i < CHECKED; i++)
+            notRevoked[i] = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revocationList.isRevoked(notRevoked[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean notRevokedMap() {
+        return map.containsKey(notRevoked[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocationList.isRevoked(revoked[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean revokedMap() {
+        return map.containsKey(revoked[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (CHECKED - 1);
+        return next;
+    }
+}
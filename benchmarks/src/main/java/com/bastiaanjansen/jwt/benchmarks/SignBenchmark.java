@@ -0,0 +1,61 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.Payload;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JWT.Builder#sign()} for every algorithm and payload size, and writing the token into
+ * a reused array and direct buffer.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignBenchmark {
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "RS384", "RS512", "ES256", "ES384", "ES512", "EdDSA"})
+    public String algorithmName;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PayloadSize payloadSize;
+
+    private Algorithm algorithm;
+    private Payload payload;
+    private byte[] array;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        algorithm = Fixtures.algorithm(algorithmName);
+        payload = Fixtures.payload(payloadSize);
+        array = new byte[64 * 1024];
+        buffer = ByteBuffer.allocateDirect(64 * 1024);
+    }
+
+    @Benchmark
+    public String sign() throws JWTCreationException {
+        return new JWT.Builder(algorithm).withPayload(payload).sign();
+    }
+
+    @Benchmark
+    public int signIntoArray() throws JWTCreationException {
+        return new JWT.Builder(algorithm).withPayload(payload).sign(array, 0);
+    }
+
+    @Benchmark
+    public int signIntoDirectBuffer() throws JWTCreationException {
+        buffer.clear();
+        new JWT.Builder(algorithm).withPayload(payload).sign(buffer);
+        return buffer.position();
+    }
+}
@@ -0,0 +1,73 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.JWTTemplate;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares issuing tokens with the same header and fixed claims through {@link JWT.Builder} and through
+ * a {@link JWTTemplate}. Every token has its own subject, ID and time claims.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateBenchmark {
+
+    private static final long TIME_TO_LIVE = Duration.ofMinutes(5).toMillis();
+
+    @Param({"HS256", "HS512", "ES256"})
+    public String algorithmName;
+
+    private Algorithm algorithm;
+    private JWTTemplate template;
+    private long counter;
+
+    @Setup
+    public void setUp() {
+        algorithm = Fixtures.algorithm(algorithmName);
+        template = new JWTTemplate.Builder(algorithm)
+                .withKeyId("2024-01")
+                .withIssuer("https://issuer.example.com")
+                .withAudience("api")
+                .withClaim("scope", "read write")
+                .withTimeToLive(Duration.ofMinutes(5))
+                .build();
+    }
+
+    @Benchmark
+    public String builder() throws JWTCreationException {
+        long now = System.currentTimeMillis();
+
+        return new JWT.Builder(algorithm)
+                .withKeyId("2024-01")
+                .withIssuer("https://issuer.example.com")
+                .withAudience("api")
+                .withClaim("scope", "read write")
+                .withIssuedAt(now)
+                .withExpirationTime(now + TIME_TO_LIVE)
+                .withSubject("user-" + (counter & 1023))
+                .withID(Long.toString(counter++))
+                .sign();
+    }
+
+    @Benchmark
+    public String template() throws JWTCreationException {
+        Map<String, Object> claims = new HashMap<>(4);
+        claims.put("sub", "user-" + (counter & 1023));
+        claims.put("jti", Long.toString(counter++));
+
+        return template.sign(claims);
+    }
+}
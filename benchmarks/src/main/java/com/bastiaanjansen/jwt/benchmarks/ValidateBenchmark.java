@@ -0,0 +1,81 @@
+package com.bastiaanjansen.jwt.benchmarks;
+
+import com.bastiaanjansen.jwt.DefaultJWTValidator;
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.JWTValidator;
+import com.bastiaanjansen.jwt.VerifiedJWTCache;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DefaultJWTValidator#validate(JWT)} on an already parsed token, the full parse and
+ * validate path a server runs for every incoming request, and the same path for a repeated token with a
+ * {@link VerifiedJWTCache}.
+ *
+ * A parsed JWT remembers a valid signature, so {@code validate} gets a freshly parsed token for every
+ * invocation and still verifies its signature, as it did before parsed tokens remembered it.
+ *
+ * @author Bastiaan Jansen
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidateBenchmark {
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "RS384", "RS512", "ES256", "ES384", "ES512", "EdDSA"})
+    public String algorithmName;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PayloadSize payloadSize;
+
+    private Algorithm algorithm;
+    private String token;
+    private JWTValidator validator;
+    private VerifiedJWTCache cache;
+
+    @Setup
+    public void setUp() throws JWTCreationException, JWTDecodeException {
+        algorithm = Fixtures.algorithm(algorithmName);
+        token = new JWT.Builder(algorithm).withPayload(Fixtures.payload(payloadSize)).sign();
+        validator = new DefaultJWTValidator.Builder()
+                .withType("JWT")
+                .withIssuer("https://issuer.example.com")
+                .build();
+        cache = new VerifiedJWTCache.Builder(algorithm).withValidator(validator).build();
+    }
+
+    @State(Scope.Thread)
+    public static class ParsedToken {
+        private JWT jwt;
+
+        @Setup(Level.Invocation)
+        public void parse(ValidateBenchmark benchmark) throws JWTCreationException, JWTDecodeException {
+            jwt = JWT.fromRawJWT(benchmark.algorithm, benchmark.token);
+        }
+    }
+
+    @Benchmark
+    public void validate(ParsedToken parsed) throws JWTValidationException {
+        validator.validate(parsed.jwt);
+    }
+
+    @Benchmark
+    public JWT parseAndValidate() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        JWT parsed = JWT.fromRawJWT(algorithm, token);
+        validator.validate(parsed);
+        return parsed;
+    }
+
+    @Benchmark
+    public JWT validateCached() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        return cache.validate(token);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bastiaanjansen.jwt.micrometer;
+
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
+import com.bastiaanjansen.jwt.metrics.JWTListener;
+import com.bastiaanjansen.jwt.metrics.Operation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener which records every operation in a timer of a Micrometer registry. All timers are named
+ * {@code jwt.operations} and tagged with the operation, the algorithm, the outcome and, for failures, the
+ * reason. Timers are created once and cached, so recording does not look them up in the registry.
+ *
+ * <pre>{@code
+ * JWTMetrics.setListener(new MicrometerJWTListener(registry));
+ * }</pre>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class MicrometerJWTListener implements JWTListener {
+
+    public static final String METER_NAME = "jwt.operations";
+
+    private static final int SUCCESS = 0;
+
+    private final MeterRegistry registry;
+
+    // Per operation and algorithm: the success timer followed by a failure timer per reason
+    private final Map<Operation, ConcurrentMap<String, Timer[]>> timers = new EnumMap<>(Operation.class);
+
+    public MicrometerJWTListener(MeterRegistry registry) {
+        if (registry == null) throw new IllegalArgumentException("registry cannot be null");
+        this.registry = registry;
+
+        for (Operation operation: Operation.values())
+            timers.put(operation, new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public void onSuccess(Operation operation, String algorithm, long nanos) {
+        timer(operation, algorithm, SUCCESS, null).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onFailure(Operation operation, String algorithm, FailureReason reason, long nanos) {
+        timer(operation, algorithm, reason.ordinal() + 1, reason).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(Operation operation, String algorithm, int index, FailureReason reason) {
+        ConcurrentMap<String, Timer[]> byAlgorithm = timers.get(operation);
+
+        Timer[] forAlgorithm = byAlgorithm.get(algorithm);
+        if (forAlgorithm == null)
+            forAlgorithm = byAlgorithm.computeIfAbsent(algorithm, key -> new Timer[FailureReason.values().length + 1]);
+
+        Timer timer = forAlgorithm[index];
+        if (timer == null) {
+            // Registering twice returns the same timer, so a race only costs a lookup
+            timer = Timer.builder(METER_NAME)
+                    .description("Sign, parse and validate operations on JWT's")
+                    .tag("operation", tagValue(operation.name()))
+                    .tag("algorithm", algorithm)
+                    .tag("outcome", reason == null ? "success" : "failure")
+                    .tag("reason", reason == null ? "none" : tagValue(reason.name()))
+                    .register(registry);
+            forAlgorithm[index] = timer;
+        }
+
+        return timer;
+    }
+
+    private static String tagValue(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bastiaanjansen.jwt.micrometer;
+
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTException;
+import com.bastiaanjansen.jwt.exceptions.JWTExpiredException;
+import com.bastiaanjansen.jwt.metrics.JWTListener;
+import com.bastiaanjansen.jwt.metrics.JWTMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicrometerJWTListenerTest {
+
+    private final Algorithm algorithm = Algorithm.HMAC256("secret");
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        JWTMetrics.setListener(new MicrometerJWTListener(registry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        JWTMetrics.setListener(JWTListener.NONE);
+    }
+
+    @Test
+    void sign_recordsSuccessTimer() throws JWTException {
+        new JWT.Builder(algorithm).withIssuer("issuer").sign();
+        new JWT.Builder(algorithm).withIssuer("issuer").sign();
+
+        Timer timer = registry.get(MicrometerJWTListener.METER_NAME)
+                .tags("operation", "sign", "algorithm", "HS256", "outcome", "success")
+                .timer();
+
+        assertThat(timer.count(), is(2L));
+    }
+
+    @Test
+    void validateExpired_recordsFailureTimerWithReason() throws JWTException {
+        JWT jwt = new JWT.Builder(algorithm).withExpirationTime(new Date(System.currentTimeMillis() - 60_000)).build();
+
+        assertThrows(JWTExpiredException.class, jwt::validate);
+
+        Timer timer = registry.get(MicrometerJWTListener.METER_NAME)
+                .tags("operation", "validate", "outcome", "failure", "reason", "expired")
+                .timer();
+
+        assertThat(timer.count(), is(1L));
+    }
+
+    @Test
+    void nullRegistry_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new MicrometerJWTListener(null));
+    }
+}
@@ -0,0 +1,157 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable set of algorithms, looked up by the algorithm (alg) and key ID (kid) in the header of a JWT.
+ * Algorithms are registered with their keys already initialised, and found through a single lookup in a
+ * hash table. Because the registry never changes after it is built, it can be read by any number of
+ * threads without locking.
+ *
+ * <p>An algorithm registered without key ID is used for tokens without key ID. Tokens are only
+ * resolved to an algorithm of the same name as their alg header, so a token can never select another
+ * kind of algorithm than the key was registered for.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class AlgorithmRegistry implements KeyResolver {
+
+    private final String[] names;
+    private final String[] keyIds;
+    private final Algorithm[] algorithms;
+    private final int mask;
+    private final int size;
+
+    private AlgorithmRegistry(Builder builder) {
+        this.size = builder.algorithms.size();
+
+        int capacity = Integer.highestOneBit(Math.max(1, size * 2 - 1)) << 1;
+        this.names = new String[capacity];
+        this.keyIds = new String[capacity];
+        this.algorithms = new Algorithm[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < size; i++) {
+            String keyId = builder.keyIds.get(i);
+            Algorithm algorithm = builder.algorithms.get(i);
+
+            int slot = slotOf(algorithm.getName(), keyId);
+            while (algorithms[slot] != null) slot = (slot + 1) & mask;
+
+            names[slot] = algorithm.getName();
+            keyIds[slot] = keyId;
+            algorithms[slot] = algorithm;
+        }
+    }
+
+    @Override
+    public Algorithm resolve(Header header) {
+        return resolve(header.getAlgorithm(), header.getKeyId());
+    }
+
+    /**
+     * Find an algorithm by name and key ID
+     *
+     * @param name name of the algorithm, for example RS256
+     * @param keyId key ID, or null for an algorithm registered without key ID
+     * @return the algorithm, or null when none is registered
+     */
+    public Algorithm resolve(String name, String keyId) {
+        int slot = indexOf(name, keyId);
+        return slot < 0 ? null : algorithms[slot];
+    }
+
+    /**
+     * Find the slot of an algorithm, so other tables of the same capacity can keep data per algorithm
+     *
+     * @return the slot, or -1 when no algorithm is registered for the name and key ID
+     */
+    int indexOf(String name, String keyId) {
+        if (name == null) return -1;
+
+        for (int slot = slotOf(name, keyId); algorithms[slot] != null; slot = (slot + 1) & mask) {
+            if (name.equals(names[slot]) && Objects.equals(keyId, keyIds[slot]))
+                return slot;
+        }
+
+        return -1;
+    }
+
+    int capacity() {
+        return algorithms.length;
+    }
+
+    /**
+     * @return number of registered algorithms
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slotOf(String name, String keyId) {
+        int hash = name.hashCode() * 31 + Objects.hashCode(keyId);
+        hash *= 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    public static class Builder {
+        private final List<String> keyIds = new ArrayList<>();
+        private final List<Algorithm> algorithms = new ArrayList<>();
+
+        /**
+         * Register an algorithm for tokens without key ID
+         *
+         * @param algorithm algorithm with its key
+         * @return the same builder instance
+         */
+        public Builder withAlgorithm(Algorithm algorithm) {
+            return withAlgorithm(null, algorithm);
+        }
+
+        /**
+         * Register an algorithm for tokens with a key ID
+         *
+         * @param keyId key ID, or null for tokens without key ID
+         * @param algorithm algorithm with its key
+         * @return the same builder instance
+         * @throws IllegalArgumentException when an algorithm with the same name and key ID is already registered
+         */
+        public Builder withAlgorithm(String keyId, Algorithm algorithm) {
+            if (algorithm == null) throw new IllegalArgumentException("algorithm cannot be null");
+
+            for (int i = 0; i < algorithms.size(); i++) {
+                if (algorithms.get(i).getName().equals(algorithm.getName()) && Objects.equals(keyIds.get(i), keyId))
+                    throw new IllegalArgumentException("An algorithm for " + algorithm.getName() + " and key ID " + keyId + " is already registered");
+            }
+
+            keyIds.add(keyId);
+            algorithms.add(algorithm);
+            return this;
+        }
+
+        /**
+         * Register all algorithms of another registry
+         *
+         * @param registry registry to copy from
+         * @return the same builder instance
+         */
+        public Builder withAlgorithms(AlgorithmRegistry registry) {
+            if (registry == null) throw new IllegalArgumentException("registry cannot be null");
+
+            for (int slot = 0; slot < registry.algorithms.length; slot++) {
+                if (registry.algorithms[slot] != null)
+                    withAlgorithm(registry.keyIds[slot], registry.algorithms[slot]);
+            }
+
+            return this;
+        }
+
+        public AlgorithmRegistry build() {
+            return new AlgorithmRegistry(this);
+        }
+    }
+}
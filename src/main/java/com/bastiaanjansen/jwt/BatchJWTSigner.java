@@ -0,0 +1,187 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Signs many payloads in parallel, for example when a batch job issues tokens for all users. Tokens are
+ * handed to a sink on the calling thread, in the same order as the payloads.
+ *
+ * <p>Payloads are read in windows. Every window is signed in parallel on the common fork-join pool by
+ * default, or on a caller supplied executor, and then written to the sink before the next window is
+ * read, so a stream of any length is signed with bounded memory. Every worker borrows its own
+ * initialised signing engine from the {@link Algorithm}, and the header is encoded once by a
+ * {@link JWTTemplate}.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class BatchJWTSigner {
+
+    private final JWTTemplate template;
+    private final Executor executor;
+    private final int windowSize;
+
+    private BatchJWTSigner(Builder builder) {
+        this.template = builder.template != null ? builder.template : new JWTTemplate.Builder(builder.algorithm).build();
+        this.executor = builder.executor;
+        this.windowSize = builder.windowSize;
+    }
+
+    /**
+     * Sign payloads
+     *
+     * @param payloads claims of every token
+     * @return a token for every payload, in the same order as the payloads
+     * @throws IllegalArgumentException when a payload is null or contains a fixed claim of the template
+     * @throws JWTCreationException when a token could not be created
+     */
+    public List<String> sign(Collection<? extends Payload> payloads) throws JWTCreationException {
+        List<String> tokens = new ArrayList<>(payloads.size());
+        sign(payloads.iterator(), tokens::add);
+        return Collections.unmodifiableList(tokens);
+    }
+
+    /**
+     * Sign payloads and hand every token to a sink, in the same order as the payloads
+     *
+     * @param payloads claims of every token
+     * @param sink receives the tokens on the calling thread
+     * @throws JWTCreationException when a token could not be created, the tokens of all payloads before
+     * it have been handed to the sink
+     */
+    public void sign(Iterable<? extends Payload> payloads, Consumer<? super String> sink) throws JWTCreationException {
+        sign(payloads.iterator(), sink);
+    }
+
+    /**
+     * Sign a stream of payloads and hand every token to a sink, in the same order as the payloads. The
+     * stream is consumed on the calling thread, one window at a time.
+     *
+     * @param payloads claims of every token
+     * @param sink receives the tokens on the calling thread
+     * @throws JWTCreationException when a token could not be created, the tokens of all payloads before
+     * it have been handed to the sink
+     */
+    public void sign(Stream<? extends Payload> payloads, Consumer<? super String> sink) throws JWTCreationException {
+        sign(payloads.iterator(), sink);
+    }
+
+    private void sign(Iterator<? extends Payload> payloads, Consumer<? super String> sink) throws JWTCreationException {
+        if (sink == null) throw new IllegalArgumentException("sink cannot be null");
+
+        Payload[] window = new Payload[windowSize];
+        Object[] results = new Object[windowSize];
+
+        while (payloads.hasNext()) {
+            int size = 0;
+            while (size < windowSize && payloads.hasNext()) {
+                Payload payload = payloads.next();
+                if (payload == null) throw new IllegalArgumentException("payload cannot be null");
+                window[size++] = payload;
+            }
+
+            signWindow(window, results, size);
+
+            for (int i = 0; i < size; i++) {
+                Object result = results[i];
+                if (result instanceof JWTCreationException) throw (JWTCreationException) result;
+                if (result instanceof RuntimeException) throw (RuntimeException) result;
+
+                sink.accept((String) result);
+                window[i] = null;
+                results[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Sign the first size payloads of a window. Every result is a token, or the exception of a payload
+     * which could not be signed, which is thrown on the calling thread once the tokens before it are
+     * handed to the sink.
+     */
+    private void signWindow(Payload[] window, Object[] results, int size) {
+        ParallelRanges.forEach(executor, size, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                try {
+                    results[i] = template.sign(window[i]);
+                } catch (JWTCreationException | RuntimeException e) {
+                    results[i] = e;
+                }
+            }
+        });
+    }
+
+    public static class Builder {
+        private final Algorithm algorithm;
+        private final JWTTemplate template;
+        private Executor executor;
+        private int windowSize = 4096;
+
+        /**
+         * Creates a new batch signer builder for tokens with only an algorithm (alg) and type (typ) in
+         * their header
+         *
+         * @param algorithm algorithm to sign with
+         */
+        public Builder(Algorithm algorithm) {
+            if (algorithm == null) throw new IllegalArgumentException("Algorithm must not be null");
+
+            this.algorithm = algorithm;
+            this.template = null;
+            this.executor = ForkJoinPool.commonPool();
+        }
+
+        /**
+         * Creates a new batch signer builder for tokens with the header, fixed claims and time to live of
+         * a template
+         *
+         * @param template template every token is issued with
+         */
+        public Builder(JWTTemplate template) {
+            if (template == null) throw new IllegalArgumentException("template cannot be null");
+
+            this.algorithm = template.getAlgorithm();
+            this.template = template;
+            this.executor = ForkJoinPool.commonPool();
+        }
+
+        /**
+         * Executor to sign tokens on, the common fork-join pool by default. A {@link ForkJoinPool} splits
+         * every window by work stealing, other executors get it in equal parts.
+         *
+         * @param executor executor
+         * @return the same builder instance
+         */
+        public Builder withExecutor(Executor executor) {
+            if (executor == null) throw new IllegalArgumentException("executor cannot be null");
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Number of payloads signed in parallel before their tokens are handed to the sink, 4096 by default
+         *
+         * @param windowSize number of payloads
+         * @return the same builder instance
+         */
+        public Builder withWindowSize(int windowSize) {
+            if (windowSize < 1) throw new IllegalArgumentException("windowSize must be positive");
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        public BatchJWTSigner build() {
+            return new BatchJWTSigner(this);
+        }
+    }
+}
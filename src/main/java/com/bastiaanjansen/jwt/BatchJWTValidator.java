@@ -0,0 +1,119 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parses, verifies and validates many raw JWT's in parallel. Every token gets its own
+ * {@link ValidationResult}, so one invalid token does not stop the batch and nothing is thrown.
+ *
+ * <p>Tokens are spread over the common fork-join pool by default, or over a caller supplied executor.
+ * Signatures are verified before anything is decoded, and the initialised crypto engines of the
+ * {@link Algorithm} are reused by all workers.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class BatchJWTValidator {
+
+    private final Algorithm algorithm;
+    private final JWTValidator validator;
+    private final Executor executor;
+
+    private BatchJWTValidator(Builder builder) {
+        this.algorithm = builder.algorithm;
+        this.validator = builder.validator;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Validate raw JWT's
+     *
+     * @param tokens raw JWT's
+     * @return a result for every token, in the same order as the tokens
+     */
+    public List<ValidationResult> validate(Collection<? extends CharSequence> tokens) {
+        return validate(tokens.toArray(new CharSequence[0]));
+    }
+
+    /**
+     * Validate raw JWT's
+     *
+     * @param tokens raw JWT's
+     * @return a result for every token, in the same order as the tokens
+     */
+    public List<ValidationResult> validate(CharSequence[] tokens) {
+        ValidationResult[] results = new ValidationResult[tokens.length];
+
+        ParallelRanges.forEach(executor, tokens.length, (from, to) -> {
+            for (int i = from; i < to; i++)
+                results[i] = validate(tokens[i]);
+        });
+
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Validate a single raw JWT, the same way tokens in a batch are validated
+     *
+     * @param token raw JWT
+     * @return the result
+     */
+    public ValidationResult validate(CharSequence token) {
+        ValidationResult parsed = JWT.tryFromVerifiedRawJWT(algorithm, token);
+        return parsed.isValid() ? validator.check(parsed.getJWT()) : parsed;
+    }
+
+    public static class Builder {
+        private final Algorithm algorithm;
+        private JWTValidator validator;
+        private Executor executor;
+
+        /**
+         * Creates a new batch validator builder
+         *
+         * @param algorithm algorithm the JWT's are signed with
+         */
+        public Builder(Algorithm algorithm) {
+            if (algorithm == null) throw new IllegalArgumentException("Algorithm must not be null");
+
+            this.algorithm = algorithm;
+            this.validator = DefaultJWTValidator.DEFAULT;
+            this.executor = ForkJoinPool.commonPool();
+        }
+
+        /**
+         * Validator every token is validated with, the {@link DefaultJWTValidator} by default
+         *
+         * @param validator JWT validator
+         * @return the same builder instance
+         */
+        public Builder withValidator(JWTValidator validator) {
+            if (validator == null) throw new IllegalArgumentException("validator cannot be null");
+            this.validator = validator;
+            return this;
+        }
+
+        /**
+         * Executor to validate tokens on, the common fork-join pool by default. A {@link ForkJoinPool}
+         * splits the batch by work stealing, other executors get the batch in equal parts.
+         *
+         * @param executor executor
+         * @return the same builder instance
+         */
+        public Builder withExecutor(Executor executor) {
+            if (executor == null) throw new IllegalArgumentException("executor cannot be null");
+            this.executor = executor;
+            return this;
+        }
+
+        public BatchJWTValidator build() {
+            return new BatchJWTValidator(this);
+        }
+    }
+}
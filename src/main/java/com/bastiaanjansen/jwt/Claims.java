@@ -1,30 +1,72 @@
 package com.bastiaanjansen.jwt;
 
+import com.bastiaanjansen.jwt.json.JSONCodecs;
+import com.bastiaanjansen.jwt.schema.ClaimsCodec;
 import com.bastiaanjansen.jwt.utils.Base64Utils;
-import org.json.JSONObject;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Claims {
-    private final Registered[] registeredDateClaims = { Registered.EXPIRATION_TIME, Registered.ISSUED_AT, Registered.NOT_BEFORE };
+    // Returned by lookupClaim for claims which are not present
+    static final Object ABSENT = new Object();
+
+    // Names of the registered claims which hold a time in milliseconds since epoch
+    static final String[] TIME_CLAIMS = {
+            Registered.EXPIRATION_TIME.getValue(),
+            Registered.NOT_BEFORE.getValue(),
+            Registered.ISSUED_AT.getValue()
+    };
+
     protected final Map<String, Object> claims;
 
+    // Decoded claims which have not been parsed into the claims map yet. Reading a claim only parses
+    // its value, the index is merged into the map when the claims are modified.
+    private ClaimsIndex index;
+
+    private boolean readOnly;
+
     protected Claims() {
-        claims = new HashMap<>();
+        claims = new ClaimsMap();
+    }
+
+    Claims(ClaimsIndex index) {
+        this();
+        this.index = index;
     }
 
     public boolean containsClaim(String name) {
-        return claims.containsKey(name);
+        return claims.containsKey(name) || (index != null && index.contains(name));
     }
 
     public Map<String, Object> getAsMap() {
-        return new HashMap<>(claims);
+        Map<String, Object> map = new HashMap<>(claims);
+        if (index != null) index.putAllInto(map);
+        return map;
     }
 
     public String base64Encoded() {
-        String json = new JSONObject(claims).toString();
-        return Base64Utils.encodeBase64URL(json);
+        return Base64Utils.encodeBase64URL(json());
+    }
+
+    /**
+     * Read the claims as a typed object. Decoded claims are read straight from their JSON.
+     *
+     * @param codec codec generated for the type, see {@link com.bastiaanjansen.jwt.schema.ClaimsSchema}
+     * @param <T> type of the claims
+     * @return the claims
+     * @throws IllegalArgumentException when a claim has an unexpected type
+     */
+    public <T> T read(ClaimsCodec<T> codec) {
+        byte[] json = json();
+        return codec.decode(json, 0, json.length);
+    }
+
+    /**
+     * @return the claims as JSON. Not a copy.
+     */
+    byte[] json() {
+        // Claims which were not modified since they were decoded are encoded as they were
+        return index != null ? index.json() : JSONCodecs.getDefault().encode(claims);
     }
 
     /**
@@ -37,32 +79,88 @@ public class Claims {
      */
     @SuppressWarnings("unchecked")
     public <T> T getClaim(String name, Class<T> type) {
-        Object value = claims.get(name);
-
-        boolean isDateClaim = Arrays.stream(registeredDateClaims)
-                .map(Claims.Registered::getValue)
-                .collect(Collectors.toList())
-                .contains(name);
-
-        if (isDateClaim) {
-            long millisSinceEpoch = Long.parseLong(String.valueOf(value));
-            return (T) new Date(millisSinceEpoch);
-        }
+        if (isDateClaim(name))
+            return (T) new Date(getTimeClaim(name));
 
-        return type.cast(value);
+        return type.cast(getClaimValue(name));
     }
 
     public <T> T getClaim(String name, ClaimConverter<T> converter) {
-        Object value = claims.get(name);
+        Object value = getClaimValue(name);
         return converter.convert(value);
     }
 
     public void addClaim(String name, Object value) {
         if (name == null) throw new IllegalArgumentException("name cannot be null");
         if (value == null) throw new IllegalArgumentException("value cannot be null");
+        if (readOnly) throw new UnsupportedOperationException("Claims are read-only");
+
+        if (index != null) {
+            index.putAllInto(claims);
+            index = null;
+        }
+
         claims.put(name, value);
     }
 
+    /**
+     * @return whether the claims were decoded and have not been modified since, so they are encoded as
+     * the JSON they were decoded from
+     */
+    boolean isDecoded() {
+        return index != null;
+    }
+
+    /**
+     * Reject any further changes, for claims which are shared between threads
+     */
+    void makeReadOnly() {
+        readOnly = true;
+    }
+
+    private boolean isDateClaim(String name) {
+        for (String claim: TIME_CLAIMS) {
+            if (claim.equals(name)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get a time claim in milliseconds since epoch
+     *
+     * @param name name of the claim
+     * @return value of the claim
+     */
+    long getTimeClaim(String name) {
+        // Parsed time claims are decoded as a primitive long, without boxing or formatting them first
+        if (index != null && index.contains(name))
+            return index.getLong(name);
+
+        return ((ClaimsMap) claims).getLong(name);
+    }
+
+    /**
+     * Look up a claim once, telling absent claims apart from claims which are null
+     *
+     * @param name name of the claim
+     * @return value of the claim, or {@link #ABSENT} when the claim is not present
+     */
+    Object lookupClaim(String name) {
+        if (index != null) {
+            Object value = index.get(name, ABSENT);
+            if (value != ABSENT) return value;
+        }
+
+        Object value = claims.get(name);
+        return value != null || claims.containsKey(name) ? value : ABSENT;
+    }
+
+    private Object getClaimValue(String name) {
+        // Claims in the index are never in the map as well, so a miss in the index falls back to the map
+        Object value = index != null ? index.get(name) : null;
+        return value != null ? value : claims.get(name);
+    }
+
     public enum Registered {
         ISSUER("iss"),
         SUBJECT("sub"),
@@ -73,7 +171,8 @@ public class Claims {
         JWT_ID("jti"),
         TYPE("typ"),
         CONTENT_TYPE("cty"),
-        ALGORITHM("alg");
+        ALGORITHM("alg"),
+        KEY_ID("kid");
 
         private final String value;
 
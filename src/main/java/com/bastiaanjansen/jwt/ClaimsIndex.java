@@ -0,0 +1,516 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.json.JSONCodec;
+import com.bastiaanjansen.jwt.json.JSONCodecs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Index of the top-level members of a decoded JSON object. Building the index checks that the JSON is
+ * well-formed and records where every key and value starts and ends, without creating any objects for
+ * them. A single claim can then be read by decoding only its value with a {@link JSONCodec}. Decoded
+ * values are kept, so reading the same claim again returns the same object without decoding it again.
+ *
+ * @author Bastiaan Jansen
+ */
+final class ClaimsIndex {
+
+    // Per member: key start, key end (both without quotes), value start, value end
+    private static final int STRIDE = 4;
+
+    // Decoded JSON null, to tell it apart from a value which was not decoded yet
+    private static final Object NULL = new Object();
+
+    private final byte[] json;
+    private final JSONCodec codec;
+    private int[] entries;
+    private int size;
+    private boolean escapedKeys;
+
+    // Decoded values per member, filled when first read
+    private AtomicReferenceArray<Object> decoded;
+
+    // Members which were decoded as long up front, see decodeLongs. Bit i of decodedLongs is set when
+    // longs[i] holds the value of the member named longNames[i].
+    private String[] longNames;
+    private long[] longs;
+    private int decodedLongs;
+
+    private int position;
+
+    private ClaimsIndex(byte[] json, JSONCodec codec) {
+        this.json = json;
+        this.codec = codec;
+        this.entries = new int[STRIDE * 8];
+    }
+
+    /**
+     * Index a JSON object
+     *
+     * @param json UTF-8 encoded JSON object
+     * @return index of the members of the object
+     * @throws IllegalArgumentException when the JSON is not a well-formed object or has duplicate keys
+     */
+    static ClaimsIndex of(byte[] json) {
+        return of(json, JSONCodecs.getDefault());
+    }
+
+    /**
+     * Index a JSON object
+     *
+     * @param json UTF-8 encoded JSON object
+     * @param codec codec to decode values with
+     * @return index of the members of the object
+     * @throws IllegalArgumentException when the JSON is not a well-formed object or has duplicate keys
+     */
+    static ClaimsIndex of(byte[] json, JSONCodec codec) {
+        ClaimsIndex index = new ClaimsIndex(json, codec);
+        index.parseObject();
+        index.entries = Arrays.copyOf(index.entries, index.size * STRIDE);
+        index.decoded = new AtomicReferenceArray<>(index.size);
+        return index;
+    }
+
+    /**
+     * Decode members as primitive longs up front, so reading them with {@link #getLong(String)} does not
+     * decode or box them. Members which are absent or not a number are skipped. Must be called before the
+     * index is shared.
+     *
+     * @param names names of the members, at most 32
+     */
+    void decodeLongs(String[] names) {
+        long[] values = null;
+        int decodedMask = 0;
+
+        for (int i = 0; i < names.length; i++) {
+            int entry = find(names[i]);
+            if (entry < 0) continue;
+
+            int start = entries[entry * STRIDE + 2];
+            int end = entries[entry * STRIDE + 3];
+
+            try {
+                long value = codec.decodeLong(json, start, end - start);
+                if (values == null) values = new long[names.length];
+                values[i] = value;
+                decodedMask |= 1 << i;
+            } catch (IllegalArgumentException e) {
+                // Left to getLong, which reports it when the member is read
+            }
+        }
+
+        this.longNames = names;
+        this.longs = values;
+        this.decodedLongs = decodedMask;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the indexed JSON, which must not be modified
+     */
+    byte[] json() {
+        return json;
+    }
+
+    boolean contains(String name) {
+        return find(name) >= 0;
+    }
+
+    /**
+     * Parse the value of a member
+     *
+     * @param name name of the member
+     * @return parsed value, or null when the member is absent or null
+     */
+    Object get(String name) {
+        return get(name, null);
+    }
+
+    /**
+     * Parse the value of a member
+     *
+     * @param name name of the member
+     * @param absent value to return when the member is absent
+     * @return parsed value, null when the member is null or absent when the member is absent
+     */
+    Object get(String name, Object absent) {
+        int entry = find(name);
+        return entry < 0 ? absent : value(entry);
+    }
+
+    /**
+     * Parse the value of a member as a long. Codecs which support it parse the number without creating an
+     * intermediate string or number object.
+     *
+     * @param name name of the member
+     * @return parsed value
+     * @throws IllegalArgumentException when the member is absent or not a number
+     */
+    long getLong(String name) {
+        if (decodedLongs != 0) {
+            for (int i = 0; i < longNames.length; i++) {
+                if ((decodedLongs & 1 << i) != 0 && longNames[i].equals(name))
+                    return longs[i];
+            }
+        }
+
+        int entry = find(name);
+        if (entry < 0) throw new IllegalArgumentException("No member named " + name);
+
+        int start = entries[entry * STRIDE + 2];
+        int end = entries[entry * STRIDE + 3];
+        return codec.decodeLong(json, start, end - start);
+    }
+
+    /**
+     * Parse all members
+     *
+     * @param target map to put the members in
+     */
+    void putAllInto(Map<String, Object> target) {
+        for (int entry = 0; entry < size; entry++)
+            target.put(key(entry), value(entry));
+    }
+
+    private int find(String name) {
+        // Keys without escapes can be compared byte by byte with ASCII names, other keys are decoded first
+        boolean decode = escapedKeys || !isASCII(name);
+
+        for (int entry = 0; entry < size; entry++) {
+            if (decode ? key(entry).equals(name) : asciiKeyEquals(entry, name))
+                return entry;
+        }
+
+        return -1;
+    }
+
+    private boolean asciiKeyEquals(int entry, String name) {
+        int start = entries[entry * STRIDE];
+        int end = entries[entry * STRIDE + 1];
+
+        if (end - start != name.length())
+            return false;
+
+        for (int i = 0; i < name.length(); i++) {
+            if (json[start + i] != name.charAt(i))
+                return false;
+        }
+
+        return true;
+    }
+
+    private String key(int entry) {
+        int start = entries[entry * STRIDE];
+        int end = entries[entry * STRIDE + 1];
+
+        if (!escapedKeys)
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+
+        // Decode the key including its quotes
+        return (String) codec.decode(json, start - 1, end - start + 2);
+    }
+
+    private Object value(int entry) {
+        Object value = decoded.get(entry);
+
+        if (value == null) {
+            int start = entries[entry * STRIDE + 2];
+            int end = entries[entry * STRIDE + 3];
+            Object decodedValue = codec.decode(json, start, end - start);
+            value = remember(entry, decodedValue == null ? NULL : decodedValue);
+        }
+
+        return value == NULL ? null : value;
+    }
+
+    /**
+     * Keep a decoded value. When another thread decoded the same value first, its value is kept instead, so
+     * every reader gets the same object.
+     */
+    private Object remember(int slot, Object value) {
+        return decoded.compareAndSet(slot, null, value) ? value : decoded.get(slot);
+    }
+
+    private static boolean isASCII(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0x7F) return false;
+        }
+        return true;
+    }
+
+    private void parseObject() {
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+
+        if (peek() == '}') {
+            position++;
+            expectEnd();
+            return;
+        }
+
+        while (true) {
+            skipWhitespace();
+            expect('"');
+            int keyStart = position;
+            if (skipStringContent()) escapedKeys = true;
+            int keyEnd = position - 1;
+
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+
+            int valueStart = position;
+            skipValue(0);
+            add(keyStart, keyEnd, valueStart, position);
+
+            skipWhitespace();
+            byte next = next();
+            if (next == '}') break;
+            if (next != ',') throw error();
+        }
+
+        expectEnd();
+        checkDuplicateKeys();
+    }
+
+    private void add(int keyStart, int keyEnd, int valueStart, int valueEnd) {
+        if ((size + 1) * STRIDE > entries.length) {
+            int[] grown = new int[entries.length * 2];
+            System.arraycopy(entries, 0, grown, 0, entries.length);
+            entries = grown;
+        }
+
+        int offset = size * STRIDE;
+        entries[offset] = keyStart;
+        entries[offset + 1] = keyEnd;
+        entries[offset + 2] = valueStart;
+        entries[offset + 3] = valueEnd;
+        size++;
+    }
+
+    private void checkDuplicateKeys() {
+        if (escapedKeys || size <= 16) {
+            for (int i = 1; i < size; i++) {
+                for (int j = 0; j < i; j++) {
+                    if (rawKeyEquals(i, j) || (escapedKeys && key(i).equals(key(j))))
+                        throw new IllegalArgumentException("Duplicate key " + key(i));
+                }
+            }
+            return;
+        }
+
+        // Open addressing on the key hashes, slots hold entry + 1 so zero means empty
+        int[] slots = new int[Integer.highestOneBit(size) << 2];
+        int mask = slots.length - 1;
+
+        for (int i = 0; i < size; i++) {
+            int hash = rawKeyHash(i);
+            int slot = (hash ^ (hash >>> 16)) & mask;
+
+            while (slots[slot] != 0) {
+                if (rawKeyEquals(i, slots[slot] - 1))
+                    throw new IllegalArgumentException("Duplicate key " + key(i));
+                slot = (slot + 1) & mask;
+            }
+
+            slots[slot] = i + 1;
+        }
+    }
+
+    private int rawKeyHash(int entry) {
+        int hash = 0;
+        for (int i = entries[entry * STRIDE]; i < entries[entry * STRIDE + 1]; i++)
+            hash = 31 * hash + json[i];
+        return hash;
+    }
+
+    private boolean rawKeyEquals(int first, int second) {
+        int firstStart = entries[first * STRIDE];
+        int length = entries[first * STRIDE + 1] - firstStart;
+        int secondStart = entries[second * STRIDE];
+
+        if (entries[second * STRIDE + 1] - secondStart != length)
+            return false;
+
+        for (int i = 0; i < length; i++) {
+            if (json[firstStart + i] != json[secondStart + i]) return false;
+        }
+
+        return true;
+    }
+
+    private void skipValue(int depth) {
+        if (depth > 512) throw error();
+
+        byte c = peek();
+        switch (c) {
+            case '"':
+                position++;
+                skipStringContent();
+                break;
+            case '{':
+                position++;
+                skipWhitespace();
+                if (peek() == '}') {
+                    position++;
+                    break;
+                }
+                while (true) {
+                    skipWhitespace();
+                    expect('"');
+                    skipStringContent();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    skipValue(depth + 1);
+                    skipWhitespace();
+                    byte next = next();
+                    if (next == '}') break;
+                    if (next != ',') throw error();
+                }
+                break;
+            case '[':
+                position++;
+                skipWhitespace();
+                if (peek() == ']') {
+                    position++;
+                    break;
+                }
+                while (true) {
+                    skipWhitespace();
+                    skipValue(depth + 1);
+                    skipWhitespace();
+                    byte next = next();
+                    if (next == ']') break;
+                    if (next != ',') throw error();
+                }
+                break;
+            case 't':
+                expectLiteral("true");
+                break;
+            case 'f':
+                expectLiteral("false");
+                break;
+            case 'n':
+                expectLiteral("null");
+                break;
+            default:
+                skipNumber();
+        }
+    }
+
+    /**
+     * Skip the content of a string, the opening quote must already be consumed
+     *
+     * @return whether the string contains escape sequences
+     */
+    private boolean skipStringContent() {
+        boolean escaped = false;
+        byte[] json = this.json;
+
+        while (true) {
+            // Plain characters are skipped in a tight loop, only quotes, escapes and control characters stop it
+            int end = position;
+            while (end < json.length) {
+                byte c = json[end];
+                if (c == '"' || c == '\\' || (c >= 0 && c < 0x20)) break;
+                end++;
+            }
+            position = end;
+
+            byte c = next();
+
+            if (c == '"')
+                return escaped;
+
+            if (c == '\\') {
+                escaped = true;
+                byte escape = next();
+                if (escape == 'u') {
+                    for (int i = 0; i < 4; i++) {
+                        if (Character.digit(next(), 16) < 0) throw error();
+                    }
+                } else if ("\"\\/bfnrt".indexOf(escape) < 0) {
+                    throw error();
+                }
+            } else if (c >= 0 && c < 0x20) {
+                throw error();
+            }
+        }
+    }
+
+    private void skipNumber() {
+        int start = position;
+
+        if (peek() == '-') position++;
+
+        if (peek() == '0') {
+            position++;
+        } else {
+            if (!skipDigits()) throw error();
+        }
+
+        if (position < json.length && json[position] == '.') {
+            position++;
+            if (!skipDigits()) throw error();
+        }
+
+        if (position < json.length && (json[position] == 'e' || json[position] == 'E')) {
+            position++;
+            if (position < json.length && (json[position] == '+' || json[position] == '-')) position++;
+            if (!skipDigits()) throw error();
+        }
+
+        if (position == start) throw error();
+    }
+
+    private boolean skipDigits() {
+        int start = position;
+        while (position < json.length && json[position] >= '0' && json[position] <= '9')
+            position++;
+        return position > start;
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++)
+            expect(literal.charAt(i));
+    }
+
+    private void expectEnd() {
+        skipWhitespace();
+        if (position != json.length) throw error();
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length) {
+            byte c = json[position];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') return;
+            position++;
+        }
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) throw error();
+    }
+
+    private byte peek() {
+        if (position >= json.length) throw error();
+        return json[position];
+    }
+
+    private byte next() {
+        if (position >= json.length) throw error();
+        return json[position++];
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("Malformed JSON at position " + position);
+    }
+}
@@ -0,0 +1,257 @@
+package com.bastiaanjansen.jwt;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact map of claims. The registered time claims exp, nbf and iat are kept in primitive fields when
+ * they are set to a {@link Long}, all other claims are kept in a small open-addressed table which holds
+ * keys and values next to each other. Entries are not backed by separate node objects.
+ *
+ * <p>Like {@link java.util.HashMap} the map is not thread-safe. Entries can not be changed or removed
+ * through its views.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+final class ClaimsMap extends AbstractMap<String, Object> {
+
+    private static final String[] TIME_CLAIMS = Claims.TIME_CLAIMS;
+
+    private static final Object[] EMPTY_TABLE = {};
+    private static final int MINIMUM_CAPACITY = 4;
+
+    private long expirationTime;
+    private long notBefore;
+    private long issuedAt;
+
+    // Bit per entry of TIME_CLAIMS, set when the primitive field holds the claim
+    private int timeClaims;
+
+    // Key at even, value at odd indexes. A slot is empty when its key is null.
+    private Object[] table = EMPTY_TABLE;
+    private int tableSize;
+
+    @Override
+    public int size() {
+        return Integer.bitCount(timeClaims) + tableSize;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int time = timeClaim(key);
+        if (time >= 0 && (timeClaims & 1 << time) != 0) return true;
+        return find(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int time = timeClaim(key);
+        if (time >= 0 && (timeClaims & 1 << time) != 0) return getTime(time);
+
+        int slot = find(key);
+        return slot < 0 ? null : table[slot + 1];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (key == null) throw new IllegalArgumentException("key cannot be null");
+
+        Object previous = remove(key);
+        int time = timeClaim(key);
+
+        if (time >= 0 && value instanceof Long) {
+            setTime(time, (Long) value);
+            timeClaims |= 1 << time;
+        } else {
+            insert(key, value);
+        }
+
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int time = timeClaim(key);
+        if (time >= 0 && (timeClaims & 1 << time) != 0) {
+            timeClaims &= ~(1 << time);
+            return getTime(time);
+        }
+
+        int slot = find(key);
+        if (slot < 0) return null;
+
+        Object previous = table[slot + 1];
+        delete(slot);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        timeClaims = 0;
+        Arrays.fill(table, null);
+        tableSize = 0;
+    }
+
+    /**
+     * Get a time claim without boxing it
+     *
+     * @param key name of the claim
+     * @return value of the claim
+     * @throws NumberFormatException when the claim is absent or not a number
+     */
+    long getLong(String key) {
+        int time = timeClaim(key);
+        if (time >= 0 && (timeClaims & 1 << time) != 0) return getTime(time);
+
+        Object value = get(key);
+        if (value instanceof Long || value instanceof Integer)
+            return ((Number) value).longValue();
+
+        return Long.parseLong(String.valueOf(value));
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new EntrySet();
+    }
+
+    private static int timeClaim(Object key) {
+        for (int i = 0; i < TIME_CLAIMS.length; i++) {
+            if (TIME_CLAIMS[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    private long getTime(int time) {
+        switch (time) {
+            case 0: return expirationTime;
+            case 1: return notBefore;
+            default: return issuedAt;
+        }
+    }
+
+    private void setTime(int time, long value) {
+        switch (time) {
+            case 0: expirationTime = value; break;
+            case 1: notBefore = value; break;
+            default: issuedAt = value;
+        }
+    }
+
+    private int slotOf(Object key) {
+        int hash = key.hashCode();
+        return ((hash ^ (hash >>> 16)) & (table.length / 2 - 1)) * 2;
+    }
+
+    private int find(Object key) {
+        if (tableSize == 0 || key == null) return -1;
+
+        int mask = table.length - 1;
+        for (int slot = slotOf(key); table[slot] != null; slot = (slot + 2) & mask) {
+            if (table[slot].equals(key)) return slot;
+        }
+        return -1;
+    }
+
+    private void insert(String key, Object value) {
+        // Keep at least a quarter of the slots empty, so probing stays short
+        if ((tableSize + 1) * 4 > table.length / 2 * 3)
+            resize(Math.max(MINIMUM_CAPACITY, table.length));
+
+        int mask = table.length - 1;
+        int slot = slotOf(key);
+        while (table[slot] != null)
+            slot = (slot + 2) & mask;
+
+        table[slot] = key;
+        table[slot + 1] = value;
+        tableSize++;
+    }
+
+    private void resize(int capacity) {
+        Object[] old = table;
+        table = new Object[capacity * 2];
+        tableSize = 0;
+
+        for (int slot = 0; slot < old.length; slot += 2) {
+            if (old[slot] != null) insert((String) old[slot], old[slot + 1]);
+        }
+    }
+
+    private void delete(int slot) {
+        // Shift following entries of the same probe sequence back, so no tombstones are needed
+        int mask = table.length - 1;
+        int empty = slot;
+
+        for (int next = (slot + 2) & mask; table[next] != null; next = (next + 2) & mask) {
+            int home = slotOf(table[next]);
+            boolean movable = empty <= next ? (home <= empty || home > next) : (home <= empty && home > next);
+
+            if (movable) {
+                table[empty] = table[next];
+                table[empty + 1] = table[next + 1];
+                empty = next;
+            }
+        }
+
+        table[empty] = null;
+        table[empty + 1] = null;
+        tableSize--;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+        @Override
+        public int size() {
+            return ClaimsMap.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+        // Time claims first, followed by the slots of the table
+        private int position = -TIME_CLAIMS.length;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < table.length;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+
+            Entry<String, Object> entry;
+            if (position < 0) {
+                int time = position + TIME_CLAIMS.length;
+                entry = new SimpleImmutableEntry<>(TIME_CLAIMS[time], getTime(time));
+                position++;
+            } else {
+                entry = new SimpleImmutableEntry<>((String) table[position], table[position + 1]);
+                position += 2;
+            }
+
+            advance();
+            return entry;
+        }
+
+        private void advance() {
+            while (position < 0 && (timeClaims & 1 << (position + TIME_CLAIMS.length)) == 0)
+                position++;
+
+            while (position >= 0 && position < table.length && table[position] == null)
+                position += 2;
+        }
+    }
+}
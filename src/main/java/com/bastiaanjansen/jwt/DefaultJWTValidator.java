@@ -1,95 +1,290 @@
 package com.bastiaanjansen.jwt;
 
-import com.bastiaanjansen.jwt.exceptions.JWTExpiredException;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
 import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import com.bastiaanjansen.jwt.metrics.Operation;
 
-import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.*;
 
 /**
- * Default implementation of a JWT verifier.
+ * Default implementation of a JWT verifier. The rules of the builder are compiled into arrays, so a
+ * validator is immutable, can be shared between threads and looks up every claim once.
  *
  * @author Bastiaan Jansen
  * @see JWTValidator
  */
 public class DefaultJWTValidator implements JWTValidator {
 
-    private final Map<String, ClaimValidator> headerValidators;
-    private final Map<String, ClaimValidator> payloadValidators;
+    // Shared instance used by JWT.validate(), validators are immutable and thread-safe
+    static final DefaultJWTValidator DEFAULT = new DefaultJWTValidator();
+
+    private static final String EXPIRATION_TIME = Claims.Registered.EXPIRATION_TIME.getValue();
+    private static final String NOT_BEFORE = Claims.Registered.NOT_BEFORE.getValue();
+    private static final String ISSUED_AT = Claims.Registered.ISSUED_AT.getValue();
+    private static final String JWT_ID = Claims.Registered.JWT_ID.getValue();
+
+    // Stages in the order they are checked, replay last so only otherwise valid tokens use up their ID
+    private static final Operation[] STAGES = {
+            Operation.VALIDATE_SIGNATURE, Operation.VALIDATE_HEADER, Operation.VALIDATE_TIME,
+            Operation.VALIDATE_REVOCATION, Operation.VALIDATE_CLAIMS, Operation.VALIDATE_REPLAY
+    };
+
+    // Claim names and their validators at the same index, compiled from the builder
+    private final String[] headerNames;
+    private final ClaimValidator[] headerValidators;
+    private final String[] payloadNames;
+    private final ClaimValidator[] payloadValidators;
+
+    private final Clock clock;
+    private final long leeway;
+    private final boolean issuedAtNotInFuture;
+    private final RevocationList revocationList;
+    private final ReplayGuard replayGuard;
 
     public DefaultJWTValidator() {
         this(new Builder().withType("JWT"));
     }
 
     public DefaultJWTValidator(Builder builder) {
-        this.headerValidators = builder.headerValidators;
-        this.payloadValidators = builder.payloadValidators;
+        this.headerNames = builder.headerValidators.keySet().toArray(new String[0]);
+        this.headerValidators = builder.headerValidators.values().toArray(new ClaimValidator[0]);
+        this.payloadNames = builder.payloadValidators.keySet().toArray(new String[0]);
+        this.payloadValidators = builder.payloadValidators.values().toArray(new ClaimValidator[0]);
+        this.clock = builder.clock;
+        this.leeway = builder.leeway;
+        this.issuedAtNotInFuture = builder.issuedAtNotInFuture;
+        this.revocationList = builder.revocationList;
+        this.replayGuard = builder.replayGuard;
     }
 
     @Override
     public void validate(JWT jwt) throws JWTValidationException {
-        validateAlgorithm(jwt);
-        verifyValidators(jwt.getHeader().getAsMap(), headerValidators);
-        verifyPayload(jwt.getPayload());
+        ValidationResult failure = failureOf(jwt);
+        if (failure != null) throw failure.getValidationException();
+    }
+
+    /**
+     * Validate without throwing. Rejecting a token only creates its result, the message and exception of
+     * the result are built when they are asked for.
+     *
+     * @param jwt JWT to validate
+     * @return the result, with a {@link FailureReason} when the JWT is not valid
+     */
+    @Override
+    public ValidationResult check(JWT jwt) {
+        try {
+            ValidationResult failure = failureOf(jwt);
+            return failure != null ? failure : ValidationResult.valid(jwt);
+        } catch (JWTValidationException e) {
+            return ValidationResult.invalid(e);
+        } catch (RuntimeException e) {
+            return ValidationResult.invalidClaim(e);
+        }
+    }
+
+    /**
+     * @return the first failed check, or null when the JWT is valid
+     * @throws JWTValidationException when the algorithm could not verify the signature
+     */
+    private ValidationResult failureOf(JWT jwt) throws JWTValidationException {
+        long start = Instrumentation.start();
+        if (start != Instrumentation.NOT_TIMED)
+            return failureOfTimed(jwt, start);
+
+        ValidationResult failure = validateAlgorithm(jwt);
+        if (failure == null) failure = verifyValidators(jwt.getHeader(), headerNames, headerValidators);
+        if (failure == null) failure = verifyPayload(jwt.getPayload());
+        return failure;
+    }
+
+    /**
+     * Validate stage by stage, reporting every stage and the validation as a whole to the listener
+     */
+    private ValidationResult failureOfTimed(JWT jwt, long start) throws JWTValidationException {
+        Algorithm algorithm = jwt.getAlgorithm();
+        long stageStart = start;
+
+        for (Operation stage: STAGES) {
+            if (stage == Operation.VALIDATE_REVOCATION && revocationList == null) continue;
+            if (stage == Operation.VALIDATE_REPLAY && replayGuard == null) continue;
+
+            ValidationResult failure;
+            try {
+                failure = runStage(stage, jwt);
+            } catch (JWTValidationException e) {
+                failed(stage, algorithm, e.getReason(), stageStart, start);
+                throw e;
+            }
+
+            if (failure != null) {
+                failed(stage, algorithm, failure.getReason(), stageStart, start);
+                return failure;
+            }
+
+            Instrumentation.success(stage, algorithm, stageStart);
+            stageStart = System.nanoTime();
+        }
+
+        Instrumentation.success(Operation.VALIDATE, algorithm, start);
+        return null;
     }
 
-    private void validateAlgorithm(JWT jwt) throws JWTValidationException {
-        String concatenated = String.format("%s.%s", jwt.getHeader().base64Encoded(), jwt.getPayload().base64Encoded());
+    private ValidationResult runStage(Operation stage, JWT jwt) throws JWTValidationException {
+        switch (stage) {
+            case VALIDATE_SIGNATURE:
+                return validateAlgorithm(jwt);
+            case VALIDATE_HEADER:
+                return verifyValidators(jwt.getHeader(), headerNames, headerValidators);
+            case VALIDATE_TIME:
+                return validateTime(jwt.getPayload(), clock.millis());
+            case VALIDATE_REVOCATION:
+                return validateNotRevoked(jwt.getPayload());
+            case VALIDATE_CLAIMS:
+                return verifyValidators(jwt.getPayload(), payloadNames, payloadValidators);
+            case VALIDATE_REPLAY:
+                return validateNotReplayed(jwt.getPayload());
+            default:
+                throw new IllegalArgumentException(stage + " is not a validation stage");
+        }
+    }
+
+    private static void failed(Operation stage, Algorithm algorithm, FailureReason reason, long stageStart, long start) {
+        Instrumentation.failure(stage, algorithm, reason, stageStart);
+        Instrumentation.failure(Operation.VALIDATE, algorithm, reason, start);
+    }
 
-        byte[] concatenatedBytes = concatenated.getBytes(StandardCharsets.UTF_8);
+    private ValidationResult validateAlgorithm(JWT jwt) throws JWTValidationException {
+        if (!jwt.hasValidSignature())
+            return ValidationResult.invalid(FailureReason.INVALID_SIGNATURE, () -> "Signature is not valid");
 
-        if (!jwt.getAlgorithm().verify(concatenatedBytes, Base64.getUrlDecoder().decode(jwt.getSignature())))
-            throw new JWTValidationException("Signature is not valid");
+        return null;
     }
 
-    private void verifyValidators(Map<String, Object> map , Map<String, ClaimValidator> validators) throws JWTValidationException {
-        for (Map.Entry<String, ClaimValidator> validatorEntry: validators.entrySet()) {
-            String key = validatorEntry.getKey();
-            ClaimValidator validator = validatorEntry.getValue();
+    private ValidationResult verifyValidators(Claims claims, String[] names, ClaimValidator[] validators) {
+        for (int i = 0; i < names.length; i++) {
+            String key = names[i];
+            Object value = claims.lookupClaim(key);
 
-            if (!map.containsKey(key))
-                throw new JWTValidationException(key + " is not present in payload");
+            if (value == Claims.ABSENT)
+                return ValidationResult.invalid(FailureReason.MISSING_CLAIM, () -> key + " is not present in payload");
 
-            if (map.get(key) == null)
-                throw new JWTValidationException(key + " is null");
+            if (value == null)
+                return ValidationResult.invalid(FailureReason.MISSING_CLAIM, () -> key + " is null");
 
-            if (!validator.validate(map.get(key)))
-                throw new JWTValidationException(key + " does not conform to constraint");
+            if (!validators[i].validate(value))
+                return ValidationResult.invalid(FailureReason.CLAIM_MISMATCH, () -> key + " does not conform to constraint");
         }
+
+        return null;
     }
 
-    private void verifyPayload(Payload payload) throws JWTValidationException {
-        Date currentDate = new Date();
+    private ValidationResult verifyPayload(Payload payload) {
+        ValidationResult failure = validateTime(payload, clock.millis());
+        if (failure == null) failure = validateNotRevoked(payload);
+        if (failure == null) failure = verifyValidators(payload, payloadNames, payloadValidators);
+
+        // Only tokens which passed every other check use up their ID
+        if (failure == null) failure = validateNotReplayed(payload);
+        return failure;
+    }
 
-        validateExpirationTime(payload, currentDate);
-        validateNotBefore(payload, currentDate);
-        verifyValidators(payload.getAsMap(), payloadValidators);
+    private ValidationResult validateTime(Payload payload, long currentTime) {
+        ValidationResult failure = validateExpirationTime(payload, currentTime);
+        if (failure == null) failure = validateNotBefore(payload, currentTime);
+        if (failure == null && issuedAtNotInFuture) failure = validateIssuedAt(payload, currentTime);
+        return failure;
     }
 
-    private void validateNotBefore(Payload payload, Date currentDate) throws JWTValidationException {
+    private ValidationResult validateNotBefore(Payload payload, long currentTime) {
         // Checks that if the not-before (nbf) claim is set, the current date is after or equal to the not-before date.
-        if (payload.containsClaim(Claims.Registered.NOT_BEFORE.getValue())) {
-            Date notBefore = payload.getNotBefore();
-            if (currentDate.getTime() <= notBefore.getTime())
-                throw new JWTValidationException("JWT is only valid after " + notBefore);
+        if (payload.containsClaim(NOT_BEFORE)) {
+            long notBefore = payload.getTimeClaim(NOT_BEFORE);
+            if (currentTime + leeway <= notBefore)
+                return ValidationResult.invalid(FailureReason.NOT_BEFORE, () -> "JWT is only valid after " + new Date(notBefore));
         }
+
+        return null;
     }
 
-    private void validateExpirationTime(Payload payload, Date currentDate) throws JWTExpiredException {
-        if (payload.containsClaim(Claims.Registered.EXPIRATION_TIME.getValue())) {
-            Date expirationTime = payload.getExpirationTime();
-            if (currentDate.getTime() > expirationTime.getTime())
-                throw new JWTExpiredException("JWT expired on " + expirationTime);
+    private ValidationResult validateExpirationTime(Payload payload, long currentTime) {
+        if (payload.containsClaim(EXPIRATION_TIME)) {
+            long expirationTime = payload.getTimeClaim(EXPIRATION_TIME);
+            if (currentTime - leeway > expirationTime)
+                return ValidationResult.invalid(FailureReason.EXPIRED, () -> "JWT expired on " + new Date(expirationTime));
         }
+
+        return null;
+    }
+
+    private ValidationResult validateIssuedAt(Payload payload, long currentTime) {
+        if (payload.containsClaim(ISSUED_AT)) {
+            long issuedAt = payload.getTimeClaim(ISSUED_AT);
+            if (currentTime + leeway < issuedAt)
+                return ValidationResult.invalid(FailureReason.ISSUED_IN_FUTURE, () -> "JWT is issued in the future, on " + new Date(issuedAt));
+        }
+
+        return null;
+    }
+
+    /**
+     * Check the JWT ID of a token against the revocation list. Also used by {@link VerifiedJWTCache} for
+     * cached tokens, which are not validated again.
+     */
+    ValidationResult validateNotRevoked(Payload payload) {
+        if (revocationList == null) return null;
+
+        Object id = payload.lookupClaim(JWT_ID);
+        if (id instanceof String && revocationList.isRevoked((String) id))
+            return ValidationResult.invalid(FailureReason.REVOKED, () -> "JWT " + id + " is revoked");
+
+        return null;
+    }
+
+    /**
+     * @return whether validation depends on more than the token and the current time, through a
+     * revocation list or a replay guard
+     */
+    boolean hasStatefulChecks() {
+        return revocationList != null || replayGuard != null;
+    }
+
+    /**
+     * Record a use of the JWT ID of a token. Also used by {@link VerifiedJWTCache} for cached tokens,
+     * which are not validated again.
+     */
+    ValidationResult validateNotReplayed(Payload payload) {
+        if (replayGuard == null) return null;
+
+        Object id = payload.lookupClaim(JWT_ID);
+        if (!(id instanceof String))
+            return ValidationResult.invalid(FailureReason.MISSING_CLAIM, () -> JWT_ID + " is not present in payload");
+
+        // Without an expiration time the ID would have to be remembered forever
+        if (!payload.containsClaim(EXPIRATION_TIME))
+            return ValidationResult.invalid(FailureReason.MISSING_CLAIM, () -> EXPIRATION_TIME + " is not present in payload");
+
+        if (!replayGuard.markUsed((String) id, payload.getTimeClaim(EXPIRATION_TIME)))
+            return ValidationResult.invalid(FailureReason.REPLAYED, () -> "JWT " + id + " has already been used");
+
+        return null;
     }
 
     public static class Builder {
         private final Map<String, ClaimValidator> headerValidators;
         private final Map<String, ClaimValidator> payloadValidators;
+        private Clock clock;
+        private long leeway;
+        private boolean issuedAtNotInFuture;
+        private RevocationList revocationList;
+        private ReplayGuard replayGuard;
 
         public Builder() {
-            this.headerValidators = new HashMap<>();
-            this.payloadValidators = new HashMap<>();
+            this.headerValidators = new LinkedHashMap<>();
+            this.payloadValidators = new LinkedHashMap<>();
+            this.clock = Clock.systemUTC();
         }
 
         public Builder withType(String type) {
@@ -199,16 +394,85 @@ public class DefaultJWTValidator implements JWTValidator {
             return this;
         }
 
+        /**
+         * Clock to check the time claims against, the system clock by default. A
+         * {@link com.bastiaanjansen.jwt.utils.CoarseClock} is cheaper to read.
+         *
+         * @param clock clock
+         * @return the same builder instance
+         */
+        public Builder withClock(Clock clock) {
+            if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Allowed clock skew between the issuer and this validator when checking the time claims
+         *
+         * @param leeway allowed skew
+         * @return the same builder instance
+         */
+        public Builder withLeeway(Duration leeway) {
+            if (leeway == null) throw new IllegalArgumentException("leeway cannot be null");
+            if (leeway.isNegative()) throw new IllegalArgumentException("leeway cannot be negative");
+            this.leeway = leeway.toMillis();
+            return this;
+        }
+
+        /**
+         * Reject tokens which are issued (iat) in the future, more than the leeway ahead of the clock. Off by
+         * default, as the clock of an issuer often runs slightly ahead.
+         *
+         * @return the same builder instance
+         */
+        public Builder withIssuedAtNotInFuture() {
+            this.issuedAtNotInFuture = true;
+            return this;
+        }
+
+        /**
+         * Reject tokens of which the JWT ID (jti) is revoked
+         *
+         * @param revocationList revoked JWT ID's
+         * @return the same builder instance
+         */
+        public Builder withRevocationList(RevocationList revocationList) {
+            if (revocationList == null) throw new IllegalArgumentException("revocationList cannot be null");
+            this.revocationList = revocationList;
+            return this;
+        }
+
+        /**
+         * Accept every JWT ID (jti) only once, for one-time tokens. Tokens must have an ID and an
+         * expiration time.
+         *
+         * @param replayGuard guard which remembers used JWT ID's
+         * @return the same builder instance
+         */
+        public Builder withReplayGuard(ReplayGuard replayGuard) {
+            if (replayGuard == null) throw new IllegalArgumentException("replayGuard cannot be null");
+            this.replayGuard = replayGuard;
+            return this;
+        }
+
         public DefaultJWTValidator build() {
             return new DefaultJWTValidator(this);
         }
     }
 
     public Map<String, ClaimValidator> getHeaderValidators() {
-        return new HashMap<>(headerValidators);
+        return toMap(headerNames, headerValidators);
     }
 
     public Map<String, ClaimValidator> getPayloadValidators() {
-        return new HashMap<>(payloadValidators);
+        return toMap(payloadNames, payloadValidators);
+    }
+
+    private static Map<String, ClaimValidator> toMap(String[] names, ClaimValidator[] validators) {
+        Map<String, ClaimValidator> map = new HashMap<>();
+        for (int i = 0; i < names.length; i++)
+            map.put(names[i], validators[i]);
+        return map;
     }
 }
@@ -1,8 +1,9 @@
 package com.bastiaanjansen.jwt;
 
+import com.bastiaanjansen.jwt.json.JSONCodecs;
 import com.bastiaanjansen.jwt.utils.Base64Utils;
-import org.json.JSONObject;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 public final class Header extends Claims {
@@ -16,10 +17,31 @@ public final class Header extends Claims {
         claims.putAll(map);
     }
 
+    Header(ClaimsIndex index) {
+        super(index);
+
+        if (!index.contains(Registered.TYPE.getValue()))
+            claims.put(Registered.TYPE.getValue(), "JWT");
+    }
+
     public static Header fromBase64EncodedJSON(String encodedJSON) {
-        String decodedJSON = Base64Utils.decodeBase64URL(encodedJSON);
-        Map<String, Object> map = new JSONObject(decodedJSON).toMap();
-        return new Header(map);
+        byte[] encoded = encodedJSON.getBytes(StandardCharsets.US_ASCII);
+        return fromBase64EncodedJSON(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Decode a base64URL encoded JSON object. The JSON is checked and indexed, but claims are only decoded
+     * by the default {@link com.bastiaanjansen.jwt.json.JSONCodec} when they are read.
+     *
+     * @param encoded array holding the encoded JSON
+     * @param offset start of the encoded JSON
+     * @param length length of the encoded JSON
+     * @return decoded claims
+     * @throws IllegalArgumentException when the data is not base64URL encoded JSON object
+     */
+    static Header fromBase64EncodedJSON(byte[] encoded, int offset, int length) {
+        byte[] decodedJSON = Base64Utils.decodeBase64URL(encoded, offset, length);
+        return new Header(ClaimsIndex.of(decodedJSON, JSONCodecs.getDefault()));
     }
 
     public void setType(String type) {
@@ -45,4 +67,12 @@ public final class Header extends Claims {
     public String getAlgorithm() {
         return getClaim(Registered.ALGORITHM.getValue(), String.class);
     }
+
+    public void setKeyId(String keyId) {
+        addClaim(Registered.KEY_ID.getValue(), keyId);
+    }
+
+    public String getKeyId() {
+        return getClaim(Registered.KEY_ID.getValue(), String.class);
+    }
 }
@@ -0,0 +1,120 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.algorithms.PrefixedSigner;
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
+import com.bastiaanjansen.jwt.exceptions.JWTSignException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import com.bastiaanjansen.jwt.metrics.JWTListener;
+import com.bastiaanjansen.jwt.metrics.JWTMetrics;
+import com.bastiaanjansen.jwt.metrics.Operation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reports operations to the listener of {@link JWTMetrics}. While no listener is installed nothing is
+ * timed: {@link #start()} returns {@link #NOT_TIMED} and reporting returns straight away.
+ *
+ * @author Bastiaan Jansen
+ */
+final class Instrumentation {
+
+    static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final String UNKNOWN_ALGORITHM = "unknown";
+
+    private Instrumentation() {}
+
+    /**
+     * @return start time of an operation, or {@link #NOT_TIMED} when no listener is installed
+     */
+    static long start() {
+        return JWTMetrics.getListener() == JWTListener.NONE ? NOT_TIMED : System.nanoTime();
+    }
+
+    static void success(Operation operation, Algorithm algorithm, long start) {
+        if (start != NOT_TIMED)
+            JWTMetrics.getListener().onSuccess(operation, nameOf(algorithm), System.nanoTime() - start);
+    }
+
+    static void failure(Operation operation, Algorithm algorithm, FailureReason reason, long start) {
+        if (start != NOT_TIMED)
+            JWTMetrics.getListener().onFailure(operation, nameOf(algorithm), reason, System.nanoTime() - start);
+    }
+
+    static boolean verify(Algorithm algorithm, byte[] data, int offset, int length, byte[] signature) throws JWTValidationException {
+        long start = start();
+        if (start == NOT_TIMED) return algorithm.verify(data, offset, length, signature);
+
+        try {
+            return verified(algorithm, algorithm.verify(data, offset, length, signature), start);
+        } catch (JWTValidationException e) {
+            failure(Operation.ALGORITHM_VERIFY, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    static boolean verify(Algorithm algorithm, ByteBuffer data, byte[] signature) throws JWTValidationException {
+        long start = start();
+        if (start == NOT_TIMED) return algorithm.verify(data, signature);
+
+        try {
+            return verified(algorithm, algorithm.verify(data, signature), start);
+        } catch (JWTValidationException e) {
+            failure(Operation.ALGORITHM_VERIFY, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    static byte[] sign(Algorithm algorithm, byte[] data, int offset, int length) throws JWTSignException {
+        long start = start();
+        if (start == NOT_TIMED) return algorithm.sign(data, offset, length);
+
+        try {
+            byte[] signature = algorithm.sign(data, offset, length);
+            success(Operation.ALGORITHM_SIGN, algorithm, start);
+            return signature;
+        } catch (JWTSignException e) {
+            failure(Operation.ALGORITHM_SIGN, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    static byte[] sign(Algorithm algorithm, ByteBuffer data) throws JWTSignException {
+        long start = start();
+        if (start == NOT_TIMED) return algorithm.sign(data);
+
+        try {
+            byte[] signature = algorithm.sign(data);
+            success(Operation.ALGORITHM_SIGN, algorithm, start);
+            return signature;
+        } catch (JWTSignException e) {
+            failure(Operation.ALGORITHM_SIGN, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    static byte[] sign(Algorithm algorithm, PrefixedSigner signer, byte[] data, int offset, int length) throws JWTSignException {
+        long start = start();
+        if (start == NOT_TIMED) return signer.sign(data, offset, length);
+
+        try {
+            byte[] signature = signer.sign(data, offset, length);
+            success(Operation.ALGORITHM_SIGN, algorithm, start);
+            return signature;
+        } catch (JWTSignException e) {
+            failure(Operation.ALGORITHM_SIGN, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    private static boolean verified(Algorithm algorithm, boolean verified, long start) {
+        if (verified) success(Operation.ALGORITHM_VERIFY, algorithm, start);
+        else failure(Operation.ALGORITHM_VERIFY, algorithm, FailureReason.INVALID_SIGNATURE, start);
+        return verified;
+    }
+
+    private static String nameOf(Algorithm algorithm) {
+        return algorithm == null ? UNKNOWN_ALGORITHM : algorithm.getName();
+    }
+}
@@ -2,15 +2,26 @@ package com.bastiaanjansen.jwt;
 
 import com.bastiaanjansen.jwt.algorithms.Algorithm;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
 import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
 import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
 import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
 import com.bastiaanjansen.jwt.exceptions.JWTSignException;
+import com.bastiaanjansen.jwt.metrics.Operation;
 import com.bastiaanjansen.jwt.utils.Base64Utils;
-import org.json.JSONException;
 
 /**
  * This object represents a JSON Web Token
@@ -26,25 +37,44 @@ public final class JWT {
     private final Payload payload;
     private final String signature;
 
+    // Raw token for parsed JWT's, the signature is verified over its first signingInputLength bytes as
+    // long as the header and payload are not modified
+    private final byte[] token;
+    private final int signingInputLength;
+
+    // Parsed JWT's never change their raw token, so a valid signature is only verified once
+    private volatile boolean signatureVerified;
+
+    // Created JWT's keep what they signed, so signing the same header and payload again reuses the signature
+    private final byte[] signedInput;
+    private final byte[] rawSignature;
+
     public JWT(Algorithm algorithm, Header header, Payload payload) throws JWTCreationException {
         this.algorithm = algorithm;
         this.header = header;
         this.payload = payload;
-        this.signature = createSignature();
+        this.token = null;
+        this.signingInputLength = 0;
+        this.signatureVerified = false;
+        this.signedInput = encodeSigningInput(header.json(), payload.json());
+        this.rawSignature = createSignature(algorithm, signedInput, 0, signedInput.length);
+        this.signature = Base64Utils.encodeBase64URL(rawSignature);
     }
 
-    private JWT(Algorithm algorithm, Header header, Payload payload, String signature) {
+    private JWT(Algorithm algorithm, Header header, Payload payload, String signature, byte[] token, int signingInputLength, boolean signatureVerified) {
         this.algorithm = algorithm;
         this.header = header;
         this.payload = payload;
         this.signature = signature;
+        this.token = token;
+        this.signingInputLength = signingInputLength;
+        this.signatureVerified = signatureVerified;
+        this.signedInput = null;
+        this.rawSignature = null;
     }
 
     private JWT(Builder builder) throws JWTCreationException {
-        algorithm = builder.algorithm;
-        payload = builder.payload;
-        header = builder.header;
-        signature = createSignature();
+        this(builder.algorithm, builder.header, builder.payload);
     }
 
     public Algorithm getAlgorithm() {
@@ -63,6 +93,47 @@ public final class JWT {
         return signature;
     }
 
+    /**
+     * @return the raw token this JWT was parsed from, or null when it was not parsed. Not a copy.
+     */
+    byte[] getRawToken() {
+        return token;
+    }
+
+    /**
+     * Checks the signature. Parsed JWT's are verified over their original header.payload segments,
+     * exactly as the issuer signed them. JWT's created with this library, and parsed JWT's of which the
+     * header or payload was modified, have their header and payload encoded first.
+     *
+     * @return whether the signature is valid
+     * @throws JWTValidationException when the signature could not be verified
+     */
+    boolean hasValidSignature() throws JWTValidationException {
+        if (token == null) {
+            byte[] input = encodeSigningInput(header.json(), payload.json());
+            return Instrumentation.verify(algorithm, input, 0, input.length, Base64.getUrlDecoder().decode(signature));
+        }
+
+        boolean modified = !header.isDecoded() || !payload.isDecoded();
+        if (signatureVerified && !modified)
+            return true;
+
+        int offset = signingInputLength + 1;
+        if (!Base64Utils.isBase64URL(token, offset, token.length - offset))
+            return false;
+
+        byte[] decodedSignature = Base64Utils.decodeBase64URL(token, offset, token.length - offset);
+
+        // The raw token no longer holds the claims, so it is not what has to be signed
+        if (modified) {
+            byte[] input = encodeSigningInput(header.json(), payload.json());
+            return Instrumentation.verify(algorithm, input, 0, input.length, decodedSignature);
+        }
+
+        signatureVerified = Instrumentation.verify(algorithm, token, 0, signingInputLength, decodedSignature);
+        return signatureVerified;
+    }
+
     /**
      * Create a new JWT instance based on a raw JWT
      *
@@ -72,23 +143,469 @@ public final class JWT {
      * @throws JWTDecodeException When the raw JWT could not be decoded
      */
     public static JWT fromRawJWT(Algorithm algorithm, String jwt) throws JWTDecodeException, JWTCreationException {
-        String[] segments = jwt.split("\\.");
+        return fromRawJWT(algorithm, (CharSequence) jwt);
+    }
 
-        if (segments.length != NUMBER_OF_SEGMENTS)
-            throw new JWTDecodeException("The number of segments must be " + NUMBER_OF_SEGMENTS);
+    /**
+     * Create a new JWT instance based on a raw JWT
+     *
+     * @param algorithm algorithm to use when signing JWT
+     * @param jwt Raw JWT
+     * @return Newly created JWT instance
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     */
+    public static JWT fromRawJWT(Algorithm algorithm, CharSequence jwt) throws JWTDecodeException, JWTCreationException {
+        return parse(algorithm, toASCIIBytes(jwt));
+    }
+
+    /**
+     * Create a new JWT instance based on a raw JWT held in a range of a byte array. The range is copied
+     * once, because the JWT keeps its signing input for validation.
+     *
+     * @param algorithm algorithm to use when signing JWT
+     * @param jwt Array holding the raw JWT
+     * @param offset Start of the raw JWT
+     * @param length Length of the raw JWT
+     * @return Newly created JWT instance
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     */
+    public static JWT fromRawJWT(Algorithm algorithm, byte[] jwt, int offset, int length) throws JWTDecodeException, JWTCreationException {
+        return parse(algorithm, Arrays.copyOfRange(jwt, offset, offset + length));
+    }
+
+    /**
+     * Create a new JWT instance based on the remaining bytes of a buffer. The bytes are copied once,
+     * because the JWT keeps its signing input for validation. The position of the buffer is not changed.
+     *
+     * @param algorithm algorithm to use when signing JWT
+     * @param jwt Buffer holding the raw JWT
+     * @return Newly created JWT instance
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     */
+    public static JWT fromRawJWT(Algorithm algorithm, ByteBuffer jwt) throws JWTDecodeException, JWTCreationException {
+        byte[] token = new byte[jwt.remaining()];
+        jwt.duplicate().get(token);
+        return parse(algorithm, token);
+    }
+
+    /**
+     * Create a new JWT instance based on a raw JWT, checking the signature before anything is decoded.
+     * Tokens with an invalid signature are rejected after a single signature verification, without any
+     * base64 or JSON decoding. Claims are parsed when they are first read.
+     *
+     * @param algorithm algorithm the JWT is signed with
+     * @param jwt Raw JWT
+     * @return Newly created JWT instance with a verified signature
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     * @throws JWTCreationException When the algorithm in the header does not match
+     * @throws JWTValidationException When the signature is not valid
+     */
+    public static JWT fromVerifiedRawJWT(Algorithm algorithm, CharSequence jwt) throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        return parseVerified(algorithm, toASCIIBytes(jwt));
+    }
+
+    /**
+     * Create a new JWT instance based on a raw JWT held in a range of a byte array, checking the signature
+     * before anything is decoded. The signature is verified straight from the array, the range is only
+     * copied when the signature is valid.
+     *
+     * @param algorithm algorithm the JWT is signed with
+     * @param jwt Array holding the raw JWT
+     * @param offset Start of the raw JWT
+     * @param length Length of the raw JWT
+     * @return Newly created JWT instance with a verified signature
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     * @throws JWTCreationException When the algorithm in the header does not match
+     * @throws JWTValidationException When the signature is not valid
+     */
+    public static JWT fromVerifiedRawJWT(Algorithm algorithm, byte[] jwt, int offset, int length) throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        long start = Instrumentation.start();
+
+        try {
+            if (!verifySignature(algorithm, jwt, offset, length))
+                throw new JWTValidationException("Signature is not valid", FailureReason.INVALID_SIGNATURE);
+
+            return parsed(algorithm, decode(algorithm, Arrays.copyOfRange(jwt, offset, offset + length), true), start);
+        } catch (JWTDecodeException | JWTCreationException | JWTValidationException e) {
+            Instrumentation.failure(Operation.PARSE, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a new JWT instance based on the remaining bytes of a buffer, checking the signature before
+     * anything is decoded. The signature is verified straight from the buffer, the bytes are only copied
+     * when the signature is valid. The position of the buffer is not changed.
+     *
+     * @param algorithm algorithm the JWT is signed with
+     * @param jwt Buffer holding the raw JWT
+     * @return Newly created JWT instance with a verified signature
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     * @throws JWTCreationException When the algorithm in the header does not match
+     * @throws JWTValidationException When the signature is not valid
+     */
+    public static JWT fromVerifiedRawJWT(Algorithm algorithm, ByteBuffer jwt) throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        long start = Instrumentation.start();
+
+        try {
+            if (!verifySignature(algorithm, jwt))
+                throw new JWTValidationException("Signature is not valid", FailureReason.INVALID_SIGNATURE);
+
+            byte[] token = new byte[jwt.remaining()];
+            jwt.duplicate().get(token);
+            return parsed(algorithm, decode(algorithm, token, true), start);
+        } catch (JWTDecodeException | JWTCreationException | JWTValidationException e) {
+            Instrumentation.failure(Operation.PARSE, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a new JWT instance based on a raw JWT, checking the signature before anything is decoded,
+     * without throwing. Tokens which are not valid base64URL or have an invalid signature are rejected
+     * without creating an exception, so rejecting them costs about as much as verifying a valid token.
+     *
+     * @param algorithm algorithm the JWT is signed with
+     * @param jwt Raw JWT
+     * @return the result, holding the JWT with a verified signature or the reason it was rejected
+     */
+    public static ValidationResult tryFromVerifiedRawJWT(Algorithm algorithm, CharSequence jwt) {
+        long start = Instrumentation.start();
+        ValidationResult result = tryParseVerified(algorithm, jwt);
+
+        if (result.isValid()) Instrumentation.success(Operation.PARSE, algorithm, start);
+        else Instrumentation.failure(Operation.PARSE, algorithm, result.getReason(), start);
+
+        return result;
+    }
+
+    /**
+     * Create a new JWT instance based on a raw JWT, with the algorithm picked by a resolver from the
+     * algorithm (alg) and key ID (kid) in the header. The header is only decoded once.
+     *
+     * @param resolver resolver which picks the algorithm and key
+     * @param jwt Raw JWT
+     * @return Newly created JWT instance
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     * @throws JWTCreationException When no algorithm is found for the header
+     */
+    public static JWT fromRawJWT(KeyResolver resolver, CharSequence jwt) throws JWTDecodeException, JWTCreationException {
+        long start = Instrumentation.start();
+        Algorithm algorithm = null;
 
         try {
-            Header header = Header.fromBase64EncodedJSON(segments[0]);
-            Payload payload = Payload.fromBase64EncodedJSON(segments[1]);
-            String signature = segments[2];
+            byte[] token = toASCIIBytes(jwt);
+            long separators = indexOfSeparators(token, 0, token.length);
+            int first = (int) (separators >>> 32);
+            int second = (int) separators;
+
+            Header header = Header.fromBase64EncodedJSON(token, 0, first);
+            algorithm = resolve(resolver, header);
+            return parsed(algorithm, decode(algorithm, header, token, first, second, false), start);
+        } catch (IllegalArgumentException e) {
+            Instrumentation.failure(Operation.PARSE, algorithm, FailureReason.DECODE_ERROR, start);
+            throw new JWTDecodeException("Error decoding JWT");
+        } catch (JWTDecodeException | JWTCreationException e) {
+            Instrumentation.failure(Operation.PARSE, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a new JWT instance based on a raw JWT, with the algorithm picked by a resolver from the
+     * algorithm (alg) and key ID (kid) in the header. The signature is checked with the resolved algorithm
+     * before the payload is decoded.
+     *
+     * @param resolver resolver which picks the algorithm and key
+     * @param jwt Raw JWT
+     * @return Newly created JWT instance with a verified signature
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     * @throws JWTCreationException When no algorithm is found for the header
+     * @throws JWTValidationException When the signature is not valid
+     */
+    public static JWT fromVerifiedRawJWT(KeyResolver resolver, CharSequence jwt) throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        return parseVerified(resolver, toASCIIBytes(jwt));
+    }
+
+    /**
+     * Create a new JWT instance based on a raw JWT held in a range of a byte array, with the algorithm
+     * picked by a resolver from the header. The signature is checked before the payload is decoded.
+     *
+     * @param resolver resolver which picks the algorithm and key
+     * @param jwt Array holding the raw JWT
+     * @param offset Start of the raw JWT
+     * @param length Length of the raw JWT
+     * @return Newly created JWT instance with a verified signature
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     * @throws JWTCreationException When no algorithm is found for the header
+     * @throws JWTValidationException When the signature is not valid
+     */
+    public static JWT fromVerifiedRawJWT(KeyResolver resolver, byte[] jwt, int offset, int length) throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        return parseVerified(resolver, Arrays.copyOfRange(jwt, offset, offset + length));
+    }
+
+    /**
+     * Verify the signature of a raw JWT without decoding its header and payload. The signing input is
+     * passed to the algorithm straight from the array.
+     *
+     * @param algorithm algorithm the JWT is signed with
+     * @param jwt Array holding the raw JWT
+     * @param offset Start of the raw JWT
+     * @param length Length of the raw JWT
+     * @return whether the signature is valid
+     * @throws JWTDecodeException When the raw JWT does not consist of three segments or the signature is not base64URL
+     * @throws JWTValidationException When the signature could not be verified
+     */
+    public static boolean verifySignature(Algorithm algorithm, byte[] jwt, int offset, int length) throws JWTDecodeException, JWTValidationException {
+        long separators = indexOfSeparators(jwt, offset, length);
+        int second = (int) separators;
+        byte[] signature = decodeSignature(jwt, second + 1, offset + length - second - 1);
+
+        return Instrumentation.verify(algorithm, jwt, offset, second - offset, signature);
+    }
+
+    /**
+     * Verify the signature of a raw JWT without decoding its header and payload. The signing input is
+     * passed to the algorithm straight from the buffer, which also works for direct buffers. The
+     * position of the buffer is not changed.
+     *
+     * @param algorithm algorithm the JWT is signed with
+     * @param jwt Buffer holding the raw JWT
+     * @return whether the signature is valid
+     * @throws JWTDecodeException When the raw JWT does not consist of three segments or the signature is not base64URL
+     * @throws JWTValidationException When the signature could not be verified
+     */
+    public static boolean verifySignature(Algorithm algorithm, ByteBuffer jwt) throws JWTDecodeException, JWTValidationException {
+        if (jwt.hasArray())
+            return verifySignature(algorithm, jwt.array(), jwt.arrayOffset() + jwt.position(), jwt.remaining());
+
+        int second = (int) indexOfSeparators(jwt);
+        ByteBuffer view = jwt.duplicate();
+
+        byte[] encodedSignature = new byte[jwt.limit() - second - 1];
+        ((Buffer) view).position(second + 1);
+        view.get(encodedSignature);
+        byte[] signature = decodeSignature(encodedSignature, 0, encodedSignature.length);
+
+        ((Buffer) view).limit(second);
+        ((Buffer) view).position(jwt.position());
+        return Instrumentation.verify(algorithm, view, signature);
+    }
+
+    /**
+     * Verify the signature of a raw JWT without decoding its header and payload
+     *
+     * @param algorithm algorithm the JWT is signed with
+     * @param jwt Raw JWT
+     * @return whether the signature is valid
+     * @throws JWTDecodeException When the raw JWT does not consist of three segments or the signature is not base64URL
+     * @throws JWTValidationException When the signature could not be verified
+     */
+    public static boolean verifySignature(Algorithm algorithm, CharSequence jwt) throws JWTDecodeException, JWTValidationException {
+        byte[] token = toASCIIBytes(jwt);
+        return verifySignature(algorithm, token, 0, token.length);
+    }
+
+    private static JWT parse(Algorithm algorithm, byte[] token) throws JWTDecodeException, JWTCreationException {
+        long start = Instrumentation.start();
+
+        try {
+            return parsed(algorithm, decode(algorithm, token, false), start);
+        } catch (JWTDecodeException | JWTCreationException e) {
+            Instrumentation.failure(Operation.PARSE, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    private static JWT parseVerified(Algorithm algorithm, byte[] token) throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        long start = Instrumentation.start();
+
+        try {
+            if (!verifySignature(algorithm, token, 0, token.length))
+                throw new JWTValidationException("Signature is not valid", FailureReason.INVALID_SIGNATURE);
+
+            return parsed(algorithm, decode(algorithm, token, true), start);
+        } catch (JWTDecodeException | JWTCreationException | JWTValidationException e) {
+            Instrumentation.failure(Operation.PARSE, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    private static ValidationResult tryParseVerified(Algorithm algorithm, CharSequence jwt) {
+        byte[] token = asciiBytesOf(jwt);
+        if (token == null)
+            return ValidationResult.invalid(FailureReason.DECODE_ERROR, () -> "Error decoding JWT");
+
+        long separators = findSeparators(token, 0, token.length);
+        if (separators < 0)
+            return ValidationResult.invalid(FailureReason.DECODE_ERROR, () -> "The number of segments must be " + NUMBER_OF_SEGMENTS);
+
+        int second = (int) separators;
+        if (!Base64Utils.isBase64URL(token, second + 1, token.length - second - 1))
+            return ValidationResult.invalid(FailureReason.DECODE_ERROR, () -> "Error decoding JWT");
+
+        byte[] signature = Base64Utils.decodeBase64URL(token, second + 1, token.length - second - 1);
+
+        try {
+            if (!Instrumentation.verify(algorithm, token, 0, second, signature))
+                return ValidationResult.invalid(FailureReason.INVALID_SIGNATURE, () -> "Signature is not valid");
+
+            // The signature is valid, so the issuer encoded the header and payload
+            return ValidationResult.valid(decode(algorithm, token, true));
+        } catch (JWTDecodeException | JWTCreationException | JWTValidationException e) {
+            return ValidationResult.invalid(e);
+        } catch (RuntimeException e) {
+            return ValidationResult.invalid(new JWTDecodeException("Error decoding JWT"));
+        }
+    }
+
+    private static JWT parsed(Algorithm algorithm, JWT jwt, long start) {
+        Instrumentation.success(Operation.PARSE, algorithm, start);
+        return jwt;
+    }
+
+    private static JWT decode(Algorithm algorithm, byte[] token, boolean signatureVerified) throws JWTDecodeException, JWTCreationException {
+        long separators = indexOfSeparators(token, 0, token.length);
+        int first = (int) (separators >>> 32);
+        int second = (int) separators;
+
+        try {
+            Header header = Header.fromBase64EncodedJSON(token, 0, first);
+            return decode(algorithm, header, token, first, second, signatureVerified);
+        } catch (IllegalArgumentException e) {
+            throw new JWTDecodeException("Error decoding JWT");
+        }
+    }
+
+    /**
+     * Decode the header once, resolve the algorithm from it and verify the signature before the payload
+     * is decoded
+     */
+    private static JWT parseVerified(KeyResolver resolver, byte[] token) throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        long start = Instrumentation.start();
+        Algorithm algorithm = null;
+
+        try {
+            long separators = indexOfSeparators(token, 0, token.length);
+            int first = (int) (separators >>> 32);
+            int second = (int) separators;
+
+            Header header = Header.fromBase64EncodedJSON(token, 0, first);
+            algorithm = resolve(resolver, header);
+            byte[] signature = decodeSignature(token, second + 1, token.length - second - 1);
+
+            if (!Instrumentation.verify(algorithm, token, 0, second, signature))
+                throw new JWTValidationException("Signature is not valid", FailureReason.INVALID_SIGNATURE);
+
+            resolver.onVerified(header, algorithm);
+            return parsed(algorithm, decode(algorithm, header, token, first, second, true), start);
+        } catch (IllegalArgumentException e) {
+            Instrumentation.failure(Operation.PARSE, algorithm, FailureReason.DECODE_ERROR, start);
+            throw new JWTDecodeException("Error decoding JWT");
+        } catch (JWTDecodeException | JWTCreationException | JWTValidationException e) {
+            Instrumentation.failure(Operation.PARSE, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    private static Algorithm resolve(KeyResolver resolver, Header header) throws JWTCreationException {
+        Algorithm algorithm = resolver.resolve(header);
+        if (algorithm != null) return algorithm;
+
+        String keyId = header.getKeyId();
+        throw new JWTCreationException("No key found for algorithm " + header.getAlgorithm()
+                + (keyId == null ? "" : " and key ID " + keyId), FailureReason.ALGORITHM_MISMATCH);
+    }
+
+    private static JWT decode(Algorithm algorithm, Header header, byte[] token, int first, int second, boolean signatureVerified) throws JWTCreationException {
+        Payload payload = Payload.fromBase64EncodedJSON(token, first + 1, second - first - 1);
+        String signature = new String(token, second + 1, token.length - second - 1, StandardCharsets.US_ASCII);
+
+        if (!algorithm.getName().equals(header.getAlgorithm()))
+            throw new JWTCreationException("Algorithm defined in header does not match " + algorithm.getName(), FailureReason.ALGORITHM_MISMATCH);
+
+        return new JWT(algorithm, header, payload, signature, token, second, signatureVerified);
+    }
+
+    /**
+     * Find the two dots separating the segments in a single pass
+     *
+     * @return index of the first dot in the high 32 bits and index of the second dot in the low 32 bits
+     * @throws JWTDecodeException when the token does not consist of exactly three segments
+     */
+    private static long indexOfSeparators(byte[] token, int offset, int length) throws JWTDecodeException {
+        long separators = findSeparators(token, offset, length);
+        if (separators < 0)
+            throw new JWTDecodeException("The number of segments must be " + NUMBER_OF_SEGMENTS);
+
+        return separators;
+    }
+
+    /**
+     * @return the indexes of both dots, the first in the high half, or -1 when there are not exactly two
+     */
+    private static long findSeparators(byte[] token, int offset, int length) {
+        int first = -1;
+        int second = -1;
+
+        for (int i = offset; i < offset + length; i++) {
+            if (token[i] != '.') continue;
+
+            if (first < 0) first = i;
+            else if (second < 0) second = i;
+            else return -1;
+        }
+
+        if (second < 0) return -1;
+
+        return ((long) first << 32) | second;
+    }
+
+    private static long indexOfSeparators(ByteBuffer token) throws JWTDecodeException {
+        int first = -1;
+        int second = -1;
+
+        for (int i = token.position(); i < token.limit(); i++) {
+            if (token.get(i) != '.') continue;
 
-            if (!header.getAlgorithm().equals(algorithm.getName()))
-                throw new JWTCreationException("Algorithm defined in header does not match " + algorithm.getName());
+            if (first < 0) first = i;
+            else if (second < 0) second = i;
+            else throw new JWTDecodeException("The number of segments must be " + NUMBER_OF_SEGMENTS);
+        }
+
+        if (second < 0)
+            throw new JWTDecodeException("The number of segments must be " + NUMBER_OF_SEGMENTS);
 
-            return new JWT(algorithm, header, payload, signature);
-        } catch (IllegalArgumentException | JSONException e) {
+        return ((long) first << 32) | second;
+    }
+
+    private static byte[] decodeSignature(byte[] token, int offset, int length) throws JWTDecodeException {
+        if (!Base64Utils.isBase64URL(token, offset, length))
             throw new JWTDecodeException("Error decoding JWT");
+
+        return Base64Utils.decodeBase64URL(token, offset, length);
+    }
+
+    private static byte[] toASCIIBytes(CharSequence jwt) throws JWTDecodeException {
+        byte[] bytes = asciiBytesOf(jwt);
+        if (bytes == null) throw new JWTDecodeException("Error decoding JWT");
+
+        return bytes;
+    }
+
+    /**
+     * @return the characters as bytes, or null when a character is not ASCII
+     */
+    private static byte[] asciiBytesOf(CharSequence jwt) {
+        byte[] bytes = new byte[jwt.length()];
+
+        for (int i = 0; i < bytes.length; i++) {
+            char c = jwt.charAt(i);
+            if (c > 0x7F) return null;
+            bytes[i] = (byte) c;
         }
+
+        return bytes;
     }
 
     /**
@@ -107,7 +624,31 @@ public final class JWT {
      * @throws JWTValidationException when JWT is not valid
      */
     public void validate() throws JWTValidationException {
-        validate(new DefaultJWTValidator());
+        validate(DefaultJWTValidator.DEFAULT);
+    }
+
+    /**
+     * Checks whether the JWT is valid or not with the default JWT validator, on the common fork-join pool
+     *
+     * @return future which completes exceptionally with a {@link JWTValidationException} when JWT is not valid
+     */
+    public CompletableFuture<Void> validateAsync() {
+        return validateAsync(DefaultJWTValidator.DEFAULT, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Checks whether the JWT is valid or not with a custom validator, on the given executor. Verifying an
+     * RSA signature is CPU heavy, this keeps it off the calling thread.
+     *
+     * @param validator JWT Validator
+     * @param executor executor to validate on
+     * @return future which completes exceptionally with a {@link JWTValidationException} when JWT is not valid
+     */
+    public CompletableFuture<Void> validateAsync(JWTValidator validator, Executor executor) {
+        return runAsync(() -> {
+            validator.validate(this);
+            return null;
+        }, executor);
     }
 
     /**
@@ -117,9 +658,216 @@ public final class JWT {
      * @throws JWTCreationException when JWT could not be created
      */
     public String sign() throws JWTCreationException {
-        String signature = createSignature();
+        long start = Instrumentation.start();
+
+        try {
+            byte[] input = encodeSigningInput(header.json(), payload.json());
+            byte[] signed = signatureOf(input, 0, input.length);
+
+            byte[] jwt = Arrays.copyOf(input, input.length + 1 + Base64Utils.encodedLength(signed.length));
+            jwt[input.length] = '.';
+            Base64Utils.encodeBase64URL(signed, 0, signed.length, jwt, input.length + 1);
+
+            String token = new String(jwt, StandardCharsets.US_ASCII);
+            Instrumentation.success(Operation.SIGN, algorithm, start);
+            return token;
+        } catch (JWTCreationException e) {
+            Instrumentation.failure(Operation.SIGN, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a new JWT and write it into an array. The header and payload are encoded straight into the
+     * array and signed there, only their JSON and the signature are allocated.
+     *
+     * @param dst array to write the JWT to
+     * @param offset start of the JWT in dst
+     * @return number of bytes written
+     * @throws IndexOutOfBoundsException when the JWT does not fit, dst may be partly written
+     * @throws JWTCreationException when JWT could not be created
+     */
+    public int sign(byte[] dst, int offset) throws JWTCreationException {
+        long start = Instrumentation.start();
+
+        try {
+            if (offset < 0 || offset > dst.length) throw new IndexOutOfBoundsException("offset is out of bounds");
+
+            int written = write(dst, offset, dst.length);
+            if (written < 0)
+                throw new IndexOutOfBoundsException("The JWT does not fit in " + (dst.length - offset) + " bytes");
 
-        return String.format("%s.%s.%s", header.base64Encoded(), payload.base64Encoded(), signature);
+            Instrumentation.success(Operation.SIGN, algorithm, start);
+            return written;
+        } catch (JWTCreationException e) {
+            Instrumentation.failure(Operation.SIGN, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a new JWT and write it into a buffer, for example the buffer of a response. The header and
+     * payload are encoded straight into the buffer and signed there, only their JSON and the signature are
+     * allocated. The position of the buffer is advanced past the JWT.
+     *
+     * @param dst buffer to write the JWT to
+     * @throws BufferOverflowException when the JWT does not fit, the position of dst is not changed
+     * @throws JWTCreationException when JWT could not be created
+     */
+    public void sign(ByteBuffer dst) throws JWTCreationException {
+        long start = Instrumentation.start();
+
+        try {
+            if (dst.isReadOnly()) throw new ReadOnlyBufferException();
+
+            if (dst.hasArray()) {
+                int written = write(dst.array(), dst.arrayOffset() + dst.position(), dst.arrayOffset() + dst.limit());
+                if (written < 0) throw new BufferOverflowException();
+
+                ((Buffer) dst).position(dst.position() + written);
+                Instrumentation.success(Operation.SIGN, algorithm, start);
+                return;
+            }
+
+            byte[] headerJSON = header.json();
+            byte[] payloadJSON = payload.json();
+            if (dst.remaining() < signingInputLength(headerJSON, payloadJSON)) throw new BufferOverflowException();
+
+            ByteBuffer view = dst.duplicate();
+            Base64Utils.encodeBase64URL(headerJSON, 0, headerJSON.length, view);
+            view.put((byte) '.');
+            Base64Utils.encodeBase64URL(payloadJSON, 0, payloadJSON.length, view);
+
+            ((Buffer) view).flip();
+            ((Buffer) view).position(dst.position());
+            byte[] signed = signatureOf(view);
+
+            ((Buffer) view).limit(dst.limit());
+            if (view.remaining() < 1 + Base64Utils.encodedLength(signed.length)) throw new BufferOverflowException();
+
+            view.put((byte) '.');
+            Base64Utils.encodeBase64URL(signed, 0, signed.length, view);
+            ((Buffer) dst).position(view.position());
+            Instrumentation.success(Operation.SIGN, algorithm, start);
+        } catch (JWTCreationException e) {
+            Instrumentation.failure(Operation.SIGN, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a new JWT and append it to a string builder, without creating intermediate strings
+     *
+     * @param dst builder to append the JWT to
+     * @throws JWTCreationException when JWT could not be created
+     */
+    public void sign(StringBuilder dst) throws JWTCreationException {
+        long start = Instrumentation.start();
+
+        try {
+            byte[] input = encodeSigningInput(header.json(), payload.json());
+            byte[] signed = signatureOf(input, 0, input.length);
+            int signatureLength = Base64Utils.encodedLength(signed.length);
+
+            dst.ensureCapacity(dst.length() + input.length + 1 + signatureLength);
+            for (byte b: input) dst.append((char) b);
+            dst.append('.');
+
+            byte[] encodedSignature = encodeSignature(signed, input);
+            for (int i = 0; i < signatureLength; i++) dst.append((char) encodedSignature[i]);
+            Instrumentation.success(Operation.SIGN, algorithm, start);
+        } catch (JWTCreationException e) {
+            Instrumentation.failure(Operation.SIGN, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a new JWT and write it to a stream, without creating intermediate strings
+     *
+     * @param out stream to write the JWT to
+     * @throws IOException when writing to the stream fails
+     * @throws JWTCreationException when JWT could not be created
+     */
+    public void sign(OutputStream out) throws IOException, JWTCreationException {
+        long start = Instrumentation.start();
+
+        try {
+            byte[] input = encodeSigningInput(header.json(), payload.json());
+            byte[] signed = signatureOf(input, 0, input.length);
+
+            out.write(input);
+            out.write('.');
+            out.write(encodeSignature(signed, input), 0, Base64Utils.encodedLength(signed.length));
+            Instrumentation.success(Operation.SIGN, algorithm, start);
+        } catch (JWTCreationException e) {
+            Instrumentation.failure(Operation.SIGN, algorithm, e.getReason(), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Encode the header and payload into dst and sign them there
+     *
+     * @return number of bytes written, or -1 when the JWT does not fit before end
+     */
+    private int write(byte[] dst, int offset, int end) throws JWTCreationException {
+        byte[] headerJSON = header.json();
+        byte[] payloadJSON = payload.json();
+
+        int inputLength = signingInputLength(headerJSON, payloadJSON);
+        if (end - offset < inputLength) return -1;
+
+        writeSigningInput(headerJSON, payloadJSON, dst, offset);
+        byte[] signed = signatureOf(dst, offset, inputLength);
+
+        int position = offset + inputLength;
+        if (end - position < 1 + Base64Utils.encodedLength(signed.length)) return -1;
+
+        dst[position++] = '.';
+        position += Base64Utils.encodeBase64URL(signed, 0, signed.length, dst, position);
+        return position - offset;
+    }
+
+    /**
+     * Sign a signing input, or reuse the signature of a created JWT when its header and payload did not change
+     */
+    private byte[] signatureOf(byte[] input, int offset, int length) throws JWTCreationException {
+        if (signedInput != null && length == signedInput.length && rangeEquals(signedInput, input, offset))
+            return rawSignature;
+
+        return createSignature(algorithm, input, offset, length);
+    }
+
+    private byte[] signatureOf(ByteBuffer input) throws JWTCreationException {
+        if (signedInput != null && input.equals(ByteBuffer.wrap(signedInput))) {
+            ((Buffer) input).position(input.limit());
+            return rawSignature;
+        }
+
+        try {
+            return Instrumentation.sign(algorithm, input);
+        } catch (JWTSignException e) {
+            throw new JWTCreationException(e.getMessage(), FailureReason.SIGN_ERROR);
+        }
+    }
+
+    private static boolean rangeEquals(byte[] expected, byte[] data, int offset) {
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != data[offset + i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Encode a signature, into the spare array when it is large enough
+     */
+    private static byte[] encodeSignature(byte[] signed, byte[] spare) {
+        int length = Base64Utils.encodedLength(signed.length);
+        byte[] encoded = spare.length >= length ? spare : new byte[length];
+
+        Base64Utils.encodeBase64URL(signed, 0, signed.length, encoded, 0);
+        return encoded;
     }
 
     /**
@@ -128,15 +876,51 @@ public final class JWT {
      * @return Created signature
      * @throws JWTCreationException when Sign exception occurs
      */
-    private String createSignature() throws JWTCreationException {
+    private static byte[] createSignature(Algorithm algorithm, byte[] input, int offset, int length) throws JWTCreationException {
         try {
-            String concatenated = String.format("%s.%s", header.base64Encoded(), payload.base64Encoded());
-            byte[] signed = algorithm.sign(concatenated.getBytes(StandardCharsets.UTF_8));
-
-            return Base64Utils.encodeBase64URL(signed);
+            return Instrumentation.sign(algorithm, input, offset, length);
         } catch (JWTSignException e) {
-            throw new JWTCreationException(e.getMessage());
+            throw new JWTCreationException(e.getMessage(), FailureReason.SIGN_ERROR);
+        }
+    }
+
+    /**
+     * Run a task on an executor. The future also completes exceptionally when the executor rejects the task.
+     */
+    private static <T> CompletableFuture<T> runAsync(Callable<T> task, Executor executor) {
+        if (executor == null) throw new IllegalArgumentException("Executor must not be null");
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
         }
+
+        return future;
+    }
+
+    private static int signingInputLength(byte[] headerJSON, byte[] payloadJSON) {
+        return Base64Utils.encodedLength(headerJSON.length) + 1 + Base64Utils.encodedLength(payloadJSON.length);
+    }
+
+    private static byte[] encodeSigningInput(byte[] headerJSON, byte[] payloadJSON) {
+        byte[] input = new byte[signingInputLength(headerJSON, payloadJSON)];
+        writeSigningInput(headerJSON, payloadJSON, input, 0);
+        return input;
+    }
+
+    private static void writeSigningInput(byte[] headerJSON, byte[] payloadJSON, byte[] dst, int offset) {
+        int position = offset + Base64Utils.encodeBase64URL(headerJSON, 0, headerJSON.length, dst, offset);
+        dst[position++] = '.';
+        Base64Utils.encodeBase64URL(payloadJSON, 0, payloadJSON.length, dst, position);
     }
 
     public static class Builder {
@@ -183,6 +967,17 @@ public final class JWT {
             return this;
         }
 
+        /**
+         * Add a key ID (kid) claim to header, so the verifying party can look up the key
+         *
+         * @param keyId ID of the signing key
+         * @return the same builder instance
+         */
+        public Builder withKeyId(String keyId) {
+            header.setKeyId(keyId);
+            return this;
+        }
+
         /**
          * Add an issuer (iss) claim to payload
          *
@@ -360,9 +1155,52 @@ public final class JWT {
          * @throws JWTCreationException when the JWT could not be created
          */
         public String sign() throws JWTCreationException {
-            if (!header.containsClaim(Claims.Registered.TYPE.getValue()))
-                withType("JWT");
-            return new JWT(this).sign();
+            return unsigned().sign();
+        }
+
+        /**
+         * Creates a new JWT and writes it into an array, see {@link JWT#sign(byte[], int)}
+         *
+         * @param dst array to write the JWT to
+         * @param offset start of the JWT in dst
+         * @return number of bytes written
+         * @throws IndexOutOfBoundsException when the JWT does not fit
+         * @throws JWTCreationException when the JWT could not be created
+         */
+        public int sign(byte[] dst, int offset) throws JWTCreationException {
+            return unsigned().sign(dst, offset);
+        }
+
+        /**
+         * Creates a new JWT and writes it into a buffer, see {@link JWT#sign(ByteBuffer)}
+         *
+         * @param dst buffer to write the JWT to
+         * @throws BufferOverflowException when the JWT does not fit
+         * @throws JWTCreationException when the JWT could not be created
+         */
+        public void sign(ByteBuffer dst) throws JWTCreationException {
+            unsigned().sign(dst);
+        }
+
+        /**
+         * Creates a new JWT and appends it to a string builder
+         *
+         * @param dst builder to append the JWT to
+         * @throws JWTCreationException when the JWT could not be created
+         */
+        public void sign(StringBuilder dst) throws JWTCreationException {
+            unsigned().sign(dst);
+        }
+
+        /**
+         * Creates a new JWT and writes it to a stream
+         *
+         * @param out stream to write the JWT to
+         * @throws IOException when writing to the stream fails
+         * @throws JWTCreationException when the JWT could not be created
+         */
+        public void sign(OutputStream out) throws IOException, JWTCreationException {
+            unsigned().sign(out);
         }
 
         /**
@@ -377,6 +1215,39 @@ public final class JWT {
             return sign();
         }
 
+        /**
+         * Creates a new JWT on the common fork-join pool. The header and payload are copied first, so the
+         * builder can be changed or reused right away.
+         *
+         * @return future of a new JWT, which completes exceptionally with a {@link JWTCreationException}
+         * when the JWT could not be created
+         */
+        public CompletableFuture<String> signAsync() {
+            return signAsync(ForkJoinPool.commonPool());
+        }
+
+        /**
+         * Creates a new JWT on the given executor. Signing with RSA is CPU heavy, this keeps it off the
+         * calling thread. The header and payload are copied on the calling thread, so the builder can be
+         * changed or reused right away.
+         *
+         * @param executor executor to sign on
+         * @return future of a new JWT, which completes exceptionally with a {@link JWTCreationException}
+         * when the JWT could not be created
+         */
+        public CompletableFuture<String> signAsync(Executor executor) {
+            JWT jwt;
+            try {
+                jwt = copy();
+            } catch (RuntimeException e) {
+                CompletableFuture<String> future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+                return future;
+            }
+
+            return runAsync(jwt::sign, executor);
+        }
+
         /**
          * Create a new JWT instance
          *
@@ -385,5 +1256,25 @@ public final class JWT {
         public JWT build() throws JWTCreationException {
             return new JWT(this);
         }
+
+        /**
+         * JWT which is signed when it is written, so the builder signs only once
+         */
+        private JWT unsigned() {
+            if (!header.containsClaim(Claims.Registered.TYPE.getValue()))
+                withType("JWT");
+            return new JWT(algorithm, header, payload, null, null, 0, false);
+        }
+
+        /**
+         * Unsigned JWT with copies of the header and payload, which later changes to the builder do not
+         * affect. The copies hold the encoded JSON, so they are signed exactly as the builder would.
+         */
+        private JWT copy() {
+            JWT unsigned = unsigned();
+            Header header = new Header(ClaimsIndex.of(unsigned.header.json()));
+            Payload payload = new Payload(ClaimsIndex.of(unsigned.payload.json()));
+            return new JWT(algorithm, header, payload, null, null, 0, false);
+        }
     }
 }
@@ -0,0 +1,310 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.algorithms.PrefixedSigner;
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTSignException;
+import com.bastiaanjansen.jwt.json.JSONCodecs;
+import com.bastiaanjansen.jwt.metrics.Operation;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Issues many tokens with the same header and a set of fixed claims. The header is encoded once, the
+ * fixed claims are serialised once, and the algorithm prepares for messages starting with the encoded
+ * header, so every token only serialises, encodes and signs its own claims.
+ *
+ * <p>Templates are immutable and can be shared by all threads.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class JWTTemplate {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Algorithm algorithm;
+
+    // Encoded header followed by a dot
+    private final byte[] prefix;
+    private final PrefixedSigner signer;
+
+    // JSON of the fixed claims without its closing brace, or null when there are none
+    private final byte[] fixedJSON;
+    private final Set<String> fixedNames;
+
+    private final long timeToLive;
+    private final Clock clock;
+
+    private JWTTemplate(Builder builder) {
+        this.algorithm = builder.algorithm;
+
+        byte[] encodedHeader = builder.header.base64Encoded().getBytes(StandardCharsets.US_ASCII);
+        this.prefix = Arrays.copyOf(encodedHeader, encodedHeader.length + 1);
+        this.prefix[encodedHeader.length] = '.';
+        this.signer = algorithm.prefixedSigner(prefix);
+
+        Map<String, Object> fixed = builder.payload.getAsMap();
+        if (fixed.isEmpty()) {
+            this.fixedJSON = null;
+        } else {
+            byte[] json = JSONCodecs.getDefault().encode(builder.payload.claims);
+            this.fixedJSON = Arrays.copyOf(json, json.length - 1);
+        }
+        this.fixedNames = Collections.unmodifiableSet(fixed.keySet());
+
+        this.timeToLive = builder.timeToLive;
+        this.clock = builder.clock;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Issue a token with only the fixed claims, and the issued at and expiration time when the template
+     * has a time to live
+     *
+     * @return a new JWT
+     * @throws JWTCreationException when the JWT could not be created
+     */
+    public String sign() throws JWTCreationException {
+        return sign(Collections.emptyMap());
+    }
+
+    /**
+     * Issue a token with the fixed claims and the given claims. The given claims may set the issued at and
+     * expiration time the template adds, but not replace its fixed claims.
+     *
+     * @param claims claims of this token
+     * @return a new JWT
+     * @throws IllegalArgumentException when a claim is null or is one of the fixed claims
+     * @throws JWTCreationException when the JWT could not be created
+     */
+    public String sign(Map<String, ?> claims) throws JWTCreationException {
+        if (claims == null) throw new IllegalArgumentException("claims cannot be null");
+
+        long start = Instrumentation.start();
+        Payload payload = new Payload();
+        if (timeToLive >= 0) {
+            long now = clock.millis();
+            payload.setIssuedAt(now);
+            payload.setExpirationTime(now + timeToLive);
+        }
+
+        for (Map.Entry<String, ?> claim: claims.entrySet()) {
+            if (fixedNames.contains(claim.getKey()))
+                throw new IllegalArgumentException("Claim " + claim.getKey() + " is fixed by the template");
+
+            payload.addClaim(claim.getKey(), claim.getValue());
+        }
+
+        return sign(payloadJSON(payload), start);
+    }
+
+    /**
+     * Issue a token with the fixed claims and the claims of a payload. When the template has no fixed
+     * claims and no time to live, the payload is encoded as it is, without copying its claims.
+     *
+     * @param payload claims of this token
+     * @return a new JWT
+     * @throws IllegalArgumentException when a claim is null or is one of the fixed claims
+     * @throws JWTCreationException when the JWT could not be created
+     */
+    public String sign(Payload payload) throws JWTCreationException {
+        if (payload == null) throw new IllegalArgumentException("payload cannot be null");
+
+        if (fixedJSON == null && timeToLive < 0)
+            return sign(payload.json(), Instrumentation.start());
+
+        return sign(payload.getAsMap());
+    }
+
+    private String sign(byte[] payloadJSON, long start) throws JWTCreationException {
+        byte[] encodedPayload = ENCODER.encode(payloadJSON);
+
+        try {
+            byte[] signature = ENCODER.encode(Instrumentation.sign(algorithm, signer, encodedPayload, 0, encodedPayload.length));
+
+            byte[] token = Arrays.copyOf(prefix, prefix.length + encodedPayload.length + 1 + signature.length);
+            System.arraycopy(encodedPayload, 0, token, prefix.length, encodedPayload.length);
+            token[prefix.length + encodedPayload.length] = '.';
+            System.arraycopy(signature, 0, token, prefix.length + encodedPayload.length + 1, signature.length);
+
+            Instrumentation.success(Operation.SIGN, algorithm, start);
+            return new String(token, StandardCharsets.US_ASCII);
+        } catch (JWTSignException e) {
+            Instrumentation.failure(Operation.SIGN, algorithm, FailureReason.SIGN_ERROR, start);
+            throw new JWTCreationException(e.getMessage(), FailureReason.SIGN_ERROR);
+        }
+    }
+
+    /**
+     * Join the fixed claims and the claims of a token into one JSON object
+     */
+    private byte[] payloadJSON(Payload payload) {
+        if (payload.claims.isEmpty())
+            return fixedJSON == null ? new byte[] { '{', '}' } : closed(fixedJSON);
+
+        byte[] json = JSONCodecs.getDefault().encode(payload.claims);
+        if (fixedJSON == null) return json;
+
+        // The fixed claims end where the claims of the token start, after their opening brace
+        byte[] joined = Arrays.copyOf(fixedJSON, fixedJSON.length + json.length);
+        joined[fixedJSON.length] = ',';
+        System.arraycopy(json, 1, joined, fixedJSON.length + 1, json.length - 1);
+        return joined;
+    }
+
+    private static byte[] closed(byte[] json) {
+        byte[] closed = Arrays.copyOf(json, json.length + 1);
+        closed[json.length] = '}';
+        return closed;
+    }
+
+    public static class Builder {
+
+        private final Algorithm algorithm;
+        private final Header header;
+        private final Payload payload;
+        private long timeToLive = -1;
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * Creates a new template builder
+         *
+         * @param algorithm algorithm to sign with
+         */
+        public Builder(Algorithm algorithm) {
+            if (algorithm == null)
+                throw new IllegalArgumentException("Algorithm must not be null");
+
+            this.algorithm = algorithm;
+            this.header = new Header();
+            this.payload = new Payload();
+
+            header.setAlgorithm(algorithm.getName());
+        }
+
+        /**
+         * Set the type (typ) claim of the header, JWT by default
+         *
+         * @param type type header
+         * @return the same builder instance
+         */
+        public Builder withType(String type) {
+            header.setType(type);
+            return this;
+        }
+
+        /**
+         * Add a content type (cty) claim to header
+         *
+         * @param contentType content type value
+         * @return the same builder instance
+         */
+        public Builder withContentType(String contentType) {
+            header.setContentType(contentType);
+            return this;
+        }
+
+        /**
+         * Add a key ID (kid) claim to header
+         *
+         * @param keyId ID of the signing key
+         * @return the same builder instance
+         */
+        public Builder withKeyId(String keyId) {
+            header.setKeyId(keyId);
+            return this;
+        }
+
+        /**
+         * Add a header claim
+         *
+         * @param name name of header claim
+         * @param value value of header claim
+         * @return the same builder instance
+         */
+        public Builder withHeader(String name, String value) {
+            if (name == null || value == null) throw new IllegalArgumentException("Header value cannot be null");
+            header.addClaim(name, value);
+            return this;
+        }
+
+        /**
+         * Add an issuer (iss) claim to every token
+         *
+         * @param issuer issuer value
+         * @return the same builder instance
+         */
+        public Builder withIssuer(String issuer) {
+            payload.setIssuer(issuer);
+            return this;
+        }
+
+        /**
+         * Add an audience (aud) claim to every token
+         *
+         * @param audience audience value
+         * @return the same builder instance
+         */
+        public Builder withAudience(String... audience) {
+            payload.setAudience(audience);
+            return this;
+        }
+
+        /**
+         * Add a claim to every token
+         *
+         * @param name name of payload claim
+         * @param value value of payload claim
+         * @return the same builder instance
+         */
+        public Builder withClaim(String name, Object value) {
+            if (name == null || value == null) throw new IllegalArgumentException("Claim value cannot be null");
+            payload.addClaim(name, value);
+            return this;
+        }
+
+        /**
+         * Give every token an issued at (iat) claim with the time it is signed, and an expiration time
+         * (exp) claim the given duration later
+         *
+         * @param timeToLive time tokens stay valid
+         * @return the same builder instance
+         */
+        public Builder withTimeToLive(Duration timeToLive) {
+            if (timeToLive == null || timeToLive.isNegative()) throw new IllegalArgumentException("timeToLive must not be null or negative");
+            this.timeToLive = timeToLive.toMillis();
+            return this;
+        }
+
+        /**
+         * Clock for the issued at and expiration time
+         *
+         * @param clock clock
+         * @return the same builder instance
+         */
+        public Builder withClock(Clock clock) {
+            if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+            this.clock = clock;
+            return this;
+        }
+
+        public JWTTemplate build() {
+            if (timeToLive >= 0 && (payload.containsClaim(Claims.Registered.ISSUED_AT.getValue())
+                    || payload.containsClaim(Claims.Registered.EXPIRATION_TIME.getValue())))
+                throw new IllegalArgumentException("Issued at and expiration time cannot be fixed with a time to live");
+
+            return new JWTTemplate(this);
+        }
+    }
+}
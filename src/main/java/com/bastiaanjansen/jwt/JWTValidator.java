@@ -9,4 +9,23 @@ import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
  */
 public interface JWTValidator {
     void validate(JWT jwt) throws JWTValidationException;
+
+    /**
+     * Validate without throwing. By default this catches the exception of {@link #validate(JWT)},
+     * {@link DefaultJWTValidator} does not create one for tokens it rejects.
+     *
+     * @param jwt JWT to validate
+     * @return the result, with the reason when the JWT is not valid
+     */
+    default ValidationResult check(JWT jwt) {
+        try {
+            validate(jwt);
+            return ValidationResult.valid(jwt);
+        } catch (JWTValidationException e) {
+            return ValidationResult.invalid(e);
+        } catch (RuntimeException e) {
+            // Claim validators may fail on unexpected claim types
+            return ValidationResult.invalidClaim(e);
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+
+/**
+ * Picks the algorithm and key a JWT is verified with, based on its header. Resolvers are called for
+ * every parsed token, so they should not block.
+ *
+ * @author Bastiaan Jansen
+ */
+public interface KeyResolver {
+
+    /**
+     * Find the algorithm for a header, usually by its algorithm (alg) and key ID (kid)
+     *
+     * @param header decoded header of the JWT
+     * @return the algorithm, or null when there is no key for the header
+     */
+    Algorithm resolve(Header header);
+
+    /**
+     * Called after the signature of a token was verified with the algorithm this resolver returned for
+     * its header. Tokens with an invalid signature are never reported.
+     *
+     * @param header decoded header of the JWT
+     * @param algorithm the algorithm the signature was verified with
+     */
+    default void onVerified(Header header, Algorithm algorithm) {}
+}
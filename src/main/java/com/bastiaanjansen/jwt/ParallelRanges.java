@@ -0,0 +1,90 @@
+package com.bastiaanjansen.jwt;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs an action over the indexes of a batch in parallel, in ranges. A {@link ForkJoinPool} splits the
+ * batch by work stealing, other executors get it in equal parts. Returns when all ranges are done.
+ *
+ * @author Bastiaan Jansen
+ */
+final class ParallelRanges {
+
+    // Number of tasks per worker, so workers which finish early can help with the rest
+    private static final int TASKS_PER_WORKER = 8;
+
+    private ParallelRanges() {}
+
+    @FunctionalInterface
+    interface RangeAction {
+
+        /**
+         * @param from first index of the range
+         * @param to index after the range
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * Run an action over the indexes 0 to size
+     *
+     * @param executor executor to run the ranges on
+     * @param size number of indexes
+     * @param action action which handles a range of indexes
+     */
+    static void forEach(Executor executor, int size, RangeAction action) {
+        if (size == 0) return;
+
+        if (executor instanceof ForkJoinPool) {
+            ForkJoinPool pool = (ForkJoinPool) executor;
+            int threshold = Math.max(1, size / (pool.getParallelism() * TASKS_PER_WORKER));
+            pool.invoke(new RangeTask(action, 0, size, threshold));
+        } else {
+            runOnExecutor(executor, size, action);
+        }
+    }
+
+    private static void runOnExecutor(Executor executor, int size, RangeAction action) {
+        int tasks = Math.min(size, Runtime.getRuntime().availableProcessors() * TASKS_PER_WORKER);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks];
+
+        for (int task = 0; task < tasks; task++) {
+            int from = (int) ((long) size * task / tasks);
+            int to = (int) ((long) size * (task + 1) / tasks);
+            futures[task] = CompletableFuture.runAsync(() -> action.run(from, to), executor);
+        }
+
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private final RangeAction action;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        RangeTask(RangeAction action, int from, int to, int threshold) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                action.run(from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new RangeTask(action, from, middle, threshold),
+                    new RangeTask(action, middle, to, threshold)
+            );
+        }
+    }
+}
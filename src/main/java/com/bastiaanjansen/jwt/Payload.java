@@ -1,8 +1,10 @@
 package com.bastiaanjansen.jwt;
 
+import com.bastiaanjansen.jwt.json.JSONCodecs;
+import com.bastiaanjansen.jwt.schema.ClaimsCodec;
 import com.bastiaanjansen.jwt.utils.Base64Utils;
-import org.json.JSONObject;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Map;
 
@@ -14,10 +16,48 @@ public final class Payload extends Claims {
         claims.putAll(map);
     }
 
+    Payload(ClaimsIndex index) {
+        super(index);
+    }
+
+    /**
+     * Create a payload from typed claims. The claims are written straight to JSON, without building a map
+     * first.
+     *
+     * @param claims the claims
+     * @param codec codec generated for the type, see {@link com.bastiaanjansen.jwt.schema.ClaimsSchema}
+     * @param <T> type of the claims
+     * @return a new payload
+     */
+    public static <T> Payload of(T claims, ClaimsCodec<T> codec) {
+        if (claims == null) throw new IllegalArgumentException("claims cannot be null");
+        if (codec == null) throw new IllegalArgumentException("codec cannot be null");
+
+        ClaimsIndex index = ClaimsIndex.of(codec.encode(claims), JSONCodecs.getDefault());
+        index.decodeLongs(TIME_CLAIMS);
+        return new Payload(index);
+    }
+
     public static Payload fromBase64EncodedJSON(String encodedJSON) {
-        String decodedJSON = Base64Utils.decodeBase64URL(encodedJSON);
-        Map<String, Object> map = new JSONObject(decodedJSON).toMap();
-        return new Payload(map);
+        byte[] encoded = encodedJSON.getBytes(StandardCharsets.US_ASCII);
+        return fromBase64EncodedJSON(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Decode a base64URL encoded JSON object. The JSON is checked and indexed, but claims are only decoded
+     * by the default {@link com.bastiaanjansen.jwt.json.JSONCodec} when they are read.
+     *
+     * @param encoded array holding the encoded JSON
+     * @param offset start of the encoded JSON
+     * @param length length of the encoded JSON
+     * @return decoded claims
+     * @throws IllegalArgumentException when the data is not base64URL encoded JSON object
+     */
+    static Payload fromBase64EncodedJSON(byte[] encoded, int offset, int length) {
+        byte[] decodedJSON = Base64Utils.decodeBase64URL(encoded, offset, length);
+        ClaimsIndex index = ClaimsIndex.of(decodedJSON, JSONCodecs.getDefault());
+        index.decodeLongs(TIME_CLAIMS);
+        return new Payload(index);
     }
 
     public void setIssuer(String issuer) {
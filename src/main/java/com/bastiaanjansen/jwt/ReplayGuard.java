@@ -0,0 +1,371 @@
+package com.bastiaanjansen.jwt;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers the JWT ID's (jti) of one-time tokens, such as password reset links and webhook callbacks, so
+ * a second use of the same token within its lifetime is rejected. Add it to a validator with
+ * {@link DefaultJWTValidator.Builder#withReplayGuard(ReplayGuard)}.
+ *
+ * <p>ID's are kept in stripes, hash tables which are each guarded by their own lock. Every stripe has a
+ * hashed timing wheel: the ID's are put in the slot of the tick in which their token expires, and a
+ * stripe empties the slots of the ticks which have passed whenever it is used. Expired ID's are removed
+ * without ever scanning all ID's; an ID which expires more than one revolution ahead stays in its slot
+ * until its own round comes.</p>
+ *
+ * <p>The number of ID's is bounded. When a stripe is full, tokens are rejected until ID's expire, as it
+ * can no longer tell whether a token was used before. A {@link ReplayStore} can persist ID's or share
+ * them between instances.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class ReplayGuard {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final Clock clock;
+    private final long leeway;
+    private final long tickDuration;
+    private final ReplayStore store;
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    private ReplayGuard(Builder builder) {
+        this.clock = builder.clock;
+        this.leeway = builder.leeway;
+        this.tickDuration = builder.tickDuration;
+        this.store = builder.store;
+
+        int stripeCount = Math.min(Integer.highestOneBit(Math.max(1, builder.maximumSize)),
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4));
+        this.stripes = new Stripe[stripeCount];
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+
+        long now = clock.millis();
+        for (int i = 0; i < stripeCount; i++)
+            stripes[i] = new Stripe(builder.maximumSize / stripeCount, tick(now));
+    }
+
+    /**
+     * Record the use of a JWT ID
+     *
+     * @param id JWT ID (jti)
+     * @param expirationTime expiration time (exp) of the token in milliseconds since epoch
+     * @return true when this is the first use of the ID, false when it was used before or the guard is full
+     */
+    public boolean markUsed(String id, long expirationTime) {
+        if (id == null) throw new IllegalArgumentException("id cannot be null");
+
+        int hash = id.hashCode() * 0x9E3779B9;
+        Stripe stripe = stripes[stripeShift == 32 ? 0 : hash >>> stripeShift];
+        long expiresAt = expirationTime < Long.MAX_VALUE - leeway - tickDuration ? expirationTime + leeway : Long.MAX_VALUE - tickDuration;
+        long expiresAtTick = tick(expiresAt) + 1;
+
+        Entry entry = stripe.add(hash, id, expiresAtTick, tick(clock.millis()));
+        if (entry == null) return false;
+
+        boolean first;
+        try {
+            first = store.markUsed(id, expirationTime);
+        } catch (RuntimeException e) {
+            // Not recorded anywhere, so the token may be used again
+            stripe.remove(entry);
+            throw e;
+        }
+
+        // The entry stays: the ID is used, either now or before at another instance
+        if (!first) replays.increment();
+        return first;
+    }
+
+    /**
+     * Remove the ID's of all tokens which have expired now, instead of when their stripe is next used
+     */
+    public void cleanUp() {
+        long now = tick(clock.millis());
+        for (Stripe stripe: stripes)
+            stripe.expire(now);
+    }
+
+    /**
+     * @return number of remembered ID's, including ID's of expired tokens which have not been removed yet
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe: stripes)
+            size += stripe.size;
+        return size;
+    }
+
+    /**
+     * @return number of tokens rejected because their ID was used before
+     */
+    public long getReplayCount() {
+        return replays.sum();
+    }
+
+    /**
+     * @return number of tokens rejected because the guard was full
+     */
+    public long getOverflowCount() {
+        return overflows.sum();
+    }
+
+    private long tick(long time) {
+        return Math.floorDiv(time, tickDuration);
+    }
+
+    private static final class Entry {
+        final int hash;
+        final String id;
+        final long expiresAtTick;
+
+        // Next entry in the same bucket
+        Entry next;
+
+        // Next entry in the same slot of the wheel
+        Entry nextInSlot;
+
+        Entry(int hash, String id, long expiresAtTick) {
+            this.hash = hash;
+            this.id = id;
+            this.expiresAtTick = expiresAtTick;
+        }
+    }
+
+    /**
+     * Hash table with chained buckets and a timing wheel, guarded by its own lock
+     */
+    private final class Stripe extends ReentrantLock {
+        private final int capacity;
+        private Entry[] table;
+        private volatile int size;
+
+        private final Entry[] wheel = new Entry[WHEEL_SIZE];
+        private long tick;
+
+        Stripe(int capacity, long tick) {
+            this.capacity = Math.max(1, capacity);
+            this.table = new Entry[16];
+            this.tick = tick;
+        }
+
+        /**
+         * @return the added entry, or null when the ID is already present or the stripe is full
+         */
+        Entry add(int hash, String id, long expiresAtTick, long now) {
+            lock();
+            try {
+                advance(now);
+
+                for (Entry entry = table[index(hash)]; entry != null; entry = entry.next) {
+                    if (entry.hash == hash && entry.id.equals(id)) {
+                        replays.increment();
+                        return null;
+                    }
+                }
+
+                if (size >= capacity) {
+                    overflows.increment();
+                    return null;
+                }
+
+                if (size >= table.length * 3 / 4)
+                    resize();
+
+                Entry entry = new Entry(hash, id, Math.max(expiresAtTick, tick + 1));
+                int index = index(hash);
+                entry.next = table[index];
+                table[index] = entry;
+
+                int slot = (int) entry.expiresAtTick & (WHEEL_SIZE - 1);
+                entry.nextInSlot = wheel[slot];
+                wheel[slot] = entry;
+
+                size++;
+                return entry;
+            } finally {
+                unlock();
+            }
+        }
+
+        void remove(Entry entry) {
+            lock();
+            try {
+                // Entries removed by the wheel in the meantime are no longer in their bucket
+                if (unlinkFromBucket(entry)) {
+                    int slot = (int) entry.expiresAtTick & (WHEEL_SIZE - 1);
+
+                    if (wheel[slot] == entry) {
+                        wheel[slot] = entry.nextInSlot;
+                    } else {
+                        Entry previous = wheel[slot];
+                        while (previous.nextInSlot != entry) previous = previous.nextInSlot;
+                        previous.nextInSlot = entry.nextInSlot;
+                    }
+
+                    size--;
+                }
+            } finally {
+                unlock();
+            }
+        }
+
+        void expire(long now) {
+            lock();
+            try {
+                advance(now);
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Empty the slots of the ticks between the last processed tick and now. Entries in a passed slot
+         * which expire in a later round are kept.
+         */
+        private void advance(long now) {
+            if (now <= tick) return;
+
+            long first = Math.max(tick + 1, now - WHEEL_SIZE + 1);
+            for (long passed = first; passed <= now; passed++) {
+                int slot = (int) passed & (WHEEL_SIZE - 1);
+                Entry remaining = null;
+
+                for (Entry entry = wheel[slot]; entry != null; ) {
+                    Entry next = entry.nextInSlot;
+
+                    if (entry.expiresAtTick <= now) {
+                        unlinkFromBucket(entry);
+                        size--;
+                    } else {
+                        entry.nextInSlot = remaining;
+                        remaining = entry;
+                    }
+
+                    entry = next;
+                }
+
+                wheel[slot] = remaining;
+            }
+
+            tick = now;
+        }
+
+        private boolean unlinkFromBucket(Entry entry) {
+            int index = index(entry.hash);
+
+            if (table[index] == entry) {
+                table[index] = entry.next;
+                return true;
+            }
+
+            for (Entry previous = table[index]; previous != null; previous = previous.next) {
+                if (previous.next == entry) {
+                    previous.next = entry.next;
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private void resize() {
+            Entry[] old = table;
+            table = new Entry[old.length * 2];
+
+            for (Entry bucket: old) {
+                for (Entry entry = bucket; entry != null; ) {
+                    Entry next = entry.next;
+                    int index = index(entry.hash);
+                    entry.next = table[index];
+                    table[index] = entry;
+                    entry = next;
+                }
+            }
+        }
+
+        private int index(int hash) {
+            return hash & (table.length - 1);
+        }
+    }
+
+    public static class Builder {
+        private int maximumSize = 1_000_000;
+        private long tickDuration = Duration.ofSeconds(1).toMillis();
+        private long leeway;
+        private ReplayStore store = ReplayStore.NONE;
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * Maximum number of remembered ID's, one million by default
+         *
+         * @param maximumSize maximum number of ID's
+         * @return the same builder instance
+         */
+        public Builder withMaximumSize(int maximumSize) {
+            if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be positive");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Length of a tick of the timing wheel, one second by default. ID's are removed within one tick
+         * after their token expires.
+         *
+         * @param tickDuration length of a tick
+         * @return the same builder instance
+         */
+        public Builder withTickDuration(Duration tickDuration) {
+            if (tickDuration == null || tickDuration.toMillis() < 1) throw new IllegalArgumentException("tickDuration must be at least a millisecond");
+            this.tickDuration = tickDuration.toMillis();
+            return this;
+        }
+
+        /**
+         * Time ID's are kept after their token has expired, use the leeway of the validator
+         *
+         * @param leeway allowed clock skew
+         * @return the same builder instance
+         */
+        public Builder withLeeway(Duration leeway) {
+            if (leeway == null || leeway.isNegative()) throw new IllegalArgumentException("leeway must not be null or negative");
+            this.leeway = leeway.toMillis();
+            return this;
+        }
+
+        /**
+         * Store which is asked about every ID that is not remembered in memory
+         *
+         * @param store persistence hook
+         * @return the same builder instance
+         */
+        public Builder withStore(ReplayStore store) {
+            if (store == null) throw new IllegalArgumentException("store cannot be null");
+            this.store = store;
+            return this;
+        }
+
+        /**
+         * Clock to check expiration times against
+         *
+         * @param clock clock
+         * @return the same builder instance
+         */
+        public Builder withClock(Clock clock) {
+            if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+            this.clock = clock;
+            return this;
+        }
+
+        public ReplayGuard build() {
+            return new ReplayGuard(this);
+        }
+    }
+}
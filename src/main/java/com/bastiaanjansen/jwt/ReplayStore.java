@@ -0,0 +1,28 @@
+package com.bastiaanjansen.jwt;
+
+/**
+ * Persistence hook of a {@link ReplayGuard}. The guard asks the store about every JWT ID it has not seen
+ * itself, so a store shared by several instances, for example a database or a cache with an atomic
+ * insert, rejects a token which was already used at another instance.
+ *
+ * @author Bastiaan Jansen
+ */
+@FunctionalInterface
+public interface ReplayStore {
+
+    /**
+     * Store that keeps nothing, the guard only remembers ID's in memory
+     */
+    ReplayStore NONE = (id, expirationTime) -> true;
+
+    /**
+     * Record the first use of a JWT ID. Must be atomic: when called for the same ID concurrently, only one
+     * call may return true.
+     *
+     * @param id JWT ID (jti)
+     * @param expirationTime expiration time (exp) of the token in milliseconds since epoch, the ID can be
+     *                       forgotten after it
+     * @return true when the ID was not used before, false when it was
+     */
+    boolean markUsed(String id, long expirationTime);
+}
@@ -0,0 +1,443 @@
+package com.bastiaanjansen.jwt;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * List of revoked JWT ID's (jti), for tokens which must be rejected before they expire. Add it to a
+ * validator with {@link DefaultJWTValidator.Builder#withRevocationList(RevocationList)}.
+ *
+ * <p>A Bloom filter sits in front of the exact set of ID's. Checking an ID which is not revoked, the
+ * common case, reads one 64 byte block of the filter and does not lock or allocate. Only ID's the
+ * filter reports, revoked ones and a small share of false positives, are looked up in the exact set:
+ * open addressing tables keyed by the hash of the ID, which are read without locking and written under
+ * the lock of their segment.</p>
+ *
+ * <p>An ID is kept until the expiration time of its token has passed, after which the token is rejected
+ * for being expired anyway. Expired ID's are removed when ID's are revoked, at most once per clean up
+ * interval, or by calling {@link #cleanUp()}. Removing ID's rebuilds the filter, because bits can not be
+ * cleared from a Bloom filter.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class RevocationList {
+
+    // Expiration time of tokens without an exp claim, their ID's are never removed
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final Clock clock;
+    private final long leeway;
+    private final long cleanUpInterval;
+    private final int blocks;
+    private final int hashes;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    private volatile BloomFilter filter;
+    private final AtomicLong earliestExpiry = new AtomicLong(NEVER);
+    private final ReentrantLock cleanUpLock = new ReentrantLock();
+    private volatile long lastCleanUp;
+
+    private RevocationList(Builder builder) {
+        this.clock = builder.clock;
+        this.leeway = builder.leeway;
+        this.cleanUpInterval = builder.cleanUpInterval;
+
+        // Optimal number of bits and hash functions for the expected number of ID's, rounded up to whole blocks
+        double bits = -builder.expectedSize * Math.log(builder.falsePositiveProbability) / (Math.log(2) * Math.log(2));
+        this.blocks = Integer.highestOneBit((int) Math.min(BloomFilter.MAXIMUM_BLOCKS, Math.ceil(bits / BloomFilter.BITS_PER_BLOCK)) * 2 - 1);
+        this.hashes = (int) Math.max(1, Math.min(BloomFilter.MAXIMUM_HASHES, Math.round(bits / builder.expectedSize * Math.log(2))));
+        this.filter = new BloomFilter(blocks, hashes);
+
+        int segmentCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4);
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+
+        for (int i = 0; i < segmentCount; i++)
+            segments[i] = new Segment();
+
+        this.lastCleanUp = clock.millis();
+    }
+
+    /**
+     * Whether a JWT ID is revoked
+     *
+     * @param id JWT ID (jti)
+     * @return whether the ID is revoked
+     */
+    public boolean isRevoked(String id) {
+        long hash = hash(id);
+        return filter.mightContain(hash) && segmentFor(hash).contains(hash, id);
+    }
+
+    /**
+     * Revoke a JWT by its ID, until its expiration time has passed
+     *
+     * @param jwt JWT to revoke
+     */
+    public void revoke(JWT jwt) {
+        Payload payload = jwt.getPayload();
+        String id = payload.getID();
+        if (id == null) throw new IllegalArgumentException("JWT has no ID (jti) to revoke");
+
+        revoke(id, payload.containsClaim(Claims.Registered.EXPIRATION_TIME.getValue())
+                ? payload.getExpirationTime().getTime()
+                : NEVER);
+    }
+
+    /**
+     * Revoke a JWT ID until the given expiration time has passed
+     *
+     * @param id JWT ID (jti)
+     * @param expirationTime expiration time (exp) of the token
+     */
+    public void revoke(String id, Date expirationTime) {
+        if (expirationTime == null) throw new IllegalArgumentException("expirationTime cannot be null");
+        revoke(id, expirationTime.getTime());
+    }
+
+    /**
+     * Revoke a JWT ID until the given expiration time has passed
+     *
+     * @param id JWT ID (jti)
+     * @param timeSinceEpoch expiration time (exp) of the token in milliseconds since epoch
+     */
+    public void revoke(String id, long timeSinceEpoch) {
+        if (id == null) throw new IllegalArgumentException("id cannot be null");
+
+        long hash = hash(id);
+        segmentFor(hash).add(hash, id, timeSinceEpoch);
+        earliestExpiry.accumulateAndGet(timeSinceEpoch, Math::min);
+
+        long now = clock.millis();
+        if (now - leeway > earliestExpiry.get() && now - lastCleanUp >= cleanUpInterval && cleanUpLock.tryLock()) {
+            try {
+                removeExpired(now);
+            } finally {
+                cleanUpLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove all ID's of which the token has expired now, instead of when ID's are next revoked
+     */
+    public void cleanUp() {
+        cleanUpLock.lock();
+        try {
+            removeExpired(clock.millis());
+        } finally {
+            cleanUpLock.unlock();
+        }
+    }
+
+    /**
+     * @return number of revoked ID's, including ID's of expired tokens which have not been removed yet
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment: segments)
+            size += segment.size;
+        return size;
+    }
+
+    private void removeExpired(long now) {
+        BloomFilter next = new BloomFilter(blocks, hashes);
+        long earliest = NEVER;
+
+        // All segments are locked while the filter is swapped, so no revocation is added to the old filter only
+        for (Segment segment: segments)
+            segment.lock();
+
+        try {
+            for (Segment segment: segments)
+                earliest = Math.min(earliest, segment.removeExpired(now - leeway, next));
+
+            filter = next;
+            earliestExpiry.set(earliest);
+            lastCleanUp = now;
+        } finally {
+            for (Segment segment: segments)
+                segment.unlock();
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) hash & segmentMask];
+    }
+
+    private static long hash(String id) {
+        // Strings cache their hash code, so an ID checked by several validators is only hashed once
+        long hash = id.hashCode() * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Blocked Bloom filter: all bits of an ID are set in one block of 512 bits, the size of a cache line,
+     * so a check reads one or two cache lines. Bits are set with compare-and-set, so ID's are added without
+     * locking.
+     */
+    private static final class BloomFilter {
+        static final int BITS_PER_BLOCK = 512;
+        static final int MAXIMUM_BLOCKS = 1 << 24;
+        static final int MAXIMUM_HASHES = 7;
+
+        private static final int WORDS_PER_BLOCK = BITS_PER_BLOCK / 64;
+        private static final int BITS_PER_HASH = 9;
+
+        private final AtomicLongArray words;
+        private final int blockMask;
+        private final int hashes;
+
+        BloomFilter(int blocks, int hashes) {
+            this.words = new AtomicLongArray(blocks * WORDS_PER_BLOCK);
+            this.blockMask = blocks - 1;
+            this.hashes = hashes;
+        }
+
+        void add(long hash) {
+            int block = block(hash);
+            long bits = bits(hash);
+
+            for (int i = 0; i < hashes; i++) {
+                int bit = bit(bits, i);
+                int index = block + (bit >>> 6);
+                long mask = 1L << bit;
+
+                long word;
+                while (((word = words.get(index)) & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        boolean mightContain(long hash) {
+            int block = block(hash);
+            long bits = bits(hash);
+
+            for (int i = 0; i < hashes; i++) {
+                int bit = bit(bits, i);
+                if ((words.get(block + (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+
+            return true;
+        }
+
+        private int block(long hash) {
+            // The low bits of the hash select the segment, the high bits select the block
+            return ((int) (hash >>> 32) & blockMask) * WORDS_PER_BLOCK;
+        }
+
+        private static long bits(long hash) {
+            return (hash ^ (hash >>> 31)) * 0xBF58476D1CE4E5B9L;
+        }
+
+        private static int bit(long bits, int i) {
+            return (int) (bits >>> (64 - BITS_PER_HASH * (i + 1))) & (BITS_PER_BLOCK - 1);
+        }
+    }
+
+    /**
+     * Open addressing table of ID's with their hashes and expiration times in parallel arrays. Writers
+     * hold the lock of the segment, which is also held while an ID is added to the filter, so a clean up
+     * which locks all segments never misses an ID. Readers do not lock: an ID is published after its
+     * hash, and a resized table is published after it is filled.
+     */
+    private final class Segment extends ReentrantLock {
+        private volatile Table table = new Table(16);
+        private volatile int size;
+
+        boolean contains(long hash, String id) {
+            return table.find(hash, id) >= 0;
+        }
+
+        void add(long hash, String id, long expirationTime) {
+            lock();
+            try {
+                Table table = this.table;
+
+                int index = table.find(hash, id);
+                if (index >= 0) {
+                    table.expirationTimes[index] = Math.max(table.expirationTimes[index], expirationTime);
+                    return;
+                }
+
+                if (size >= table.capacity() * 3 / 4) {
+                    Table resized = new Table(table.capacity() * 2);
+                    table.copyTo(resized, Long.MIN_VALUE, null);
+                    this.table = table = resized;
+                }
+
+                table.insert(hash, id, expirationTime);
+                size++;
+                filter.add(hash);
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Remove ID's which expired before the given time and add the others to the filter. Called with
+         * the lock held.
+         *
+         * @return earliest expiration time of the remaining ID's
+         */
+        long removeExpired(long before, BloomFilter into) {
+            Table table = this.table;
+
+            int remaining = table.count(before);
+            int capacity = 16;
+            while (remaining >= capacity * 3 / 4) capacity *= 2;
+
+            Table next = new Table(capacity);
+            long earliest = table.copyTo(next, before, into);
+
+            this.table = next;
+            size = remaining;
+            return earliest;
+        }
+    }
+
+    private static final class Table {
+        final long[] hashes;
+        final long[] expirationTimes;
+        final AtomicReferenceArray<String> ids;
+
+        Table(int capacity) {
+            this.hashes = new long[capacity];
+            this.expirationTimes = new long[capacity];
+            this.ids = new AtomicReferenceArray<>(capacity);
+        }
+
+        int capacity() {
+            return hashes.length;
+        }
+
+        int find(long hash, String id) {
+            int mask = hashes.length - 1;
+
+            for (int index = (int) (hash >>> 16) & mask; ; index = (index + 1) & mask) {
+                String existing = ids.get(index);
+                if (existing == null) return -1;
+                if (hashes[index] == hash && existing.equals(id)) return index;
+            }
+        }
+
+        void insert(long hash, String id, long expirationTime) {
+            int mask = hashes.length - 1;
+            int index = (int) (hash >>> 16) & mask;
+            while (ids.get(index) != null) index = (index + 1) & mask;
+
+            hashes[index] = hash;
+            expirationTimes[index] = expirationTime;
+            ids.set(index, id);
+        }
+
+        int count(long expiredBefore) {
+            int count = 0;
+            for (int i = 0; i < hashes.length; i++) {
+                if (ids.get(i) != null && expirationTimes[i] >= expiredBefore) count++;
+            }
+            return count;
+        }
+
+        /**
+         * Copy the ID's which did not expire before the given time to another table and filter
+         *
+         * @return earliest expiration time of the copied ID's
+         */
+        long copyTo(Table other, long expiredBefore, BloomFilter filter) {
+            long earliest = NEVER;
+
+            for (int i = 0; i < hashes.length; i++) {
+                String id = ids.get(i);
+                if (id == null || expirationTimes[i] < expiredBefore) continue;
+
+                other.insert(hashes[i], id, expirationTimes[i]);
+                if (filter != null) filter.add(hashes[i]);
+                earliest = Math.min(earliest, expirationTimes[i]);
+            }
+
+            return earliest;
+        }
+    }
+
+    public static class Builder {
+        private int expectedSize = 100_000;
+        private double falsePositiveProbability = 0.01;
+        private long leeway;
+        private long cleanUpInterval = Duration.ofMinutes(1).toMillis();
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * Number of revoked ID's the filter is sized for, 100000 by default. More ID's can be revoked,
+         * but then more lookups pass the filter and go to the exact set.
+         *
+         * @param expectedSize expected number of revoked ID's
+         * @return the same builder instance
+         */
+        public Builder withExpectedSize(int expectedSize) {
+            if (expectedSize < 1) throw new IllegalArgumentException("expectedSize must be positive");
+            this.expectedSize = expectedSize;
+            return this;
+        }
+
+        /**
+         * Share of ID's which are not revoked but still pass the filter at the expected size, 0.01 by default
+         *
+         * @param falsePositiveProbability probability between 0 and 1
+         * @return the same builder instance
+         */
+        public Builder withFalsePositiveProbability(double falsePositiveProbability) {
+            if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1))
+                throw new IllegalArgumentException("falsePositiveProbability must be between 0 and 1");
+            this.falsePositiveProbability = falsePositiveProbability;
+            return this;
+        }
+
+        /**
+         * Time ID's are kept after their token has expired, use the leeway of the validator
+         *
+         * @param leeway allowed clock skew
+         * @return the same builder instance
+         */
+        public Builder withLeeway(Duration leeway) {
+            if (leeway == null || leeway.isNegative()) throw new IllegalArgumentException("leeway must not be null or negative");
+            this.leeway = leeway.toMillis();
+            return this;
+        }
+
+        /**
+         * Minimum time between removing expired ID's while revoking, one minute by default
+         *
+         * @param cleanUpInterval minimum time between clean ups
+         * @return the same builder instance
+         */
+        public Builder withCleanUpInterval(Duration cleanUpInterval) {
+            if (cleanUpInterval == null || cleanUpInterval.isNegative()) throw new IllegalArgumentException("cleanUpInterval must not be null or negative");
+            this.cleanUpInterval = cleanUpInterval.toMillis();
+            return this;
+        }
+
+        /**
+         * Clock to check expiration times against
+         *
+         * @param clock clock
+         * @return the same builder instance
+         */
+        public Builder withClock(Clock clock) {
+            if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+            this.clock = clock;
+            return this;
+        }
+
+        public RevocationList build() {
+            return new RevocationList(this);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Key resolver for keys which are rotated while tokens are being verified. New keys are added, old keys
+ * are retired and stay valid for an overlap window, so tokens signed just before a rotation are still
+ * accepted, and are removed when the window has passed.
+ *
+ * <p>The keys are held in an immutable snapshot. Every change builds a new snapshot and swaps it in with
+ * a single compare-and-set, so verifications never wait for a rotation and never see a partly updated
+ * set of keys. Only tokens with a key ID (kid) are resolved.</p>
+ *
+ * <p>Every key counts the tokens of which it verified the signature, which shows when a retiring key is
+ * no longer used.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class RotatingKeyResolver implements KeyResolver {
+
+    // Retirement time of keys which are not retiring
+    private static final long ACTIVE = Long.MAX_VALUE;
+
+    private final AtomicReference<KeySet> keySet;
+    private final Clock clock;
+    private final long overlap;
+
+    private RotatingKeyResolver(Builder builder) {
+        this.clock = builder.clock;
+        this.overlap = builder.overlap;
+        this.keySet = new AtomicReference<>(new KeySet(builder.keys.toArray(new Key[0])));
+    }
+
+    @Override
+    public Algorithm resolve(Header header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) return null;
+
+        KeySet keys = keySet.get();
+        if (keys.nextRetirement <= clock.millis())
+            keys = update(current -> current.withoutRetiredAt(clock.millis()));
+
+        int slot = keys.registry.indexOf(header.getAlgorithm(), keyId);
+        if (slot < 0) return null;
+
+        return keys.slots[slot].algorithm;
+    }
+
+    @Override
+    public void onVerified(Header header, Algorithm algorithm) {
+        String keyId = header.getKeyId();
+        if (keyId == null) return;
+
+        // Counted after the signature check, so forged tokens with the ID of a retiring key do not count
+        KeySet keys = keySet.get();
+        int slot = keys.registry.indexOf(header.getAlgorithm(), keyId);
+        if (slot >= 0 && keys.slots[slot].algorithm == algorithm)
+            keys.slots[slot].verifications.increment();
+    }
+
+    /**
+     * Add a key, which becomes the signing key. A key with the same ID is replaced.
+     *
+     * @param keyId ID of the key
+     * @param algorithm algorithm with the key
+     */
+    public void addKey(String keyId, Algorithm algorithm) {
+        Key key = new Key(keyId, algorithm, ACTIVE, new LongAdder());
+        update(current -> current.with(key));
+    }
+
+    /**
+     * Add a new signing key and retire all other keys in a single step. The old keys stay valid for the
+     * overlap window.
+     *
+     * @param keyId ID of the new key
+     * @param algorithm algorithm with the new key
+     */
+    public void rotate(String keyId, Algorithm algorithm) {
+        Key key = new Key(keyId, algorithm, ACTIVE, new LongAdder());
+        update(current -> current.retireAll(clock.millis() + overlap).with(key));
+    }
+
+    /**
+     * Retire a key, which stays valid for the overlap window
+     *
+     * @param keyId ID of the key
+     */
+    public void retireKey(String keyId) {
+        retireKey(keyId, Duration.ofMillis(overlap));
+    }
+
+    /**
+     * Retire a key, which stays valid for the given overlap window
+     *
+     * @param keyId ID of the key
+     * @param overlap time the key stays valid
+     */
+    public void retireKey(String keyId, Duration overlap) {
+        if (overlap == null || overlap.isNegative()) throw new IllegalArgumentException("overlap must not be null or negative");
+
+        long retireAt = clock.millis() + overlap.toMillis();
+        update(current -> current.retire(keyId, retireAt));
+    }
+
+    /**
+     * Remove a key immediately, tokens signed with it are rejected from now on
+     *
+     * @param keyId ID of the key
+     */
+    public void removeKey(String keyId) {
+        update(current -> current.without(keyId));
+    }
+
+    /**
+     * Make the given keys the current keys, for example after loading a JWKS. Keys which are not in the
+     * map are retired with the overlap window, keys with an algorithm instance that is already known
+     * keep their counters.
+     *
+     * @param keys algorithms by key ID, in order; the last key becomes the signing key
+     */
+    public void setKeys(Map<String, Algorithm> keys) {
+        Map<String, Algorithm> copy = new LinkedHashMap<>(keys);
+        update(current -> current.replaceWith(copy, clock.millis() + overlap));
+    }
+
+    /**
+     * @return the most recently added key which is not retiring, or null when there is none
+     */
+    public Key getSigningKey() {
+        return keySet.get().signingKey;
+    }
+
+    /**
+     * @return all keys, including retiring keys of which the overlap window has not passed yet
+     */
+    public List<Key> getKeys() {
+        long now = clock.millis();
+        List<Key> keys = new ArrayList<>();
+
+        for (Key key: keySet.get().keys) {
+            if (!key.isRetiredAt(now)) keys.add(key);
+        }
+
+        return Collections.unmodifiableList(keys);
+    }
+
+    private KeySet update(UnaryOperator<KeySet> change) {
+        while (true) {
+            KeySet current = keySet.get();
+            KeySet next = change.apply(current);
+
+            if (next == current || keySet.compareAndSet(current, next))
+                return next;
+        }
+    }
+
+    /**
+     * A key with its algorithm. Keys are immutable, apart from their counter.
+     */
+    public static final class Key {
+        private final String keyId;
+        private final Algorithm algorithm;
+        private final long retireAt;
+        private final LongAdder verifications;
+
+        private Key(String keyId, Algorithm algorithm, long retireAt, LongAdder verifications) {
+            if (keyId == null) throw new IllegalArgumentException("keyId cannot be null");
+            if (algorithm == null) throw new IllegalArgumentException("algorithm cannot be null");
+
+            this.keyId = keyId;
+            this.algorithm = algorithm;
+            this.retireAt = retireAt;
+            this.verifications = verifications;
+        }
+
+        public String getKeyId() {
+            return keyId;
+        }
+
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * @return whether the key is retiring
+         */
+        public boolean isRetiring() {
+            return retireAt != ACTIVE;
+        }
+
+        /**
+         * @return moment the overlap window of the key ends, or null when the key is not retiring
+         */
+        public Instant getRetireAt() {
+            return retireAt == ACTIVE ? null : Instant.ofEpochMilli(retireAt);
+        }
+
+        /**
+         * @return number of tokens of which this key verified the signature, when parsed with
+         * {@link JWT#fromVerifiedRawJWT(KeyResolver, CharSequence)}
+         */
+        public long getVerifications() {
+            return verifications.sum();
+        }
+
+        private boolean isRetiredAt(long now) {
+            return retireAt <= now;
+        }
+
+        private Key retiringAt(long retireAt) {
+            return new Key(keyId, algorithm, retireAt, verifications);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" + keyId + ", " + algorithm.getName() + (retireAt == ACTIVE ? "" : ", retiring at " + getRetireAt()) + "}";
+        }
+    }
+
+    /**
+     * Immutable snapshot of the keys
+     */
+    private static final class KeySet {
+        private final Key[] keys;
+        private final AlgorithmRegistry registry;
+        private final Key[] slots;
+        private final Key signingKey;
+        private final long nextRetirement;
+
+        KeySet(Key[] keys) {
+            this.keys = keys;
+
+            AlgorithmRegistry.Builder builder = new AlgorithmRegistry.Builder();
+            Key signingKey = null;
+            long nextRetirement = Long.MAX_VALUE;
+
+            for (Key key: keys) {
+                builder.withAlgorithm(key.keyId, key.algorithm);
+
+                nextRetirement = Math.min(nextRetirement, key.retireAt);
+                if (!key.isRetiring()) signingKey = key;
+            }
+
+            this.registry = builder.build();
+            this.slots = new Key[registry.capacity()];
+            this.signingKey = signingKey;
+            this.nextRetirement = nextRetirement;
+
+            for (Key key: keys)
+                slots[registry.indexOf(key.algorithm.getName(), key.keyId)] = key;
+        }
+
+        KeySet with(Key key) {
+            Key[] next = withoutKey(key.keyId);
+            next = Arrays.copyOf(next, next.length + 1);
+            next[next.length - 1] = key;
+            return new KeySet(next);
+        }
+
+        KeySet without(String keyId) {
+            Key[] next = withoutKey(keyId);
+            return next.length == keys.length ? this : new KeySet(next);
+        }
+
+        KeySet retire(String keyId, long retireAt) {
+            Key[] next = keys.clone();
+            boolean changed = false;
+
+            for (int i = 0; i < next.length; i++) {
+                if (next[i].keyId.equals(keyId)) {
+                    next[i] = next[i].retiringAt(retireAt);
+                    changed = true;
+                }
+            }
+
+            return changed ? new KeySet(next) : this;
+        }
+
+        KeySet retireAll(long retireAt) {
+            Key[] next = keys.clone();
+
+            for (int i = 0; i < next.length; i++) {
+                if (!next[i].isRetiring()) next[i] = next[i].retiringAt(retireAt);
+            }
+
+            return new KeySet(next);
+        }
+
+        KeySet withoutRetiredAt(long now) {
+            List<Key> next = new ArrayList<>(keys.length);
+            for (Key key: keys) {
+                if (!key.isRetiredAt(now)) next.add(key);
+            }
+
+            return next.size() == keys.length ? this : new KeySet(next.toArray(new Key[0]));
+        }
+
+        KeySet replaceWith(Map<String, Algorithm> algorithms, long retireAt) {
+            List<Key> next = new ArrayList<>();
+
+            // Keys which are no longer present retire, unless they already are
+            for (Key key: keys) {
+                if (!algorithms.containsKey(key.keyId))
+                    next.add(key.isRetiring() ? key : key.retiringAt(retireAt));
+            }
+
+            for (Map.Entry<String, Algorithm> entry: algorithms.entrySet()) {
+                Key existing = find(entry.getKey());
+
+                if (existing != null && existing.algorithm == entry.getValue())
+                    next.add(existing.isRetiring() ? new Key(existing.keyId, existing.algorithm, ACTIVE, existing.verifications) : existing);
+                else
+                    next.add(new Key(entry.getKey(), entry.getValue(), ACTIVE, new LongAdder()));
+            }
+
+            return new KeySet(next.toArray(new Key[0]));
+        }
+
+        private Key find(String keyId) {
+            for (Key key: keys) {
+                if (key.keyId.equals(keyId)) return key;
+            }
+            return null;
+        }
+
+        private Key[] withoutKey(String keyId) {
+            List<Key> next = new ArrayList<>(keys.length);
+            for (Key key: keys) {
+                if (!key.keyId.equals(keyId)) next.add(key);
+            }
+            return next.toArray(new Key[0]);
+        }
+    }
+
+    public static class Builder {
+        private final List<Key> keys = new ArrayList<>();
+        private long overlap = Duration.ofMinutes(5).toMillis();
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * Add a key. The last added key is the signing key.
+         *
+         * @param keyId ID of the key
+         * @param algorithm algorithm with the key
+         * @return the same builder instance
+         */
+        public Builder withKey(String keyId, Algorithm algorithm) {
+            for (Key key: keys) {
+                if (key.keyId.equals(keyId)) throw new IllegalArgumentException("Key " + keyId + " is already added");
+            }
+
+            keys.add(new Key(keyId, algorithm, ACTIVE, new LongAdder()));
+            return this;
+        }
+
+        /**
+         * Time retired keys stay valid, five minutes by default
+         *
+         * @param overlap overlap window
+         * @return the same builder instance
+         */
+        public Builder withOverlap(Duration overlap) {
+            if (overlap == null || overlap.isNegative()) throw new IllegalArgumentException("overlap must not be null or negative");
+            this.overlap = overlap.toMillis();
+            return this;
+        }
+
+        /**
+         * Clock which decides when the overlap window of a retired key has passed
+         *
+         * @param clock clock
+         * @return the same builder instance
+         */
+        public Builder withClock(Clock clock) {
+            if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+            this.clock = clock;
+            return this;
+        }
+
+        public RotatingKeyResolver build() {
+            return new RotatingKeyResolver(this);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTException;
+import com.bastiaanjansen.jwt.exceptions.JWTExpiredException;
+import com.bastiaanjansen.jwt.exceptions.JWTReplayException;
+import com.bastiaanjansen.jwt.exceptions.JWTRevokedException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+
+import java.util.function.Supplier;
+
+/**
+ * Outcome of parsing or validating a single JWT: either the JWT, or the reason it is not valid.
+ *
+ * <p>Invalid results created without throwing only hold a {@link FailureReason}. Their message, which
+ * may contain formatted dates, and their exception are only built when they are asked for, so rejecting
+ * a token costs little more than accepting one.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class ValidationResult {
+
+    private final JWT jwt;
+    private final FailureReason reason;
+    private final Supplier<String> messageSupplier;
+
+    private String message;
+    private JWTException exception;
+
+    private ValidationResult(JWT jwt, FailureReason reason, Supplier<String> messageSupplier, JWTException exception) {
+        this.jwt = jwt;
+        this.reason = reason;
+        this.messageSupplier = messageSupplier;
+        this.exception = exception;
+    }
+
+    static ValidationResult valid(JWT jwt) {
+        return new ValidationResult(jwt, null, null, null);
+    }
+
+    static ValidationResult invalid(JWTException exception) {
+        return new ValidationResult(null, exception.getReason(), exception::getMessage, exception);
+    }
+
+    static ValidationResult invalid(FailureReason reason, Supplier<String> message) {
+        return new ValidationResult(null, reason, message, null);
+    }
+
+    /**
+     * Result of a claim validator which failed on an unexpected claim type
+     */
+    static ValidationResult invalidClaim(RuntimeException e) {
+        return invalid(new JWTValidationException(String.valueOf(e.getMessage()), FailureReason.CLAIM_MISMATCH, e));
+    }
+
+    public boolean isValid() {
+        return reason == null;
+    }
+
+    /**
+     * @return the JWT, or null when the token is not valid
+     */
+    public JWT getJWT() {
+        return jwt;
+    }
+
+    /**
+     * @return why the token is not valid, or null when it is valid
+     */
+    public FailureReason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return description of why the token is not valid, or null when it is valid
+     */
+    public String getMessage() {
+        if (message == null && messageSupplier != null)
+            message = messageSupplier.get();
+
+        return message;
+    }
+
+    /**
+     * Get the exception the throwing methods would have thrown for this token. It is created on the
+     * first call.
+     *
+     * @return the reason the token is not valid, or null when it is valid
+     */
+    public JWTException getException() {
+        if (exception == null && reason != null)
+            exception = createException();
+
+        return exception;
+    }
+
+    /**
+     * @return the exception of a result created by a validator
+     */
+    JWTValidationException getValidationException() {
+        JWTException exception = getException();
+        return exception instanceof JWTValidationException
+                ? (JWTValidationException) exception
+                : new JWTValidationException(exception.getMessage(), reason, exception);
+    }
+
+    private JWTException createException() {
+        switch (reason) {
+            case DECODE_ERROR:
+                return new JWTDecodeException(getMessage());
+            case ALGORITHM_MISMATCH:
+            case SIGN_ERROR:
+                return new JWTCreationException(getMessage(), reason);
+            case EXPIRED:
+                return new JWTExpiredException(getMessage());
+            case REVOKED:
+                return new JWTRevokedException(getMessage());
+            case REPLAYED:
+                return new JWTReplayException(getMessage());
+            default:
+                return new JWTValidationException(getMessage(), reason);
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTRevokedException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of raw JWT's which passed signature verification and validation. A token seen before
+ * is looked up by a hash of its raw bytes and a full comparison, without any base64, JSON or signature
+ * work.
+ *
+ * <p>Entries are evicted when their expiration time (exp) has passed, or earlier when the cache is full,
+ * least recently used first. The cache is split into independently locked segments, so concurrent
+ * lookups of different tokens rarely contend. Locks are never held while a token is parsed or verified.</p>
+ *
+ * <p>A cached token is not validated again. This is correct for validators which only look at the token
+ * and the current time: the expiration time is enforced by the cache and a not-before time which has
+ * passed stays passed. Revocations and replays are the exception: a {@link RevocationList} of the cache
+ * or of a {@link DefaultJWTValidator} is checked on every lookup, and with a {@link DefaultJWTValidator}
+ * which has a {@link ReplayGuard}, every lookup is a use of the token's ID, so a cached one-time token is
+ * rejected.
+ * Returned JWT's are shared between callers, so their header and payload are read-only.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class VerifiedJWTCache {
+
+    private final Algorithm algorithm;
+    private final JWTValidator validator;
+    private final Clock clock;
+    private final RevocationList revocationList;
+    private final DefaultJWTValidator statefulValidator;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private VerifiedJWTCache(Builder builder) {
+        this.algorithm = builder.algorithm;
+        this.validator = builder.validator;
+        this.clock = builder.clock;
+        this.revocationList = builder.revocationList;
+        this.statefulValidator = builder.validator instanceof DefaultJWTValidator && ((DefaultJWTValidator) builder.validator).hasStatefulChecks()
+                ? (DefaultJWTValidator) builder.validator
+                : null;
+
+        int segmentCount = Math.min(builder.maximumSize, Runtime.getRuntime().availableProcessors() * 4);
+        segmentCount = Integer.highestOneBit(Math.max(1, segmentCount));
+
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+
+        for (int i = 0; i < segmentCount; i++)
+            segments[i] = new Segment(builder.maximumSize / segmentCount);
+    }
+
+    /**
+     * Get a verified and validated JWT, from the cache when the same raw JWT was validated before
+     *
+     * @param jwt Raw JWT
+     * @return JWT with a read-only header and payload
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     * @throws JWTCreationException When the algorithm in the header does not match
+     * @throws JWTValidationException When the signature is not valid or the JWT did not pass validation
+     */
+    public JWT validate(CharSequence jwt) throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        long hash = hash(jwt);
+        long now = clock.millis();
+
+        JWT cached = segmentFor(hash).get(hash, jwt, now);
+        if (cached != null) {
+            hits.increment();
+            validateCached(cached);
+            return cached;
+        }
+
+        misses.increment();
+        return add(hash, JWT.fromVerifiedRawJWT(algorithm, jwt), now);
+    }
+
+    /**
+     * Get a verified and validated JWT held in a range of a byte array, from the cache when the same raw
+     * JWT was validated before
+     *
+     * @param jwt Array holding the raw JWT
+     * @param offset Start of the raw JWT
+     * @param length Length of the raw JWT
+     * @return JWT with a read-only header and payload
+     * @throws JWTDecodeException When the raw JWT could not be decoded
+     * @throws JWTCreationException When the algorithm in the header does not match
+     * @throws JWTValidationException When the signature is not valid or the JWT did not pass validation
+     */
+    public JWT validate(byte[] jwt, int offset, int length) throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        long hash = hash(jwt, offset, length);
+        long now = clock.millis();
+
+        JWT cached = segmentFor(hash).get(hash, jwt, offset, length, now);
+        if (cached != null) {
+            hits.increment();
+            validateCached(cached);
+            return cached;
+        }
+
+        misses.increment();
+        return add(hash, JWT.fromVerifiedRawJWT(algorithm, jwt, offset, length), now);
+    }
+
+    private JWT add(long hash, JWT jwt, long now) throws JWTValidationException {
+        validator.validate(jwt);
+        validateNotRevoked(jwt);
+
+        jwt.getHeader().makeReadOnly();
+        jwt.getPayload().makeReadOnly();
+
+        Payload payload = jwt.getPayload();
+        long expiresAt = payload.containsClaim(Claims.Registered.EXPIRATION_TIME.getValue())
+                ? payload.getExpirationTime().getTime()
+                : Long.MAX_VALUE;
+
+        segmentFor(hash).put(new Entry(hash, jwt.getRawToken(), jwt, expiresAt), now);
+        return jwt;
+    }
+
+    /**
+     * Checks which depend on more than the token and the current time, and so also apply to cached tokens
+     */
+    private void validateCached(JWT jwt) throws JWTValidationException {
+        validateNotRevoked(jwt);
+
+        if (statefulValidator != null) {
+            ValidationResult failure = statefulValidator.validateNotRevoked(jwt.getPayload());
+            if (failure == null) failure = statefulValidator.validateNotReplayed(jwt.getPayload());
+            if (failure != null) throw failure.getValidationException();
+        }
+    }
+
+    private void validateNotRevoked(JWT jwt) throws JWTRevokedException {
+        if (revocationList == null) return;
+
+        Object id = jwt.getPayload().lookupClaim(Claims.Registered.JWT_ID.getValue());
+        if (id instanceof String && revocationList.isRevoked((String) id))
+            throw new JWTRevokedException("JWT " + id + " is revoked");
+    }
+
+    /**
+     * Remove all expired entries now, instead of when they are next looked up or their segment is written
+     */
+    public void cleanUp() {
+        long now = clock.millis();
+        for (Segment segment: segments)
+            segment.cleanUp(now);
+    }
+
+    /**
+     * Remove all entries
+     */
+    public void invalidateAll() {
+        for (Segment segment: segments)
+            segment.clear();
+    }
+
+    /**
+     * @return number of cached tokens, including expired tokens which have not been removed yet
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment: segments)
+            size += segment.size;
+        return size;
+    }
+
+    /**
+     * @return number of lookups which found a valid cached token
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups which had to parse and verify the token
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of tokens removed because they expired or the cache was full
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 32) & segmentMask];
+    }
+
+    private static long hash(byte[] token, int offset, int length) {
+        long hash = length;
+        int i = offset;
+        int end = offset + length;
+
+        for (; i + 8 <= end; i += 8) {
+            long word = 0;
+            for (int j = 7; j >= 0; j--)
+                word = (word << 8) | (token[i + j] & 0xFF);
+            hash = step(hash, word);
+        }
+
+        long word = 0;
+        for (; i < end; i++)
+            word = (word << 8) | (token[i] & 0xFF);
+
+        return mix(step(hash, word));
+    }
+
+    private static long hash(CharSequence token) {
+        // Same hash as for bytes, tokens with characters outside ASCII are rejected when they are parsed
+        long hash = token.length();
+        int i = 0;
+        int end = token.length();
+
+        for (; i + 8 <= end; i += 8) {
+            long word = 0;
+            for (int j = 7; j >= 0; j--)
+                word = (word << 8) | (token.charAt(i + j) & 0xFF);
+            hash = step(hash, word);
+        }
+
+        long word = 0;
+        for (; i < end; i++)
+            word = (word << 8) | (token.charAt(i) & 0xFF);
+
+        return mix(step(hash, word));
+    }
+
+    private static long step(long hash, long word) {
+        hash = (hash ^ word) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static final class Entry {
+        final long hash;
+        final byte[] token;
+        final JWT jwt;
+        final long expiresAt;
+
+        // Next entry in the same bucket
+        Entry next;
+
+        // Neighbours in least recently used order
+        Entry before;
+        Entry after;
+
+        Entry(long hash, byte[] token, JWT jwt, long expiresAt) {
+            this.hash = hash;
+            this.token = token;
+            this.jwt = jwt;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean matches(byte[] other, int offset, int length) {
+            if (token.length != length) return false;
+
+            for (int i = 0; i < length; i++) {
+                if (token[i] != other[offset + i]) return false;
+            }
+
+            return true;
+        }
+
+        boolean matches(CharSequence other) {
+            if (token.length != other.length()) return false;
+
+            for (int i = 0; i < token.length; i++) {
+                if (token[i] != other.charAt(i)) return false;
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Hash table with chained buckets and a least recently used list, guarded by its own lock. The lock is
+     * a {@link ReentrantLock} rather than a monitor, so virtual threads waiting for it do not pin their
+     * carrier thread.
+     */
+    private final class Segment extends ReentrantLock {
+        private final int capacity;
+        private Entry[] table;
+        private int size;
+
+        // Sentinel of the circular least recently used list, head.after is the eldest entry
+        private final Entry head = new Entry(0, null, null, 0);
+        private long earliestExpiry = Long.MAX_VALUE;
+
+        Segment(int capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.table = new Entry[Math.min(16, Integer.highestOneBit(this.capacity * 2 - 1) * 2)];
+            head.before = head;
+            head.after = head;
+        }
+
+        JWT get(long hash, byte[] token, int offset, int length, long now) {
+            lock();
+            try {
+                for (Entry entry = table[index(hash)]; entry != null; entry = entry.next) {
+                    if (entry.hash == hash && entry.matches(token, offset, length))
+                        return touch(entry, now);
+                }
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        JWT get(long hash, CharSequence token, long now) {
+            lock();
+            try {
+                for (Entry entry = table[index(hash)]; entry != null; entry = entry.next) {
+                    if (entry.hash == hash && entry.matches(token))
+                        return touch(entry, now);
+                }
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        private JWT touch(Entry entry, long now) {
+            if (now > entry.expiresAt) {
+                remove(entry);
+                evictions.increment();
+                return null;
+            }
+
+            unlink(entry);
+            linkLast(entry);
+            return entry.jwt;
+        }
+
+        void put(Entry entry, long now) {
+            lock();
+            try {
+                if (now >= earliestExpiry)
+                    cleanUp(now);
+
+                // Another thread may have added the same token in the meantime
+                for (Entry existing = table[index(entry.hash)]; existing != null; existing = existing.next) {
+                    if (existing.hash == entry.hash && existing.matches(entry.token, 0, entry.token.length))
+                        remove(existing);
+                }
+
+                while (size >= capacity) {
+                    remove(head.after);
+                    evictions.increment();
+                }
+
+                if (size >= table.length * 3 / 4)
+                    resize();
+
+                int index = index(entry.hash);
+                entry.next = table[index];
+                table[index] = entry;
+                linkLast(entry);
+                size++;
+
+                earliestExpiry = Math.min(earliestExpiry, entry.expiresAt);
+            } finally {
+                unlock();
+            }
+        }
+
+        void cleanUp(long now) {
+            lock();
+            try {
+                long earliest = Long.MAX_VALUE;
+
+                for (Entry entry = head.after; entry != head; ) {
+                    Entry after = entry.after;
+
+                    if (now > entry.expiresAt) {
+                        remove(entry);
+                        evictions.increment();
+                    } else {
+                        earliest = Math.min(earliest, entry.expiresAt);
+                    }
+
+                    entry = after;
+                }
+
+                earliestExpiry = earliest;
+            } finally {
+                unlock();
+            }
+        }
+
+        void clear() {
+            lock();
+            try {
+                Arrays.fill(table, null);
+                head.before = head;
+                head.after = head;
+                size = 0;
+                earliestExpiry = Long.MAX_VALUE;
+            } finally {
+                unlock();
+            }
+        }
+
+        private void remove(Entry entry) {
+            int index = index(entry.hash);
+
+            if (table[index] == entry) {
+                table[index] = entry.next;
+            } else {
+                Entry previous = table[index];
+                while (previous.next != entry) previous = previous.next;
+                previous.next = entry.next;
+            }
+
+            unlink(entry);
+            size--;
+        }
+
+        private void resize() {
+            Entry[] old = table;
+            table = new Entry[old.length * 2];
+
+            for (Entry bucket: old) {
+                for (Entry entry = bucket; entry != null; ) {
+                    Entry next = entry.next;
+                    int index = index(entry.hash);
+                    entry.next = table[index];
+                    table[index] = entry;
+                    entry = next;
+                }
+            }
+        }
+
+        private void linkLast(Entry entry) {
+            entry.before = head.before;
+            entry.after = head;
+            head.before.after = entry;
+            head.before = entry;
+        }
+
+        private void unlink(Entry entry) {
+            entry.before.after = entry.after;
+            entry.after.before = entry.before;
+        }
+
+        private int index(long hash) {
+            return (int) hash & (table.length - 1);
+        }
+    }
+
+    public static class Builder {
+        private final Algorithm algorithm;
+        private JWTValidator validator;
+        private int maximumSize;
+        private Clock clock;
+        private RevocationList revocationList;
+
+        /**
+         * Creates a new cache builder
+         *
+         * @param algorithm algorithm the cached JWT's are signed with
+         */
+        public Builder(Algorithm algorithm) {
+            if (algorithm == null) throw new IllegalArgumentException("Algorithm must not be null");
+
+            this.algorithm = algorithm;
+            this.validator = DefaultJWTValidator.DEFAULT;
+            this.maximumSize = 10_000;
+            this.clock = Clock.systemUTC();
+        }
+
+        /**
+         * Validator which tokens must pass before they are cached, the {@link DefaultJWTValidator} by default.
+         * The revocation list and replay guard of a {@link DefaultJWTValidator} are also checked when a
+         * token is found in the cache.
+         *
+         * @param validator JWT validator
+         * @return the same builder instance
+         */
+        public Builder withValidator(JWTValidator validator) {
+            if (validator == null) throw new IllegalArgumentException("validator cannot be null");
+            this.validator = validator;
+            return this;
+        }
+
+        /**
+         * Maximum number of cached tokens, 10000 by default
+         *
+         * @param maximumSize maximum number of cached tokens
+         * @return the same builder instance
+         */
+        public Builder withMaximumSize(int maximumSize) {
+            if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be positive");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Clock to check expiration times against
+         *
+         * @param clock clock
+         * @return the same builder instance
+         */
+        public Builder withClock(Clock clock) {
+            if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Reject tokens of which the JWT ID (jti) is revoked, also when they are cached
+         *
+         * @param revocationList revoked JWT ID's
+         * @return the same builder instance
+         */
+        public Builder withRevocationList(RevocationList revocationList) {
+            if (revocationList == null) throw new IllegalArgumentException("revocationList cannot be null");
+            this.revocationList = revocationList;
+            return this;
+        }
+
+        public VerifiedJWTCache build() {
+            return new VerifiedJWTCache(this);
+        }
+    }
+}
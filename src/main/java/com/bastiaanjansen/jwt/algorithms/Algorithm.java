@@ -3,8 +3,10 @@ package com.bastiaanjansen.jwt.algorithms;
 import com.bastiaanjansen.jwt.exceptions.JWTSignException;
 import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyPair;
+import java.util.Arrays;
 
 public abstract class Algorithm {
 
@@ -40,11 +42,97 @@ public abstract class Algorithm {
         return new RSAAlgorithm("RS512", "SHA512withRSA", keyPair);
     }
 
+    public static Algorithm ECDSA256(KeyPair keyPair) {
+        return new ECDSAAlgorithm("ES256", "SHA256withECDSA", "SHA-256", "secp256r1", keyPair);
+    }
+
+    public static Algorithm ECDSA384(KeyPair keyPair) {
+        return new ECDSAAlgorithm("ES384", "SHA384withECDSA", "SHA-384", "secp384r1", keyPair);
+    }
+
+    public static Algorithm ECDSA512(KeyPair keyPair) {
+        return new ECDSAAlgorithm("ES512", "SHA512withECDSA", "SHA-512", "secp521r1", keyPair);
+    }
+
+    /**
+     * EdDSA with the Ed25519 curve, which requires Java 15 or newer
+     *
+     * @param keyPair Ed25519 key pair
+     * @return a new algorithm instance
+     * @throws UnsupportedOperationException when running on an older Java version
+     */
+    public static Algorithm EdDSA(KeyPair keyPair) {
+        return new EdDSAAlgorithm("EdDSA", "Ed25519", keyPair);
+    }
+
     public abstract byte[] sign(String data) throws JWTSignException;
 
     public abstract byte[] sign(byte[] data) throws JWTSignException;
 
-    public abstract boolean verify(byte[] data, byte[] expected) throws JWTValidationException;
+    /**
+     * Sign a range of a byte array, without copying the range
+     *
+     * @param data array holding the data to sign
+     * @param offset start of the data to sign
+     * @param length length of the data to sign
+     * @return the signature
+     * @throws JWTSignException when the data could not be signed
+     */
+    public abstract byte[] sign(byte[] data, int offset, int length) throws JWTSignException;
+
+    /**
+     * Sign the remaining bytes of a buffer, without copying them. The position of the buffer is advanced
+     * to its limit.
+     *
+     * @param data buffer holding the data to sign
+     * @return the signature
+     * @throws JWTSignException when the data could not be signed
+     */
+    public abstract byte[] sign(ByteBuffer data) throws JWTSignException;
+
+    /**
+     * Create a signer for messages which all start with the given prefix. The default signer copies the
+     * prefix and the rest of the message into one array for every signature.
+     *
+     * @param prefix start of every message, which must not be changed afterwards
+     * @return signer for messages starting with the prefix
+     */
+    public PrefixedSigner prefixedSigner(byte[] prefix) {
+        if (prefix == null) throw new IllegalArgumentException("prefix cannot be null");
+
+        return (data, offset, length) -> {
+            byte[] message = Arrays.copyOf(prefix, prefix.length + length);
+            System.arraycopy(data, offset, message, prefix.length, length);
+            return sign(message);
+        };
+    }
+
+    public boolean verify(byte[] data, byte[] expected) throws JWTValidationException {
+        return verify(data, 0, data.length, expected);
+    }
+
+    /**
+     * Verify a signature over a range of a byte array, without copying the range
+     *
+     * @param data array holding the signed data
+     * @param offset start of the signed data
+     * @param length length of the signed data
+     * @param expected signature to verify
+     * @return whether the signature is valid
+     * @throws JWTValidationException when the signature could not be verified
+     */
+    public abstract boolean verify(byte[] data, int offset, int length, byte[] expected) throws JWTValidationException;
+
+    /**
+     * Verify a signature over the remaining bytes of a buffer, without copying them. The position of
+     * the buffer is advanced to its limit.
+     *
+     * @param data buffer holding the signed data
+     * @param expected signature to verify
+     * @return whether the signature is valid
+     * @throws JWTValidationException when the signature could not be verified
+     */
+    public abstract boolean verify(ByteBuffer data, byte[] expected) throws JWTValidationException;
 
     public String getName() {
         return name;
@@ -0,0 +1,142 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.util.Arrays;
+
+/**
+ * ECDSA nonces derived from the private key and the message hash with the HMAC_DRBG of RFC 6979,
+ * section 3.2. Signing the same message with the same key always uses the same nonce, so no shared
+ * entropy source is needed and a weak random number generator cannot leak the key.
+ *
+ * {@link #init(byte[])} is called with the message hash before every signature, after which
+ * {@link #next()} returns the candidates for k in order: the first one, and another one every time the
+ * signer has to reject a candidate. Instances are not thread-safe.
+ *
+ * @author Bastiaan Jansen
+ */
+final class DeterministicNonces {
+
+    private static final byte[] SEPARATOR_0 = { 0x00 };
+    private static final byte[] SEPARATOR_1 = { 0x01 };
+
+    private final Mac mac;
+    private final byte[] privateKey;
+    private final BigInteger order;
+    private final int orderBits;
+
+    private final byte[] k;
+    private final byte[] v;
+    private final byte[] t;
+    private boolean generated;
+
+    /**
+     * @param hmacAlgorithm HMAC with the same hash function the message is hashed with
+     * @param privateKey private key as unsigned big-endian number
+     * @param order order of the curve
+     * @throws GeneralSecurityException when the HMAC algorithm is not available
+     */
+    DeterministicNonces(String hmacAlgorithm, BigInteger privateKey, BigInteger order) throws GeneralSecurityException {
+        this.mac = Mac.getInstance(hmacAlgorithm);
+        this.order = order;
+        this.orderBits = order.bitLength();
+        this.privateKey = toOctets(privateKey, (orderBits + 7) / 8);
+        this.k = new byte[mac.getMacLength()];
+        this.v = new byte[mac.getMacLength()];
+        this.t = new byte[(orderBits + 8 * v.length - 1) / (8 * v.length) * v.length];
+    }
+
+    /**
+     * Start deriving nonces for a new message, steps a to g of the RFC
+     *
+     * @param hash hash of the message
+     */
+    void init(byte[] hash) {
+        byte[] message = toOctets(bitsToInt(hash, orderBits).mod(order), privateKey.length);
+
+        Arrays.fill(v, (byte) 0x01);
+        Arrays.fill(k, (byte) 0x00);
+
+        update(SEPARATOR_0, privateKey, message);
+        update(SEPARATOR_1, privateKey, message);
+        generated = false;
+    }
+
+    /**
+     * Next candidate for k, step h of the RFC
+     *
+     * @return a number between 1 and the order of the curve, exclusive
+     */
+    BigInteger next() {
+        while (true) {
+            // Every further candidate is preceded by step h.3
+            if (generated) update(SEPARATOR_0, null, null);
+            generated = true;
+
+            for (int offset = 0; offset < t.length; offset += v.length) {
+                hmac(v);
+                System.arraycopy(v, 0, t, offset, v.length);
+            }
+
+            BigInteger candidate = bitsToInt(t, orderBits);
+            if (candidate.signum() > 0 && candidate.compareTo(order) < 0) return candidate;
+        }
+    }
+
+    /**
+     * K = HMAC_K(V || separator || key || message), V = HMAC_K(V)
+     */
+    private void update(byte[] separator, byte[] key, byte[] message) {
+        try {
+            mac.init(new SecretKeySpec(k, mac.getAlgorithm()));
+            mac.update(v);
+            mac.update(separator);
+            if (key != null) mac.update(key);
+            if (message != null) mac.update(message);
+            mac.doFinal(k, 0);
+
+            mac.init(new SecretKeySpec(k, mac.getAlgorithm()));
+            hmac(v);
+        } catch (InvalidKeyException | ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * V = HMAC_K(V)
+     */
+    private void hmac(byte[] v) {
+        try {
+            mac.update(v);
+            mac.doFinal(v, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The leftmost bits of a bit string as a number, as many as the order of the curve has
+     */
+    static BigInteger bitsToInt(byte[] bits, int orderBits) {
+        BigInteger value = new BigInteger(1, bits);
+        int length = bits.length * 8;
+        return length > orderBits ? value.shiftRight(length - orderBits) : value;
+    }
+
+    /**
+     * A non-negative number as unsigned big-endian octets of a fixed length
+     */
+    static byte[] toOctets(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == length) return bytes;
+
+        byte[] octets = new byte[length];
+        int copied = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copied, octets, length - copied, copied);
+        return octets;
+    }
+}
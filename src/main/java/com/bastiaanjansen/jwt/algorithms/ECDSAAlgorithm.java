@@ -0,0 +1,229 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import com.bastiaanjansen.jwt.exceptions.JWTSignException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+
+import javax.crypto.KeyAgreement;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPrivateKeySpec;
+import java.security.spec.ECPublicKeySpec;
+
+/**
+ * ECDSA signatures as specified by RFC 7518, section 3.4. Signatures are encoded as R followed by S
+ * instead of the DER encoding JCA uses.
+ *
+ * Nonces are derived from the private key and the message as described in RFC 6979, so signing does
+ * not read from a shared {@link SecureRandom} and the same input always gives the same signature.
+ *
+ * @author Bastiaan Jansen
+ */
+public class ECDSAAlgorithm extends Algorithm {
+
+    private final KeyPair keyPair;
+    private final String digestAlgorithm;
+    private final int numberLength;
+    private final EnginePool<Signer> signers;
+    private final EnginePool<Signature> verifiers;
+
+    ECDSAAlgorithm(String name, String description, String digestAlgorithm, String curve, KeyPair keyPair) {
+        super(name, description);
+
+        ECParameterSpec expected = namedCurve(curve);
+        Key key = keyPair.getPublic() != null ? keyPair.getPublic() : keyPair.getPrivate();
+        if (!(key instanceof ECKey) || !isCurve(((ECKey) key).getParams(), expected))
+            throw new IllegalArgumentException(name + " requires an EC key pair on the " + curve + " curve");
+
+        this.keyPair = keyPair;
+        this.digestAlgorithm = digestAlgorithm;
+        this.numberLength = (expected.getCurve().getField().getFieldSize() + 7) / 8;
+        this.signers = new EnginePool<>(this::createSigner);
+        this.verifiers = new EnginePool<>(this::createVerifier);
+    }
+
+    private static ECParameterSpec namedCurve(String curve) {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec(curve));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Curve " + curve + " is not supported", e);
+        }
+    }
+
+    /**
+     * Whether the parameters of a key describe the named curve. Other curves of the same size, such as
+     * secp256k1 or brainpoolP256r1, differ in their equation, generator or order.
+     */
+    private static boolean isCurve(ECParameterSpec params, ECParameterSpec expected) {
+        return params.getCurve().equals(expected.getCurve())
+                && params.getGenerator().equals(expected.getGenerator())
+                && params.getOrder().equals(expected.getOrder())
+                && params.getCofactor() == expected.getCofactor();
+    }
+
+    @Override
+    public byte[] sign(String data) throws JWTSignException {
+        return sign(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public byte[] sign(byte[] data) throws JWTSignException {
+        return sign(data, 0, data.length);
+    }
+
+    @Override
+    public byte[] sign(byte[] data, int offset, int length) throws JWTSignException {
+        try {
+            final Signer signer = signers.borrow();
+            signer.digest.update(data, offset, length);
+            byte[] signed = signer.sign(numberLength);
+            signers.release(signer);
+
+            return signed;
+        } catch (GeneralSecurityException e) {
+            throw new JWTSignException(e.getMessage());
+        }
+    }
+
+    @Override
+    public byte[] sign(ByteBuffer data) throws JWTSignException {
+        try {
+            final Signer signer = signers.borrow();
+            signer.digest.update(data);
+            byte[] signed = signer.sign(numberLength);
+            signers.release(signer);
+
+            return signed;
+        } catch (GeneralSecurityException e) {
+            throw new JWTSignException(e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean verify(byte[] data, int offset, int length, byte[] expected) throws JWTValidationException {
+        if (!isWellFormed(expected)) return false;
+
+        try {
+            final Signature signature = verifiers.borrow();
+            signature.update(data, offset, length);
+            boolean verified = signature.verify(ECDSASignatureFormat.toDER(expected, numberLength));
+            verifiers.release(signature);
+
+            return verified;
+        } catch (GeneralSecurityException e) {
+            throw new JWTValidationException(e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean verify(ByteBuffer data, byte[] expected) throws JWTValidationException {
+        if (!isWellFormed(expected)) {
+            ((Buffer) data).position(data.limit());
+            return false;
+        }
+
+        try {
+            final Signature signature = verifiers.borrow();
+            signature.update(data);
+            boolean verified = signature.verify(ECDSASignatureFormat.toDER(expected, numberLength));
+            verifiers.release(signature);
+
+            return verified;
+        } catch (GeneralSecurityException e) {
+            throw new JWTValidationException(e.getMessage());
+        }
+    }
+
+    private boolean isWellFormed(byte[] signature) {
+        return signature.length == 2 * numberLength && !ECDSASignatureFormat.hasZeroNumber(signature, numberLength);
+    }
+
+    private Signer createSigner() throws GeneralSecurityException {
+        if (!(keyPair.getPrivate() instanceof ECPrivateKey))
+            throw new InvalidKeyException("Signing requires an EC private key");
+
+        return new Signer((ECPrivateKey) keyPair.getPrivate(), digestAlgorithm);
+    }
+
+    private Signature createVerifier() throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(description);
+        signature.initVerify(keyPair.getPublic());
+        return signature;
+    }
+
+    /**
+     * Hashes the message, derives the nonce k from the hash and signs the hash with it. The message is
+     * fed to the digest directly.
+     *
+     * JCA signatures can not be given a nonce, so R is computed as an ECDH agreement of k with the
+     * generator of the curve, which is the x-coordinate of kG. The provider does the point
+     * multiplication, S = k^-1 (hash + R * key) is computed here.
+     */
+    private static final class Signer {
+        private static final BigInteger TWO = BigInteger.valueOf(2);
+
+        private final MessageDigest digest;
+        private final DeterministicNonces nonces;
+        private final BigInteger privateKey;
+        private final ECParameterSpec params;
+        private final BigInteger order;
+        private final KeyFactory keyFactory;
+        private final KeyAgreement agreement;
+        private final PublicKey generator;
+
+        Signer(ECPrivateKey privateKey, String digestAlgorithm) throws GeneralSecurityException {
+            this.privateKey = privateKey.getS();
+            this.params = privateKey.getParams();
+            this.order = params.getOrder();
+            this.digest = MessageDigest.getInstance(digestAlgorithm);
+            this.nonces = new DeterministicNonces("Hmac" + digestAlgorithm.replace("-", ""), this.privateKey, order);
+            this.keyFactory = KeyFactory.getInstance("EC");
+            this.agreement = KeyAgreement.getInstance("ECDH");
+            this.generator = keyFactory.generatePublic(new ECPublicKeySpec(params.getGenerator(), params));
+        }
+
+        /**
+         * Sign the data the digest has been updated with
+         *
+         * @param numberLength length of R and S in bytes
+         * @return R followed by S
+         */
+        byte[] sign(int numberLength) throws GeneralSecurityException {
+            byte[] hash = digest.digest();
+            BigInteger message = DeterministicNonces.bitsToInt(hash, order.bitLength());
+            nonces.init(hash);
+
+            while (true) {
+                BigInteger k = nonces.next();
+
+                BigInteger r = xOfMultipliedGenerator(k).mod(order);
+                if (r.signum() == 0) continue;
+
+                // k^-1 as k^(n - 2), which only multiplies the nonce where modInverse would branch on its bits
+                BigInteger s = k.modPow(order.subtract(TWO), order)
+                        .multiply(message.add(r.multiply(privateKey)))
+                        .mod(order);
+                if (s.signum() == 0) continue;
+
+                byte[] signature = new byte[2 * numberLength];
+                System.arraycopy(DeterministicNonces.toOctets(r, numberLength), 0, signature, 0, numberLength);
+                System.arraycopy(DeterministicNonces.toOctets(s, numberLength), 0, signature, numberLength, numberLength);
+                return signature;
+            }
+        }
+
+        private BigInteger xOfMultipliedGenerator(BigInteger k) throws GeneralSecurityException {
+            agreement.init(keyFactory.generatePrivate(new ECPrivateKeySpec(k, params)));
+            agreement.doPhase(generator, true);
+            return new BigInteger(1, agreement.generateSecret());
+        }
+    }
+}
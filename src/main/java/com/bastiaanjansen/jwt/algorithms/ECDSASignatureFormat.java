@@ -0,0 +1,136 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import java.security.SignatureException;
+
+/**
+ * Converts ECDSA signatures between the DER encoding produced by JCA and the JOSE encoding used in
+ * JWT's, which is R followed by S, each as an unsigned big-endian number of a fixed length.
+ *
+ * Both directions allocate only the resulting array and work on the bytes directly, without creating
+ * intermediate numbers.
+ *
+ * @author Bastiaan Jansen
+ */
+final class ECDSASignatureFormat {
+
+    private static final byte SEQUENCE = 0x30;
+    private static final byte INTEGER = 0x02;
+
+    private ECDSASignatureFormat() {}
+
+    /**
+     * Convert a DER encoded signature to the JOSE encoding
+     *
+     * @param der DER encoded signature
+     * @param numberLength length of R and S in bytes
+     * @return R followed by S
+     * @throws SignatureException when the signature is not a valid DER encoded ECDSA signature
+     */
+    static byte[] toJOSE(byte[] der, int numberLength) throws SignatureException {
+        if (der.length < 8 || der[0] != SEQUENCE) throw invalid();
+
+        int position = 1;
+        int sequenceLength = der[position++] & 0xFF;
+        if (sequenceLength == 0x81) {
+            sequenceLength = der[position++] & 0xFF;
+            if (sequenceLength < 0x80) throw invalid();
+        } else if (sequenceLength > 0x7F) {
+            throw invalid();
+        }
+
+        if (position + sequenceLength != der.length) throw invalid();
+
+        byte[] jose = new byte[numberLength * 2];
+        position = readInteger(der, position, jose, 0, numberLength);
+        position = readInteger(der, position, jose, numberLength, numberLength);
+
+        if (position != der.length) throw invalid();
+        return jose;
+    }
+
+    /**
+     * Convert a JOSE encoded signature to the DER encoding
+     *
+     * @param jose R followed by S, each exactly numberLength bytes long
+     * @param numberLength length of R and S in bytes
+     * @return DER encoded signature
+     */
+    static byte[] toDER(byte[] jose, int numberLength) {
+        int rLength = integerLength(jose, 0, numberLength);
+        int sLength = integerLength(jose, numberLength, numberLength);
+        int sequenceLength = 2 + rLength + 2 + sLength;
+
+        byte[] der = new byte[(sequenceLength > 0x7F ? 3 : 2) + sequenceLength];
+        int position = 0;
+
+        der[position++] = SEQUENCE;
+        if (sequenceLength > 0x7F) der[position++] = (byte) 0x81;
+        der[position++] = (byte) sequenceLength;
+
+        position = writeInteger(jose, 0, numberLength, rLength, der, position);
+        writeInteger(jose, numberLength, numberLength, sLength, der, position);
+
+        return der;
+    }
+
+    /**
+     * Whether R or S of a JOSE encoded signature is zero. Such signatures are never valid.
+     *
+     * @param jose R followed by S
+     * @param numberLength length of R and S in bytes
+     * @return whether R or S is zero
+     */
+    static boolean hasZeroNumber(byte[] jose, int numberLength) {
+        return firstNonZero(jose, 0, numberLength) == numberLength
+                || firstNonZero(jose, numberLength, numberLength) == 2 * numberLength;
+    }
+
+    private static int readInteger(byte[] der, int position, byte[] jose, int offset, int numberLength) throws SignatureException {
+        if (position + 2 > der.length || der[position++] != INTEGER) throw invalid();
+
+        int length = der[position++] & 0xFF;
+        if (length == 0 || length > 0x7F || position + length > der.length) throw invalid();
+
+        // Strip the sign byte and any other leading zeros
+        int start = position;
+        int end = position + length;
+        while (start < end - 1 && der[start] == 0) start++;
+
+        int significant = end - start;
+        if (significant > numberLength) throw invalid();
+
+        System.arraycopy(der, start, jose, offset + numberLength - significant, significant);
+        return end;
+    }
+
+    private static int integerLength(byte[] jose, int offset, int numberLength) {
+        int first = firstNonZero(jose, offset, numberLength);
+        int end = offset + numberLength;
+
+        if (first == end) return 1;
+        return end - first + (jose[first] < 0 ? 1 : 0);
+    }
+
+    private static int writeInteger(byte[] jose, int offset, int numberLength, int length, byte[] der, int position) {
+        der[position++] = INTEGER;
+        der[position++] = (byte) length;
+
+        int first = firstNonZero(jose, offset, numberLength);
+        int significant = offset + numberLength - first;
+
+        // A positive number needs a leading zero when its high bit is set, zero itself is a single zero byte
+        position += length - significant;
+        System.arraycopy(jose, first, der, position, significant);
+        return position + significant;
+    }
+
+    private static int firstNonZero(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        while (offset < end && bytes[offset] == 0) offset++;
+        return offset;
+    }
+
+    private static SignatureException invalid() {
+        return new SignatureException("Invalid DER encoded ECDSA signature");
+    }
+}
@@ -0,0 +1,122 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import com.bastiaanjansen.jwt.exceptions.JWTSignException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+
+/**
+ * EdDSA signatures with the Ed25519 curve as specified by RFC 8037. Ed25519 is provided by the JDK
+ * since Java 15, on older runtimes creating this algorithm throws an {@link UnsupportedOperationException}.
+ *
+ * @author Bastiaan Jansen
+ */
+public class EdDSAAlgorithm extends Algorithm {
+
+    private static final int SIGNATURE_LENGTH = 64;
+
+    private final KeyPair keyPair;
+    private final EnginePool<Signature> signers;
+    private final EnginePool<Signature> verifiers;
+
+    EdDSAAlgorithm(String name, String description, KeyPair keyPair) {
+        super(name, description);
+
+        if (!EdDSAKeys.isSupported())
+            throw new UnsupportedOperationException(name + " requires Java 15 or newer");
+        if (!EdDSAKeys.isEd25519(keyPair.getPublic() != null ? keyPair.getPublic() : keyPair.getPrivate()))
+            throw new IllegalArgumentException(name + " requires an Ed25519 key pair");
+
+        this.keyPair = keyPair;
+        this.signers = new EnginePool<>(this::createSigner);
+        this.verifiers = new EnginePool<>(this::createVerifier);
+    }
+
+    @Override
+    public byte[] sign(String data) throws JWTSignException {
+        return sign(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public byte[] sign(byte[] data) throws JWTSignException {
+        return sign(data, 0, data.length);
+    }
+
+    @Override
+    public byte[] sign(byte[] data, int offset, int length) throws JWTSignException {
+        try {
+            final Signature signature = signers.borrow();
+            signature.update(data, offset, length);
+            byte[] signed = signature.sign();
+            signers.release(signature);
+
+            return signed;
+        } catch (GeneralSecurityException e) {
+            throw new JWTSignException(e.getMessage());
+        }
+    }
+
+    @Override
+    public byte[] sign(ByteBuffer data) throws JWTSignException {
+        try {
+            final Signature signature = signers.borrow();
+            signature.update(data);
+            byte[] signed = signature.sign();
+            signers.release(signature);
+
+            return signed;
+        } catch (GeneralSecurityException e) {
+            throw new JWTSignException(e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean verify(byte[] data, int offset, int length, byte[] expected) throws JWTValidationException {
+        if (expected.length != SIGNATURE_LENGTH) return false;
+
+        try {
+            final Signature signature = verifiers.borrow();
+            signature.update(data, offset, length);
+            boolean verified = signature.verify(expected);
+            verifiers.release(signature);
+
+            return verified;
+        } catch (GeneralSecurityException e) {
+            throw new JWTValidationException(e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean verify(ByteBuffer data, byte[] expected) throws JWTValidationException {
+        if (expected.length != SIGNATURE_LENGTH) {
+            ((Buffer) data).position(data.limit());
+            return false;
+        }
+
+        try {
+            final Signature signature = verifiers.borrow();
+            signature.update(data);
+            boolean verified = signature.verify(expected);
+            verifiers.release(signature);
+
+            return verified;
+        } catch (GeneralSecurityException e) {
+            throw new JWTValidationException(e.getMessage());
+        }
+    }
+
+    private Signature createSigner() throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(description);
+        signature.initSign(keyPair.getPrivate());
+        return signature;
+    }
+
+    private Signature createVerifier() throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(description);
+        signature.initVerify(keyPair.getPublic());
+        return signature;
+    }
+}
@@ -0,0 +1,72 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+
+/**
+ * Checks for EdDSA keys which work without the key interfaces added in Java 15. The multi-release jar
+ * replaces this class with a version using those interfaces on Java 15 and newer.
+ *
+ * @author Bastiaan Jansen
+ */
+final class EdDSAKeys {
+
+    // Object identifier 1.3.101.112 of Ed25519, as it appears in X.509 and PKCS #8 encoded keys
+    private static final byte[] ED25519_OID = { 0x06, 0x03, 0x2B, 0x65, 0x70 };
+
+    // The algorithm identifier is the second element of both encodings, so the identifier is found early
+    private static final int OID_SEARCH_LENGTH = 16;
+
+    private EdDSAKeys() {}
+
+    /**
+     * Whether a provider for Ed25519 signatures is installed
+     *
+     * @return whether Ed25519 is supported
+     */
+    static boolean isSupported() {
+        return SupportHolder.SUPPORTED;
+    }
+
+    /**
+     * Whether a key is a public or private key on the Ed25519 curve
+     *
+     * @param key key to check
+     * @return whether the key is an Ed25519 key
+     */
+    static boolean isEd25519(Key key) {
+        if (key == null || !("EdDSA".equals(key.getAlgorithm()) || "Ed25519".equals(key.getAlgorithm())))
+            return false;
+
+        byte[] encoded = key.getEncoded();
+        if (encoded == null) return false;
+
+        int end = Math.min(encoded.length, OID_SEARCH_LENGTH) - ED25519_OID.length;
+        for (int offset = 0; offset <= end; offset++) {
+            if (matchesOid(encoded, offset)) return true;
+        }
+
+        return false;
+    }
+
+    private static boolean matchesOid(byte[] encoded, int offset) {
+        for (int i = 0; i < ED25519_OID.length; i++) {
+            if (encoded[offset + i] != ED25519_OID[i]) return false;
+        }
+        return true;
+    }
+
+    private static final class SupportHolder {
+        static final boolean SUPPORTED = probe();
+
+        private static boolean probe() {
+            try {
+                Signature.getInstance("Ed25519");
+                return true;
+            } catch (NoSuchAlgorithmException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free pool of initialised crypto engines, such as a keyed {@link javax.crypto.Mac} or a
+ * {@link java.security.Signature} initialised for signing or verifying.
+ *
+ * Looking up a JCA provider and initialising it with a key costs more than signing a typical token,
+ * so engines are created once and reused. The pool does not use locks or thread locals, which makes it
+ * safe to use from virtual threads without pinning their carrier thread. When the pool is empty a new
+ * engine is created, and engines released to a full pool are dropped.
+ *
+ * @param <T> type of the engine
+ * @author Bastiaan Jansen
+ */
+final class EnginePool<T> {
+
+    private static final int MAX_SIZE = 64;
+
+    private final Factory<T> factory;
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+
+    EnginePool(Factory<T> factory) {
+        this(factory, defaultSize());
+    }
+
+    EnginePool(Factory<T> factory, int size) {
+        if (Integer.bitCount(size) != 1) throw new IllegalArgumentException("size must be a power of two");
+
+        this.factory = factory;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Take an engine from the pool, or create a new one when the pool is empty. The engine is owned by
+     * the caller until it is handed back with {@link #release(Object)}.
+     *
+     * @return initialised engine
+     * @throws GeneralSecurityException when a new engine could not be created
+     */
+    T borrow() throws GeneralSecurityException {
+        int start = probe();
+
+        for (int i = 0; i <= mask; i++) {
+            int index = (start + i) & mask;
+            T engine = slots.get(index);
+
+            if (engine != null && slots.compareAndSet(index, engine, null))
+                return engine;
+        }
+
+        return factory.create();
+    }
+
+    /**
+     * Return an engine to the pool. Only engines in their initialised state may be released, engines
+     * that failed halfway an operation must be dropped instead.
+     *
+     * @param engine engine to return
+     */
+    void release(T engine) {
+        int start = probe();
+
+        for (int i = 0; i <= mask; i++) {
+            int index = (start + i) & mask;
+
+            if (slots.get(index) == null && slots.compareAndSet(index, null, engine))
+                return;
+        }
+    }
+
+    int size() {
+        return mask + 1;
+    }
+
+    /**
+     * Start index for the current thread, so threads mostly hit different slots.
+     */
+    private int probe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int defaultSize() {
+        int wanted = Math.min(MAX_SIZE, Runtime.getRuntime().availableProcessors() * 2);
+        return Integer.highestOneBit(Math.max(1, wanted - 1) << 1);
+    }
+
+    /**
+     * Creates new initialised engines for a pool.
+     *
+     * @param <T> type of the engine
+     */
+    interface Factory<T> {
+        T create() throws GeneralSecurityException;
+    }
+}
@@ -5,18 +5,20 @@ import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 
 public class HMACAlgorithm extends Algorithm {
 
     private final byte[] secret;
+    private final EnginePool<Mac> macs;
 
     HMACAlgorithm(String name, String description, byte[] secret) {
         super(name, description);
         this.secret = secret;
+        this.macs = new EnginePool<>(this::createMac);
     }
 
     @Override
@@ -26,26 +28,125 @@ public class HMACAlgorithm extends Algorithm {
 
     @Override
     public byte[] sign(byte[] data) throws JWTSignException {
+        return sign(data, 0, data.length);
+    }
+
+    @Override
+    public byte[] sign(byte[] data, int offset, int length) throws JWTSignException {
         try {
-            Mac mac = Mac.getInstance(description);
+            Mac mac = macs.borrow();
+            mac.update(data, offset, length);
+            byte[] signed = mac.doFinal();
+            macs.release(mac);
+
+            return signed;
+        } catch (GeneralSecurityException e) {
+            throw new JWTSignException(e.getMessage());
+        }
+    }
 
-            SecretKeySpec secretKey = new SecretKeySpec(secret, description);
-            mac.init(secretKey);
+    @Override
+    public byte[] sign(ByteBuffer data) throws JWTSignException {
+        try {
+            Mac mac = macs.borrow();
+            mac.update(data);
+            byte[] signed = mac.doFinal();
+            macs.release(mac);
 
-            return mac.doFinal(data);
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            return signed;
+        } catch (GeneralSecurityException e) {
             throw new JWTSignException(e.getMessage());
         }
     }
 
     @Override
-    public boolean verify(byte[] data, byte[] expected) throws JWTValidationException {
+    public boolean verify(byte[] data, int offset, int length, byte[] expected) throws JWTValidationException {
+        try {
+            Mac mac = macs.borrow();
+            mac.update(data, offset, length);
+            byte[] signed = mac.doFinal();
+            macs.release(mac);
+
+            return MessageDigest.isEqual(signed, expected);
+        } catch (GeneralSecurityException e) {
+            throw new JWTValidationException(e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean verify(ByteBuffer data, byte[] expected) throws JWTValidationException {
         try {
-            byte[] signed = sign(data);
+            Mac mac = macs.borrow();
+            mac.update(data);
+            byte[] signed = mac.doFinal();
+            macs.release(mac);
 
-            return Arrays.equals(signed, expected);
-        } catch (JWTSignException e) {
+            return MessageDigest.isEqual(signed, expected);
+        } catch (GeneralSecurityException e) {
             throw new JWTValidationException(e.getMessage());
         }
     }
+
+    /**
+     * Keeps keyed MACs which have already processed the prefix. Every signature continues from a copy of
+     * that state, so the key and the prefix are not hashed again. With providers which cannot copy a MAC,
+     * the prefix is processed for every signature instead.
+     */
+    @Override
+    public PrefixedSigner prefixedSigner(byte[] prefix) {
+        if (prefix == null) throw new IllegalArgumentException("prefix cannot be null");
+
+        byte[] copy = prefix.clone();
+        EnginePool<Mac> prefixed = new EnginePool<>(() -> {
+            Mac mac = createMac();
+            mac.update(copy);
+            return mac;
+        });
+
+        if (!isCloneable(prefixed)) {
+            return (data, offset, length) -> {
+                try {
+                    Mac mac = macs.borrow();
+                    mac.update(copy);
+                    mac.update(data, offset, length);
+                    byte[] signed = mac.doFinal();
+                    macs.release(mac);
+
+                    return signed;
+                } catch (GeneralSecurityException e) {
+                    throw new JWTSignException(e.getMessage());
+                }
+            };
+        }
+
+        return (data, offset, length) -> {
+            try {
+                Mac mac = prefixed.borrow();
+                Mac clone = (Mac) mac.clone();
+                prefixed.release(mac);
+
+                clone.update(data, offset, length);
+                return clone.doFinal();
+            } catch (GeneralSecurityException | CloneNotSupportedException e) {
+                throw new JWTSignException(e.getMessage());
+            }
+        };
+    }
+
+    private static boolean isCloneable(EnginePool<Mac> pool) {
+        try {
+            Mac mac = pool.borrow();
+            mac.clone();
+            pool.release(mac);
+            return true;
+        } catch (GeneralSecurityException | CloneNotSupportedException e) {
+            return false;
+        }
+    }
+
+    private Mac createMac() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(description);
+        mac.init(new SecretKeySpec(secret, description));
+        return mac;
+    }
 }
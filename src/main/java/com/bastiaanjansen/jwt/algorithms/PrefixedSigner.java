@@ -0,0 +1,24 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import com.bastiaanjansen.jwt.exceptions.JWTSignException;
+
+/**
+ * Signs messages which all start with the same prefix, such as the encoded header followed by a dot.
+ * Algorithms which can keep their state after the prefix, like HMAC, only process the rest of every
+ * message. Signers are thread-safe.
+ *
+ * @author Bastiaan Jansen
+ */
+public interface PrefixedSigner {
+
+    /**
+     * Sign the prefix followed by a range of a byte array
+     *
+     * @param data array holding the rest of the message
+     * @param offset start of the rest of the message
+     * @param length length of the rest of the message
+     * @return signature over the prefix and the range
+     * @throws JWTSignException when the message could not be signed
+     */
+    byte[] sign(byte[] data, int offset, int length) throws JWTSignException;
+}
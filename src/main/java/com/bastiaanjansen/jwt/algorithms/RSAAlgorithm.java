@@ -3,16 +3,21 @@ package com.bastiaanjansen.jwt.algorithms;
 import com.bastiaanjansen.jwt.exceptions.JWTSignException;
 import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
 
 public class RSAAlgorithm extends Algorithm {
 
     private final KeyPair keyPair;
+    private final EnginePool<Signature> signers;
+    private final EnginePool<Signature> verifiers;
 
     RSAAlgorithm(String name, String description, KeyPair keyPair) {
         super(name, description);
         this.keyPair = keyPair;
+        this.signers = new EnginePool<>(this::createSigner);
+        this.verifiers = new EnginePool<>(this::createVerifier);
     }
 
     @Override
@@ -22,28 +27,75 @@ public class RSAAlgorithm extends Algorithm {
 
     @Override
     public byte[] sign(byte[] data) throws JWTSignException {
+        return sign(data, 0, data.length);
+    }
+
+    @Override
+    public byte[] sign(byte[] data, int offset, int length) throws JWTSignException {
+        try {
+            // sign() resets the engine to the state after initSign, so it can be reused afterwards
+            final Signature signature = signers.borrow();
+            signature.update(data, offset, length);
+            byte[] signed = signature.sign();
+            signers.release(signature);
+
+            return signed;
+        } catch (GeneralSecurityException e) {
+            throw new JWTSignException(e.getMessage());
+        }
+    }
+
+    @Override
+    public byte[] sign(ByteBuffer data) throws JWTSignException {
         try {
-            final Signature signature = Signature.getInstance(description);
-            signature.initSign(keyPair.getPrivate());
+            final Signature signature = signers.borrow();
             signature.update(data);
+            byte[] signed = signature.sign();
+            signers.release(signature);
 
-            return signature.sign();
-        } catch (NoSuchAlgorithmException | InvalidKeyException | SignatureException e) {
+            return signed;
+        } catch (GeneralSecurityException e) {
             throw new JWTSignException(e.getMessage());
         }
+    }
 
+    @Override
+    public boolean verify(byte[] data, int offset, int length, byte[] expected) throws JWTValidationException {
+        try {
+            final Signature signature = verifiers.borrow();
+            signature.update(data, offset, length);
+            boolean verified = signature.verify(expected);
+            verifiers.release(signature);
+
+            return verified;
+        } catch (GeneralSecurityException e) {
+            throw new JWTValidationException(e.getMessage());
+        }
     }
 
     @Override
-    public boolean verify(byte[] data, byte[] expected) throws JWTValidationException {
+    public boolean verify(ByteBuffer data, byte[] expected) throws JWTValidationException {
         try {
-            final Signature signature = Signature.getInstance(description);
-            signature.initVerify(keyPair.getPublic());
+            final Signature signature = verifiers.borrow();
             signature.update(data);
+            boolean verified = signature.verify(expected);
+            verifiers.release(signature);
 
-            return signature.verify(expected);
-        } catch (NoSuchAlgorithmException | InvalidKeyException | SignatureException e) {
+            return verified;
+        } catch (GeneralSecurityException e) {
             throw new JWTValidationException(e.getMessage());
         }
     }
+
+    private Signature createSigner() throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(description);
+        signature.initSign(keyPair.getPrivate());
+        return signature;
+    }
+
+    private Signature createVerifier() throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(description);
+        signature.initVerify(keyPair.getPublic());
+        return signature;
+    }
 }
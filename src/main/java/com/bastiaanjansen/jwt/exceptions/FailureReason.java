@@ -0,0 +1,33 @@
+package com.bastiaanjansen.jwt.exceptions;
+
+/**
+ * Reason a JWT could not be created, parsed or validated
+ *
+ * @author Bastiaan Jansen
+ */
+public enum FailureReason {
+    /** The raw JWT is not three base64URL encoded segments of JSON */
+    DECODE_ERROR,
+    /** The algorithm in the header does not match, or no key is known for it */
+    ALGORITHM_MISMATCH,
+    /** The signature does not match the header and payload */
+    INVALID_SIGNATURE,
+    /** The expiration time (exp) has passed */
+    EXPIRED,
+    /** The not-before time (nbf) has not passed yet */
+    NOT_BEFORE,
+    /** The issued-at time (iat) is in the future */
+    ISSUED_IN_FUTURE,
+    /** A required header parameter or claim is absent or null */
+    MISSING_CLAIM,
+    /** A header parameter or claim does not conform to its constraint */
+    CLAIM_MISMATCH,
+    /** The JWT ID (jti) is revoked */
+    REVOKED,
+    /** The JWT ID (jti) of a one-time token was used before */
+    REPLAYED,
+    /** The algorithm could not sign */
+    SIGN_ERROR,
+    /** Any other reason */
+    OTHER
+}
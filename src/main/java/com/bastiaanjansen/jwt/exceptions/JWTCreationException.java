@@ -7,4 +7,8 @@ public class JWTCreationException extends JWTException {
     public JWTCreationException(String message) {
         super(message);
     }
+
+    public JWTCreationException(String message, FailureReason reason) {
+        super(message, reason);
+    }
 }
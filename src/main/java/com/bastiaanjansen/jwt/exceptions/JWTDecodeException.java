@@ -2,9 +2,15 @@ package com.bastiaanjansen.jwt.exceptions;
 
 public class JWTDecodeException extends JWTException {
 
-    public JWTDecodeException() {}
+    public JWTDecodeException() {
+        super(null, FailureReason.DECODE_ERROR);
+    }
 
     public JWTDecodeException(String message) {
-        super(message);
+        super(message, FailureReason.DECODE_ERROR);
+    }
+
+    public JWTDecodeException(String message, FailureReason reason) {
+        super(message, reason);
     }
 }
@@ -2,10 +2,49 @@ package com.bastiaanjansen.jwt.exceptions;
 
 public class JWTException extends Exception {
 
-    public JWTException() {}
+    private static volatile boolean stackTraceEnabled = true;
+
+    private final FailureReason reason;
+
+    public JWTException() {
+        this(null, FailureReason.OTHER);
+    }
 
     public JWTException(String message) {
-        super(message);
+        this(message, FailureReason.OTHER);
+    }
+
+    public JWTException(String message, FailureReason reason) {
+        this(message, reason, null);
+    }
+
+    public JWTException(String message, FailureReason reason, Throwable cause) {
+        super(message, cause, true, stackTraceEnabled);
+        this.reason = reason == null ? FailureReason.OTHER : reason;
+    }
+
+    /**
+     * @return why the JWT could not be created, parsed or validated
+     */
+    public FailureReason getReason() {
+        return reason;
     }
 
+    /**
+     * @return whether exceptions created from now on record a stack trace
+     */
+    public static boolean isStackTraceEnabled() {
+        return stackTraceEnabled;
+    }
+
+    /**
+     * Turn recording a stack trace off for all exceptions created from now on. Walking the stack is the
+     * most expensive part of rejecting a token, while the reason and message are usually all that is
+     * logged. Exceptions without a stack trace return an empty array from {@link #getStackTrace()}.
+     *
+     * @param enabled whether to record stack traces, true by default
+     */
+    public static void setStackTraceEnabled(boolean enabled) {
+        stackTraceEnabled = enabled;
+    }
 }
@@ -1,9 +1,11 @@
 package com.bastiaanjansen.jwt.exceptions;
 
 public class JWTExpiredException extends JWTValidationException {
-    public JWTExpiredException() {}
+    public JWTExpiredException() {
+        super(null, FailureReason.EXPIRED);
+    }
 
     public JWTExpiredException(String message) {
-        super(message);
+        super(message, FailureReason.EXPIRED);
     }
 }
@@ -0,0 +1,11 @@
+package com.bastiaanjansen.jwt.exceptions;
+
+public class JWTReplayException extends JWTValidationException {
+    public JWTReplayException() {
+        super(null, FailureReason.REPLAYED);
+    }
+
+    public JWTReplayException(String message) {
+        super(message, FailureReason.REPLAYED);
+    }
+}
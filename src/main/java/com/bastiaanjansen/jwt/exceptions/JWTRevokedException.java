@@ -0,0 +1,11 @@
+package com.bastiaanjansen.jwt.exceptions;
+
+public class JWTRevokedException extends JWTValidationException {
+    public JWTRevokedException() {
+        super(null, FailureReason.REVOKED);
+    }
+
+    public JWTRevokedException(String message) {
+        super(message, FailureReason.REVOKED);
+    }
+}
@@ -2,10 +2,12 @@ package com.bastiaanjansen.jwt.exceptions;
 
 public class JWTSignException extends JWTException {
 
-    public JWTSignException() {}
+    public JWTSignException() {
+        super(null, FailureReason.SIGN_ERROR);
+    }
 
     public JWTSignException(String message) {
-        super(message);
+        super(message, FailureReason.SIGN_ERROR);
     }
 
 }
@@ -7,4 +7,12 @@ public class JWTValidationException extends JWTException {
     public JWTValidationException(String message) {
         super(message);
     }
+
+    public JWTValidationException(String message, FailureReason reason) {
+        super(message, reason);
+    }
+
+    public JWTValidationException(String message, FailureReason reason, Throwable cause) {
+        super(message, reason, cause);
+    }
 }
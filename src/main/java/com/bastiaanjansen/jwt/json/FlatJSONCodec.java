@@ -0,0 +1,51 @@
+package com.bastiaanjansen.jwt.json;
+
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ * Dependency-free codec for the small, mostly flat objects JWT's carry. It reads straight from the
+ * decoded bytes and writes straight into a byte array, without an intermediate string or tree.
+ *
+ * <p>Integers are parsed as primitive longs and decoded as {@link Long}, or {@link BigInteger} when they
+ * do not fit. Numbers with a fraction or exponent are decoded as {@link Double}. Objects are decoded in
+ * their original member order.</p>
+ *
+ * <p>Strings, numbers, booleans, characters, enums, maps, iterables and arrays are encoded as their JSON
+ * counterparts, any other object is encoded as the string returned by its {@code toString} method.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class FlatJSONCodec implements JSONCodec {
+
+    @Override
+    public Object decode(byte[] json, int offset, int length) {
+        JSONReader reader = new JSONReader(json, offset, length);
+        Object value = reader.readValue();
+        reader.expectEnd();
+        return value;
+    }
+
+    @Override
+    public long decodeLong(byte[] json, int offset, int length) {
+        JSONReader reader = new JSONReader(json, offset, length);
+        reader.skipWhitespace();
+
+        int start = reader.position();
+        byte first = reader.peek();
+        if (first != '-' && (first < '0' || first > '9'))
+            throw new IllegalArgumentException("Value is not a number");
+
+        boolean isLong = reader.scanNumber();
+        reader.expectEnd();
+
+        return isLong ? reader.number() : reader.parseNumber(start).longValue();
+    }
+
+    @Override
+    public byte[] encode(Map<String, ?> claims) {
+        JSONWriter writer = new JSONWriter();
+        writer.value(claims);
+        return writer.toByteArray();
+    }
+}
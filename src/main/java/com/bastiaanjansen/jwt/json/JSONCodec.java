@@ -0,0 +1,59 @@
+package com.bastiaanjansen.jwt.json;
+
+import java.util.Map;
+
+/**
+ * Converts claims from and to JSON. Implementations are used for every header and payload, so they must
+ * be thread-safe.
+ *
+ * <p>Parsed claims are checked and indexed by the library itself, a codec is only asked to decode single,
+ * well-formed JSON values when a claim is read. Decoded values use plain Java types: objects become a
+ * {@link Map}, arrays a {@link java.util.List}, JSON null becomes {@code null} and strings, numbers and
+ * booleans become a {@link String}, {@link Number} or {@link Boolean}.</p>
+ *
+ * <p>A codec can be registered as a service in
+ * {@code META-INF/services/com.bastiaanjansen.jwt.json.JSONCodec} or set with
+ * {@link JSONCodecs#setDefault(JSONCodec)}.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public interface JSONCodec {
+
+    /**
+     * Decode a single JSON value
+     *
+     * @param json array holding UTF-8 encoded JSON
+     * @param offset start of the value
+     * @param length length of the value
+     * @return decoded value
+     * @throws IllegalArgumentException when the range is not a JSON value
+     */
+    Object decode(byte[] json, int offset, int length);
+
+    /**
+     * Decode a JSON number as a long, used for the time claims. Codecs which can parse numbers without
+     * boxing them should override this method.
+     *
+     * @param json array holding UTF-8 encoded JSON
+     * @param offset start of the number
+     * @param length length of the number
+     * @return decoded number
+     * @throws IllegalArgumentException when the range is not a JSON number
+     */
+    default long decodeLong(byte[] json, int offset, int length) {
+        Object value = decode(json, offset, length);
+
+        if (!(value instanceof Number))
+            throw new IllegalArgumentException("Value is not a number");
+
+        return ((Number) value).longValue();
+    }
+
+    /**
+     * Encode claims as a JSON object
+     *
+     * @param claims claims to encode
+     * @return UTF-8 encoded JSON object
+     */
+    byte[] encode(Map<String, ?> claims);
+}
@@ -0,0 +1,42 @@
+package com.bastiaanjansen.jwt.json;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Holds the codec used for all headers and payloads. The default is the first {@link JSONCodec} service
+ * found on the classpath, or {@link OrgJSONCodec} when there is none.
+ *
+ * @author Bastiaan Jansen
+ */
+public final class JSONCodecs {
+
+    private static volatile JSONCodec defaultCodec = loadDefault();
+
+    private JSONCodecs() {}
+
+    /**
+     * Get the codec used for headers and payloads
+     *
+     * @return the default codec
+     */
+    public static JSONCodec getDefault() {
+        return defaultCodec;
+    }
+
+    /**
+     * Replace the codec used for headers and payloads. Claims which are already parsed keep decoding
+     * with the codec they were parsed with.
+     *
+     * @param codec the new default codec
+     */
+    public static void setDefault(JSONCodec codec) {
+        if (codec == null) throw new IllegalArgumentException("Codec cannot be null");
+        defaultCodec = codec;
+    }
+
+    private static JSONCodec loadDefault() {
+        Iterator<JSONCodec> codecs = ServiceLoader.load(JSONCodec.class, JSONCodec.class.getClassLoader()).iterator();
+        return codecs.hasNext() ? codecs.next() : new OrgJSONCodec();
+    }
+}
@@ -0,0 +1,587 @@
+package com.bastiaanjansen.jwt.json;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pull reader over UTF-8 encoded JSON in a byte array. Besides decoding complete values, it can walk the
+ * members of an object one by one, match their keys against known names without creating strings for them
+ * and skip values which are not needed without decoding them. Used by the {@link FlatJSONCodec} and by
+ * generated {@link com.bastiaanjansen.jwt.schema.ClaimsCodec claims codecs}.
+ *
+ * <p>Every method throws an {@link IllegalArgumentException} when the JSON is malformed or the value has
+ * another type than expected.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class JSONReader {
+
+    private static final int MAX_DEPTH = 512;
+
+    private final byte[] json;
+    private final int end;
+    private int position;
+
+    // Members read from the object started by beginObject
+    private int members;
+
+    // Result of the last scanNumber call
+    private long number;
+    private boolean integral;
+
+    /**
+     * Create a reader
+     *
+     * @param json array holding the JSON
+     * @param offset start of the JSON
+     * @param length length of the JSON
+     */
+    public JSONReader(byte[] json, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > json.length)
+            throw new IndexOutOfBoundsException();
+
+        this.json = json;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Start reading the members of an object
+     */
+    public void beginObject() {
+        skipWhitespace();
+        expect('{');
+        members = 0;
+    }
+
+    /**
+     * Move to the next member of the object started by {@link #beginObject()}
+     *
+     * @return whether there is another member, false when the end of the object is reached
+     */
+    public boolean hasNextMember() {
+        skipWhitespace();
+
+        if (peek() == '}') {
+            position++;
+            return false;
+        }
+
+        if (members > 0) {
+            expect(',');
+            skipWhitespace();
+        }
+
+        members++;
+        return true;
+    }
+
+    /**
+     * Read the key of the next member and match it against known names. Keys without escapes are compared
+     * byte by byte, so no string is created for them.
+     *
+     * @param names known names
+     * @return index of the matching name, or -1 when the key is not one of the names
+     */
+    public int nextMember(String[] names) {
+        expect('"');
+        int start = position;
+        boolean plain = true;
+
+        while (true) {
+            byte c = next();
+            if (c == '"') break;
+            if (c == '\\' || c < 0) {
+                plain = false;
+                break;
+            }
+            if (c < 0x20) throw error();
+        }
+
+        int member = -1;
+        if (plain) {
+            int length = position - start - 1;
+            for (int i = 0; i < names.length && member < 0; i++) {
+                if (asciiEquals(start, length, names[i])) member = i;
+            }
+        } else {
+            position = start;
+            String key = readStringContent();
+            for (int i = 0; i < names.length && member < 0; i++) {
+                if (names[i].equals(key)) member = i;
+            }
+        }
+
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+        return member;
+    }
+
+    /**
+     * Read the key of the next member
+     *
+     * @return the key
+     */
+    public String nextName() {
+        expect('"');
+        String key = readStringContent();
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+        return key;
+    }
+
+    /**
+     * Consume the next value when it is null
+     *
+     * @return whether the value was null
+     */
+    public boolean nextIsNull() {
+        skipWhitespace();
+        if (peek() != 'n') return false;
+
+        expectLiteral("null");
+        return true;
+    }
+
+    public String readString() {
+        skipWhitespace();
+        expect('"');
+        return readStringContent();
+    }
+
+    /**
+     * Read an integer which fits in a long, without creating an intermediate object
+     *
+     * @return the number
+     */
+    public long readLong() {
+        skipWhitespace();
+        byte first = peek();
+        if (first != '-' && (first < '0' || first > '9'))
+            throw new IllegalArgumentException("Value is not a number");
+
+        int start = position;
+        if (scanNumber()) return number;
+
+        Number value = parseNumber(start);
+        if (value instanceof BigInteger)
+            throw new IllegalArgumentException("Number does not fit in a long");
+
+        return value.longValue();
+    }
+
+    public int readInt() {
+        long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Number does not fit in an int");
+        return (int) value;
+    }
+
+    public double readDouble() {
+        skipWhitespace();
+        byte first = peek();
+        if (first != '-' && (first < '0' || first > '9'))
+            throw new IllegalArgumentException("Value is not a number");
+
+        int start = position;
+        return scanNumber() ? number : parseNumber(start).doubleValue();
+    }
+
+    public boolean readBoolean() {
+        skipWhitespace();
+        if (peek() == 't') {
+            expectLiteral("true");
+            return true;
+        }
+
+        expectLiteral("false");
+        return false;
+    }
+
+    /**
+     * Read an array of strings. A single string is read as a list with one element, like the audience
+     * (aud) claim allows.
+     *
+     * @return the strings
+     */
+    public List<String> readStringList() {
+        skipWhitespace();
+        if (peek() == '"')
+            return Collections.singletonList(readString());
+
+        expect('[');
+        List<String> list = new ArrayList<>();
+        skipWhitespace();
+
+        if (peek() == ']') {
+            position++;
+            return list;
+        }
+
+        while (true) {
+            list.add(readString());
+            skipWhitespace();
+            byte next = next();
+            if (next == ']') return list;
+            if (next != ',') throw error();
+        }
+    }
+
+    /**
+     * Read any value. Objects are read as maps in their original member order, arrays as lists and
+     * integers as {@link Long}, or {@link BigInteger} when they do not fit.
+     *
+     * @return the value
+     */
+    public Object readValue() {
+        skipWhitespace();
+        return readValue(0);
+    }
+
+    /**
+     * Skip the next value without decoding it
+     */
+    public void skipValue() {
+        skipWhitespace();
+        skipValue(0);
+    }
+
+    /**
+     * Check that nothing but whitespace follows
+     */
+    public void expectEnd() {
+        skipWhitespace();
+        if (position != end) throw error();
+    }
+
+    Object readValue(int depth) {
+        if (depth > MAX_DEPTH) throw error();
+
+        byte c = peek();
+        switch (c) {
+            case '"':
+                position++;
+                return readStringContent();
+            case '{':
+                position++;
+                return readObject(depth);
+            case '[':
+                position++;
+                return readArray(depth);
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return null;
+            default:
+                if (c != '-' && (c < '0' || c > '9')) throw error();
+
+                int start = position;
+                return scanNumber() ? Long.valueOf(number) : parseNumber(start);
+        }
+    }
+
+    private void skipValue(int depth) {
+        if (depth > MAX_DEPTH) throw error();
+
+        byte c = peek();
+        switch (c) {
+            case '"':
+                position++;
+                skipStringContent();
+                return;
+            case '{':
+            case '[':
+                position++;
+                skipContainer(c == '{' ? '}' : ']', depth);
+                return;
+            case 't':
+                expectLiteral("true");
+                return;
+            case 'f':
+                expectLiteral("false");
+                return;
+            case 'n':
+                expectLiteral("null");
+                return;
+            default:
+                if (c != '-' && (c < '0' || c > '9')) throw error();
+                scanNumber();
+        }
+    }
+
+    private void skipContainer(char close, int depth) {
+        skipWhitespace();
+
+        if (peek() == close) {
+            position++;
+            return;
+        }
+
+        while (true) {
+            skipWhitespace();
+            if (close == '}') {
+                expect('"');
+                skipStringContent();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+            }
+
+            skipValue(depth + 1);
+            skipWhitespace();
+            byte next = next();
+            if (next == close) return;
+            if (next != ',') throw error();
+        }
+    }
+
+    private void skipStringContent() {
+        while (true) {
+            byte c = next();
+            if (c == '"') return;
+            if (c == '\\') readEscape();
+            else if (c >= 0 && c < 0x20) throw error();
+        }
+    }
+
+    private Map<String, Object> readObject(int depth) {
+        Map<String, Object> object = new LinkedHashMap<>();
+        skipWhitespace();
+
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+
+        while (true) {
+            skipWhitespace();
+            expect('"');
+            String key = readStringContent();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+
+            if (object.containsKey(key))
+                throw new IllegalArgumentException("Duplicate key " + key);
+            object.put(key, readValue(depth + 1));
+
+            skipWhitespace();
+            byte next = next();
+            if (next == '}') return object;
+            if (next != ',') throw error();
+        }
+    }
+
+    private List<Object> readArray(int depth) {
+        List<Object> array = new ArrayList<>();
+        skipWhitespace();
+
+        if (peek() == ']') {
+            position++;
+            return array;
+        }
+
+        while (true) {
+            skipWhitespace();
+            array.add(readValue(depth + 1));
+            skipWhitespace();
+            byte next = next();
+            if (next == ']') return array;
+            if (next != ',') throw error();
+        }
+    }
+
+    /**
+     * Read the rest of a string, the opening quote must already be consumed. Strings without escapes
+     * are created straight from the bytes.
+     */
+    private String readStringContent() {
+        int start = position;
+        boolean ascii = true;
+
+        while (position < end) {
+            byte c = json[position];
+
+            if (c == '"') {
+                position++;
+                return new String(json, start, position - start - 1, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+            }
+
+            if (c == '\\') break;
+            if (c < 0) ascii = false;
+            else if (c < 0x20) throw error();
+            position++;
+        }
+
+        return readEscapedString(start);
+    }
+
+    private String readEscapedString(int start) {
+        StringBuilder builder = new StringBuilder(position - start + 16);
+        int segment = start;
+
+        while (true) {
+            byte c = next();
+
+            if (c == '"' || c == '\\') {
+                builder.append(new String(json, segment, position - segment - 1, StandardCharsets.UTF_8));
+                if (c == '"') return builder.toString();
+
+                builder.append(readEscape());
+                segment = position;
+            } else if (c >= 0 && c < 0x20) {
+                throw error();
+            }
+        }
+    }
+
+    private char readEscape() {
+        byte escape = next();
+
+        switch (escape) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) throw error();
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw error();
+        }
+    }
+
+    private boolean asciiEquals(int start, int length, String name) {
+        if (length != name.length()) return false;
+
+        for (int i = 0; i < length; i++) {
+            if (json[start + i] != name.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Scan a number, accumulating its integer part in {@link #number}
+     *
+     * @return whether the number is an integer which fits in a long
+     */
+    boolean scanNumber() {
+        boolean negative = false;
+        boolean overflow = false;
+        long value = 0;
+
+        if (peek() == '-') {
+            negative = true;
+            position++;
+        }
+
+        // Accumulated as a negative number, so Long.MIN_VALUE fits as well
+        int digits = 0;
+        while (position < end && json[position] >= '0' && json[position] <= '9') {
+            int digit = json[position++] - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) overflow = true;
+            value = value * 10 - digit;
+            digits++;
+        }
+
+        if (digits == 0 || (digits > 1 && json[position - digits] == '0')) throw error();
+
+        integral = true;
+        if (position < end && json[position] == '.') {
+            integral = false;
+            position++;
+            if (!skipDigits()) throw error();
+        }
+
+        if (position < end && (json[position] == 'e' || json[position] == 'E')) {
+            integral = false;
+            position++;
+            if (position < end && (json[position] == '+' || json[position] == '-')) position++;
+            if (!skipDigits()) throw error();
+        }
+
+        if (!integral || overflow)
+            return false;
+
+        if (!negative && value == Long.MIN_VALUE)
+            return false;
+
+        number = negative ? value : -value;
+        return true;
+    }
+
+    /**
+     * Parse a number which was scanned by {@link #scanNumber()} but does not fit in a long
+     */
+    Number parseNumber(int start) {
+        String text = new String(json, start, position - start, StandardCharsets.ISO_8859_1);
+        return integral ? new BigInteger(text) : Double.valueOf(text);
+    }
+
+    long number() {
+        return number;
+    }
+
+    int position() {
+        return position;
+    }
+
+    private boolean skipDigits() {
+        int start = position;
+        while (position < end && json[position] >= '0' && json[position] <= '9')
+            position++;
+        return position > start;
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++)
+            expect(literal.charAt(i));
+    }
+
+    void skipWhitespace() {
+        while (position < end) {
+            byte c = json[position];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') return;
+            position++;
+        }
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) throw error();
+    }
+
+    byte peek() {
+        if (position >= end) throw error();
+        return json[position];
+    }
+
+    private byte next() {
+        if (position >= end) throw error();
+        return json[position++];
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("Malformed JSON at position " + position);
+    }
+}
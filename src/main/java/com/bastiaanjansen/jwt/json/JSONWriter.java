@@ -0,0 +1,254 @@
+package com.bastiaanjansen.jwt.json;
+
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Writes JSON as UTF-8 straight into a growing byte array. Besides complete values, objects can be written
+ * member by member, which is how generated {@link com.bastiaanjansen.jwt.schema.ClaimsCodec claims codecs}
+ * write claims without building a map first.
+ *
+ * <p>Strings, numbers, booleans, characters, enums, maps, iterables and arrays are written as their JSON
+ * counterparts, any other object is written as the string returned by its {@code toString} method.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class JSONWriter {
+    private static final int MAX_DEPTH = 512;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer = new byte[256];
+    private int count;
+
+    /**
+     * @return the JSON written so far
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    public void beginObject() {
+        write('{');
+    }
+
+    public void endObject() {
+        write('}');
+    }
+
+    /**
+     * Write the key of the next member of an object
+     *
+     * @param name key of the member
+     */
+    public void name(String name) {
+        if (count > 0 && buffer[count - 1] != '{') write(',');
+        writeString(name);
+        write(':');
+    }
+
+    public void value(CharSequence value) {
+        if (value == null) writeASCII("null");
+        else writeString(value);
+    }
+
+    public void value(long value) {
+        writeLong(value);
+    }
+
+    public void value(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value))
+            throw new IllegalArgumentException("JSON does not allow non-finite numbers");
+        writeASCII(Double.toString(value));
+    }
+
+    public void value(boolean value) {
+        writeASCII(value ? "true" : "false");
+    }
+
+    /**
+     * Write any value
+     *
+     * @param value value to write
+     */
+    public void value(Object value) {
+        writeValue(value, 0);
+    }
+
+    void writeValue(Object value, int depth) {
+        if (depth > MAX_DEPTH)
+            throw new IllegalArgumentException("Claims are nested too deeply");
+
+        if (value == null) {
+            writeASCII("null");
+        } else if (value instanceof CharSequence) {
+            writeString((CharSequence) value);
+        } else if (value instanceof Boolean) {
+            writeASCII(value.toString());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isNaN(number) || Double.isInfinite(number))
+                throw new IllegalArgumentException("JSON does not allow non-finite numbers");
+            writeASCII(value.toString());
+        } else if (value instanceof Number) {
+            writeASCII(value.toString());
+        } else if (value instanceof Character) {
+            writeString(value.toString());
+        } else if (value instanceof Enum) {
+            writeString(((Enum<?>) value).name());
+        } else if (value instanceof Map) {
+            writeObject((Map<?, ?>) value, depth);
+        } else if (value instanceof Iterable) {
+            writeIterable((Iterable<?>) value, depth);
+        } else if (value.getClass().isArray()) {
+            writeArray(value, depth);
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    void writeObject(Map<?, ?> object, int depth) {
+        write('{');
+        boolean first = true;
+
+        for (Map.Entry<?, ?> entry: object.entrySet()) {
+            if (!first) write(',');
+            first = false;
+
+            writeString(String.valueOf(entry.getKey()));
+            write(':');
+            writeValue(entry.getValue(), depth + 1);
+        }
+
+        write('}');
+    }
+
+    private void writeIterable(Iterable<?> iterable, int depth) {
+        write('[');
+        boolean first = true;
+
+        for (Object element: iterable) {
+            if (!first) write(',');
+            first = false;
+            writeValue(element, depth + 1);
+        }
+
+        write(']');
+    }
+
+    private void writeArray(Object array, int depth) {
+        write('[');
+        int length = Array.getLength(array);
+
+        for (int i = 0; i < length; i++) {
+            if (i > 0) write(',');
+            writeValue(Array.get(array, i), depth + 1);
+        }
+
+        write(']');
+    }
+
+    private void writeString(CharSequence value) {
+        int length = value.length();
+        // An escaped character takes at most six bytes
+        ensureCapacity(length * 6 + 2);
+        buffer[count++] = '"';
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buffer[count++] = '\\';
+                    buffer[count++] = (byte) c;
+                } else if (c >= 0x20) {
+                    buffer[count++] = (byte) c;
+                } else {
+                    writeControlCharacter(c);
+                }
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xC0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates cannot be encoded as UTF-8, but they can be escaped
+                writeUnicodeEscape(c);
+            } else {
+                buffer[count++] = (byte) (0xE0 | (c >> 12));
+                buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        buffer[count++] = '"';
+    }
+
+    private void writeControlCharacter(char c) {
+        switch (c) {
+            case '\b': buffer[count++] = '\\'; buffer[count++] = 'b'; break;
+            case '\f': buffer[count++] = '\\'; buffer[count++] = 'f'; break;
+            case '\n': buffer[count++] = '\\'; buffer[count++] = 'n'; break;
+            case '\r': buffer[count++] = '\\'; buffer[count++] = 'r'; break;
+            case '\t': buffer[count++] = '\\'; buffer[count++] = 't'; break;
+            default: writeUnicodeEscape(c);
+        }
+    }
+
+    private void writeUnicodeEscape(char c) {
+        buffer[count++] = '\\';
+        buffer[count++] = 'u';
+        buffer[count++] = HEX[(c >> 12) & 0xF];
+        buffer[count++] = HEX[(c >> 8) & 0xF];
+        buffer[count++] = HEX[(c >> 4) & 0xF];
+        buffer[count++] = HEX[c & 0xF];
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeASCII(Long.toString(value));
+            return;
+        }
+
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10)
+            digits++;
+
+        for (int i = count + digits - 1; i >= count; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+
+        count += digits;
+    }
+
+    private void writeASCII(String value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++)
+            buffer[count++] = (byte) value.charAt(i);
+    }
+
+    private void write(char c) {
+        ensureCapacity(1);
+        buffer[count++] = (byte) c;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (count + additional > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + additional));
+    }
+}
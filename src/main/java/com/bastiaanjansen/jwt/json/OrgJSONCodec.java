@@ -0,0 +1,45 @@
+package com.bastiaanjansen.jwt.json;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Codec backed by org.json. Numbers are decoded as {@link Integer}, {@link Long} or
+ * {@link java.math.BigDecimal}, whichever org.json picks. This is the default codec.
+ *
+ * @author Bastiaan Jansen
+ */
+public final class OrgJSONCodec implements JSONCodec {
+
+    @Override
+    public Object decode(byte[] json, int offset, int length) {
+        try {
+            JSONTokener tokener = new JSONTokener(new String(json, offset, length, StandardCharsets.UTF_8));
+            Object value = tokener.nextValue();
+
+            if (tokener.nextClean() != 0)
+                throw new IllegalArgumentException("Unexpected data after JSON value");
+
+            if (value instanceof JSONObject)
+                return ((JSONObject) value).toMap();
+            if (value instanceof JSONArray)
+                return ((JSONArray) value).toList();
+            if (JSONObject.NULL.equals(value))
+                return null;
+
+            return value;
+        } catch (JSONException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] encode(Map<String, ?> claims) {
+        return new JSONObject(claims).toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,181 @@
+package com.bastiaanjansen.jwt.jwks;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.json.JSONReader;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the public keys of a JSON Web Key Set (RFC 7517) into verifying algorithms. RSA, EC (P-256,
+ * P-384 and P-521) and Ed25519 keys are supported. Keys without key ID, keys which are not meant for
+ * signatures and keys of other types are skipped.
+ *
+ * @author Bastiaan Jansen
+ */
+public final class JWKS {
+
+    // X.509 encoding of an Ed25519 public key, without the 32 key bytes
+    private static final byte[] ED25519_PREFIX = { 0x30, 0x2A, 0x30, 0x05, 0x06, 0x03, 0x2B, 0x65, 0x70, 0x03, 0x21, 0x00 };
+
+    private JWKS() {}
+
+    /**
+     * Read the keys of a key set
+     *
+     * @param json JSON of the key set
+     * @return verifying algorithms by key ID, in the order of the key set
+     * @throws IllegalArgumentException when the JSON is not a key set or a supported key is invalid
+     */
+    public static Map<String, Algorithm> parse(byte[] json) {
+        Map<String, Algorithm> algorithms = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Map<String, Object>> key: readKeys(json).entrySet()) {
+            Algorithm algorithm = toAlgorithm(key.getValue());
+            if (algorithm != null) algorithms.put(key.getKey(), algorithm);
+        }
+
+        return algorithms;
+    }
+
+    /**
+     * Read the JSON of a key set
+     *
+     * @return the members of every key with a key ID, by key ID
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Map<String, Object>> readKeys(byte[] json) {
+        JSONReader reader = new JSONReader(json, 0, json.length);
+        Object value = reader.readValue();
+        reader.expectEnd();
+
+        if (!(value instanceof Map) || !(((Map<String, Object>) value).get("keys") instanceof List))
+            throw new IllegalArgumentException("JSON is not a JSON Web Key Set");
+
+        Map<String, Map<String, Object>> keys = new LinkedHashMap<>();
+        for (Object key: (List<Object>) ((Map<String, Object>) value).get("keys")) {
+            if (!(key instanceof Map)) throw new IllegalArgumentException("JSON Web Key must be an object");
+
+            Object keyId = ((Map<String, Object>) key).get("kid");
+            if (keyId instanceof String) keys.put((String) keyId, (Map<String, Object>) key);
+        }
+
+        return keys;
+    }
+
+    /**
+     * Create a verifying algorithm for a key
+     *
+     * @return the algorithm, or null when the key is not a supported signing key
+     * @throws IllegalArgumentException when the key is invalid
+     */
+    static Algorithm toAlgorithm(Map<String, Object> jwk) {
+        Object use = jwk.get("use");
+        if (use != null && !"sig".equals(use)) return null;
+
+        String type = String.valueOf(jwk.get("kty"));
+        Object algorithm = jwk.get("alg");
+
+        try {
+            switch (type) {
+                case "RSA": return rsa(jwk, algorithm == null ? "RS256" : algorithm);
+                case "EC": return ecdsa(jwk, algorithm);
+                case "OKP": return eddsa(jwk, algorithm);
+                default: return null;
+            }
+        } catch (GeneralSecurityException | ClassCastException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid JSON Web Key " + jwk.get("kid"), e);
+        }
+    }
+
+    private static Algorithm rsa(Map<String, Object> jwk, Object algorithm) throws GeneralSecurityException {
+        RSAPublicKeySpec spec = new RSAPublicKeySpec(number(jwk, "n"), number(jwk, "e"));
+        KeyPair keyPair = verifying(KeyFactory.getInstance("RSA").generatePublic(spec));
+
+        switch (String.valueOf(algorithm)) {
+            case "RS256": return Algorithm.RSA256(keyPair);
+            case "RS384": return Algorithm.RSA384(keyPair);
+            case "RS512": return Algorithm.RSA512(keyPair);
+            default: return null;
+        }
+    }
+
+    private static Algorithm ecdsa(Map<String, Object> jwk, Object algorithm) throws GeneralSecurityException {
+        String curve = String.valueOf(jwk.get("crv"));
+        String name;
+        String expected;
+
+        switch (curve) {
+            case "P-256": name = "secp256r1"; expected = "ES256"; break;
+            case "P-384": name = "secp384r1"; expected = "ES384"; break;
+            case "P-521": name = "secp521r1"; expected = "ES512"; break;
+            default: return null;
+        }
+
+        if (algorithm != null && !expected.equals(algorithm)) return null;
+
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec(name));
+        ECPoint point = new ECPoint(number(jwk, "x"), number(jwk, "y"));
+        ECPublicKeySpec spec = new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class));
+        KeyPair keyPair = verifying(KeyFactory.getInstance("EC").generatePublic(spec));
+
+        switch (expected) {
+            case "ES256": return Algorithm.ECDSA256(keyPair);
+            case "ES384": return Algorithm.ECDSA384(keyPair);
+            default: return Algorithm.ECDSA512(keyPair);
+        }
+    }
+
+    private static Algorithm eddsa(Map<String, Object> jwk, Object algorithm) throws GeneralSecurityException {
+        if (!"Ed25519".equals(jwk.get("crv")) || (algorithm != null && !"EdDSA".equals(algorithm)))
+            return null;
+
+        byte[] key = bytes(jwk, "x");
+        if (key.length != 32) throw new IllegalArgumentException("Ed25519 key must be 32 bytes");
+
+        byte[] encoded = new byte[ED25519_PREFIX.length + key.length];
+        System.arraycopy(ED25519_PREFIX, 0, encoded, 0, ED25519_PREFIX.length);
+        System.arraycopy(key, 0, encoded, ED25519_PREFIX.length, key.length);
+
+        KeyFactory factory;
+        try {
+            factory = KeyFactory.getInstance("Ed25519");
+        } catch (NoSuchAlgorithmException e) {
+            // Ed25519 keys are skipped before Java 15
+            return null;
+        }
+
+        return Algorithm.EdDSA(verifying(factory.generatePublic(new X509EncodedKeySpec(encoded))));
+    }
+
+    private static KeyPair verifying(PublicKey publicKey) {
+        return new KeyPair(publicKey, null);
+    }
+
+    private static BigInteger number(Map<String, Object> jwk, String name) {
+        return new BigInteger(1, bytes(jwk, name));
+    }
+
+    private static byte[] bytes(Map<String, Object> jwk, String name) {
+        Object value = jwk.get(name);
+        if (!(value instanceof String)) throw new IllegalArgumentException(name + " is missing");
+
+        return Base64.getUrlDecoder().decode((String) value);
+    }
+}
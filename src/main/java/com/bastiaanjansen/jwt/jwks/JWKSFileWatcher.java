@@ -0,0 +1,143 @@
+package com.bastiaanjansen.jwt.jwks;
+
+import com.bastiaanjansen.jwt.RotatingKeyResolver;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Loads the keys of a local JWKS file into a {@link RotatingKeyResolver} and reloads them whenever the
+ * file changes. Keys which disappear from the file are retired with the overlap window of the resolver,
+ * keys which did not change keep their algorithm instance and initialised crypto engines.
+ *
+ * <p>Changes are picked up by a daemon thread. When the file can not be read or parsed, for example
+ * while it is being written, the current keys are kept until the next change.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class JWKSFileWatcher implements AutoCloseable {
+
+    private final Path file;
+    private final RotatingKeyResolver resolver;
+    private final WatchService watchService;
+    private final LongAdder failedReloads = new LongAdder();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // Guarded by reloadLock
+    private Map<String, Map<String, Object>> loadedKeys = new HashMap<>();
+    private Map<String, Algorithm> loadedAlgorithms = new HashMap<>();
+
+    private JWKSFileWatcher(Path file, RotatingKeyResolver resolver) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.resolver = resolver;
+
+        reload();
+
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread thread = new Thread(this::watch, "jwt-jwks-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Load the keys of a JWKS file and keep reloading them when the file changes
+     *
+     * @param file JWKS file
+     * @param resolver resolver to put the keys in
+     * @return a running watcher
+     * @throws IOException when the file can not be read or watched
+     * @throws IllegalArgumentException when the file is not a valid key set
+     */
+    public static JWKSFileWatcher watch(Path file, RotatingKeyResolver resolver) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file cannot be null");
+        if (resolver == null) throw new IllegalArgumentException("resolver cannot be null");
+
+        return new JWKSFileWatcher(file, resolver);
+    }
+
+    /**
+     * Read the file now and update the keys of the resolver
+     *
+     * @throws IOException when the file can not be read
+     * @throws IllegalArgumentException when the file is not a valid key set
+     */
+    public void reload() throws IOException {
+        reloadLock.lock();
+        try {
+            Map<String, Map<String, Object>> keys = JWKS.readKeys(Files.readAllBytes(file));
+            Map<String, Algorithm> algorithms = new LinkedHashMap<>();
+
+            for (Map.Entry<String, Map<String, Object>> key: keys.entrySet()) {
+                Algorithm algorithm = key.getValue().equals(loadedKeys.get(key.getKey()))
+                        ? loadedAlgorithms.get(key.getKey())
+                        : JWKS.toAlgorithm(key.getValue());
+
+                if (algorithm != null) algorithms.put(key.getKey(), algorithm);
+            }
+
+            resolver.setKeys(algorithms);
+            loadedKeys = keys;
+            loadedAlgorithms = algorithms;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * @return number of changes to the file which could not be loaded
+     */
+    public long getFailedReloads() {
+        return failedReloads.sum();
+    }
+
+    /**
+     * Stop watching the file. The keys stay in the resolver.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+
+                for (WatchEvent<?> event: key.pollEvents()) {
+                    Object context = event.context();
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(context))
+                        changed = true;
+                }
+
+                key.reset();
+                if (changed) reloadQuietly();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Watcher is closed
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (IOException | RuntimeException e) {
+            failedReloads.increment();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.bastiaanjansen.jwt.metrics;
+
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
+
+/**
+ * Receives the outcome and duration of every sign, parse and validate operation. Install a listener with
+ * {@link JWTMetrics#setListener(JWTListener)}. Listeners are called on the thread which performs the
+ * operation, so they must be thread-safe and fast; {@link MetricsListener} records into lock-free
+ * histograms and counters.
+ *
+ * @author Bastiaan Jansen
+ */
+public interface JWTListener {
+
+    /**
+     * Listener which ignores everything. While it is installed, operations are not timed at all.
+     */
+    JWTListener NONE = new JWTListener() {};
+
+    /**
+     * Called when an operation succeeded
+     *
+     * @param operation the operation
+     * @param algorithm name of the algorithm, for example HS256
+     * @param nanos duration in nanoseconds
+     */
+    default void onSuccess(Operation operation, String algorithm, long nanos) {}
+
+    /**
+     * Called when an operation failed
+     *
+     * @param operation the operation
+     * @param algorithm name of the algorithm, for example HS256
+     * @param reason why the operation failed
+     * @param nanos duration in nanoseconds
+     */
+    default void onFailure(Operation operation, String algorithm, FailureReason reason, long nanos) {}
+}
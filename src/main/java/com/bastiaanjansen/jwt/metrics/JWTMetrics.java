@@ -0,0 +1,33 @@
+package com.bastiaanjansen.jwt.metrics;
+
+/**
+ * Holds the listener which receives all sign, parse and validate operations. By default this is
+ * {@link JWTListener#NONE}, which costs a single field read per operation.
+ *
+ * @author Bastiaan Jansen
+ */
+public final class JWTMetrics {
+
+    private static volatile JWTListener listener = JWTListener.NONE;
+
+    private JWTMetrics() {}
+
+    /**
+     * Get the listener which receives all operations
+     *
+     * @return the installed listener
+     */
+    public static JWTListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Replace the listener which receives all operations. Use {@link JWTListener#NONE} to stop listening.
+     *
+     * @param listener the new listener
+     */
+    public static void setListener(JWTListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener cannot be null");
+        JWTMetrics.listener = listener;
+    }
+}
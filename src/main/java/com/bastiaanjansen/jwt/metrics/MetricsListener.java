@@ -0,0 +1,110 @@
+package com.bastiaanjansen.jwt.metrics;
+
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener which keeps metrics in memory, without any dependency: a {@link LatencyHistogram} of every
+ * operation, the number of operations per algorithm and the number of failures per reason. Recording only
+ * updates atomic counters, so it can be called from many threads at once.
+ *
+ * <pre>{@code
+ * MetricsListener metrics = new MetricsListener();
+ * JWTMetrics.setListener(metrics);
+ *
+ * long p99 = metrics.getLatency(Operation.VALIDATE).getPercentile(99);
+ * long expired = metrics.getFailureCount(Operation.VALIDATE, FailureReason.EXPIRED);
+ * }</pre>
+ *
+ * @author Bastiaan Jansen
+ */
+public final class MetricsListener implements JWTListener {
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, ConcurrentMap<String, LongAdder>> counts = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder[]> failures = new EnumMap<>(Operation.class);
+
+    public MetricsListener() {
+        for (Operation operation: Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            counts.put(operation, new ConcurrentHashMap<>());
+
+            LongAdder[] reasons = new LongAdder[FailureReason.values().length];
+            for (int i = 0; i < reasons.length; i++) reasons[i] = new LongAdder();
+            failures.put(operation, reasons);
+        }
+    }
+
+    @Override
+    public void onSuccess(Operation operation, String algorithm, long nanos) {
+        latencies.get(operation).record(nanos);
+        counterOf(operation, algorithm).increment();
+    }
+
+    @Override
+    public void onFailure(Operation operation, String algorithm, FailureReason reason, long nanos) {
+        latencies.get(operation).record(nanos);
+        counterOf(operation, algorithm).increment();
+        failures.get(operation)[reason.ordinal()].increment();
+    }
+
+    /**
+     * Get the durations of an operation, successful and failed
+     *
+     * @param operation the operation
+     * @return histogram of the durations in nanoseconds
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * Get the number of times an operation was performed with an algorithm, successful or not
+     *
+     * @param operation the operation
+     * @param algorithm name of the algorithm, for example HS256
+     * @return number of operations
+     */
+    public long getCount(Operation operation, String algorithm) {
+        LongAdder counter = counts.get(operation).get(algorithm);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Get the number of times an operation was performed per algorithm
+     *
+     * @param operation the operation
+     * @return snapshot of the number of operations per algorithm name
+     */
+    public Map<String, Long> getCounts(Operation operation) {
+        Map<String, Long> snapshot = new HashMap<>();
+        counts.get(operation).forEach((algorithm, counter) -> snapshot.put(algorithm, counter.sum()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Get the number of times an operation failed for a reason
+     *
+     * @param operation the operation
+     * @param reason why the operation failed
+     * @return number of failures
+     */
+    public long getFailureCount(Operation operation, FailureReason reason) {
+        return failures.get(operation)[reason.ordinal()].sum();
+    }
+
+    private LongAdder counterOf(Operation operation, String algorithm) {
+        ConcurrentMap<String, LongAdder> counters = counts.get(operation);
+
+        // Only the first operation with an algorithm takes the lock of computeIfAbsent
+        LongAdder counter = counters.get(algorithm);
+        return counter != null ? counter : counters.computeIfAbsent(algorithm, key -> new LongAdder());
+    }
+}
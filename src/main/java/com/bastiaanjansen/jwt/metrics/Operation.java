@@ -0,0 +1,31 @@
+package com.bastiaanjansen.jwt.metrics;
+
+/**
+ * Operations reported to a {@link JWTListener}
+ *
+ * @author Bastiaan Jansen
+ */
+public enum Operation {
+    /** Creating a signed token with one of the sign methods of a JWT or a template */
+    SIGN,
+    /** Parsing a raw token, including verifying the signature for the verifying parse methods */
+    PARSE,
+    /** Signing a signing input with an algorithm */
+    ALGORITHM_SIGN,
+    /** Verifying a signature with an algorithm */
+    ALGORITHM_VERIFY,
+    /** Validating a token with a {@link com.bastiaanjansen.jwt.DefaultJWTValidator}, all stages together */
+    VALIDATE,
+    /** Validation stage which checks the signature */
+    VALIDATE_SIGNATURE,
+    /** Validation stage which checks the header parameters */
+    VALIDATE_HEADER,
+    /** Validation stage which checks the exp, nbf and iat claims */
+    VALIDATE_TIME,
+    /** Validation stage which checks the payload claims */
+    VALIDATE_CLAIMS,
+    /** Validation stage which checks the revocation list */
+    VALIDATE_REVOCATION,
+    /** Validation stage which checks the replay guard */
+    VALIDATE_REPLAY
+}
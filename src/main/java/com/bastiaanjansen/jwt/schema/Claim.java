@@ -0,0 +1,23 @@
+package com.bastiaanjansen.jwt.schema;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Name of the claim a method of a {@link ClaimsSchema} maps to, when it differs from the method name
+ *
+ * @author Bastiaan Jansen
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface Claim {
+
+    /**
+     * @return name of the claim in the JSON
+     */
+    String value();
+}
@@ -0,0 +1,61 @@
+package com.bastiaanjansen.jwt.schema;
+
+import com.bastiaanjansen.jwt.json.JSONReader;
+import com.bastiaanjansen.jwt.json.JSONWriter;
+
+/**
+ * Reads and writes claims as a typed object. Implementations are generated for types annotated with
+ * {@link ClaimsSchema} and are available as the {@code INSTANCE} field of the generated class.
+ *
+ * @param <T> type of the claims
+ * @author Bastiaan Jansen
+ * @see com.bastiaanjansen.jwt.Payload#read(ClaimsCodec)
+ * @see com.bastiaanjansen.jwt.Payload#of(Object, ClaimsCodec)
+ */
+public interface ClaimsCodec<T> {
+
+    /**
+     * Read claims from a JSON object. Unknown members are skipped without decoding them.
+     *
+     * @param reader reader positioned before the object
+     * @return the claims
+     * @throws IllegalArgumentException when the JSON is malformed or a claim has an unexpected type
+     */
+    T read(JSONReader reader);
+
+    /**
+     * Write claims as a JSON object. Claims which are null are left out.
+     *
+     * @param claims the claims
+     * @param writer writer to write the object to
+     */
+    void write(T claims, JSONWriter writer);
+
+    /**
+     * Decode claims from a JSON object
+     *
+     * @param json array holding the JSON
+     * @param offset start of the JSON
+     * @param length length of the JSON
+     * @return the claims
+     * @throws IllegalArgumentException when the JSON is malformed or a claim has an unexpected type
+     */
+    default T decode(byte[] json, int offset, int length) {
+        JSONReader reader = new JSONReader(json, offset, length);
+        T claims = read(reader);
+        reader.expectEnd();
+        return claims;
+    }
+
+    /**
+     * Encode claims as a UTF-8 encoded JSON object
+     *
+     * @param claims the claims
+     * @return the JSON
+     */
+    default byte[] encode(T claims) {
+        JSONWriter writer = new JSONWriter();
+        write(claims, writer);
+        return writer.toByteArray();
+    }
+}
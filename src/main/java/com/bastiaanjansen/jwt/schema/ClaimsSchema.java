@@ -0,0 +1,37 @@
+package com.bastiaanjansen.jwt.schema;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface or record which describes the claims of a token. At compile time a
+ * {@link ClaimsCodec} named after the type with a {@code Codec} suffix is generated next to it, which reads
+ * the claims straight from the JSON and writes them without building a map first.
+ *
+ * <p>Every abstract method without parameters of an interface, or every component of a record, is a
+ * claim. Claims are named after the method, unless it is annotated with {@link Claim}. Supported types
+ * are {@code String}, {@code long}, {@code int}, {@code boolean}, {@code double} and their wrappers,
+ * {@code java.util.Date}, {@code List<String>}, {@code String[]}, {@code Map<String, Object>},
+ * {@code List<Object>} and {@code Object}.</p>
+ *
+ * <pre>
+ * &#64;ClaimsSchema
+ * public interface SessionClaims {
+ *     &#64;Claim("sub") String subject();
+ *     long tenant();
+ *     List&lt;String&gt; roles();
+ *     &#64;Claim("exp") Date expirationTime();
+ * }
+ * </pre>
+ *
+ * @author Bastiaan Jansen
+ * @see ClaimsCodec
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface ClaimsSchema {
+}
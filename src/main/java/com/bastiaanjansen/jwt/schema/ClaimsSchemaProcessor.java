@@ -0,0 +1,475 @@
+package com.bastiaanjansen.jwt.schema;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@link ClaimsCodec} for every type annotated with {@link ClaimsSchema}. The generated reader
+ * matches member keys against the claim names without creating strings for them, reads values straight
+ * into fields of the claim's type and skips unknown members without decoding them. The generated writer
+ * writes the claims member by member. No reflection is used at runtime.
+ *
+ * <p>The processor is registered as a service, so it runs whenever this library is on the compile class
+ * path.</p>
+ *
+ * @author Bastiaan Jansen
+ */
+@SupportedAnnotationTypes("com.bastiaanjansen.jwt.schema.ClaimsSchema")
+public class ClaimsSchemaProcessor extends AbstractProcessor {
+
+    // A bit per claim keeps track of duplicate members
+    private static final int MAX_CLAIMS = 64;
+
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element: roundEnv.getElementsAnnotatedWith(ClaimsSchema.class)) {
+            TypeElement type = (TypeElement) element;
+
+            try {
+                List<ClaimMember> claims = claimsOf(type);
+                if (claims != null) generate(type, claims);
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Could not write codec: " + e.getMessage(), type);
+            }
+        }
+
+        return true;
+    }
+
+    private List<ClaimMember> claimsOf(TypeElement type) {
+        boolean record = type.getKind().name().equals("RECORD");
+
+        if (type.getKind() != ElementKind.INTERFACE && !record) {
+            error(type, "@ClaimsSchema can only be used on interfaces and records");
+            return null;
+        }
+
+        if (!type.getTypeParameters().isEmpty()) {
+            error(type, "@ClaimsSchema types cannot have type parameters");
+            return null;
+        }
+
+        List<ExecutableElement> accessors = record ? recordAccessors(type) : interfaceAccessors(type);
+        if (accessors == null) return null;
+
+        if (accessors.size() > MAX_CLAIMS) {
+            error(type, "@ClaimsSchema types can have at most " + MAX_CLAIMS + " claims");
+            return null;
+        }
+
+        List<ClaimMember> claims = new ArrayList<>();
+        for (ExecutableElement accessor: accessors) {
+            ClaimType claimType = ClaimType.of(accessor.getReturnType(), processingEnv);
+            if (claimType == null) {
+                error(accessor, "Unsupported claim type " + accessor.getReturnType());
+                return null;
+            }
+
+            Claim annotation = accessor.getAnnotation(Claim.class);
+            String name = annotation != null ? annotation.value() : accessor.getSimpleName().toString();
+
+            for (ClaimMember claim: claims) {
+                if (claim.name.equals(name)) {
+                    error(accessor, "Duplicate claim " + name);
+                    return null;
+                }
+            }
+
+            claims.add(new ClaimMember(name, accessor.getSimpleName().toString(), accessor.getReturnType(), claimType));
+        }
+
+        return claims;
+    }
+
+    private List<ExecutableElement> interfaceAccessors(TypeElement type) {
+        List<ExecutableElement> accessors = new ArrayList<>();
+
+        for (ExecutableElement method: ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) continue;
+
+            if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID || !method.getTypeParameters().isEmpty()) {
+                error(method, "Claim methods must return a value and have no parameters");
+                return null;
+            }
+
+            accessors.add(method);
+        }
+
+        return accessors;
+    }
+
+    private List<ExecutableElement> recordAccessors(TypeElement type) {
+        // The canonical constructor has a parameter per component, with an accessor of the same name and type
+        List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+
+        for (ExecutableElement constructor: ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            List<ExecutableElement> accessors = new ArrayList<>();
+
+            for (VariableElement parameter: constructor.getParameters()) {
+                for (ExecutableElement method: methods) {
+                    if (method.getParameters().isEmpty()
+                            && method.getSimpleName().contentEquals(parameter.getSimpleName())
+                            && processingEnv.getTypeUtils().isSameType(method.getReturnType(), parameter.asType())) {
+                        accessors.add(method);
+                        break;
+                    }
+                }
+            }
+
+            if (accessors.size() == constructor.getParameters().size() && accessors.size() == componentCount(type))
+                return accessors;
+        }
+
+        error(type, "Could not find the canonical constructor of the record");
+        return null;
+    }
+
+    private static int componentCount(TypeElement type) {
+        int count = 0;
+        for (Element element: type.getEnclosedElements()) {
+            if (element.getKind().name().equals("RECORD_COMPONENT")) count++;
+        }
+        return count;
+    }
+
+    private void generate(TypeElement type, List<ClaimMember> claims) throws IOException {
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String typeName = type.getQualifiedName().toString();
+        String codecName = codecName(type);
+        boolean record = type.getKind().name().equals("RECORD");
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty())
+            source.append("package ").append(packageName).append(";\n\n");
+
+        source.append("import com.bastiaanjansen.jwt.json.JSONReader;\n");
+        source.append("import com.bastiaanjansen.jwt.json.JSONWriter;\n");
+        source.append("import com.bastiaanjansen.jwt.schema.ClaimsCodec;\n\n");
+
+        source.append("/**\n * Codec for {@link ").append(typeName).append("}, generated by ")
+                .append(ClaimsSchemaProcessor.class.getSimpleName()).append(". Do not edit.\n */\n");
+        source.append("public final class ").append(codecName).append(" implements ClaimsCodec<").append(typeName).append("> {\n\n");
+        source.append("    public static final ").append(codecName).append(" INSTANCE = new ").append(codecName).append("();\n\n");
+
+        source.append("    private static final String[] NAMES = {");
+        for (int i = 0; i < claims.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(stringLiteral(claims.get(i).name));
+        }
+        source.append("};\n\n");
+
+        source.append("    private ").append(codecName).append("() {}\n\n");
+
+        appendRead(source, typeName, claims, record);
+        appendWrite(source, typeName, claims);
+
+        if (!record) appendValueClass(source, typeName, claims);
+
+        source.append("}\n");
+
+        JavaFileObject file = filer.createSourceFile(packageName.isEmpty() ? codecName : packageName + "." + codecName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private static void appendRead(StringBuilder source, String typeName, List<ClaimMember> claims, boolean record) {
+        source.append("    @Override\n");
+        source.append("    @SuppressWarnings(\"unchecked\")\n");
+        source.append("    public ").append(typeName).append(" read(JSONReader reader) {\n");
+
+        for (int i = 0; i < claims.size(); i++) {
+            ClaimMember claim = claims.get(i);
+            source.append("        ").append(claim.typeName).append(" claim").append(i).append(" = ").append(claim.type.defaultValue).append(";\n");
+        }
+
+        source.append("        long seen = 0;\n\n");
+        source.append("        reader.beginObject();\n");
+        source.append("        while (reader.hasNextMember()) {\n");
+        source.append("            int member = reader.nextMember(NAMES);\n");
+        source.append("            if (member < 0) {\n");
+        source.append("                reader.skipValue();\n");
+        source.append("                continue;\n");
+        source.append("            }\n\n");
+        source.append("            if ((seen & 1L << member) != 0)\n");
+        source.append("                throw new IllegalArgumentException(\"Duplicate key \" + NAMES[member]);\n");
+        source.append("            seen |= 1L << member;\n\n");
+        source.append("            if (reader.nextIsNull())\n");
+        source.append("                continue;\n\n");
+        source.append("            switch (member) {\n");
+
+        for (int i = 0; i < claims.size(); i++) {
+            ClaimMember claim = claims.get(i);
+            source.append("                case ").append(i).append(": claim").append(i).append(" = ")
+                    .append(claim.type.read.replace("$T", claim.typeName)).append("; break;\n");
+        }
+
+        source.append("            }\n");
+        source.append("        }\n\n");
+
+        source.append("        return new ").append(record ? typeName : "Value").append("(");
+        for (int i = 0; i < claims.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append("claim").append(i);
+        }
+        source.append(");\n");
+        source.append("    }\n\n");
+    }
+
+    private static void appendWrite(StringBuilder source, String typeName, List<ClaimMember> claims) {
+        source.append("    @Override\n");
+        source.append("    public void write(").append(typeName).append(" claims, JSONWriter writer) {\n");
+        source.append("        writer.beginObject();\n");
+
+        for (int i = 0; i < claims.size(); i++) {
+            ClaimMember claim = claims.get(i);
+            String value = "claim" + i;
+
+            source.append("\n        ").append(claim.typeName).append(" ").append(value).append(" = claims.").append(claim.accessor).append("();\n");
+
+            String indent = "        ";
+            if (!claim.type.primitive) {
+                source.append("        if (").append(value).append(" != null) {\n");
+                indent = "            ";
+            }
+
+            source.append(indent).append("writer.name(NAMES[").append(i).append("]);\n");
+            source.append(indent).append("writer.value(").append(claim.type.write.replace("$V", value)).append(");\n");
+
+            if (!claim.type.primitive)
+                source.append("        }\n");
+        }
+
+        source.append("\n        writer.endObject();\n");
+        source.append("    }\n");
+    }
+
+    private static void appendValueClass(StringBuilder source, String typeName, List<ClaimMember> claims) {
+        source.append("\n    private static final class Value implements ").append(typeName).append(" {\n");
+
+        for (int i = 0; i < claims.size(); i++) {
+            source.append("        private final ").append(claims.get(i).typeName).append(" claim").append(i).append(";\n");
+        }
+
+        source.append("\n        Value(");
+        for (int i = 0; i < claims.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(claims.get(i).typeName).append(" claim").append(i);
+        }
+        source.append(") {\n");
+        for (int i = 0; i < claims.size(); i++) {
+            source.append("            this.claim").append(i).append(" = claim").append(i).append(";\n");
+        }
+        source.append("        }\n");
+
+        for (int i = 0; i < claims.size(); i++) {
+            ClaimMember claim = claims.get(i);
+            source.append("\n        @Override\n");
+            source.append("        public ").append(claim.typeName).append(" ").append(claim.accessor).append("() {\n");
+            source.append("            return claim").append(i).append(";\n");
+            source.append("        }\n");
+        }
+
+        source.append("\n        @Override\n");
+        source.append("        public boolean equals(Object other) {\n");
+        source.append("            if (this == other) return true;\n");
+        source.append("            if (!(other instanceof Value)) return false;\n");
+        source.append("            Value that = (Value) other;\n");
+        source.append("            return true");
+        for (int i = 0; i < claims.size(); i++) {
+            source.append("\n                    && ").append(claims.get(i).type.equals.replace("$A", "claim" + i).replace("$B", "that.claim" + i));
+        }
+        source.append(";\n");
+        source.append("        }\n");
+
+        source.append("\n        @Override\n");
+        source.append("        public int hashCode() {\n");
+        source.append("            int hash = 1;\n");
+        for (int i = 0; i < claims.size(); i++) {
+            source.append("            hash = 31 * hash + ").append(claims.get(i).type.hashCode.replace("$V", "claim" + i)).append(";\n");
+        }
+        source.append("            return hash;\n");
+        source.append("        }\n");
+
+        source.append("\n        @Override\n");
+        source.append("        public String toString() {\n");
+        source.append("            return \"").append(simpleName(typeName)).append("[\"");
+        for (int i = 0; i < claims.size(); i++) {
+            ClaimMember claim = claims.get(i);
+            source.append("\n                    + \"").append(i == 0 ? "" : ", ").append(claim.accessor).append("=\" + ")
+                    .append(claim.type.toString.replace("$V", "claim" + i));
+        }
+        source.append("\n                    + \"]\";\n");
+        source.append("        }\n");
+        source.append("    }\n");
+    }
+
+    private static PackageElement packageOf(Element element) {
+        while (!(element instanceof PackageElement))
+            element = element.getEnclosingElement();
+        return (PackageElement) element;
+    }
+
+    private static String codecName(TypeElement type) {
+        // Nested types get the names of their enclosing types as prefix, Outer.Inner becomes Outer_InnerCodec
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement())
+            name.insert(0, enclosing.getSimpleName() + "_");
+        return name.append("Codec").toString();
+    }
+
+    private static String simpleName(String typeName) {
+        return typeName.substring(typeName.lastIndexOf('.') + 1);
+    }
+
+    private static String stringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') literal.append('\\').append(c);
+            else if (c < 0x20 || c > 0x7E) literal.append(String.format("\\u%04x", (int) c));
+            else literal.append(c);
+        }
+        return literal.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class ClaimMember {
+        final String name;
+        final String accessor;
+        final String typeName;
+        final ClaimType type;
+
+        ClaimMember(String name, String accessor, TypeMirror type, ClaimType claimType) {
+            this.name = name;
+            this.accessor = accessor;
+            this.typeName = type.toString();
+            this.type = claimType;
+        }
+    }
+
+    /**
+     * Code snippets to read, write and compare a claim of a supported type. $T is replaced by the claim's
+     * type, $V by a value and $A and $B by the values to compare.
+     */
+    private enum ClaimType {
+        STRING("reader.readString()", "$V", false),
+        LONG("reader.readLong()", "$V", true),
+        LONG_OBJECT("reader.readLong()", "$V.longValue()", false),
+        INT("reader.readInt()", "$V", true),
+        INT_OBJECT("reader.readInt()", "$V.longValue()", false),
+        BOOLEAN("reader.readBoolean()", "$V", true),
+        BOOLEAN_OBJECT("reader.readBoolean()", "$V.booleanValue()", false),
+        DOUBLE("reader.readDouble()", "$V", true),
+        DOUBLE_OBJECT("reader.readDouble()", "$V.doubleValue()", false),
+        DATE("new java.util.Date(reader.readLong())", "$V.getTime()", false),
+        STRING_LIST("reader.readStringList()", "(Object) $V", false),
+        STRING_ARRAY("reader.readStringList().toArray(new String[0])", "(Object) $V", false),
+        VALUE("($T) reader.readValue()", "(Object) $V", false);
+
+        final String read;
+        final String write;
+        final boolean primitive;
+        final String defaultValue;
+        final String equals;
+        final String hashCode;
+        final String toString;
+
+        ClaimType(String read, String write, boolean primitive) {
+            this.read = read;
+            this.write = write;
+            this.primitive = primitive;
+
+            boolean isArray = name().equals("STRING_ARRAY");
+            boolean isBoolean = name().equals("BOOLEAN");
+            boolean isDouble = name().equals("DOUBLE");
+
+            this.defaultValue = !primitive ? "null" : isBoolean ? "false" : "0";
+            this.equals = isArray ? "java.util.Arrays.equals($A, $B)"
+                    : isDouble ? "Double.compare($A, $B) == 0"
+                    : primitive ? "$A == $B"
+                    : "java.util.Objects.equals($A, $B)";
+            this.hashCode = isArray ? "java.util.Arrays.hashCode($V)"
+                    : isBoolean ? "Boolean.hashCode($V)"
+                    : isDouble ? "Double.hashCode($V)"
+                    : name().equals("LONG") ? "Long.hashCode($V)"
+                    : primitive ? "$V"
+                    : "java.util.Objects.hashCode($V)";
+            this.toString = isArray ? "java.util.Arrays.toString($V)" : "$V";
+        }
+
+        static ClaimType of(TypeMirror type, ProcessingEnvironment environment) {
+            switch (type.getKind()) {
+                case LONG: return LONG;
+                case INT: return INT;
+                case BOOLEAN: return BOOLEAN;
+                case DOUBLE: return DOUBLE;
+                case ARRAY: return type.toString().equals("java.lang.String[]") ? STRING_ARRAY : null;
+                case DECLARED: break;
+                default: return null;
+            }
+
+            DeclaredType declared = (DeclaredType) type;
+            String name = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+            List<? extends TypeMirror> arguments = declared.getTypeArguments();
+
+            switch (name) {
+                case "java.lang.String": return STRING;
+                case "java.lang.Long": return LONG_OBJECT;
+                case "java.lang.Integer": return INT_OBJECT;
+                case "java.lang.Boolean": return BOOLEAN_OBJECT;
+                case "java.lang.Double": return DOUBLE_OBJECT;
+                case "java.util.Date": return DATE;
+                case "java.lang.Object": return VALUE;
+                case "java.util.List":
+                    if (arguments.size() != 1) return null;
+                    if (arguments.get(0).toString().equals("java.lang.String")) return STRING_LIST;
+                    return arguments.get(0).toString().equals("java.lang.Object") ? VALUE : null;
+                case "java.util.Map":
+                    return arguments.size() == 2
+                            && arguments.get(0).toString().equals("java.lang.String")
+                            && arguments.get(1).toString().equals("java.lang.Object") ? VALUE : null;
+                default:
+                    return null;
+            }
+        }
+    }
+}
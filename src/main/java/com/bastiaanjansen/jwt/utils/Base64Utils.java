@@ -1,15 +1,44 @@
 package com.bastiaanjansen.jwt.utils;
 
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
 
 /**
  * Class with utility functions for encoding and decoding base64 data
  *
+ * <p>Data is encoded with the URL safe alphabet and without padding, as JWT's are. Ranges of arrays and
+ * buffers are encoded and decoded in place, and decoding checks the alphabet in the same pass. Whole
+ * arrays are handed to {@link java.util.Base64}, which HotSpot compiles to vector instructions. On Java 17
+ * and newer, long ranges are encoded and decoded with the Vector API when the
+ * {@code jdk.incubator.vector} module is added to the runtime.</p>
+ *
  * @author Bastiaan Jansen
  */
 public class Base64Utils {
 
+    // HotSpot compiles these to vector instructions, they are used when whole arrays are encoded or decoded
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private static final byte[] ENCODE_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    // Indexed by the unsigned value of a byte, -1 for bytes outside the alphabet
+    private static final int[] DECODE_TABLE = new int[256];
+
+    // Ranges shorter than this are not worth setting up vectors for
+    private static final int VECTOR_THRESHOLD = 128;
+
+    static {
+        Arrays.fill(DECODE_TABLE, -1);
+        for (int i = 0; i < ENCODE_TABLE.length; i++)
+            DECODE_TABLE[ENCODE_TABLE[i]] = i;
+    }
+
     private Base64Utils() {}
 
     /**
@@ -29,7 +58,113 @@ public class Base64Utils {
      * @return Encoded String
      */
     public static String encodeBase64URL(byte[] data) {
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(data);
+        return ENCODER.encodeToString(data);
+    }
+
+    /**
+     * Length of data once it is base64URL encoded without padding
+     *
+     * @param length length of the data
+     * @return length of the encoded data
+     */
+    public static int encodedLength(int length) {
+        return length / 3 * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    /**
+     * Length of unpadded base64URL data once it is decoded
+     *
+     * @param length length of the encoded data, without padding
+     * @return length of the decoded data
+     */
+    public static int decodedLength(int length) {
+        return length / 4 * 3 + (length % 4 == 0 ? 0 : length % 4 - 1);
+    }
+
+    /**
+     * Encode a range of a byte array into another array, without padding
+     *
+     * @param src Array holding the data to encode
+     * @param offset Start of the data to encode
+     * @param length Length of the data to encode
+     * @param dst Array to write the encoded data to
+     * @param dstOffset Start of the encoded data in dst
+     * @return number of bytes written
+     * @throws IndexOutOfBoundsException when the encoded data does not fit in dst
+     */
+    public static int encodeBase64URL(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int encodedLength = encodedLength(length);
+        if (dstOffset < 0 || dstOffset + encodedLength > dst.length)
+            throw new IndexOutOfBoundsException("Encoded data does not fit, " + encodedLength + " bytes are needed");
+
+        if (offset == 0 && length == src.length && dstOffset == 0)
+            return ENCODER.encode(src, dst);
+
+        int encoded = 0;
+        if (length >= VECTOR_THRESHOLD && Base64Vectors.isAvailable())
+            encoded = Base64Vectors.encode(src, offset, length, dst, dstOffset);
+
+        int position = dstOffset + encoded / 3 * 4;
+        int end = offset + length - length % 3;
+
+        for (int i = offset + encoded; i < end; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[position++] = ENCODE_TABLE[bits >>> 18];
+            dst[position++] = ENCODE_TABLE[bits >>> 12 & 0x3f];
+            dst[position++] = ENCODE_TABLE[bits >>> 6 & 0x3f];
+            dst[position++] = ENCODE_TABLE[bits & 0x3f];
+        }
+
+        if (length % 3 == 1) {
+            int bits = (src[end] & 0xff) << 16;
+            dst[position++] = ENCODE_TABLE[bits >>> 18];
+            dst[position++] = ENCODE_TABLE[bits >>> 12 & 0x3f];
+        } else if (length % 3 == 2) {
+            int bits = (src[end] & 0xff) << 16 | (src[end + 1] & 0xff) << 8;
+            dst[position++] = ENCODE_TABLE[bits >>> 18];
+            dst[position++] = ENCODE_TABLE[bits >>> 12 & 0x3f];
+            dst[position++] = ENCODE_TABLE[bits >>> 6 & 0x3f];
+        }
+
+        return position - dstOffset;
+    }
+
+    /**
+     * Encode a range of a byte array into a buffer, without padding. The position of the buffer is
+     * advanced past the encoded data.
+     *
+     * @param src Array holding the data to encode
+     * @param offset Start of the data to encode
+     * @param length Length of the data to encode
+     * @param dst Buffer to write the encoded data to
+     * @throws BufferOverflowException when the encoded data does not fit in dst
+     */
+    public static void encodeBase64URL(byte[] src, int offset, int length, ByteBuffer dst) {
+        if (dst.remaining() < encodedLength(length)) throw new BufferOverflowException();
+
+        if (dst.hasArray()) {
+            int written = encodeBase64URL(src, offset, length, dst.array(), dst.arrayOffset() + dst.position());
+            ((Buffer) dst).position(dst.position() + written);
+            return;
+        }
+
+        int end = offset + length - length % 3;
+
+        for (int i = offset; i < end; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst.put(ENCODE_TABLE[bits >>> 18])
+                    .put(ENCODE_TABLE[bits >>> 12 & 0x3f])
+                    .put(ENCODE_TABLE[bits >>> 6 & 0x3f])
+                    .put(ENCODE_TABLE[bits & 0x3f]);
+        }
+
+        if (length % 3 == 1) {
+            int bits = (src[end] & 0xff) << 16;
+            dst.put(ENCODE_TABLE[bits >>> 18]).put(ENCODE_TABLE[bits >>> 12 & 0x3f]);
+        } else if (length % 3 == 2) {
+            int bits = (src[end] & 0xff) << 16 | (src[end + 1] & 0xff) << 8;
+            dst.put(ENCODE_TABLE[bits >>> 18]).put(ENCODE_TABLE[bits >>> 12 & 0x3f]).put(ENCODE_TABLE[bits >>> 6 & 0x3f]);
+        }
     }
 
     /**
@@ -39,8 +174,194 @@ public class Base64Utils {
      * @return Decoded string
      */
     public static String decodeBase64URL(String encoded) {
-        byte[] decoded = Base64.getUrlDecoder().decode(encoded);
-        return new String(decoded);
+        byte[] bytes = encoded.getBytes(StandardCharsets.ISO_8859_1);
+        return new String(decodeBase64URL(bytes, 0, bytes.length), StandardCharsets.UTF_8);
     }
 
+    /**
+     * Check whether a range of a byte array is valid base64URL, without decoding it and without throwing.
+     * Padding is optional, but must be complete when present.
+     *
+     * @param src Array holding the encoded data
+     * @param offset Start of the encoded data
+     * @param length Length of the encoded data
+     * @return whether the decode methods accept the range
+     */
+    public static boolean isBase64URL(byte[] src, int offset, int length) {
+        int end = offset + length;
+        if (length > 0 && src[end - 1] == '=') end--;
+        if (end - offset > 0 && src[end - 1] == '=') end--;
+
+        if ((end - offset) % 4 == 1 || isIncompletelyPadded(length, end - offset)) return false;
+
+        int bits = 0;
+        for (int i = offset; i < end; i++)
+            bits |= DECODE_TABLE[src[i] & 0xff];
+
+        // A character outside the alphabet sets the sign bit
+        return bits >= 0;
+    }
+
+    /**
+     * Decode a base64URL encoded range of a byte array, without copying the range first. Padding is
+     * optional.
+     *
+     * @param src Array holding the encoded data
+     * @param offset Start of the encoded data
+     * @param length Length of the encoded data
+     * @return Decoded bytes
+     * @throws IllegalArgumentException when the range is not valid base64URL
+     */
+    public static byte[] decodeBase64URL(byte[] src, int offset, int length) {
+        int encodedLength = withoutPadding(src, offset, length);
+        byte[] decoded = new byte[decodedLength(encodedLength)];
+
+        decode(src, offset, encodedLength, decoded, 0);
+        return decoded;
+    }
+
+    /**
+     * Decode a base64URL encoded range of a byte array into another array, for example a buffer which is
+     * reused for every token. Padding is optional.
+     *
+     * @param src Array holding the encoded data
+     * @param offset Start of the encoded data
+     * @param length Length of the encoded data
+     * @param dst Array to write the decoded data to
+     * @param dstOffset Start of the decoded data in dst
+     * @return number of bytes written
+     * @throws IllegalArgumentException when the range is not valid base64URL
+     * @throws IndexOutOfBoundsException when the decoded data does not fit in dst
+     */
+    public static int decodeBase64URL(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int encodedLength = withoutPadding(src, offset, length);
+        int decodedLength = decodedLength(encodedLength);
+        if (dstOffset < 0 || dstOffset + decodedLength > dst.length)
+            throw new IndexOutOfBoundsException("Decoded data does not fit, " + decodedLength + " bytes are needed");
+
+        if (offset == 0 && length == src.length && dstOffset == 0)
+            return DECODER.decode(src, dst);
+
+        decode(src, offset, encodedLength, dst, dstOffset);
+        return decodedLength;
+    }
+
+    /**
+     * Decode the remaining bytes of a base64URL encoded buffer into another buffer. Padding is optional.
+     * The positions of both buffers are advanced past the data that is read and written. When the data
+     * is not valid, the positions are not changed.
+     *
+     * @param src Buffer holding the encoded data
+     * @param dst Buffer to write the decoded data to
+     * @throws IllegalArgumentException when the data is not valid base64URL
+     * @throws BufferOverflowException when the decoded data does not fit in dst
+     */
+    public static void decodeBase64URL(ByteBuffer src, ByteBuffer dst) {
+        int start = src.position();
+        int end = src.limit();
+        if (end > start && src.get(end - 1) == '=') end--;
+        if (end > start && src.get(end - 1) == '=') end--;
+
+        int encodedLength = end - start;
+        if (encodedLength % 4 == 1 || isIncompletelyPadded(src.limit() - start, encodedLength))
+            throw new IllegalArgumentException("Input byte array has wrong 4-byte ending unit");
+        if (dst.remaining() < decodedLength(encodedLength)) throw new BufferOverflowException();
+
+        if (src.hasArray() && dst.hasArray()) {
+            decode(src.array(), src.arrayOffset() + start, encodedLength, dst.array(), dst.arrayOffset() + dst.position());
+        } else {
+            int position = dst.position();
+            int bits = 0;
+            int bitCount = 0;
+
+            for (int i = start; i < end; i++) {
+                int value = DECODE_TABLE[src.get(i) & 0xff];
+                if (value < 0) throw illegalCharacter(src.get(i));
+
+                bits = (bits << 6) | value;
+                bitCount += 6;
+
+                if (bitCount >= 8) {
+                    bitCount -= 8;
+                    dst.put(position++, (byte) (bits >> bitCount));
+                }
+            }
+        }
+
+        ((Buffer) dst).position(dst.position() + decodedLength(encodedLength));
+        ((Buffer) src).position(src.limit());
+    }
+
+    /**
+     * Decode unpadded data, four characters at a time
+     */
+    private static void decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int decoded = 0;
+        if (length >= VECTOR_THRESHOLD && Base64Vectors.isAvailable())
+            decoded = Base64Vectors.decode(src, offset, length, dst, dstOffset);
+
+        int position = dstOffset + decoded / 4 * 3;
+        int end = offset + length - length % 4;
+
+        for (int i = offset + decoded; i < end; i += 4) {
+            int bits = DECODE_TABLE[src[i] & 0xff] << 18
+                    | DECODE_TABLE[src[i + 1] & 0xff] << 12
+                    | DECODE_TABLE[src[i + 2] & 0xff] << 6
+                    | DECODE_TABLE[src[i + 3] & 0xff];
+
+            // A character outside the alphabet sets the sign bit
+            if (bits < 0) throw illegalCharacter(src, i, 4);
+
+            dst[position++] = (byte) (bits >> 16);
+            dst[position++] = (byte) (bits >> 8);
+            dst[position++] = (byte) bits;
+        }
+
+        if (length % 4 == 2) {
+            int bits = DECODE_TABLE[src[end] & 0xff] << 18 | DECODE_TABLE[src[end + 1] & 0xff] << 12;
+            if (bits < 0) throw illegalCharacter(src, end, 2);
+
+            dst[position] = (byte) (bits >> 16);
+        } else if (length % 4 == 3) {
+            int bits = DECODE_TABLE[src[end] & 0xff] << 18 | DECODE_TABLE[src[end + 1] & 0xff] << 12 | DECODE_TABLE[src[end + 2] & 0xff] << 6;
+            if (bits < 0) throw illegalCharacter(src, end, 3);
+
+            dst[position++] = (byte) (bits >> 16);
+            dst[position] = (byte) (bits >> 8);
+        }
+    }
+
+    /**
+     * Length of the encoded data without its padding
+     */
+    private static int withoutPadding(byte[] src, int offset, int length) {
+        int end = offset + length;
+        if (length > 0 && src[end - 1] == '=') end--;
+        if (end - offset > 0 && src[end - 1] == '=') end--;
+
+        int encodedLength = end - offset;
+        if (encodedLength % 4 == 1 || isIncompletelyPadded(length, encodedLength))
+            throw new IllegalArgumentException("Input byte array has wrong 4-byte ending unit");
+
+        return encodedLength;
+    }
+
+    /**
+     * Padding is optional, but when it is present it must complete the last unit of four characters, as
+     * {@link Base64.Decoder} requires
+     */
+    private static boolean isIncompletelyPadded(int length, int encodedLength) {
+        return length != encodedLength && length % 4 != 0;
+    }
+
+    private static IllegalArgumentException illegalCharacter(byte[] src, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (DECODE_TABLE[src[i] & 0xff] < 0) return illegalCharacter(src[i]);
+        }
+        return new IllegalArgumentException("Illegal base64URL data");
+    }
+
+    private static IllegalArgumentException illegalCharacter(byte character) {
+        return new IllegalArgumentException("Illegal base64URL character " + Integer.toHexString(character & 0xff));
+    }
 }
@@ -0,0 +1,40 @@
+package com.bastiaanjansen.jwt.utils;
+
+/**
+ * Vectorised base64URL encoding and decoding, which needs the Vector API of Java 17. The multi-release
+ * jar replaces this class with a version using that API on Java 17 and newer.
+ *
+ * @author Bastiaan Jansen
+ */
+final class Base64Vectors {
+
+    private Base64Vectors() {}
+
+    /**
+     * Whether the Vector API can be used
+     *
+     * @return false
+     */
+    static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Encode the start of a range, in whole blocks of three bytes
+     *
+     * @return number of bytes encoded, the caller encodes the rest
+     */
+    static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        return 0;
+    }
+
+    /**
+     * Decode the start of an unpadded range, in whole blocks of four characters. Decoding stops before
+     * the first block with a character outside the alphabet.
+     *
+     * @return number of characters decoded, the caller decodes the rest
+     */
+    static int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        return 0;
+    }
+}
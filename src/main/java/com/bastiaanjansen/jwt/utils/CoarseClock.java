@@ -0,0 +1,116 @@
+package com.bastiaanjansen.jwt.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock which reads a cached time, refreshed by a background thread on every tick. Reading the time is
+ * a single volatile read, at the cost of lagging behind the system clock by up to one tick.
+ *
+ * @author Bastiaan Jansen
+ */
+public final class CoarseClock extends Clock implements AutoCloseable {
+
+    private static final Duration DEFAULT_TICK = Duration.ofMillis(1);
+
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    private CoarseClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    /**
+     * Shared clock in UTC which ticks every millisecond. It is started on first use and cannot be closed.
+     *
+     * @return the shared clock
+     */
+    public static CoarseClock getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Start a new clock in UTC, which has its own background thread until it is closed
+     *
+     * @param tick time between refreshes
+     * @return a new clock
+     */
+    public static CoarseClock start(Duration tick) {
+        if (tick == null) throw new IllegalArgumentException("tick cannot be null");
+        if (tick.isNegative() || tick.isZero()) throw new IllegalArgumentException("tick must be positive");
+
+        return new CoarseClock(new Ticker(tick, true), ZoneOffset.UTC);
+    }
+
+    @Override
+    public long millis() {
+        return ticker.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(ticker.millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (zone == null) throw new IllegalArgumentException("zone cannot be null");
+        return zone.equals(this.zone) ? this : new CoarseClock(ticker, zone);
+    }
+
+    /**
+     * Stop refreshing the time. Does nothing for the shared clock.
+     */
+    @Override
+    public void close() {
+        if (ticker.closeable)
+            ticker.stop();
+    }
+
+    private static final class Ticker implements Runnable {
+        private final ScheduledExecutorService scheduler;
+        private final ScheduledFuture<?> future;
+        private final boolean closeable;
+        private volatile long millis;
+
+        Ticker(Duration tick, boolean closeable) {
+            this.closeable = closeable;
+            this.millis = System.currentTimeMillis();
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jwt-coarse-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            long nanos = tick.toNanos();
+            this.future = scheduler.scheduleAtFixedRate(this, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            millis = System.currentTimeMillis();
+        }
+
+        void stop() {
+            future.cancel(false);
+            scheduler.shutdown();
+        }
+    }
+
+    private static final class DefaultHolder {
+        static final CoarseClock INSTANCE = new CoarseClock(new Ticker(DEFAULT_TICK, false), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,78 @@
+package com.bastiaanjansen.jwt.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class with utility functions for creating executors to run asynchronous signing and validation on
+ *
+ * @author Bastiaan Jansen
+ */
+public class ExecutorUtils {
+
+    // Executors.newVirtualThreadPerTaskExecutor(), looked up at runtime so the library still runs on Java 8
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+
+    private ExecutorUtils() {}
+
+    /**
+     * Check whether the running Java version supports virtual threads
+     *
+     * @return whether {@link #newVirtualThreadPerTaskExecutor()} can be used
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Create an executor which starts a new virtual thread for every task. Requires Java 21 or newer.
+     *
+     * @return a new executor
+     * @throws UnsupportedOperationException when the running Java version has no virtual threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null)
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Create an executor with a fixed number of daemon threads, to keep CPU heavy signing and
+     * verification off threads which should stay free for I/O
+     *
+     * @param threads number of threads
+     * @return a new executor
+     */
+    public static ExecutorService newBoundedExecutor(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "jwt-crypto-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+
+    private static MethodHandle findVirtualThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
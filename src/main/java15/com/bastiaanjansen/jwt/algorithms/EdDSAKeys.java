@@ -0,0 +1,35 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import java.security.Key;
+import java.security.interfaces.EdECKey;
+import java.security.spec.NamedParameterSpec;
+
+/**
+ * Checks for EdDSA keys on Java 15 and newer, which provide Ed25519 and a typed interface for its keys.
+ *
+ * @author Bastiaan Jansen
+ */
+final class EdDSAKeys {
+
+    private EdDSAKeys() {}
+
+    /**
+     * Ed25519 is always provided on Java 15 and newer
+     *
+     * @return true
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Whether a key is a public or private key on the Ed25519 curve
+     *
+     * @param key key to check
+     * @return whether the key is an Ed25519 key
+     */
+    static boolean isEd25519(Key key) {
+        return key instanceof EdECKey
+                && NamedParameterSpec.ED25519.getName().equalsIgnoreCase(((EdECKey) key).getParams().getName());
+    }
+}
@@ -0,0 +1,44 @@
+package com.bastiaanjansen.jwt.utils;
+
+/**
+ * Vectorised base64URL encoding and decoding on Java 17 and newer. The Vector API is an incubator
+ * module, so it is only used when {@code jdk.incubator.vector} is added to the runtime with
+ * {@code --add-modules}. Its classes are only loaded after that check.
+ *
+ * @author Bastiaan Jansen
+ */
+final class Base64Vectors {
+
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && VectorBase64.isSupported();
+
+    private Base64Vectors() {}
+
+    /**
+     * Whether the Vector API can be used
+     *
+     * @return whether the vector module is present and the preferred vector size is large enough
+     */
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Encode the start of a range, in whole blocks of three bytes
+     *
+     * @return number of bytes encoded, the caller encodes the rest
+     */
+    static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        return VectorBase64.encode(src, offset, length, dst, dstOffset);
+    }
+
+    /**
+     * Decode the start of an unpadded range, in whole blocks of four characters. Decoding stops before
+     * the first block with a character outside the alphabet.
+     *
+     * @return number of characters decoded, the caller decodes the rest
+     */
+    static int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        return VectorBase64.decode(src, offset, length, dst, dstOffset);
+    }
+}
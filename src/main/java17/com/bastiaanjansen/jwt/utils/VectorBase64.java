@@ -0,0 +1,139 @@
+package com.bastiaanjansen.jwt.utils;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Base64URL with the Vector API. Every step handles one vector of characters and three quarters of a
+ * vector of bytes. Groups of three bytes are spread over 32 bit lanes, split into four 6 bit values with
+ * shifts and mapped to the alphabet with range comparisons, and the other way around for decoding.
+ * Reinterpreting bytes as ints is little-endian, whatever the platform.
+ *
+ * @author Bastiaan Jansen
+ */
+final class VectorBase64 {
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final int LANES = BYTES.length();
+
+    // Input bytes encoded, and bytes written by a decoding step
+    private static final int BLOCK = LANES / 4 * 3;
+
+    // Lane 4g + k of the encoding input holds byte 3g + 2 - k of the block, the highest lane is unused
+    private static final VectorShuffle<Byte> SPREAD = shuffle(lane -> {
+        int group = lane / 4;
+        int index = lane % 4;
+        return 3 * group + (index == 3 ? 0 : 2 - index);
+    });
+
+    // Byte 3g + k of the decoded block is byte 2 - k of the 24 bit value in lane g
+    private static final VectorShuffle<Byte> PACK = shuffle(lane -> lane < BLOCK ? 4 * (lane / 3) + 2 - lane % 3 : 0);
+
+    private static final VectorMask<Byte> BLOCK_MASK = VectorMask.fromLong(BYTES, (1L << BLOCK) - 1);
+
+    private VectorBase64() {}
+
+    static boolean isSupported() {
+        // Narrow vectors are emulated and slower than the scalar code
+        return LANES >= 16 && LANES <= 64;
+    }
+
+    static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int i = 0;
+
+        // Every step reads a whole vector, but only encodes the first three quarters of it
+        for (; i + LANES <= length; i += BLOCK) {
+            IntVector groups = ByteVector.fromArray(BYTES, src, offset + i)
+                    .rearrange(SPREAD)
+                    .reinterpretAsInts();
+
+            IntVector values = groups.lanewise(VectorOperators.LSHR, 18).and(0x3f)
+                    .or(groups.lanewise(VectorOperators.LSHR, 12).and(0x3f).lanewise(VectorOperators.LSHL, 8))
+                    .or(groups.lanewise(VectorOperators.LSHR, 6).and(0x3f).lanewise(VectorOperators.LSHL, 16))
+                    .or(groups.and(0x3f).lanewise(VectorOperators.LSHL, 24));
+
+            toAlphabet(values.reinterpretAsBytes()).intoArray(dst, dstOffset + i / 3 * 4);
+        }
+
+        return i;
+    }
+
+    static int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int decodedLength = Base64Utils.decodedLength(length);
+        int i = 0;
+
+        for (; i + LANES <= length; i += LANES) {
+            ByteVector characters = ByteVector.fromArray(BYTES, src, offset + i);
+            ByteVector values = fromAlphabet(characters);
+            if (values == null) break;
+
+            IntVector sextets = values.reinterpretAsInts();
+            IntVector groups = sextets.and(0xff).lanewise(VectorOperators.LSHL, 18)
+                    .or(sextets.lanewise(VectorOperators.LSHR, 8).and(0xff).lanewise(VectorOperators.LSHL, 12))
+                    .or(sextets.lanewise(VectorOperators.LSHR, 16).and(0xff).lanewise(VectorOperators.LSHL, 6))
+                    .or(sextets.lanewise(VectorOperators.LSHR, 24));
+
+            ByteVector decoded = groups.reinterpretAsBytes().rearrange(PACK);
+            int position = dstOffset + i / 4 * 3;
+
+            // The last quarter of the vector is only written when the rest of the output overwrites it
+            if (i / 4 * 3 + LANES <= decodedLength)
+                decoded.intoArray(dst, position);
+            else
+                decoded.intoArray(dst, position, BLOCK_MASK);
+        }
+
+        return i;
+    }
+
+    /**
+     * Map 6 bit values to the characters A-Z, a-z, 0-9, - and _
+     */
+    private static ByteVector toAlphabet(ByteVector values) {
+        ByteVector offsets = ByteVector.broadcast(BYTES, (byte) 'A')
+                .blend((byte) ('a' - 26), values.compare(VectorOperators.GE, (byte) 26))
+                .blend((byte) ('0' - 52), values.compare(VectorOperators.GE, (byte) 52))
+                .blend((byte) ('-' - 62), values.compare(VectorOperators.EQ, (byte) 62))
+                .blend((byte) ('_' - 63), values.compare(VectorOperators.EQ, (byte) 63));
+
+        return values.add(offsets);
+    }
+
+    /**
+     * Map characters to their 6 bit values
+     *
+     * @return the values, or null when a character is outside the alphabet
+     */
+    private static ByteVector fromAlphabet(ByteVector characters) {
+        VectorMask<Byte> upper = characters.compare(VectorOperators.GE, (byte) 'A').and(characters.compare(VectorOperators.LE, (byte) 'Z'));
+        VectorMask<Byte> lower = characters.compare(VectorOperators.GE, (byte) 'a').and(characters.compare(VectorOperators.LE, (byte) 'z'));
+        VectorMask<Byte> digit = characters.compare(VectorOperators.GE, (byte) '0').and(characters.compare(VectorOperators.LE, (byte) '9'));
+        VectorMask<Byte> dash = characters.compare(VectorOperators.EQ, (byte) '-');
+        VectorMask<Byte> underscore = characters.compare(VectorOperators.EQ, (byte) '_');
+
+        if (!upper.or(lower).or(digit).or(dash).or(underscore).allTrue()) return null;
+
+        ByteVector offsets = ByteVector.zero(BYTES)
+                .blend((byte) -'A', upper)
+                .blend((byte) (26 - 'a'), lower)
+                .blend((byte) (52 - '0'), digit)
+                .blend((byte) (62 - '-'), dash)
+                .blend((byte) (63 - '_'), underscore);
+
+        return characters.add(offsets);
+    }
+
+    private static VectorShuffle<Byte> shuffle(IntUnaryOperator index) {
+        int[] indexes = new int[LANES];
+        for (int lane = 0; lane < LANES; lane++)
+            indexes[lane] = index.applyAsInt(lane);
+
+        return VectorShuffle.fromArray(BYTES, indexes, 0);
+    }
+}
@@ -0,0 +1,155 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlgorithmRegistryTest {
+
+    private Algorithm first;
+    private Algorithm second;
+    private Algorithm withoutKeyId;
+    private AlgorithmRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        first = Algorithm.HMAC256("first-secret");
+        second = Algorithm.HMAC512("second-secret");
+        withoutKeyId = Algorithm.HMAC256("default-secret");
+
+        registry = new AlgorithmRegistry.Builder()
+                .withAlgorithm("first", first)
+                .withAlgorithm("second", second)
+                .withAlgorithm(withoutKeyId)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry = null;
+    }
+
+    @Test
+    void resolve() {
+        assertThat(registry.resolve("HS256", "first"), is(sameInstance(first)));
+        assertThat(registry.resolve("HS512", "second"), is(sameInstance(second)));
+        assertThat(registry.resolve("HS256", null), is(sameInstance(withoutKeyId)));
+        assertThat(registry.size(), is(3));
+    }
+
+    @Test
+    void resolve_withOtherAlgorithm_returnsNull() {
+        assertThat(registry.resolve("HS512", "first"), is(nullValue()));
+        assertThat(registry.resolve("none", null), is(nullValue()));
+        assertThat(registry.resolve(null, "first"), is(nullValue()));
+    }
+
+    @Test
+    void resolve_withUnknownKeyId_returnsNull() {
+        assertThat(registry.resolve("HS256", "third"), is(nullValue()));
+    }
+
+    @Test
+    void resolve_withManyKeys() {
+        AlgorithmRegistry.Builder builder = new AlgorithmRegistry.Builder();
+        Algorithm[] algorithms = new Algorithm[100];
+        for (int i = 0; i < algorithms.length; i++) {
+            algorithms[i] = Algorithm.HMAC256("secret-" + i);
+            builder.withAlgorithm("key-" + i, algorithms[i]);
+        }
+
+        AlgorithmRegistry registry = builder.build();
+
+        for (int i = 0; i < algorithms.length; i++)
+            assertThat(registry.resolve("HS256", "key-" + i), is(sameInstance(algorithms[i])));
+    }
+
+    @Test
+    void resolve_emptyRegistry_returnsNull() {
+        assertThat(new AlgorithmRegistry.Builder().build().resolve("HS256", null), is(nullValue()));
+    }
+
+    @Test
+    void withAlgorithm_duplicate_throwsIllegalArgumentException() {
+        AlgorithmRegistry.Builder builder = new AlgorithmRegistry.Builder().withAlgorithm("first", first);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.withAlgorithm("first", Algorithm.HMAC256("other")));
+    }
+
+    @Test
+    void withAlgorithm_null_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new AlgorithmRegistry.Builder().withAlgorithm("first", null));
+    }
+
+    @Test
+    void withAlgorithms_copiesRegistry() {
+        Algorithm third = Algorithm.HMAC384("third-secret");
+        AlgorithmRegistry copy = new AlgorithmRegistry.Builder()
+                .withAlgorithms(registry)
+                .withAlgorithm("third", third)
+                .build();
+
+        assertThat(copy.resolve("HS256", "first"), is(sameInstance(first)));
+        assertThat(copy.resolve("HS256", null), is(sameInstance(withoutKeyId)));
+        assertThat(copy.resolve("HS384", "third"), is(sameInstance(third)));
+        assertThat(copy.size(), is(4));
+    }
+
+    @Test
+    void fromVerifiedRawJWT_picksKeyByKeyId() throws JWTException {
+        String token = new JWT.Builder(second).withKeyId("second").withIssuer("issuer").sign();
+
+        JWT jwt = JWT.fromVerifiedRawJWT(registry, token);
+
+        assertThat(jwt.getAlgorithm(), is(sameInstance(second)));
+        assertThat(jwt.getHeader().getKeyId(), is("second"));
+        assertThat(jwt.getPayload().getIssuer(), is("issuer"));
+    }
+
+    @Test
+    void fromVerifiedRawJWT_withoutKeyId() throws JWTException {
+        String token = new JWT.Builder(withoutKeyId).withIssuer("issuer").sign();
+        byte[] bytes = ("  " + token).getBytes(StandardCharsets.US_ASCII);
+
+        JWT jwt = JWT.fromVerifiedRawJWT(registry, bytes, 2, bytes.length - 2);
+
+        assertThat(jwt.getAlgorithm(), is(sameInstance(withoutKeyId)));
+    }
+
+    @Test
+    void fromVerifiedRawJWT_signedWithOtherKey_throwsJWTValidationException() throws JWTException {
+        String token = new JWT.Builder(Algorithm.HMAC256("unknown-secret")).withKeyId("first").sign();
+
+        assertThrows(JWTValidationException.class, () -> JWT.fromVerifiedRawJWT(registry, token));
+    }
+
+    @Test
+    void fromVerifiedRawJWT_withUnknownKeyId_throwsJWTCreationException() throws JWTException {
+        String token = new JWT.Builder(first).withKeyId("unknown").sign();
+
+        JWTCreationException exception = assertThrows(JWTCreationException.class, () -> JWT.fromVerifiedRawJWT(registry, token));
+        assertThat(exception.getMessage(), is("No key found for algorithm HS256 and key ID unknown"));
+    }
+
+    @Test
+    void fromRawJWT_doesNotVerify() throws JWTException {
+        String token = new JWT.Builder(Algorithm.HMAC256("unknown-secret")).withKeyId("first").sign();
+
+        JWT jwt = JWT.fromRawJWT(registry, token);
+
+        assertThat(jwt.getAlgorithm(), is(sameInstance(first)));
+        assertThrows(JWTValidationException.class, jwt::validate);
+    }
+}
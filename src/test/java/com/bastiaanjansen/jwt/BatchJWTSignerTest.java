@@ -0,0 +1,175 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchJWTSignerTest {
+
+    private Algorithm algorithm;
+    private BatchJWTSigner signer;
+
+    @BeforeEach
+    void setUp() {
+        this.algorithm = Algorithm.HMAC384("secret");
+        this.signer = new BatchJWTSigner.Builder(algorithm).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.algorithm = null;
+        this.signer = null;
+    }
+
+    private static Payload payload(int i) {
+        Payload payload = new Payload();
+        payload.setSubject("subject" + i);
+        return payload;
+    }
+
+    private static List<Payload> payloads(int count) {
+        List<Payload> payloads = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            payloads.add(payload(i));
+        return payloads;
+    }
+
+    private void assertTokensInOrder(List<String> tokens, int count) throws Exception {
+        assertThat(tokens.size(), is(count));
+        for (int i = 0; i < count; i++)
+            assertThat(JWT.fromVerifiedRawJWT(algorithm, tokens.get(i)).getPayload().getSubject(), is("subject" + i));
+    }
+
+    @Test
+    void sign_returnsTokensInOrder() throws Exception {
+        assertTokensInOrder(signer.sign(payloads(1000)), 1000);
+    }
+
+    @Test
+    void sign_equalsBuilder() throws JWTCreationException {
+        String expected = new JWT.Builder(algorithm).withSubject("subject0").sign();
+
+        assertThat(signer.sign(payloads(1)), is(Collections.singletonList(expected)));
+    }
+
+    @Test
+    void sign_empty_returnsEmptyList() throws JWTCreationException {
+        assertThat(signer.sign(Collections.emptyList()).isEmpty(), is(true));
+    }
+
+    @Test
+    void sign_withSink_writesTokensInOrder() throws Exception {
+        List<String> tokens = new ArrayList<>();
+
+        signer.sign(payloads(500), tokens::add);
+
+        assertTokensInOrder(tokens, 500);
+    }
+
+    @Test
+    void sign_stream_writesTokensInOrderOverSeveralWindows() throws Exception {
+        BatchJWTSigner signer = new BatchJWTSigner.Builder(algorithm).withWindowSize(64).build();
+        List<String> tokens = new ArrayList<>();
+
+        signer.sign(IntStream.range(0, 1000).mapToObj(BatchJWTSignerTest::payload), tokens::add);
+
+        assertTokensInOrder(tokens, 1000);
+    }
+
+    @Test
+    void sign_withForkJoinPool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            BatchJWTSigner signer = new BatchJWTSigner.Builder(algorithm).withExecutor(pool).build();
+
+            assertTokensInOrder(signer.sign(payloads(1000)), 1000);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void sign_withExecutorService() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            BatchJWTSigner signer = new BatchJWTSigner.Builder(algorithm).withExecutor(executor).build();
+
+            assertTokensInOrder(signer.sign(payloads(1000)), 1000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void sign_withTemplate_addsFixedClaims() throws Exception {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm).withIssuer("issuer").build();
+        BatchJWTSigner signer = new BatchJWTSigner.Builder(template).build();
+
+        List<String> tokens = signer.sign(payloads(100));
+
+        assertTokensInOrder(tokens, 100);
+        for (String token: tokens)
+            assertThat(JWT.fromVerifiedRawJWT(algorithm, token).getPayload().getIssuer(), is("issuer"));
+    }
+
+    @Test
+    void sign_withFixedClaimInPayload_throwsIllegalArgumentException() {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm).withIssuer("issuer").build();
+        BatchJWTSigner signer = new BatchJWTSigner.Builder(template).build();
+
+        List<Payload> payloads = payloads(10);
+        payloads.get(5).setIssuer("other");
+
+        List<String> tokens = new ArrayList<>();
+
+        assertThrows(IllegalArgumentException.class, () -> signer.sign(payloads, tokens::add));
+        assertThat(tokens.size(), is(5));
+    }
+
+    @Test
+    void sign_nullPayload_throwsIllegalArgumentException() {
+        List<Payload> payloads = payloads(10);
+        payloads.set(3, null);
+
+        assertThrows(IllegalArgumentException.class, () -> signer.sign(payloads));
+    }
+
+    @Test
+    void sign_nullSink_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> signer.sign(payloads(1), null));
+    }
+
+    @Test
+    void builder_withNullAlgorithm_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchJWTSigner.Builder((Algorithm) null));
+    }
+
+    @Test
+    void builder_withNullTemplate_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchJWTSigner.Builder((JWTTemplate) null));
+    }
+
+    @Test
+    void builder_withNullExecutor_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchJWTSigner.Builder(algorithm).withExecutor(null));
+    }
+
+    @Test
+    void builder_withZeroWindowSize_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchJWTSigner.Builder(algorithm).withWindowSize(0));
+    }
+}
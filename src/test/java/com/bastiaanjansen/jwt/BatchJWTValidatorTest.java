@@ -0,0 +1,141 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchJWTValidatorTest {
+
+    private Algorithm algorithm;
+    private BatchJWTValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        this.algorithm = Algorithm.HMAC384("secret");
+        this.validator = new BatchJWTValidator.Builder(algorithm).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.algorithm = null;
+        this.validator = null;
+    }
+
+    private List<String> tokens(int count) throws JWTCreationException {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            tokens.add(new JWT.Builder(algorithm).withSubject("subject" + i).sign());
+        return tokens;
+    }
+
+    @Test
+    void validate_returnsResultsInOrder() throws JWTCreationException {
+        List<String> tokens = tokens(100);
+
+        List<ValidationResult> results = validator.validate(tokens);
+
+        assertThat(results.size(), is(100));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(results.get(i).isValid());
+            assertThat(results.get(i).getException(), is(nullValue()));
+            assertThat(results.get(i).getJWT().getPayload().getSubject(), is("subject" + i));
+        }
+    }
+
+    @Test
+    void validateMixedTokens_returnsFailuresWithoutThrowing() throws JWTCreationException {
+        String valid = tokens(1).get(0);
+        String forged = valid.substring(0, valid.length() - 1) + (valid.endsWith("A") ? "B" : "A");
+        String expired = new JWT.Builder(algorithm).withExpirationTime(1).sign();
+
+        List<ValidationResult> results = validator.validate(new CharSequence[] {valid, forged, "not a token", expired});
+
+        assertTrue(results.get(0).isValid());
+        assertThat(results.get(1).getException(), is(instanceOf(JWTValidationException.class)));
+        assertThat(results.get(1).getJWT(), is(nullValue()));
+        assertThat(results.get(2).getException(), is(instanceOf(JWTDecodeException.class)));
+        assertThat(results.get(3).getException(), is(instanceOf(JWTValidationException.class)));
+    }
+
+    @Test
+    void validateWithThrowingClaimValidator_returnsValidationFailure() throws JWTCreationException {
+        BatchJWTValidator batchValidator = new BatchJWTValidator.Builder(algorithm)
+                .withValidator(new DefaultJWTValidator.Builder()
+                        .withClaim("sub", value -> { throw new ClassCastException("unexpected type"); })
+                        .build())
+                .build();
+
+        ValidationResult result = batchValidator.validate(tokens(1).get(0));
+
+        assertThat(result.getException(), is(instanceOf(JWTValidationException.class)));
+        assertThat(result.getException().getCause(), is(instanceOf(ClassCastException.class)));
+    }
+
+    @Test
+    void validateOnExecutor() throws JWTCreationException {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            BatchJWTValidator batchValidator = new BatchJWTValidator.Builder(algorithm)
+                    .withExecutor(executor)
+                    .build();
+
+            List<ValidationResult> results = batchValidator.validate(tokens(50));
+
+            assertThat(results.size(), is(50));
+            assertThat(results.get(49).getJWT().getPayload().getSubject(), is("subject49"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void validateOnForkJoinPool() throws JWTCreationException {
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            BatchJWTValidator batchValidator = new BatchJWTValidator.Builder(algorithm)
+                    .withExecutor(pool)
+                    .build();
+
+            List<ValidationResult> results = batchValidator.validate(tokens(50));
+
+            assertTrue(results.stream().allMatch(ValidationResult::isValid));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void validateEmptyBatch_returnsEmptyList() {
+        assertThat(validator.validate(Collections.<String>emptyList()).isEmpty(), is(true));
+    }
+
+    @Test
+    void validate_returnsUnmodifiableList() throws JWTCreationException {
+        List<ValidationResult> results = validator.validate(Arrays.asList(tokens(1).get(0)));
+
+        assertThrows(UnsupportedOperationException.class, () -> results.set(0, null));
+    }
+
+    @Test
+    void builderWithNullAlgorithm_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchJWTValidator.Builder(null));
+    }
+}
@@ -0,0 +1,182 @@
+package com.bastiaanjansen.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaimsIndexTest {
+
+    private static ClaimsIndex index(String json) {
+        return ClaimsIndex.of(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void emptyObject_hasNoMembers() {
+        assertThat(index(" { } ").size(), is(0));
+    }
+
+    @Test
+    void getString() {
+        assertThat(index("{\"sub\":\"subject\",\"iss\":\"issuer\"}").get("iss"), is("issuer"));
+    }
+
+    @Test
+    void getStringWithEscapes() {
+        assertThat(index("{\"name\":\"a\\\"b\\u00e9\"}").get("name"), is("a\"b\u00e9"));
+    }
+
+    @Test
+    void getLong() {
+        assertThat(index("{\"iat\":1614676926172}").get("iat"), is(1614676926172L));
+    }
+
+    @Test
+    void getInteger() {
+        assertThat(index("{\"count\":-12}").get("count"), is(-12));
+    }
+
+    @Test
+    void getBoolean() {
+        assertThat(index("{\"admin\":true}").get("admin"), is(true));
+    }
+
+    @Test
+    void getNull() {
+        assertThat(index("{\"nothing\":null}").get("nothing"), is(nullValue()));
+    }
+
+    @Test
+    void getArray() {
+        assertThat(index("{\"aud\":[\"aud1\",\"aud2\"]}").get("aud"), is(Arrays.asList("aud1", "aud2")));
+    }
+
+    @Test
+    void getObject() {
+        assertThat(index("{\"address\":{\"city\":\"Amsterdam\"}}").get("address"), is(Collections.singletonMap("city", "Amsterdam")));
+    }
+
+    @Test
+    void getAbsentClaim_returnsNull() {
+        assertThat(index("{\"sub\":\"subject\"}").get("iss"), is(nullValue()));
+    }
+
+    @Test
+    void getNonASCIIName() {
+        assertThat(index("{\"na\u00efve\":\"value\"}").get("na\u00efve"), is("value"));
+    }
+
+    @Test
+    void getEscapedName() {
+        assertThat(index("{\"\\u0073ub\":\"subject\"}").get("sub"), is("subject"));
+    }
+
+    @Test
+    void contains() {
+        ClaimsIndex index = index("{\"sub\":\"subject\",\"nothing\":null}");
+
+        assertTrue(index.contains("sub"));
+        assertTrue(index.contains("nothing"));
+        assertFalse(index.contains("iss"));
+    }
+
+    @Test
+    void putAllInto() {
+        Map<String, Object> map = new HashMap<>();
+        index("{\"sub\":\"subject\",\"exp\":100}").putAllInto(map);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("sub", "subject");
+        expected.put("exp", 100);
+
+        assertThat(map, is(expected));
+    }
+
+    @Test
+    void duplicateKeys_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> index("{\"sub\":\"a\",\"sub\":\"b\"}"));
+    }
+
+    @Test
+    void duplicateKeysInLargeObject_throwsIllegalArgumentException() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 100; i++)
+            json.append("\"claim").append(i).append("\":").append(i).append(',');
+        json.append("\"claim42\":42}");
+
+        assertThrows(IllegalArgumentException.class, () -> index(json.toString()));
+    }
+
+    @Test
+    void largeObject_hasAllMembers() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 100; i++)
+            json.append(i == 0 ? "" : ",").append("\"claim").append(i).append("\":").append(i);
+        json.append('}');
+
+        ClaimsIndex index = index(json.toString());
+
+        assertThat(index.size(), is(100));
+        assertThat(index.get("claim99"), is(99));
+    }
+
+    @Test
+    void notAnObject_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> index("[\"sub\"]"));
+    }
+
+    @Test
+    void getDecodedValueTwice_returnsSameInstance() {
+        ClaimsIndex index = index("{\"address\":{\"city\":\"Amsterdam\"}}");
+
+        assertSame(index.get("address"), index.get("address"));
+    }
+
+    @Test
+    void getNullWithAbsentValue_returnsNull() {
+        Object absent = new Object();
+        ClaimsIndex index = index("{\"nothing\":null}");
+
+        assertThat(index.get("nothing", absent), is(nullValue()));
+        assertSame(absent, index.get("other", absent));
+    }
+
+    @Test
+    void getLongAfterDecodeLongs() {
+        ClaimsIndex index = index("{\"exp\":1614676926172,\"iat\":\"now\"}");
+        index.decodeLongs(Claims.TIME_CLAIMS);
+
+        assertThat(index.getLong("exp"), is(1614676926172L));
+        assertThat(index.get("exp"), is(1614676926172L));
+        assertThrows(IllegalArgumentException.class, () -> index.getLong("iat"));
+        assertThrows(IllegalArgumentException.class, () -> index.getLong("nbf"));
+    }
+
+    @Test
+    void unterminatedString_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> index("{\"sub\":\"subject}"));
+    }
+
+    @Test
+    void malformedNestedValue_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> index("{\"aud\":[\"aud1\",]}"));
+    }
+
+    @Test
+    void malformedNumber_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> index("{\"exp\":1.}"));
+    }
+
+    @Test
+    void trailingData_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> index("{\"sub\":\"subject\"}x"));
+    }
+}
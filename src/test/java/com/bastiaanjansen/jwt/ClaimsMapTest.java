@@ -0,0 +1,110 @@
+package com.bastiaanjansen.jwt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaimsMapTest {
+
+    private ClaimsMap map;
+
+    @BeforeEach
+    void setUp() {
+        map = new ClaimsMap();
+    }
+
+    @Test
+    void emptyMap_hasNoEntries() {
+        assertThat(map.size(), is(0));
+        assertThat(map.get("sub"), is(nullValue()));
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    void putTimeClaim_storesPrimitive() {
+        map.put("exp", 1614676926172L);
+
+        assertThat(map.getLong("exp"), is(1614676926172L));
+        assertThat(map.get("exp"), is(1614676926172L));
+        assertTrue(map.containsKey("exp"));
+        assertThat(map.size(), is(1));
+    }
+
+    @Test
+    void putTimeClaimOfOtherType_storesObject() {
+        map.put("iat", "1614676926172");
+
+        assertThat(map.get("iat"), is("1614676926172"));
+        assertThat(map.getLong("iat"), is(1614676926172L));
+    }
+
+    @Test
+    void putTimeClaimTwice_replacesValue() {
+        map.put("nbf", "later");
+        assertThat(map.put("nbf", 42L), is("later"));
+
+        assertThat(map.get("nbf"), is(42L));
+        assertThat(map.size(), is(1));
+    }
+
+    @Test
+    void putManyClaims_behavesLikeHashMap() {
+        Map<String, Object> expected = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            expected.put("claim" + i, i);
+            map.put("claim" + i, i);
+        }
+        expected.put("exp", 10L);
+        map.put("exp", 10L);
+
+        assertThat(map.size(), is(101));
+        assertThat(map.get("claim57"), is(57));
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertThat(map.hashCode(), is(expected.hashCode()));
+    }
+
+    @Test
+    void remove_keepsOtherClaimsReachable() {
+        for (int i = 0; i < 50; i++)
+            map.put("claim" + i, i);
+
+        for (int i = 0; i < 50; i += 2)
+            assertThat(map.remove("claim" + i), is(i));
+
+        assertThat(map.size(), is(25));
+        for (int i = 0; i < 50; i++)
+            assertThat(map.get("claim" + i), is(i % 2 == 0 ? null : i));
+    }
+
+    @Test
+    void putNullValue_isPresent() {
+        map.put("nothing", null);
+
+        assertTrue(map.containsKey("nothing"));
+        assertThat(map.get("nothing"), is(nullValue()));
+    }
+
+    @Test
+    void clear_removesAllClaims() {
+        map.put("exp", 10L);
+        map.put("sub", "subject");
+        map.clear();
+
+        assertThat(map.size(), is(0));
+        assertFalse(map.containsKey("exp"));
+        assertFalse(map.containsKey("sub"));
+    }
+
+    @Test
+    void putNullKey_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> map.put(null, "value"));
+    }
+}
@@ -1,16 +1,24 @@
 package com.bastiaanjansen.jwt;
 
 import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
 import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
 import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTException;
 import com.bastiaanjansen.jwt.exceptions.JWTExpiredException;
+import com.bastiaanjansen.jwt.exceptions.JWTSignException;
 import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import com.bastiaanjansen.jwt.utils.Base64Utils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,6 +53,29 @@ class DefaultJWTValidatorTest {
         assertThrows(JWTValidationException.class, () -> validator.validate(jwt));
     }
 
+    @Test
+    void validateParsedJWTWithModifiedPayload_throwsJWTValidationException() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        String jwtString = new JWT.Builder(algorithm).withSubject("user").sign();
+        JWT jwt = JWT.fromRawJWT(algorithm, jwtString);
+        JWTValidator validator = new DefaultJWTValidator();
+
+        validator.validate(jwt);
+        jwt.getPayload().setSubject("admin");
+
+        assertThrows(JWTValidationException.class, () -> validator.validate(jwt));
+    }
+
+    @Test
+    void validateVerifiedJWTWithModifiedHeader_throwsJWTValidationException() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        String jwtString = new JWT.Builder(algorithm).withSubject("user").sign();
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, jwtString);
+        JWTValidator validator = new DefaultJWTValidator();
+
+        jwt.getHeader().setKeyId("other");
+
+        assertThrows(JWTValidationException.class, () -> validator.validate(jwt));
+    }
+
     @Test
     void validateWithExpirationTimeInPast_throwsJWTExpiredException() throws JWTCreationException {
         Date past = new Date(100);
@@ -315,4 +346,215 @@ class DefaultJWTValidatorTest {
     void validateWithCustomClaimValidatorIsNull_throwsIllegalArgumentException() {
         assertThrows(IllegalArgumentException.class, () -> new DefaultJWTValidator.Builder().withClaim("name", null).build());
     }
+
+    @Test
+    void validateParsedJWTWithOriginalClaimOrder_doesNotThrow() throws JWTSignException, JWTDecodeException, JWTCreationException {
+        String signingInput = Base64Utils.encodeBase64URL("{\"typ\":\"JWT\",\"alg\":\"HS384\"}") + "." +
+                Base64Utils.encodeBase64URL("{\"sub\":\"subject\",\"iss\":\"issuer\",\"jti\":\"id\"}");
+        String signature = Base64Utils.encodeBase64URL(algorithm.sign(signingInput));
+        JWT jwt = JWT.fromRawJWT(algorithm, signingInput + "." + signature);
+        JWTValidator validator = new DefaultJWTValidator();
+
+        assertDoesNotThrow(() -> validator.validate(jwt));
+    }
+
+    @Test
+    void validateParsedJWTWithTamperedPayload_throwsJWTValidationException() throws JWTSignException, JWTDecodeException, JWTCreationException {
+        String header = Base64Utils.encodeBase64URL("{\"alg\":\"HS384\",\"typ\":\"JWT\"}");
+        String signature = Base64Utils.encodeBase64URL(algorithm.sign(header + "." + Base64Utils.encodeBase64URL("{\"sub\":\"subject\"}")));
+        JWT jwt = JWT.fromRawJWT(algorithm, header + "." + Base64Utils.encodeBase64URL("{\"sub\":\"admin\"}") + "." + signature);
+        JWTValidator validator = new DefaultJWTValidator();
+
+        assertThrows(JWTValidationException.class, () -> validator.validate(jwt));
+    }
+
+    @Test
+    void validateWithMissingClaim_throwsJWTValidationException() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withSubject("subject").build();
+        JWTValidator validator = new DefaultJWTValidator.Builder().withClaim("role", "admin").build();
+
+        JWTValidationException exception = assertThrows(JWTValidationException.class, () -> validator.validate(jwt));
+        assertEquals("role is not present in payload", exception.getMessage());
+    }
+
+    @Test
+    void validateWithNullClaim_throwsJWTValidationException() throws JWTSignException, JWTDecodeException, JWTCreationException {
+        String signingInput = Base64Utils.encodeBase64URL("{\"alg\":\"HS384\",\"typ\":\"JWT\"}") + "." +
+                Base64Utils.encodeBase64URL("{\"role\":null}");
+        String signature = Base64Utils.encodeBase64URL(algorithm.sign(signingInput));
+        JWT jwt = JWT.fromRawJWT(algorithm, signingInput + "." + signature);
+        JWTValidator validator = new DefaultJWTValidator.Builder().withClaim("role", "admin").build();
+
+        JWTValidationException exception = assertThrows(JWTValidationException.class, () -> validator.validate(jwt));
+        assertEquals("role is null", exception.getMessage());
+    }
+
+    @Test
+    void validateParsedJWTTwice_doesNotThrow() throws JWTCreationException, JWTDecodeException {
+        String token = new JWT.Builder(algorithm).withIssuer("issuer").withExpirationTime(new Date(System.currentTimeMillis() + 60_000)).sign();
+        JWT jwt = JWT.fromRawJWT(algorithm, token);
+        JWTValidator validator = new DefaultJWTValidator.Builder().withIssuer("issuer").build();
+
+        assertDoesNotThrow(() -> validator.validate(jwt));
+        assertDoesNotThrow(() -> validator.validate(jwt));
+    }
+
+    @Test
+    void validateWithSharedValidatorFromManyThreads_doesNotThrow() throws Exception {
+        JWTValidator validator = new DefaultJWTValidator.Builder().withIssuer("issuer").withSubject("subject").build();
+        String token = new JWT.Builder(algorithm).withIssuer("issuer").withSubject("subject").sign();
+        JWT jwt = JWT.fromRawJWT(algorithm, token);
+        Thread[] threads = new Thread[4];
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 100; j++)
+                        validator.validate(jwt);
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread: threads)
+            thread.join();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    void getPayloadValidators_returnsCompiledValidators() {
+        DefaultJWTValidator validator = new DefaultJWTValidator.Builder().withIssuer("issuer").withSubject("subject").build();
+
+        assertEquals(2, validator.getPayloadValidators().size());
+        assertTrue(validator.getPayloadValidators().containsKey("sub"));
+    }
+
+    @Test
+    void validateWithFixedClock_usesClock() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withExpirationTime(1_000_000).withNotBefore(500_000).build();
+        JWTValidator validator = new DefaultJWTValidator.Builder().withClock(Clock.fixed(Instant.ofEpochMilli(750_000), ZoneOffset.UTC)).build();
+
+        assertDoesNotThrow(() -> validator.validate(jwt));
+    }
+
+    @Test
+    void validateExpiredWithinLeeway_doesNotThrow() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withExpirationTime(1_000_000).build();
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(1_020_000), ZoneOffset.UTC);
+
+        assertThrows(JWTExpiredException.class, () -> new DefaultJWTValidator.Builder().withClock(clock).build().validate(jwt));
+        assertDoesNotThrow(() -> new DefaultJWTValidator.Builder().withClock(clock).withLeeway(Duration.ofSeconds(30)).build().validate(jwt));
+    }
+
+    @Test
+    void validateNotBeforeWithinLeeway_doesNotThrow() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withNotBefore(1_000_000).build();
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(990_000), ZoneOffset.UTC);
+
+        assertThrows(JWTValidationException.class, () -> new DefaultJWTValidator.Builder().withClock(clock).build().validate(jwt));
+        assertDoesNotThrow(() -> new DefaultJWTValidator.Builder().withClock(clock).withLeeway(Duration.ofSeconds(30)).build().validate(jwt));
+    }
+
+    @Test
+    void validateWithIssuedAtInFuture_doesNotThrow() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withIssuedAt(new Date(1_000_000)).build();
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(990_000), ZoneOffset.UTC);
+
+        assertDoesNotThrow(() -> new DefaultJWTValidator.Builder().withClock(clock).build().validate(jwt));
+    }
+
+    @Test
+    void validateWithIssuedAtInFutureRejected_throwsJWTValidationException() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withIssuedAt(new Date(1_000_000)).build();
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(990_000), ZoneOffset.UTC);
+
+        assertThrows(JWTValidationException.class, () -> new DefaultJWTValidator.Builder().withClock(clock).withIssuedAtNotInFuture().build().validate(jwt));
+        assertDoesNotThrow(() -> new DefaultJWTValidator.Builder().withClock(clock).withIssuedAtNotInFuture().withLeeway(Duration.ofSeconds(30)).build().validate(jwt));
+    }
+
+    @Test
+    void builderWithNegativeLeeway_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new DefaultJWTValidator.Builder().withLeeway(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> new DefaultJWTValidator.Builder().withClock(null));
+    }
+
+    @Test
+    void checkValid_returnsValidResult() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).build();
+        ValidationResult result = new DefaultJWTValidator().check(jwt);
+
+        assertTrue(result.isValid());
+        assertSame(jwt, result.getJWT());
+        assertNull(result.getReason());
+        assertNull(result.getException());
+    }
+
+    @Test
+    void checkExpired_returnsReasonAndBuildsExceptionLazily() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withExpirationTime(new Date(100)).build();
+        ValidationResult result = new DefaultJWTValidator().check(jwt);
+
+        assertFalse(result.isValid());
+        assertEquals(FailureReason.EXPIRED, result.getReason());
+        assertEquals("JWT expired on " + new Date(100), result.getMessage());
+        assertTrue(result.getException() instanceof JWTExpiredException);
+        assertSame(result.getException(), result.getException());
+    }
+
+    @Test
+    void checkMissingClaim_returnsMissingClaim() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).build();
+        ValidationResult result = new DefaultJWTValidator.Builder().withClaim("role", "admin").build().check(jwt);
+
+        assertEquals(FailureReason.MISSING_CLAIM, result.getReason());
+        assertEquals("role is not present in payload", result.getMessage());
+    }
+
+    @Test
+    void checkWithFailingClaimValidator_returnsClaimMismatch() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withClaim("role", "admin").build();
+        JWTValidator validator = new DefaultJWTValidator.Builder()
+                .withClaim("role", value -> ((Integer) value) > 0)
+                .build();
+
+        ValidationResult result = validator.check(jwt);
+
+        assertEquals(FailureReason.CLAIM_MISMATCH, result.getReason());
+        assertTrue(result.getException().getCause() instanceof ClassCastException);
+    }
+
+    @Test
+    void customValidatorCheck_catchesException() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).build();
+        JWTValidator validator = token -> {
+            throw new JWTValidationException("rejected", FailureReason.CLAIM_MISMATCH);
+        };
+
+        ValidationResult result = validator.check(jwt);
+
+        assertEquals(FailureReason.CLAIM_MISMATCH, result.getReason());
+        assertEquals("rejected", result.getMessage());
+    }
+
+    @Test
+    void validateWithStackTracesDisabled_throwsExceptionWithoutStackTrace() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withExpirationTime(new Date(100)).build();
+        JWTValidator validator = new DefaultJWTValidator();
+
+        JWTException.setStackTraceEnabled(false);
+        try {
+            JWTExpiredException exception = assertThrows(JWTExpiredException.class, () -> validator.validate(jwt));
+
+            assertEquals(0, exception.getStackTrace().length);
+            assertEquals(FailureReason.EXPIRED, exception.getReason());
+        } finally {
+            JWTException.setStackTraceEnabled(true);
+        }
+
+        assertTrue(assertThrows(JWTExpiredException.class, () -> validator.validate(jwt)).getStackTrace().length > 0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JWTTemplateTest {
+
+    private Algorithm algorithm;
+
+    @BeforeEach
+    void setUp() {
+        algorithm = Algorithm.HMAC256("secret");
+    }
+
+    @Test
+    void sign_withFixedClaims_equalsBuilder() throws JWTCreationException {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm)
+                .withKeyId("key-1")
+                .withIssuer("issuer")
+                .withClaim("scope", "read")
+                .build();
+
+        String expected = new JWT.Builder(algorithm)
+                .withKeyId("key-1")
+                .withIssuer("issuer")
+                .withClaim("scope", "read")
+                .sign();
+
+        assertThat(template.sign(), is(expected));
+    }
+
+    @Test
+    void sign_joinsFixedAndTokenClaims() throws Exception {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm)
+                .withIssuer("issuer")
+                .withAudience("a", "b")
+                .build();
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "user-1");
+        claims.put("admin", true);
+
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, template.sign(claims));
+
+        assertThat(jwt.getHeader().getType(), is("JWT"));
+        assertThat(jwt.getHeader().getAlgorithm(), is("HS256"));
+        assertThat(jwt.getPayload().getIssuer(), is("issuer"));
+        assertThat(jwt.getPayload().getClaim("aud", List.class), is(Arrays.asList("a", "b")));
+        assertThat(jwt.getPayload().getSubject(), is("user-1"));
+        assertThat(jwt.getPayload().getClaim("admin", Boolean.class), is(true));
+    }
+
+    @Test
+    void sign_withoutFixedClaims() throws Exception {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm).build();
+
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, template.sign(Collections.singletonMap("sub", "user-1")));
+
+        assertThat(jwt.getPayload().getSubject(), is("user-1"));
+        assertThat(jwt.getPayload().getAsMap().size(), is(1));
+    }
+
+    @Test
+    void sign_withoutClaims_signsEmptyPayload() throws Exception {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm).build();
+
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, template.sign());
+
+        assertThat(jwt.getPayload().getAsMap().isEmpty(), is(true));
+    }
+
+    @Test
+    void sign_withTimeToLive_setsIssuedAtAndExpirationTime() throws Exception {
+        Clock clock = Clock.fixed(Instant.ofEpochSecond(1_600_000_000), ZoneOffset.UTC);
+        JWTTemplate template = new JWTTemplate.Builder(algorithm)
+                .withTimeToLive(Duration.ofMinutes(5))
+                .withClock(clock)
+                .build();
+
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, template.sign());
+
+        assertThat(jwt.getPayload().getIssuedAt(), is(new Date(1_600_000_000_000L)));
+        assertThat(jwt.getPayload().getExpirationTime(), is(new Date(1_600_000_300_000L)));
+        assertThat(jwt.getPayload().containsClaim("nbf"), is(false));
+    }
+
+    @Test
+    void sign_withRSA() throws Exception {
+        Algorithm rsa = Algorithm.RSA256(rsaKeyPair());
+        JWTTemplate template = new JWTTemplate.Builder(rsa).withIssuer("issuer").build();
+
+        JWT jwt = JWT.fromVerifiedRawJWT(rsa, template.sign(Collections.singletonMap("sub", "user-1")));
+
+        assertThat(jwt.getPayload().getIssuer(), is("issuer"));
+        assertThat(jwt.getPayload().getSubject(), is("user-1"));
+    }
+
+    @Test
+    void sign_otherKey_failsVerification() throws JWTCreationException {
+        String token = new JWTTemplate.Builder(algorithm).withIssuer("issuer").build().sign();
+
+        assertThrows(JWTValidationException.class, () -> JWT.fromVerifiedRawJWT(Algorithm.HMAC256("other"), token));
+    }
+
+    @Test
+    void sign_withPayload_equalsBuilder() throws JWTCreationException {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm).build();
+
+        Payload payload = new Payload();
+        payload.setSubject("user-1");
+        payload.setIssuer("issuer");
+
+        String expected = new JWT.Builder(algorithm)
+                .withSubject("user-1")
+                .withIssuer("issuer")
+                .sign();
+
+        assertThat(template.sign(payload), is(expected));
+    }
+
+    @Test
+    void sign_withPayloadAndFixedClaims_joinsClaims() throws Exception {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm).withIssuer("issuer").build();
+
+        Payload payload = new Payload();
+        payload.setSubject("user-1");
+
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, template.sign(payload));
+
+        assertThat(jwt.getPayload().getIssuer(), is("issuer"));
+        assertThat(jwt.getPayload().getSubject(), is("user-1"));
+    }
+
+    @Test
+    void sign_withFixedClaim_throwsIllegalArgumentException() {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm).withIssuer("issuer").build();
+
+        assertThrows(IllegalArgumentException.class, () -> template.sign(Collections.singletonMap("iss", "other")));
+    }
+
+    @Test
+    void build_withFixedTimeClaimAndTimeToLive_throwsIllegalArgumentException() {
+        JWTTemplate.Builder builder = new JWTTemplate.Builder(algorithm)
+                .withClaim("exp", 1L)
+                .withTimeToLive(Duration.ofMinutes(5));
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void builder_withNullAlgorithm_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new JWTTemplate.Builder(null));
+    }
+
+    @Test
+    void sign_concurrently() throws Exception {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm).withIssuer("issuer").build();
+
+        Thread[] threads = new Thread[4];
+        Throwable[] failure = new Throwable[1];
+        for (int i = 0; i < threads.length; i++) {
+            String subject = "user-" + i;
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 500; j++) {
+                        String token = template.sign(Collections.singletonMap("sub", subject));
+                        assertThat(JWT.fromVerifiedRawJWT(algorithm, token).getPayload().getSubject(), is(subject));
+                    }
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread: threads) thread.join();
+        assertThat(failure[0], is(nullValue()));
+    }
+
+    private static KeyPair rsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+}
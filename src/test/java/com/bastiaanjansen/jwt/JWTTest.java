@@ -1,16 +1,33 @@
 package com.bastiaanjansen.jwt;
 
 import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
 import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
 import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import com.bastiaanjansen.jwt.json.FlatJSONCodec;
+import com.bastiaanjansen.jwt.json.JSONCodec;
+import com.bastiaanjansen.jwt.json.JSONCodecs;
+import com.bastiaanjansen.jwt.utils.ExecutorUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -313,6 +330,96 @@ class JWTTest {
         assertThat(jwt, is(expected));
     }
 
+    @Test
+    void signIntoArray_writesSameJWTAsSign() throws JWTCreationException {
+        JWT.Builder builder = new JWT.Builder(algorithm).withIssuer("issuer").withClaim("n", 1);
+        String expected = builder.sign();
+        byte[] dst = new byte[200];
+
+        int written = builder.sign(dst, 3);
+
+        assertThat(new String(dst, 3, written, StandardCharsets.US_ASCII), is(expected));
+    }
+
+    @Test
+    void signIntoArray_tooSmall_throwsIndexOutOfBoundsException() {
+        JWT.Builder builder = new JWT.Builder(algorithm).withIssuer("issuer");
+
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.sign(new byte[20], 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.sign(new byte[100], 0));
+    }
+
+    @Test
+    void signIntoHeapBuffer_writesSameJWTAsSign() throws JWTCreationException {
+        JWT.Builder builder = new JWT.Builder(algorithm).withIssuer("issuer");
+        String expected = builder.sign();
+        ByteBuffer buffer = ByteBuffer.allocate(300);
+        buffer.put((byte) 'x');
+
+        builder.sign(buffer);
+        buffer.flip();
+        buffer.get();
+
+        assertThat(StandardCharsets.US_ASCII.decode(buffer).toString(), is(expected));
+    }
+
+    @Test
+    void signIntoDirectBuffer_writesSameJWTAsSign() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(algorithm).withIssuer("issuer").build();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(300);
+        buffer.put((byte) 'x');
+
+        jwt.sign(buffer);
+        buffer.flip();
+        buffer.get();
+
+        assertThat(StandardCharsets.US_ASCII.decode(buffer).toString(), is(jwt.sign()));
+    }
+
+    @Test
+    void signIntoBuffer_tooSmall_keepsPosition() {
+        JWT.Builder builder = new JWT.Builder(algorithm).withIssuer("issuer");
+        ByteBuffer heap = ByteBuffer.allocate(100);
+        ByteBuffer direct = ByteBuffer.allocateDirect(100);
+
+        assertThrows(BufferOverflowException.class, () -> builder.sign(heap));
+        assertThrows(BufferOverflowException.class, () -> builder.sign(direct));
+        assertThat(heap.position(), is(0));
+        assertThat(direct.position(), is(0));
+    }
+
+    @Test
+    void signIntoStringBuilder_appendsJWT() throws JWTCreationException {
+        JWT.Builder builder = new JWT.Builder(algorithm).withIssuer("issuer");
+        StringBuilder dst = new StringBuilder("Bearer ");
+
+        builder.sign(dst);
+
+        assertThat(dst.toString(), is("Bearer " + builder.sign()));
+    }
+
+    @Test
+    void signIntoOutputStream_writesJWT() throws Exception {
+        JWT.Builder builder = new JWT.Builder(Algorithm.HMAC512("secret")).withIssuer("issuer");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        builder.sign(out);
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.US_ASCII), is(builder.sign()));
+    }
+
+    @Test
+    void signAfterChangingPayload_signsNewPayload() throws Exception {
+        JWT jwt = new JWT.Builder(algorithm).withIssuer("issuer").build();
+        String before = jwt.sign();
+
+        jwt.getPayload().setSubject("subject");
+        String after = jwt.sign();
+
+        assertThat(after.equals(before), is(false));
+        assertThat(JWT.fromVerifiedRawJWT(algorithm, after).getPayload().getSubject(), is("subject"));
+    }
+
     @Test
     void sign_jwtHasThreeSegments() throws JWTCreationException {
         String jwt = new JWT.Builder(algorithm).sign();
@@ -320,4 +427,273 @@ class JWTTest {
 
         assertThat(jwt.split("\\.").length, is(expected));
     }
+
+    @Test
+    void fromRawJWTWithByteRange_issuer() throws JWTDecodeException, JWTCreationException {
+        byte[] bytes = ("Bearer " + jwtString).getBytes(StandardCharsets.US_ASCII);
+        JWT jwt = JWT.fromRawJWT(algorithm, bytes, 7, bytes.length - 7);
+        String expected = "issuer";
+
+        assertThat(jwt.getPayload().getIssuer(), is(expected));
+    }
+
+    @Test
+    void fromRawJWTWithDirectByteBuffer_issuer() throws JWTDecodeException, JWTCreationException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(jwtString.length());
+        buffer.put(jwtString.getBytes(StandardCharsets.US_ASCII)).flip();
+        JWT jwt = JWT.fromRawJWT(algorithm, buffer);
+        String expected = "issuer";
+
+        assertThat(jwt.getPayload().getIssuer(), is(expected));
+        assertThat(buffer.position(), is(0));
+    }
+
+    @Test
+    void fromRawJWTWithCharSequence_issuer() throws JWTDecodeException, JWTCreationException {
+        JWT jwt = JWT.fromRawJWT(algorithm, new StringBuilder(jwtString));
+        String expected = "issuer";
+
+        assertThat(jwt.getPayload().getIssuer(), is(expected));
+    }
+
+    @Test
+    void fromRawJWTWithFourSegments_throwsJWTDecodeException() {
+        String jwt = jwtString + ".segment4";
+
+        assertThrows(JWTDecodeException.class, () -> JWT.fromRawJWT(algorithm, jwt));
+    }
+
+    @Test
+    void fromRawJWTWithNonASCIICharacter_throwsJWTDecodeException() {
+        String jwt = "\u00e9" + jwtString;
+
+        assertThrows(JWTDecodeException.class, () -> JWT.fromRawJWT(algorithm, jwt));
+    }
+
+    @Test
+    void verifySignatureWithByteRange() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        byte[] bytes = ("Bearer " + new JWT.Builder(algorithm).withIssuer("issuer").sign()).getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(JWT.verifySignature(algorithm, bytes, 7, bytes.length - 7), is(true));
+    }
+
+    @Test
+    void verifySignatureWithDirectByteBuffer() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        byte[] bytes = new JWT.Builder(algorithm).withIssuer("issuer").sign().getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+
+        assertThat(JWT.verifySignature(algorithm, buffer), is(true));
+        assertThat(buffer.position(), is(0));
+    }
+
+    @Test
+    void verifySignatureWithHeapByteBuffer() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        String jwt = new JWT.Builder(algorithm).withIssuer("issuer").sign();
+        ByteBuffer buffer = ByteBuffer.wrap(("Bearer " + jwt).getBytes(StandardCharsets.US_ASCII));
+        buffer.position(7);
+
+        assertThat(JWT.verifySignature(algorithm, buffer), is(true));
+    }
+
+    @Test
+    void verifySignatureWithCharSequence() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        String jwt = new JWT.Builder(algorithm).withIssuer("issuer").sign();
+
+        assertThat(JWT.verifySignature(algorithm, jwt), is(true));
+    }
+
+    @Test
+    void verifySignatureWithInvalidSignature() throws JWTDecodeException, JWTValidationException {
+        String jwt = jwtString.substring(0, jwtString.length() - 1) + "2";
+
+        assertThat(JWT.verifySignature(algorithm, jwt), is(false));
+    }
+
+    @Test
+    void verifySignatureWithTwoSegments_throwsJWTDecodeException() {
+        assertThrows(JWTDecodeException.class, () -> JWT.verifySignature(algorithm, "segment1.segment2"));
+    }
+
+    @Test
+    void fromVerifiedRawJWT_issuer() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, jwtString);
+        String expected = "issuer";
+
+        assertThat(jwt.getPayload().getIssuer(), is(expected));
+    }
+
+    @Test
+    void tryFromVerifiedRawJWT_returnsJWT() {
+        ValidationResult result = JWT.tryFromVerifiedRawJWT(algorithm, jwtString);
+
+        assertThat(result.isValid(), is(true));
+        assertThat(result.getJWT().getPayload().getIssuer(), is("issuer"));
+    }
+
+    @Test
+    void tryFromVerifiedRawJWTWithInvalidSignature_returnsInvalidSignature() {
+        String jwt = jwtString.substring(0, jwtString.length() - 1) + "2";
+        ValidationResult result = JWT.tryFromVerifiedRawJWT(algorithm, jwt);
+
+        assertThat(result.isValid(), is(false));
+        assertThat(result.getReason(), is(FailureReason.INVALID_SIGNATURE));
+        assertThat(result.getMessage(), is("Signature is not valid"));
+        assertTrue(result.getException() instanceof JWTValidationException);
+    }
+
+    @Test
+    void tryFromVerifiedRawJWTWithMalformedToken_returnsDecodeError() {
+        String signature = jwtString.substring(jwtString.lastIndexOf('.') + 1);
+
+        assertThat(JWT.tryFromVerifiedRawJWT(algorithm, "segment1.segment2").getReason(), is(FailureReason.DECODE_ERROR));
+        assertThat(JWT.tryFromVerifiedRawJWT(algorithm, jwtString.replace(signature, "a+b/")).getReason(), is(FailureReason.DECODE_ERROR));
+        assertThat(JWT.tryFromVerifiedRawJWT(algorithm, jwtString + "\u00e9").getReason(), is(FailureReason.DECODE_ERROR));
+        assertTrue(JWT.tryFromVerifiedRawJWT(algorithm, "a.b.c").getException() instanceof JWTDecodeException);
+    }
+
+    @Test
+    void fromVerifiedRawJWTWithByteRange_issuer() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        byte[] bytes = ("Bearer " + jwtString).getBytes(StandardCharsets.US_ASCII);
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, bytes, 7, bytes.length - 7);
+        String expected = "issuer";
+
+        assertThat(jwt.getPayload().getIssuer(), is(expected));
+    }
+
+    @Test
+    void fromVerifiedRawJWTWithByteBuffer_issuer() throws JWTDecodeException, JWTCreationException, JWTValidationException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(jwtString.length());
+        buffer.put(jwtString.getBytes(StandardCharsets.US_ASCII)).flip();
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, buffer);
+        String expected = "issuer";
+
+        assertThat(jwt.getPayload().getIssuer(), is(expected));
+    }
+
+    @Test
+    void fromVerifiedRawJWTWithInvalidSignature_throwsJWTValidationException() {
+        String jwt = jwtString.substring(0, jwtString.length() - 1) + "2";
+
+        assertThrows(JWTValidationException.class, () -> JWT.fromVerifiedRawJWT(algorithm, jwt));
+    }
+
+    @Test
+    void fromVerifiedRawJWTWithGarbageSegments_throwsJWTValidationException() {
+        String jwt = "not json.not json either." + jwtString.substring(jwtString.lastIndexOf('.') + 1);
+
+        assertThrows(JWTValidationException.class, () -> JWT.fromVerifiedRawJWT(algorithm, jwt));
+    }
+
+    @Test
+    void fromRawJWT_addClaimKeepsParsedClaims() throws JWTDecodeException, JWTCreationException {
+        JWT jwt = JWT.fromRawJWT(algorithm, jwtString);
+        jwt.getPayload().addClaim("custom", "value");
+
+        assertThat(jwt.getPayload().getIssuer(), is("issuer"));
+        assertThat(jwt.getPayload().getClaim("custom", String.class), is("value"));
+    }
+
+    @Test
+    void fromRawJWT_getAsMap() throws JWTDecodeException, JWTCreationException {
+        JWT jwt = JWT.fromRawJWT(algorithm, jwtString);
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("iss", "issuer");
+        expected.put("aud", "audience");
+        expected.put("iat", 1614676926172L);
+        expected.put("jti", "id");
+
+        assertThat(jwt.getPayload().getAsMap(), is(expected));
+    }
+
+    @Test
+    void fromRawJWTWithMalformedPayloadJSON_throwsJWTDecodeException() {
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"iss\":".getBytes(StandardCharsets.UTF_8));
+        String jwt = jwtString.substring(0, jwtString.indexOf('.') + 1) + payload + jwtString.substring(jwtString.lastIndexOf('.'));
+
+        assertThrows(JWTDecodeException.class, () -> JWT.fromRawJWT(algorithm, jwt));
+    }
+
+    @Test
+    void signAndParseWithFlatJSONCodec() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        JSONCodec previous = JSONCodecs.getDefault();
+        JSONCodecs.setDefault(new FlatJSONCodec());
+
+        try {
+            String token = new JWT.Builder(algorithm)
+                    .withIssuer("issuer")
+                    .withAudience("aud1", "aud2")
+                    .withExpirationTime(1614676926172L)
+                    .withClaim("count", 12)
+                    .sign();
+
+            JWT jwt = JWT.fromRawJWT(algorithm, token);
+
+            assertThat(jwt.getPayload().getIssuer(), is("issuer"));
+            assertThat(jwt.getPayload().getExpirationTime(), is(new Date(1614676926172L)));
+            assertThat(jwt.getPayload().getClaim("count", Long.class), is(12L));
+            assertTrue(jwt.hasValidSignature());
+        } finally {
+            JSONCodecs.setDefault(previous);
+        }
+    }
+
+    @Test
+    void signAsync_returnsSameJWTAsSign() throws Exception {
+        JWT.Builder builder = new JWT.Builder(algorithm).withIssuer("issuer").withIssuedAt(1614676926172L);
+
+        assertThat(builder.signAsync().get(), is(builder.sign()));
+    }
+
+    @Test
+    void signAsync_builderChangedBeforeSigning_signsOriginalClaims() throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+        JWT.Builder builder = new JWT.Builder(algorithm).withIssuer("issuer").withSubject("subject");
+
+        CompletableFuture<String> future = builder.signAsync(tasks::add);
+        builder.withSubject("other").withHeader("kid", "key-1");
+        tasks.forEach(Runnable::run);
+
+        JWT jwt = JWT.fromVerifiedRawJWT(algorithm, future.get());
+        assertThat(jwt.getPayload().getSubject(), is("subject"));
+        assertThat(jwt.getHeader().containsClaim("kid"), is(false));
+    }
+
+    @Test
+    void signAsyncOnBoundedExecutor() throws Exception {
+        ExecutorService executor = ExecutorUtils.newBoundedExecutor(2);
+
+        try {
+            String token = new JWT.Builder(algorithm).withIssuer("issuer").signAsync(executor).get();
+
+            assertThat(JWT.fromRawJWT(algorithm, token).getPayload().getIssuer(), is("issuer"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void signAsyncWithRejectingExecutor_completesExceptionally() {
+        CompletableFuture<String> future = new JWT.Builder(algorithm).signAsync(task -> {
+            throw new RejectedExecutionException();
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertThat(exception.getCause() instanceof RejectedExecutionException, is(true));
+    }
+
+    @Test
+    void validateAsync_completes() throws JWTDecodeException, JWTCreationException {
+        JWT jwt = JWT.fromRawJWT(algorithm, jwtString);
+
+        assertDoesNotThrow(() -> jwt.validateAsync().get());
+    }
+
+    @Test
+    void validateAsyncWithInvalidSignature_completesExceptionally() throws JWTDecodeException, JWTCreationException {
+        JWT jwt = JWT.fromRawJWT(algorithm, jwtString.substring(0, jwtString.length() - 1) + "2");
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> jwt.validateAsync(new DefaultJWTValidator(), Runnable::run).get());
+        assertThat(exception.getCause() instanceof JWTValidationException, is(true));
+    }
 }
\ No newline at end of file
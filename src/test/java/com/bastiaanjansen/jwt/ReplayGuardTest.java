@@ -0,0 +1,224 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTReplayException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayGuardTest {
+
+    private static final long NOW = 1_000_000;
+
+    private MutableClock clock;
+    private ReplayGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        guard = new ReplayGuard.Builder().withClock(clock).build();
+    }
+
+    @Test
+    void markUsedTwice_returnsFalse() {
+        assertTrue(guard.markUsed("token-1", NOW + 60_000));
+        assertFalse(guard.markUsed("token-1", NOW + 60_000));
+        assertTrue(guard.markUsed("token-2", NOW + 60_000));
+
+        assertThat(guard.getReplayCount(), is(1L));
+        assertThat(guard.size(), is(2));
+    }
+
+    @Test
+    void markUsedAfterExpiration_returnsTrue() {
+        guard.markUsed("token-1", NOW + 60_000);
+        clock.millis = NOW + 62_000;
+
+        assertTrue(guard.markUsed("token-1", NOW + 120_000));
+    }
+
+    @Test
+    void cleanUp_removesExpiredIds() {
+        guard.markUsed("token-1", NOW + 10_000);
+        guard.markUsed("token-2", NOW + 60_000);
+        clock.millis = NOW + 12_000;
+        guard.cleanUp();
+
+        assertThat(guard.size(), is(1));
+    }
+
+    @Test
+    void cleanUp_keepsIdsExpiringAfterAFullRevolution() {
+        guard.markUsed("token-1", NOW + 2_000_000);
+        clock.millis = NOW + 1_000_000;
+        guard.cleanUp();
+
+        assertThat(guard.size(), is(1));
+        assertFalse(guard.markUsed("token-1", NOW + 2_000_000));
+
+        clock.millis = NOW + 2_002_000;
+        guard.cleanUp();
+
+        assertThat(guard.size(), is(0));
+    }
+
+    @Test
+    void cleanUpWithinLeeway_keepsIds() {
+        ReplayGuard guard = new ReplayGuard.Builder().withLeeway(Duration.ofSeconds(30)).withClock(clock).build();
+        guard.markUsed("token-1", NOW + 10_000);
+        clock.millis = NOW + 20_000;
+        guard.cleanUp();
+
+        assertFalse(guard.markUsed("token-1", NOW + 10_000));
+    }
+
+    @Test
+    void markUsedWhenFull_returnsFalse() {
+        ReplayGuard guard = new ReplayGuard.Builder().withMaximumSize(1).withClock(clock).build();
+
+        assertTrue(guard.markUsed("token-1", NOW + 10_000));
+        assertFalse(guard.markUsed("token-2", NOW + 10_000));
+        assertThat(guard.getOverflowCount(), is(1L));
+
+        clock.millis = NOW + 12_000;
+        assertTrue(guard.markUsed("token-2", NOW + 20_000));
+    }
+
+    @Test
+    void markUsed_asksStoreOnlyForUnknownIds() {
+        Set<String> stored = ConcurrentHashMap.newKeySet();
+        stored.add("used-elsewhere");
+        AtomicInteger calls = new AtomicInteger();
+
+        ReplayGuard guard = new ReplayGuard.Builder()
+                .withStore((id, expirationTime) -> {
+                    calls.incrementAndGet();
+                    return stored.add(id);
+                })
+                .withClock(clock)
+                .build();
+
+        assertTrue(guard.markUsed("token-1", NOW + 10_000));
+        assertFalse(guard.markUsed("token-1", NOW + 10_000));
+        assertFalse(guard.markUsed("used-elsewhere", NOW + 10_000));
+        assertFalse(guard.markUsed("used-elsewhere", NOW + 10_000));
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    void markUsedWhenStoreFails_forgetsId() {
+        AtomicInteger calls = new AtomicInteger();
+        ReplayGuard guard = new ReplayGuard.Builder()
+                .withStore((id, expirationTime) -> {
+                    if (calls.incrementAndGet() == 1) throw new IllegalStateException("store is down");
+                    return true;
+                })
+                .withClock(clock)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> guard.markUsed("token-1", NOW + 10_000));
+        assertTrue(guard.markUsed("token-1", NOW + 10_000));
+    }
+
+    @Test
+    void markUsedConcurrently_acceptsOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (int round = 0; round < 100; round++) {
+                String id = "token-" + round;
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < 8; i++)
+                    results.add(executor.submit(() -> guard.markUsed(id, NOW + 60_000)));
+
+                int accepted = 0;
+                for (Future<Boolean> result: results) {
+                    if (result.get()) accepted++;
+                }
+
+                assertThat(accepted, is(1));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void validateTwice_throwsJWTReplayException() throws JWTCreationException, JWTValidationException {
+        Algorithm algorithm = Algorithm.HMAC256("secret");
+        JWT jwt = new JWT.Builder(algorithm).withID("token-1").withExpirationTime(NOW + 60_000).build();
+        JWTValidator validator = new DefaultJWTValidator.Builder().withReplayGuard(guard).withClock(clock).build();
+
+        validator.validate(jwt);
+
+        assertThrows(JWTReplayException.class, () -> validator.validate(jwt));
+    }
+
+    @Test
+    void validateWithoutIdOrExpirationTime_throwsJWTValidationException() throws JWTCreationException {
+        Algorithm algorithm = Algorithm.HMAC256("secret");
+        JWT withoutId = new JWT.Builder(algorithm).withExpirationTime(NOW + 60_000).build();
+        JWT withoutExpirationTime = new JWT.Builder(algorithm).withID("token-1").build();
+        JWTValidator validator = new DefaultJWTValidator.Builder().withReplayGuard(guard).withClock(clock).build();
+
+        assertThrows(JWTValidationException.class, () -> validator.validate(withoutId));
+        assertThrows(JWTValidationException.class, () -> validator.validate(withoutExpirationTime));
+        assertThat(guard.size(), is(0));
+    }
+
+    @Test
+    void builderWithInvalidArguments_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplayGuard.Builder().withMaximumSize(0));
+        assertThrows(IllegalArgumentException.class, () -> new ReplayGuard.Builder().withTickDuration(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new ReplayGuard.Builder().withStore(null));
+        assertThrows(IllegalArgumentException.class, () -> new DefaultJWTValidator.Builder().withReplayGuard(null));
+    }
+
+    private static final class MutableClock extends Clock {
+        volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTRevokedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationListTest {
+
+    private MutableClock clock;
+    private RevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(1_000_000);
+        revocationList = new RevocationList.Builder()
+                .withExpectedSize(1_000)
+                .withCleanUpInterval(Duration.ZERO)
+                .withClock(clock)
+                .build();
+    }
+
+    @Test
+    void isRevoked() {
+        revocationList.revoke("token-1", 2_000_000);
+
+        assertTrue(revocationList.isRevoked("token-1"));
+        assertFalse(revocationList.isRevoked("token-2"));
+        assertThat(revocationList.size(), is(1));
+    }
+
+    @Test
+    void revokeTwice_keepsLatestExpirationTime() {
+        revocationList.revoke("token-1", 2_000_000);
+        revocationList.revoke("token-1", 3_000_000);
+        clock.millis = 2_500_000;
+        revocationList.cleanUp();
+
+        assertTrue(revocationList.isRevoked("token-1"));
+        assertThat(revocationList.size(), is(1));
+    }
+
+    @Test
+    void manyIds_areExact() {
+        for (int i = 0; i < 20_000; i += 2)
+            revocationList.revoke("token-" + i, 2_000_000);
+
+        for (int i = 0; i < 20_000; i++)
+            assertThat("token-" + i, revocationList.isRevoked("token-" + i), is(i % 2 == 0));
+
+        assertThat(revocationList.size(), is(10_000));
+    }
+
+    @Test
+    void cleanUp_removesExpiredIds() {
+        revocationList.revoke("token-1", 1_500_000);
+        revocationList.revoke("token-2", 2_500_000);
+        clock.millis = 2_000_000;
+        revocationList.cleanUp();
+
+        assertFalse(revocationList.isRevoked("token-1"));
+        assertTrue(revocationList.isRevoked("token-2"));
+        assertThat(revocationList.size(), is(1));
+    }
+
+    @Test
+    void revoke_removesExpiredIds() {
+        revocationList.revoke("token-1", 1_500_000);
+        clock.millis = 2_000_000;
+        revocationList.revoke("token-2", 2_500_000);
+
+        assertFalse(revocationList.isRevoked("token-1"));
+        assertTrue(revocationList.isRevoked("token-2"));
+    }
+
+    @Test
+    void cleanUpWithinLeeway_keepsIds() {
+        RevocationList list = new RevocationList.Builder().withLeeway(Duration.ofSeconds(30)).withClock(clock).build();
+        list.revoke("token-1", 990_000);
+        list.cleanUp();
+
+        assertTrue(list.isRevoked("token-1"));
+    }
+
+    @Test
+    void revokeJWT_usesIdAndExpirationTime() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(Algorithm.HMAC256("secret")).withID("token-1").withExpirationTime(1_500_000).build();
+        revocationList.revoke(jwt);
+        clock.millis = 2_000_000;
+        revocationList.cleanUp();
+
+        assertFalse(revocationList.isRevoked("token-1"));
+    }
+
+    @Test
+    void revokeJWTWithoutId_throwsIllegalArgumentException() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(Algorithm.HMAC256("secret")).withSubject("subject").build();
+
+        assertThrows(IllegalArgumentException.class, () -> revocationList.revoke(jwt));
+    }
+
+    @Test
+    void validateRevokedJWT_throwsJWTRevokedException() throws JWTCreationException {
+        Algorithm algorithm = Algorithm.HMAC256("secret");
+        JWT revoked = new JWT.Builder(algorithm).withID("token-1").build();
+        JWT other = new JWT.Builder(algorithm).withID("token-2").build();
+        revocationList.revoke(revoked);
+
+        JWTValidator validator = new DefaultJWTValidator.Builder().withRevocationList(revocationList).build();
+
+        assertThrows(JWTRevokedException.class, () -> validator.validate(revoked));
+        assertDoesNotThrow(() -> validator.validate(other));
+    }
+
+    @Test
+    void builderWithInvalidArguments_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new RevocationList.Builder().withExpectedSize(0));
+        assertThrows(IllegalArgumentException.class, () -> new RevocationList.Builder().withFalsePositiveProbability(1));
+        assertThrows(IllegalArgumentException.class, () -> new RevocationList.Builder().withLeeway(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> new DefaultJWTValidator.Builder().withRevocationList(null));
+    }
+
+    private static final class MutableClock extends Clock {
+        volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
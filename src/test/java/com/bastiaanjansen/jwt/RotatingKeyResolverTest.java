@@ -0,0 +1,237 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RotatingKeyResolverTest {
+
+    private MutableClock clock;
+    private Algorithm first;
+    private Algorithm second;
+    private RotatingKeyResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(1_000_000);
+        first = Algorithm.HMAC256("first-secret");
+        second = Algorithm.HMAC256("second-secret");
+
+        resolver = new RotatingKeyResolver.Builder()
+                .withKey("first", first)
+                .withOverlap(Duration.ofSeconds(60))
+                .withClock(clock)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        resolver = null;
+    }
+
+    @Test
+    void resolve() {
+        assertThat(resolver.resolve(header("HS256", "first")), is(sameInstance(first)));
+        assertThat(resolver.getSigningKey().getAlgorithm(), is(sameInstance(first)));
+    }
+
+    @Test
+    void resolve_withoutKeyId_returnsNull() {
+        assertThat(resolver.resolve(header("HS256", null)), is(nullValue()));
+    }
+
+    @Test
+    void resolve_withOtherAlgorithm_returnsNull() {
+        assertThat(resolver.resolve(header("HS512", "first")), is(nullValue()));
+    }
+
+    @Test
+    void rotate_keepsOldKeyDuringOverlap() {
+        resolver.rotate("second", second);
+
+        assertThat(resolver.getSigningKey().getKeyId(), is("second"));
+        assertThat(resolver.resolve(header("HS256", "first")), is(sameInstance(first)));
+        assertThat(resolver.resolve(header("HS256", "second")), is(sameInstance(second)));
+        assertThat(resolver.getKeys().get(0).getRetireAt(), is(Instant.ofEpochMilli(1_060_000)));
+
+        clock.millis += 60_000;
+
+        assertThat(resolver.resolve(header("HS256", "first")), is(nullValue()));
+        assertThat(resolver.resolve(header("HS256", "second")), is(sameInstance(second)));
+        assertThat(resolver.getKeys().size(), is(1));
+    }
+
+    @Test
+    void retireKey_withoutOverlap_rejectsImmediately() {
+        resolver.addKey("second", second);
+        resolver.retireKey("first", Duration.ZERO);
+
+        assertThat(resolver.resolve(header("HS256", "first")), is(nullValue()));
+        assertThat(resolver.resolve(header("HS256", "second")), is(sameInstance(second)));
+    }
+
+    @Test
+    void retireKey_signingKeyFallsBack() {
+        resolver.addKey("second", second);
+        resolver.retireKey("second");
+
+        assertThat(resolver.getSigningKey().getKeyId(), is("first"));
+        assertThat(resolver.getKeys().get(1).isRetiring(), is(true));
+    }
+
+    @Test
+    void removeKey() {
+        resolver.removeKey("first");
+
+        assertThat(resolver.resolve(header("HS256", "first")), is(nullValue()));
+        assertThat(resolver.getSigningKey(), is(nullValue()));
+    }
+
+    @Test
+    void getVerifications_countsVerifiedTokens() throws JWTException {
+        String firstToken = new JWT.Builder(first).withKeyId("first").sign();
+        JWT.fromVerifiedRawJWT(resolver, firstToken);
+        resolver.rotate("second", second);
+        JWT.fromVerifiedRawJWT(resolver, firstToken);
+        JWT.fromVerifiedRawJWT(resolver, new JWT.Builder(second).withKeyId("second").sign());
+        resolver.resolve(header("HS256", "first"));
+
+        assertThat(resolver.getKeys().get(0).getVerifications(), is(2L));
+        assertThat(resolver.getKeys().get(1).getVerifications(), is(1L));
+    }
+
+    @Test
+    void getVerifications_doesNotCountForgedTokens() throws JWTException {
+        String forged = new JWT.Builder(Algorithm.HMAC256("forged-secret")).withKeyId("first").sign();
+
+        assertThrows(JWTValidationException.class, () -> JWT.fromVerifiedRawJWT(resolver, forged));
+        assertThat(resolver.getKeys().get(0).getVerifications(), is(0L));
+    }
+
+    @Test
+    void setKeys_retiresMissingKeys() throws JWTException {
+        JWT.fromVerifiedRawJWT(resolver, new JWT.Builder(first).withKeyId("first").sign());
+
+        Map<String, Algorithm> keys = new LinkedHashMap<>();
+        keys.put("second", second);
+        resolver.setKeys(keys);
+
+        assertThat(resolver.resolve(header("HS256", "first")), is(sameInstance(first)));
+        assertThat(resolver.getKeys().get(0).isRetiring(), is(true));
+        assertThat(resolver.getSigningKey().getKeyId(), is("second"));
+
+        keys.put("first", first);
+        resolver.setKeys(keys);
+
+        assertThat(resolver.getKeys().get(1).isRetiring(), is(false));
+        assertThat(resolver.getKeys().get(1).getVerifications(), is(1L));
+    }
+
+    @Test
+    void fromVerifiedRawJWT_afterRotation() throws JWTException {
+        String oldToken = new JWT.Builder(first).withKeyId("first").sign();
+        resolver.rotate("second", second);
+        String newToken = new JWT.Builder(second).withKeyId("second").sign();
+
+        assertThat(JWT.fromVerifiedRawJWT(resolver, oldToken).getAlgorithm(), is(sameInstance(first)));
+        assertThat(JWT.fromVerifiedRawJWT(resolver, newToken).getAlgorithm(), is(sameInstance(second)));
+
+        clock.millis += 60_000;
+
+        assertThrows(JWTCreationException.class, () -> JWT.fromVerifiedRawJWT(resolver, oldToken));
+    }
+
+    @Test
+    void resolve_whileRotating_alwaysFindsStableKey() throws InterruptedException {
+        Header header = header("HS256", "first");
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                while (running.get()) {
+                    if (resolver.resolve(header) != first) misses.incrementAndGet();
+                }
+            });
+            readers[i].start();
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            resolver.addKey("rotating-" + i, second);
+            resolver.removeKey("rotating-" + (i - 1));
+        }
+
+        running.set(false);
+        for (Thread reader: readers) reader.join();
+
+        assertThat(misses.get(), is(0));
+    }
+
+    @Test
+    void builderWithDuplicateKey_throwsIllegalArgumentException() {
+        RotatingKeyResolver.Builder builder = new RotatingKeyResolver.Builder().withKey("first", first);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.withKey("first", second));
+    }
+
+    @Test
+    void builderWithNegativeOverlap_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new RotatingKeyResolver.Builder().withOverlap(Duration.ofSeconds(-1)));
+    }
+
+    private static Header header(String algorithm, String keyId) {
+        Header header = new Header();
+        header.setAlgorithm(algorithm);
+        if (keyId != null) header.setKeyId(keyId);
+        return header;
+    }
+
+    private static final class MutableClock extends Clock {
+        volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
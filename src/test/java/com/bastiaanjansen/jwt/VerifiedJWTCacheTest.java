@@ -0,0 +1,280 @@
+package com.bastiaanjansen.jwt;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTReplayException;
+import com.bastiaanjansen.jwt.exceptions.JWTRevokedException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedJWTCacheTest {
+
+    private static final long NOW = 1614676926172L;
+
+    private Algorithm algorithm;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        this.algorithm = Algorithm.HMAC384("secret");
+        this.clock = new MutableClock(NOW);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.algorithm = null;
+        this.clock = null;
+    }
+
+    private String token(String subject, long expirationTime) throws JWTCreationException {
+        return new JWT.Builder(algorithm).withSubject(subject).withExpirationTime(expirationTime).sign();
+    }
+
+    private VerifiedJWTCache.Builder cacheBuilder() {
+        // The default validator checks against the system time, these tests expire tokens with the cache clock
+        return new VerifiedJWTCache.Builder(algorithm)
+                .withValidator(new DefaultJWTValidator.Builder().withType("JWT").build())
+                .withClock(clock);
+    }
+
+    @Test
+    void validateTwice_returnsCachedJWT() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        VerifiedJWTCache cache = cacheBuilder().build();
+        String token = token("subject", Long.MAX_VALUE);
+
+        JWT first = cache.validate(token);
+        JWT second = cache.validate(new StringBuilder(token));
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(second.getPayload().getSubject(), is("subject"));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    void validateByteRange_hitsSameEntryAsString() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        VerifiedJWTCache cache = cacheBuilder().build();
+        String token = token("subject", Long.MAX_VALUE);
+        byte[] bytes = ("Bearer " + token).getBytes(StandardCharsets.US_ASCII);
+
+        JWT first = cache.validate(token);
+        JWT second = cache.validate(bytes, 7, bytes.length - 7);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    void validateWithInvalidSignature_throwsAndIsNotCached() throws JWTCreationException {
+        VerifiedJWTCache cache = cacheBuilder().build();
+        String token = token("subject", Long.MAX_VALUE);
+        String forged = token.substring(0, token.length() - 1) + (token.endsWith("A") ? "B" : "A");
+
+        assertThrows(JWTValidationException.class, () -> cache.validate(forged));
+        assertThrows(JWTValidationException.class, () -> cache.validate(forged));
+        assertThat(cache.size(), is(0));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    void validateTokenFailingValidator_throwsAndIsNotCached() throws JWTCreationException {
+        VerifiedJWTCache cache = cacheBuilder()
+                .withValidator(new DefaultJWTValidator.Builder().withSubject("other").build())
+                .build();
+        String token = token("subject", Long.MAX_VALUE);
+
+        assertThrows(JWTValidationException.class, () -> cache.validate(token));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    void validateAfterExpirationTime_evictsEntry() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        VerifiedJWTCache cache = cacheBuilder()
+                .withValidator(jwt -> {})
+                .build();
+        String token = token("subject", NOW + 1000);
+
+        cache.validate(token);
+        clock.millis = NOW + 1001;
+        cache.validate(token);
+
+        assertThat(cache.getHitCount(), is(0L));
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    void cleanUp_removesExpiredEntries() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        VerifiedJWTCache cache = cacheBuilder().withValidator(jwt -> {}).build();
+
+        cache.validate(token("first", NOW + 1000));
+        cache.validate(token("second", NOW + 5000));
+        clock.millis = NOW + 2000;
+        cache.cleanUp();
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    void validateWhenFull_evictsLeastRecentlyUsed() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        VerifiedJWTCache cache = cacheBuilder().withMaximumSize(1).build();
+        String first = token("first", Long.MAX_VALUE);
+        String second = token("second", Long.MAX_VALUE);
+
+        cache.validate(first);
+        cache.validate(second);
+        cache.validate(first);
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.getMissCount(), is(3L));
+        assertThat(cache.getEvictionCount(), is(2L));
+    }
+
+    @Test
+    void cachedPayload_isReadOnly() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        VerifiedJWTCache cache = cacheBuilder().build();
+        JWT jwt = cache.validate(token("subject", Long.MAX_VALUE));
+
+        assertThrows(UnsupportedOperationException.class, () -> jwt.getPayload().addClaim("admin", true));
+    }
+
+    @Test
+    void invalidateAll_removesEntries() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        VerifiedJWTCache cache = cacheBuilder().build();
+        cache.validate(token("subject", Long.MAX_VALUE));
+
+        cache.invalidateAll();
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    void validateConcurrently_returnsValidJWTs() throws Exception {
+        VerifiedJWTCache cache = cacheBuilder().withMaximumSize(16).build();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 32; i++)
+            tokens.add(token("subject" + i, Long.MAX_VALUE));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        int index = i % tokens.size();
+                        JWT jwt = cache.validate(tokens.get(index));
+                        assertThat(jwt.getPayload().getSubject(), is("subject" + index));
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> future: futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(cache.getHitCount() + cache.getMissCount(), is(4000L));
+        assertTrue(cache.size() <= 16);
+    }
+
+    @Test
+    void builderWithNullAlgorithm_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new VerifiedJWTCache.Builder(null));
+    }
+
+    @Test
+    void validateCachedRevokedJWT_throwsJWTRevokedException() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        RevocationList revocationList = new RevocationList.Builder().withClock(clock).build();
+        VerifiedJWTCache cache = cacheBuilder().withRevocationList(revocationList).build();
+        String token = new JWT.Builder(algorithm).withID("token-1").withExpirationTime(Long.MAX_VALUE).sign();
+
+        cache.validate(token);
+        revocationList.revoke("token-1", Long.MAX_VALUE);
+
+        assertThrows(JWTRevokedException.class, () -> cache.validate(token));
+    }
+
+    @Test
+    void validateCachedJWTRevokedOnValidator_throwsJWTRevokedException() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        RevocationList revocationList = new RevocationList.Builder().withClock(clock).build();
+        VerifiedJWTCache cache = new VerifiedJWTCache.Builder(algorithm)
+                .withValidator(new DefaultJWTValidator.Builder().withRevocationList(revocationList).build())
+                .withClock(clock)
+                .build();
+        String token = new JWT.Builder(algorithm).withID("token-1").withExpirationTime(Long.MAX_VALUE).sign();
+
+        cache.validate(token);
+        revocationList.revoke("token-1", Long.MAX_VALUE);
+
+        assertThrows(JWTRevokedException.class, () -> cache.validate(token));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    void validateCachedOneTimeJWT_throwsJWTReplayException() throws JWTCreationException, JWTDecodeException, JWTValidationException {
+        ReplayGuard replayGuard = new ReplayGuard.Builder().build();
+        VerifiedJWTCache cache = new VerifiedJWTCache.Builder(algorithm)
+                .withValidator(new DefaultJWTValidator.Builder().withReplayGuard(replayGuard).build())
+                .withClock(clock)
+                .build();
+        String token = new JWT.Builder(algorithm).withID("token-1").withExpirationTime(System.currentTimeMillis() + 60_000).sign();
+        byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+
+        cache.validate(token);
+
+        assertThrows(JWTReplayException.class, () -> cache.validate(token));
+        assertThrows(JWTReplayException.class, () -> cache.validate(bytes, 0, bytes.length));
+        assertThat(cache.getHitCount(), is(2L));
+    }
+
+    private static final class MutableClock extends Clock {
+        volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
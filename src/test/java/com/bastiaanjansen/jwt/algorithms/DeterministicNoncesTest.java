@@ -0,0 +1,63 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DeterministicNoncesTest {
+
+    // Private key of RFC 6979, appendix A.2.5
+    private static final BigInteger PRIVATE_KEY = new BigInteger("C9AFA9D845BA75166B5C215767B1D6934E50C3DB36E89B127B8A622B120F6721", 16);
+
+    private DeterministicNonces nonces;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        BigInteger order = parameters.getParameterSpec(ECParameterSpec.class).getOrder();
+
+        nonces = new DeterministicNonces("HmacSHA256", PRIVATE_KEY, order);
+    }
+
+    @Test
+    void next_withSample_matchesRFC6979() throws GeneralSecurityException {
+        nonces.init(sha256("sample"));
+
+        assertThat(nonces.next(), is(new BigInteger("A6E3C57DD01ABE90086538398355DD4C3B17AA873382B0F24D6129493D8AAD60", 16)));
+    }
+
+    @Test
+    void next_withTest_matchesRFC6979() throws GeneralSecurityException {
+        nonces.init(sha256("test"));
+
+        assertThat(nonces.next(), is(new BigInteger("D16B6AE827F17175E040871A1C7EC3500192C4C92677336EC2537ACAEE0008E0", 16)));
+    }
+
+    @Test
+    void next_afterInit_startsOver() throws GeneralSecurityException {
+        nonces.init(sha256("sample"));
+        BigInteger first = nonces.next();
+        BigInteger second = nonces.next();
+
+        nonces.init(sha256("sample"));
+
+        assertThat(second, is(not(first)));
+        assertThat(nonces.next(), is(first));
+    }
+
+    private static byte[] sha256(String message) throws GeneralSecurityException {
+        return MessageDigest.getInstance("SHA-256").digest(message.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,273 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.exceptions.JWTException;
+import com.bastiaanjansen.jwt.exceptions.JWTSignException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPrivateKeySpec;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.EllipticCurve;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ECDSAAlgorithmTest {
+
+    private static final byte[] DATA = "data".getBytes(StandardCharsets.UTF_8);
+
+    private KeyPair keyPair;
+    private Algorithm algorithm;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        keyPair = generateKeyPair("secp256r1");
+        algorithm = Algorithm.ECDSA256(keyPair);
+    }
+
+    @AfterEach
+    void tearDown() {
+        algorithm = null;
+        keyPair = null;
+    }
+
+    @Test
+    void getName() {
+        assertThat(algorithm.getName(), is("ES256"));
+        assertThat(algorithm.getDescription(), is("SHA256withECDSA"));
+    }
+
+    @Test
+    void sign_hasJOSELength() throws JWTSignException {
+        assertThat(algorithm.sign(DATA).length, is(64));
+    }
+
+    @Test
+    void sign_isDeterministic() throws JWTSignException {
+        byte[] first = algorithm.sign(DATA);
+
+        assertThat(algorithm.sign(DATA), is(first));
+        assertThat(Algorithm.ECDSA256(keyPair).sign(DATA), is(first));
+        assertThat(algorithm.sign("other"), is(not(first)));
+    }
+
+    @Test
+    void verify() throws JWTException {
+        byte[] signature = algorithm.sign(DATA);
+
+        assertTrue(algorithm.verify(DATA, signature));
+    }
+
+    @Test
+    void verifyByteBuffer() throws JWTException {
+        byte[] signature = algorithm.sign(DATA);
+        ByteBuffer buffer = ByteBuffer.wrap(DATA);
+
+        assertTrue(algorithm.verify(buffer, signature));
+        assertThat(buffer.hasRemaining(), is(false));
+    }
+
+    @Test
+    void verify_withOtherData_returnsFalse() throws JWTException {
+        byte[] signature = algorithm.sign(DATA);
+
+        assertFalse(algorithm.verify("other".getBytes(StandardCharsets.UTF_8), signature));
+    }
+
+    @Test
+    void verify_withDERSignature_returnsFalse() throws JWTException {
+        byte[] signature = ECDSASignatureFormat.toDER(algorithm.sign(DATA), 32);
+
+        assertFalse(algorithm.verify(DATA, signature));
+    }
+
+    @Test
+    void verify_withZeroSignature_returnsFalse() throws JWTValidationException {
+        assertFalse(algorithm.verify(DATA, new byte[64]));
+    }
+
+    @Test
+    void verify_withRFC6979Signature() throws Exception {
+        // Public key and SHA-256 signature of the message "sample" from RFC 6979, appendix A.2.5
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECPoint point = new ECPoint(
+                new BigInteger("60FED4BA255A9D31C961EB74C6356D68C049B8923B61FA6CE669622E60F29FB6", 16),
+                new BigInteger("7903FE1008B8BC99A41AE9E95628BC64F2F1B20C2D7E9F5177A3C294D4462299", 16));
+        PublicKey publicKey = KeyFactory.getInstance("EC")
+                .generatePublic(new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+
+        byte[] signature = new BigInteger(
+                "01EFD48B2AACB6A8FD1140DD9CD45E81D69D2C877B56AAF991C34D0EA84EAF3716" +
+                "F7CB1C942D657C41D436C7A1B6E29F65F3E900DBB9AFF4064DC4AB2F843ACDA8", 16).toByteArray();
+        byte[] jose = new byte[64];
+        System.arraycopy(signature, signature.length - 64, jose, 0, 64);
+
+        Algorithm verifier = Algorithm.ECDSA256(new KeyPair(publicKey, null));
+
+        assertTrue(verifier.verify("sample".getBytes(StandardCharsets.UTF_8), jose));
+    }
+
+    @Test
+    void sign_ES256WithRFC6979Key_matchesRFC6979() throws Exception {
+        // Key and SHA-256 signature of the message "sample" from RFC 6979, appendix A.2.5
+        KeyPair keyPair = keyPair("secp256r1",
+                "C9AFA9D845BA75166B5C215767B1D6934E50C3DB36E89B127B8A622B120F6721",
+                "60FED4BA255A9D31C961EB74C6356D68C049B8923B61FA6CE669622E60F29FB6",
+                "7903FE1008B8BC99A41AE9E95628BC64F2F1B20C2D7E9F5177A3C294D4462299");
+
+        assertThat(Algorithm.ECDSA256(keyPair).sign("sample"), is(bytes(
+                "EFD48B2AACB6A8FD1140DD9CD45E81D69D2C877B56AAF991C34D0EA84EAF3716" +
+                "F7CB1C942D657C41D436C7A1B6E29F65F3E900DBB9AFF4064DC4AB2F843ACDA8")));
+    }
+
+    @Test
+    void sign_ES384WithRFC6979Key_matchesRFC6979() throws Exception {
+        // Key and SHA-384 signature of the message "sample" from RFC 6979, appendix A.2.6
+        KeyPair keyPair = keyPair("secp384r1",
+                "6B9D3DAD2E1B8C1C05B19875B6659F4DE23C3B667BF297BA9AA47740787137D896D5724E4C70A825F872C9EA60D2EDF5",
+                "EC3A4E415B4E19A4568618029F427FA5DA9A8BC4AE92E02E06AAE5286B300C64DEF8F0EA9055866064A254515480BC13",
+                "8015D9B72D7D57244EA8EF9AC0C621896708A59367F9DFB9F54CA84B3F1C9DB1288B231C3AE0D4FE7344FD2533264720");
+
+        assertThat(Algorithm.ECDSA384(keyPair).sign("sample"), is(bytes(
+                "94EDBB92A5ECB8AAD4736E56C691916B3F88140666CE9FA73D64C4EA95AD133C81A648152E44ACF96E36DD1E80FABE46" +
+                "99EF4AEB15F178CEA1FE40DB2603138F130E740A19624526203B6351D0A3A94FA329C145786E679E7B82C71A38628AC8")));
+    }
+
+    @Test
+    void sign_ES512WithRFC6979Key_matchesRFC6979() throws Exception {
+        // Key and SHA-512 signature of the message "sample" from RFC 6979, appendix A.2.7
+        KeyPair keyPair = keyPair("secp521r1",
+                "0FAD06DAA62BA3B25D2FB40133DA757205DE67F5BB0018FEE8C86E1B68C7E75CAA896EB32F1F47C70855836A6D16FCC1466F6D8FBEC67DB89EC0C08B0E996B83538",
+                "1894550D0785932E00EAA23B694F213F8C3121F86DC97A04E5A7167DB4E5BCD371123D46E45DB6B5D5370A7F20FB633155D38FFA16D2BD761DCAC474B9A2F5023A4",
+                "0493101C962CD4D2FDDF782285E64584139C2F91B47F87FF82354D6630F746A28A0DB25741B5B34A828008B22ACC23F924FAAFBD4D33F81EA66956DFEAA2BFDFCF5");
+
+        assertThat(Algorithm.ECDSA512(keyPair).sign("sample"), is(bytes(
+                "00C328FAFCBD79DD77850370C46325D987CB525569FB63C5D3BC53950E6D4C5F174E25A1EE9017B5D450606ADD152B534931D7D4E8455CC91F9B15BF05EC36E377FA" +
+                "00617CCE7CF5064806C467F678D3B4080D6F1CC50AF26CA209417308281B68AF282623EAA63E5B5C0723D8B8C37FF0777B1A20F8CCB1DCCC43997F1EE0E44DA4A67A")));
+    }
+
+    private static KeyPair keyPair(String curve, String privateKey, String x, String y) throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec(curve));
+        ECParameterSpec spec = parameters.getParameterSpec(ECParameterSpec.class);
+
+        KeyFactory factory = KeyFactory.getInstance("EC");
+        ECPoint point = new ECPoint(new BigInteger(x, 16), new BigInteger(y, 16));
+        return new KeyPair(
+                factory.generatePublic(new ECPublicKeySpec(point, spec)),
+                factory.generatePrivate(new ECPrivateKeySpec(new BigInteger(privateKey, 16), spec)));
+    }
+
+    private static byte[] bytes(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        return bytes;
+    }
+
+    @Test
+    void ES384() throws Exception {
+        Algorithm algorithm = Algorithm.ECDSA384(generateKeyPair("secp384r1"));
+        byte[] signature = algorithm.sign(DATA);
+
+        assertThat(signature.length, is(96));
+        assertTrue(algorithm.verify(DATA, signature));
+    }
+
+    @Test
+    void ES512() throws Exception {
+        Algorithm algorithm = Algorithm.ECDSA512(generateKeyPair("secp521r1"));
+        byte[] signature = algorithm.sign(DATA);
+
+        assertThat(signature.length, is(132));
+        assertTrue(algorithm.verify(DATA, signature));
+    }
+
+    @Test
+    void signAndParseJWT() throws JWTException {
+        String token = new JWT.Builder(algorithm).withIssuer("issuer").sign();
+
+        JWT jwt = JWT.fromRawJWT(algorithm, token);
+
+        assertThat(jwt.getHeader().getAlgorithm(), is("ES256"));
+        assertThat(jwt.getPayload().getIssuer(), is("issuer"));
+    }
+
+    @Test
+    void sign_withoutPrivateKey_throwsJWTSignException() {
+        Algorithm verifier = Algorithm.ECDSA256(new KeyPair(keyPair.getPublic(), null));
+
+        assertThrows(JWTSignException.class, () -> verifier.sign(DATA));
+    }
+
+    @Test
+    void create_withKeyOfOtherCurve_throwsIllegalArgumentException() throws GeneralSecurityException {
+        KeyPair keyPair = generateKeyPair("secp384r1");
+
+        assertThrows(IllegalArgumentException.class, () -> Algorithm.ECDSA256(keyPair));
+    }
+
+    @Test
+    void create_withKeyOfOtherCurveOfSameSize_throwsIllegalArgumentException() throws GeneralSecurityException {
+        // secp256k1, the curve of Bitcoin, which is not supported by every JDK's key pair generator
+        EllipticCurve curve = new EllipticCurve(
+                new ECFieldFp(new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEFFFFFC2F", 16)),
+                BigInteger.ZERO, BigInteger.valueOf(7));
+        ECPoint generator = new ECPoint(
+                new BigInteger("79BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F81798", 16),
+                new BigInteger("483ADA7726A3C4655DA4FBFC0E1108A8FD17B448A68554199C47D08FFB10D4B8", 16));
+        ECParameterSpec secp256k1 = new ECParameterSpec(curve, generator,
+                new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEBAAEDCE6AF48A03BBFD25E8CD0364141", 16), 1);
+        PublicKey publicKey = KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(generator, secp256k1));
+
+        assertThrows(IllegalArgumentException.class, () -> Algorithm.ECDSA256(new KeyPair(publicKey, null)));
+    }
+
+    @Test
+    void create_withRSAKey_throwsIllegalArgumentException() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        assertThrows(IllegalArgumentException.class, () -> Algorithm.ECDSA256(keyPair));
+    }
+
+    private static KeyPair generateKeyPair(String curve) throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec(curve));
+        return generator.generateKeyPair();
+    }
+
+    @Test
+    void signRangeAndBuffer_equalSign() throws JWTSignException {
+        byte[] data = "xdatax".getBytes(StandardCharsets.UTF_8);
+        byte[] expected = algorithm.sign("data".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(algorithm.sign(data, 1, 4), is(expected));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(6);
+        direct.put(data).flip();
+        direct.position(1).limit(5);
+        assertThat(algorithm.sign(direct), is(expected));
+        assertThat(direct.position(), is(5));
+    }
+}
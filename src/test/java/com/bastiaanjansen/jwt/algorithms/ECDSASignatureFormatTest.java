@@ -0,0 +1,97 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.ECGenParameterSpec;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ECDSASignatureFormatTest {
+
+    @Test
+    void toJOSE_padsShortNumbers() throws SignatureException {
+        byte[] der = { 0x30, 0x07, 0x02, 0x01, 0x05, 0x02, 0x02, 0x00, (byte) 0x80 };
+
+        byte[] jose = ECDSASignatureFormat.toJOSE(der, 4);
+
+        assertThat(jose, is(new byte[] { 0, 0, 0, 5, 0, 0, 0, (byte) 0x80 }));
+    }
+
+    @Test
+    void toDER_addsSignByte() {
+        byte[] jose = { 0, 0, 0, 5, 0, 0, 0, (byte) 0x80 };
+
+        byte[] der = ECDSASignatureFormat.toDER(jose, 4);
+
+        assertThat(der, is(new byte[] { 0x30, 0x07, 0x02, 0x01, 0x05, 0x02, 0x02, 0x00, (byte) 0x80 }));
+    }
+
+    @Test
+    void toDER_withZero() {
+        byte[] der = ECDSASignatureFormat.toDER(new byte[] { 0, 0, 0, 1 }, 2);
+
+        assertThat(der, is(new byte[] { 0x30, 0x06, 0x02, 0x01, 0x00, 0x02, 0x01, 0x01 }));
+    }
+
+    @Test
+    void roundTrip_withJCASignatures() throws Exception {
+        String[][] curves = {
+                { "secp256r1", "SHA256withECDSA", "32" },
+                { "secp384r1", "SHA384withECDSA", "48" },
+                { "secp521r1", "SHA512withECDSA", "66" }
+        };
+
+        for (String[] curve : curves) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec(curve[0]));
+            KeyPair keyPair = generator.generateKeyPair();
+            int numberLength = Integer.parseInt(curve[2]);
+
+            for (int i = 0; i < 20; i++) {
+                Signature signature = Signature.getInstance(curve[1]);
+                signature.initSign(keyPair.getPrivate());
+                signature.update(new byte[] { (byte) i });
+                byte[] der = signature.sign();
+
+                byte[] jose = ECDSASignatureFormat.toJOSE(der, numberLength);
+
+                assertThat(jose.length, is(2 * numberLength));
+                assertThat(ECDSASignatureFormat.toDER(jose, numberLength), is(der));
+            }
+        }
+    }
+
+    @Test
+    void toJOSE_withTrailingBytes_throwsSignatureException() {
+        byte[] der = { 0x30, 0x06, 0x02, 0x01, 0x05, 0x02, 0x01, 0x06, 0x00 };
+
+        assertThrows(SignatureException.class, () -> ECDSASignatureFormat.toJOSE(der, 4));
+    }
+
+    @Test
+    void toJOSE_withTooLongNumber_throwsSignatureException() {
+        byte[] der = { 0x30, 0x08, 0x02, 0x03, 0x01, 0x02, 0x03, 0x02, 0x01, 0x06 };
+
+        assertThrows(SignatureException.class, () -> ECDSASignatureFormat.toJOSE(der, 2));
+    }
+
+    @Test
+    void toJOSE_withWrongTag_throwsSignatureException() {
+        byte[] der = { 0x31, 0x06, 0x02, 0x01, 0x05, 0x02, 0x01, 0x06 };
+
+        assertThrows(SignatureException.class, () -> ECDSASignatureFormat.toJOSE(der, 4));
+    }
+
+    @Test
+    void hasZeroNumber() {
+        assertThat(ECDSASignatureFormat.hasZeroNumber(new byte[] { 0, 0, 0, 1 }, 2), is(true));
+        assertThat(ECDSASignatureFormat.hasZeroNumber(new byte[] { 0, 1, 0, 0 }, 2), is(true));
+        assertThat(ECDSASignatureFormat.hasZeroNumber(new byte[] { 0, 1, 0, 1 }, 2), is(false));
+    }
+}
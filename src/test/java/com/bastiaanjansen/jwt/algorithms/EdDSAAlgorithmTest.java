@@ -0,0 +1,150 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.exceptions.JWTException;
+import com.bastiaanjansen.jwt.exceptions.JWTSignException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdDSAAlgorithmTest {
+
+    private static final byte[] DATA = "data".getBytes(StandardCharsets.UTF_8);
+
+    // Key of RFC 8037, appendix A.1 and A.2
+    private static final String PRIVATE_KEY = "nWGxne_9WmC6hEr0kuwsxERJxWl7MmkZcDusAxyuf2A";
+    private static final String PUBLIC_KEY = "11qYAYKxCrfVS_7TyWQHOg7hcvPapiMlrwIaaPcHURo";
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_15)
+    void sign_matchesRFC8037() throws Exception {
+        Algorithm algorithm = Algorithm.EdDSA(rfc8037KeyPair());
+
+        byte[] signature = algorithm.sign("eyJhbGciOiJFZERTQSJ9.RXhhbXBsZSBvZiBFZDI1NTE5IHNpZ25pbmc");
+
+        assertThat(Base64.getUrlEncoder().withoutPadding().encodeToString(signature),
+                is("hgyY0il_MGCjP0JzlnLWG1PPOt7-09PGcvMg3AIbQR6dWbhijcNR4ki4iylGjg5BhVsPt9g7sVvpAr_MuM0KAg"));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_15)
+    void getName() throws GeneralSecurityException {
+        Algorithm algorithm = Algorithm.EdDSA(generateKeyPair("Ed25519"));
+
+        assertThat(algorithm.getName(), is("EdDSA"));
+        assertThat(algorithm.getDescription(), is("Ed25519"));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_15)
+    void verify() throws Exception {
+        Algorithm algorithm = Algorithm.EdDSA(generateKeyPair("Ed25519"));
+        byte[] signature = algorithm.sign(DATA);
+
+        assertThat(signature.length, is(64));
+        assertTrue(algorithm.verify(DATA, signature));
+        assertFalse(algorithm.verify("other".getBytes(StandardCharsets.UTF_8), signature));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_15)
+    void verifyByteBuffer() throws Exception {
+        Algorithm algorithm = Algorithm.EdDSA(generateKeyPair("Ed25519"));
+        byte[] signature = algorithm.sign(DATA);
+        ByteBuffer buffer = ByteBuffer.wrap(DATA);
+
+        assertTrue(algorithm.verify(buffer, signature));
+        assertThat(buffer.hasRemaining(), is(false));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_15)
+    void verify_withWrongLength_returnsFalse() throws GeneralSecurityException, JWTValidationException {
+        Algorithm algorithm = Algorithm.EdDSA(generateKeyPair("Ed25519"));
+
+        assertFalse(algorithm.verify(DATA, new byte[63]));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_15)
+    void signAndParseJWT() throws Exception {
+        Algorithm algorithm = Algorithm.EdDSA(generateKeyPair("Ed25519"));
+        String token = new JWT.Builder(algorithm).withIssuer("issuer").sign();
+
+        JWT jwt = JWT.fromRawJWT(algorithm, token);
+
+        assertThat(jwt.getHeader().getAlgorithm(), is("EdDSA"));
+        assertThat(jwt.getPayload().getIssuer(), is("issuer"));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_15)
+    void sign_withoutPrivateKey_throwsJWTSignException() throws GeneralSecurityException {
+        KeyPair keyPair = generateKeyPair("Ed25519");
+        Algorithm verifier = Algorithm.EdDSA(new KeyPair(keyPair.getPublic(), null));
+
+        assertThrows(JWTSignException.class, () -> verifier.sign(DATA));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_15)
+    void create_withEd448Key_throwsIllegalArgumentException() throws GeneralSecurityException {
+        KeyPair keyPair = generateKeyPair("Ed448");
+
+        assertThrows(IllegalArgumentException.class, () -> Algorithm.EdDSA(keyPair));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_15)
+    void create_withRSAKey_throwsIllegalArgumentException() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        assertThrows(IllegalArgumentException.class, () -> Algorithm.EdDSA(keyPair));
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_14)
+    void create_beforeJava15_throwsUnsupportedOperationException() {
+        assertThrows(UnsupportedOperationException.class, () -> Algorithm.EdDSA(new KeyPair(null, null)));
+    }
+
+    private static KeyPair rfc8037KeyPair() throws GeneralSecurityException {
+        KeyFactory factory = KeyFactory.getInstance("Ed25519");
+        byte[] publicKey = concat(new byte[] { 0x30, 0x2A, 0x30, 0x05, 0x06, 0x03, 0x2B, 0x65, 0x70, 0x03, 0x21, 0x00 },
+                Base64.getUrlDecoder().decode(PUBLIC_KEY));
+        byte[] privateKey = concat(new byte[] { 0x30, 0x2E, 0x02, 0x01, 0x00, 0x30, 0x05, 0x06, 0x03, 0x2B, 0x65, 0x70, 0x04, 0x22, 0x04, 0x20 },
+                Base64.getUrlDecoder().decode(PRIVATE_KEY));
+
+        return new KeyPair(
+                factory.generatePublic(new X509EncodedKeySpec(publicKey)),
+                factory.generatePrivate(new PKCS8EncodedKeySpec(privateKey)));
+    }
+
+    private static byte[] concat(byte[] prefix, byte[] key) {
+        byte[] bytes = new byte[prefix.length + key.length];
+        System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+        System.arraycopy(key, 0, bytes, prefix.length, key.length);
+        return bytes;
+    }
+
+    private static KeyPair generateKeyPair(String curve) throws GeneralSecurityException {
+        return KeyPairGenerator.getInstance(curve).generateKeyPair();
+    }
+}
@@ -0,0 +1,104 @@
+package com.bastiaanjansen.jwt.algorithms;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnginePoolTest {
+
+    private AtomicInteger created;
+    private EnginePool<Object> pool;
+
+    @BeforeEach
+    void setUp() {
+        this.created = new AtomicInteger();
+        this.pool = new EnginePool<>(() -> {
+            created.incrementAndGet();
+            return new Object();
+        }, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.created = null;
+        this.pool = null;
+    }
+
+    @Test
+    void borrowFromEmptyPool_createsEngine() throws GeneralSecurityException {
+        assertThat(pool.borrow(), is(notNullValue()));
+        assertThat(created.get(), is(1));
+    }
+
+    @Test
+    void borrowAfterRelease_reusesEngine() throws GeneralSecurityException {
+        Object engine = pool.borrow();
+        pool.release(engine);
+
+        assertThat(pool.borrow(), is(sameInstance(engine)));
+        assertThat(created.get(), is(1));
+    }
+
+    @Test
+    void borrowTwice_returnsDifferentEngines() throws GeneralSecurityException {
+        Object first = pool.borrow();
+        Object second = pool.borrow();
+
+        assertThat(first, is(not(sameInstance(second))));
+    }
+
+    @Test
+    void releaseToFullPool_dropsEngine() throws GeneralSecurityException {
+        List<Object> engines = new ArrayList<>();
+        for (int i = 0; i < pool.size() + 1; i++)
+            engines.add(pool.borrow());
+        engines.forEach(pool::release);
+
+        for (int i = 0; i < pool.size(); i++)
+            pool.borrow();
+        pool.borrow();
+
+        assertThat(created.get(), is(pool.size() + 2));
+    }
+
+    @Test
+    void sizeIsNotPowerOfTwo_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new EnginePool<>(Object::new, 3));
+    }
+
+    @Test
+    void concurrentBorrow_neverSharesEngine() throws InterruptedException {
+        ConcurrentMap<Object, Boolean> inUse = new ConcurrentHashMap<>();
+        AtomicInteger shared = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    try {
+                        Object engine = pool.borrow();
+                        if (inUse.putIfAbsent(engine, true) != null) shared.incrementAndGet();
+                        inUse.remove(engine);
+                        pool.release(engine);
+                    } catch (GeneralSecurityException e) {
+                        fail(e);
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertThat(shared.get(), is(0));
+    }
+}
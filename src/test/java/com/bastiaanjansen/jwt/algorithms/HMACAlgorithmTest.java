@@ -6,6 +6,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Base64;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -74,4 +75,31 @@ class HMACAlgorithmTest {
 
         assertThat(isValid, is(false));
     }
+
+    @Test
+    void signTwice_reusedEngineReturnsSameSignature() throws JWTSignException {
+        byte[] first = algorithm.sign("data".getBytes());
+        byte[] second = algorithm.sign("data".getBytes());
+
+        assertThat(second, is(first));
+    }
+
+    @Test
+    void prefixedSigner_signsPrefixAndData() throws JWTSignException {
+        PrefixedSigner signer = algorithm.prefixedSigner("da".getBytes());
+        byte[] data = "xxta".getBytes();
+
+        assertThat(signer.sign(data, 2, 2), is(algorithm.sign("data".getBytes())));
+        assertThat(signer.sign(data, 2, 2), is(algorithm.sign("data".getBytes())));
+        assertThat(signer.sign(data, 0, 0), is(algorithm.sign("da".getBytes())));
+    }
+
+    @Test
+    void signRangeAndBuffer_equalSign() throws JWTSignException {
+        byte[] data = "xdatax".getBytes();
+        byte[] expected = algorithm.sign("data".getBytes());
+
+        assertThat(algorithm.sign(data, 1, 4), is(expected));
+        assertThat(algorithm.sign(ByteBuffer.wrap(data, 1, 4)), is(expected));
+    }
 }
\ No newline at end of file
@@ -96,4 +96,20 @@ class RSAAlgorithmTest {
 
         assertThat(isValid, is(false));
     }
+
+    @Test
+    void verifyTwice_reusedEngineReturnsSameResult() throws JWTSignException, JWTValidationException {
+        byte[] signed = algorithm.sign("data");
+        algorithm.verify("other".getBytes(StandardCharsets.UTF_8), signed);
+
+        assertThat(algorithm.verify("data".getBytes(StandardCharsets.UTF_8), signed), is(true));
+    }
+
+    @Test
+    void prefixedSigner_signsPrefixAndData() throws JWTSignException {
+        PrefixedSigner signer = algorithm.prefixedSigner("da".getBytes(StandardCharsets.UTF_8));
+        byte[] data = "xxta".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(signer.sign(data, 2, 2), is(algorithm.sign("data")));
+    }
 }
\ No newline at end of file
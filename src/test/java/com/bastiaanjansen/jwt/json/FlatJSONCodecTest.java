@@ -0,0 +1,202 @@
+package com.bastiaanjansen.jwt.json;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlatJSONCodecTest {
+
+    private FlatJSONCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new FlatJSONCodec();
+    }
+
+    @AfterEach
+    void tearDown() {
+        codec = null;
+    }
+
+    private Object decode(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return codec.decode(bytes, 0, bytes.length);
+    }
+
+    private String encode(Map<String, ?> claims) {
+        return new String(codec.encode(claims), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void decodeString() {
+        assertThat(decode("\"subject\""), is("subject"));
+    }
+
+    @Test
+    void decodeStringWithEscapes() {
+        assertThat(decode("\"a\\\"b\\\\c\\/d\\n\\u00e9\\ud83d\\ude00\""), is("a\"b\\c/d\n\u00e9\ud83d\ude00"));
+    }
+
+    @Test
+    void decodeNonASCIIString() {
+        assertThat(decode("\"na\u00efve \u20ac\""), is("na\u00efve \u20ac"));
+    }
+
+    @Test
+    void decodeSmallInteger_returnsLong() {
+        assertThat(decode("-12"), is(-12L));
+    }
+
+    @Test
+    void decodeLongBounds() {
+        assertThat(decode("9223372036854775807"), is(Long.MAX_VALUE));
+        assertThat(decode("-9223372036854775808"), is(Long.MIN_VALUE));
+    }
+
+    @Test
+    void decodeIntegerLargerThanLong_returnsBigInteger() {
+        assertThat(decode("9223372036854775808"), is(new BigInteger("9223372036854775808")));
+    }
+
+    @Test
+    void decodeFraction_returnsDouble() {
+        assertThat(decode("1.5e3"), is(1500.0));
+    }
+
+    @Test
+    void decodeLiterals() {
+        assertThat(decode("true"), is(true));
+        assertThat(decode("false"), is(false));
+        assertThat(decode("null"), is(nullValue()));
+    }
+
+    @Test
+    void decodeObject_keepsMemberOrder() {
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("sub", "subject");
+        expected.put("aud", Arrays.asList("aud1", "aud2"));
+        expected.put("address", Collections.singletonMap("city", "Amsterdam"));
+
+        Object decoded = decode("{ \"sub\": \"subject\", \"aud\": [\"aud1\", \"aud2\"], \"address\": {\"city\": \"Amsterdam\"} }");
+
+        assertThat(decoded, is(expected));
+        assertThat(((Map<?, ?>) decoded).keySet().iterator().next(), is("sub"));
+    }
+
+    @Test
+    void decodeRange() {
+        byte[] bytes = "xx[1,2]xx".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(codec.decode(bytes, 2, 5), is(Arrays.asList(1L, 2L)));
+    }
+
+    @Test
+    void decodeLong() {
+        byte[] bytes = "1614676926172".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(codec.decodeLong(bytes, 0, bytes.length), is(1614676926172L));
+    }
+
+    @Test
+    void decodeLongWithFraction() {
+        byte[] bytes = "1614676926.5".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(codec.decodeLong(bytes, 0, bytes.length), is(1614676926L));
+    }
+
+    @Test
+    void decodeLongOfString_throwsIllegalArgumentException() {
+        byte[] bytes = "\"1614676926172\"".getBytes(StandardCharsets.US_ASCII);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeLong(bytes, 0, bytes.length));
+    }
+
+    @Test
+    void decodeDuplicateKeys_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> decode("{\"sub\":\"a\",\"sub\":null}"));
+    }
+
+    @Test
+    void decodeLeadingZero_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> decode("012"));
+    }
+
+    @Test
+    void decodeTrailingData_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> decode("{} {}"));
+    }
+
+    @Test
+    void decodeUnterminatedString_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> decode("\"subject"));
+    }
+
+    @Test
+    void decodeTrailingComma_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> decode("[1,]"));
+    }
+
+    @Test
+    void encodeClaims() {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", "subject");
+        claims.put("exp", 1614676926172L);
+        claims.put("admin", true);
+        claims.put("aud", new String[] {"aud1", "aud2"});
+        claims.put("roles", Arrays.asList("read", "write"));
+        claims.put("address", Collections.singletonMap("city", "Amsterdam"));
+        claims.put("scores", new int[] {1, -2});
+        claims.put("ratio", 0.5);
+
+        String expected = "{\"sub\":\"subject\",\"exp\":1614676926172,\"admin\":true,\"aud\":[\"aud1\",\"aud2\"]," +
+                "\"roles\":[\"read\",\"write\"],\"address\":{\"city\":\"Amsterdam\"},\"scores\":[1,-2],\"ratio\":0.5}";
+
+        assertThat(encode(claims), is(expected));
+    }
+
+    @Test
+    void encodeEscapedString() {
+        Map<String, Object> claims = Collections.singletonMap("name", "a\"b\\c\n\u0001\u00e9\ud83d\ude00\ud83d");
+
+        assertThat(encode(claims), is("{\"name\":\"a\\\"b\\\\c\\n\\u0001\u00e9\ud83d\ude00\\ud83d\"}"));
+    }
+
+    @Test
+    void encodeLongBounds() {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("min", Long.MIN_VALUE);
+        claims.put("max", Long.MAX_VALUE);
+        claims.put("zero", 0);
+
+        assertThat(encode(claims), is("{\"min\":-9223372036854775808,\"max\":9223372036854775807,\"zero\":0}"));
+    }
+
+    @Test
+    void encodeNonFiniteNumber_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> encode(Collections.singletonMap("ratio", Double.NaN)));
+    }
+
+    @Test
+    void encodeThenDecode_returnsSameClaims() {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", "subject \u20ac");
+        claims.put("iat", 1614676926172L);
+        claims.put("aud", Arrays.asList("aud1", "aud2"));
+
+        byte[] json = codec.encode(claims);
+
+        assertThat(codec.decode(json, 0, json.length), is(claims));
+    }
+}
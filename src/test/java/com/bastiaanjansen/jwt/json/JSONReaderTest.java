@@ -0,0 +1,96 @@
+package com.bastiaanjansen.jwt.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JSONReaderTest {
+
+    private static final String[] NAMES = { "sub", "exp", "roles" };
+
+    private JSONReader reader(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new JSONReader(bytes, 0, bytes.length);
+    }
+
+    @Test
+    void nextMember_matchesKnownNames() {
+        JSONReader reader = reader("{ \"exp\": 1700000000, \"other\": {\"a\": [1, 2]}, \"sub\": \"alice\" }");
+        reader.beginObject();
+
+        assertThat(reader.hasNextMember(), is(true));
+        assertThat(reader.nextMember(NAMES), is(1));
+        assertThat(reader.readLong(), is(1700000000L));
+
+        assertThat(reader.hasNextMember(), is(true));
+        assertThat(reader.nextMember(NAMES), is(-1));
+        reader.skipValue();
+
+        assertThat(reader.hasNextMember(), is(true));
+        assertThat(reader.nextMember(NAMES), is(0));
+        assertThat(reader.readString(), is("alice"));
+
+        assertThat(reader.hasNextMember(), is(false));
+        reader.expectEnd();
+    }
+
+    @Test
+    void nextMember_withEscapedKey() {
+        JSONReader reader = reader("{\"s\\u0075b\":\"alice\"}");
+        reader.beginObject();
+        reader.hasNextMember();
+
+        assertThat(reader.nextMember(NAMES), is(0));
+    }
+
+    @Test
+    void readStringList_withSingleString() {
+        JSONReader reader = reader("\"admin\"");
+
+        assertThat(reader.readStringList(), is(Collections.singletonList("admin")));
+    }
+
+    @Test
+    void readStringList_withArray() {
+        JSONReader reader = reader("[\"admin\", \"user\"]");
+
+        assertThat(reader.readStringList(), is(Arrays.asList("admin", "user")));
+    }
+
+    @Test
+    void nextIsNull() {
+        JSONReader reader = reader("null");
+
+        assertThat(reader.nextIsNull(), is(true));
+        reader.expectEnd();
+    }
+
+    @Test
+    void readLong_withString_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> reader("\"1\"").readLong());
+    }
+
+    @Test
+    void readLong_withBigInteger_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> reader("92233720368547758080").readLong());
+    }
+
+    @Test
+    void readInt_outOfRange_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> reader("4294967296").readInt());
+    }
+
+    @Test
+    void expectEnd_withTrailingData_throwsIllegalArgumentException() {
+        JSONReader reader = reader("true false");
+        reader.readBoolean();
+
+        assertThrows(IllegalArgumentException.class, reader::expectEnd);
+    }
+}
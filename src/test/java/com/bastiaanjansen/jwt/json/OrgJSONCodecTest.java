@@ -0,0 +1,69 @@
+package com.bastiaanjansen.jwt.json;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgJSONCodecTest {
+
+    private OrgJSONCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new OrgJSONCodec();
+    }
+
+    @AfterEach
+    void tearDown() {
+        codec = null;
+    }
+
+    private Object decode(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return codec.decode(bytes, 0, bytes.length);
+    }
+
+    @Test
+    void decodeSmallInteger_returnsInteger() {
+        assertThat(decode("-12"), is(-12));
+    }
+
+    @Test
+    void decodeArray_returnsList() {
+        assertThat(decode("[\"aud1\",\"aud2\"]"), is(Arrays.asList("aud1", "aud2")));
+    }
+
+    @Test
+    void decodeNull() {
+        assertThat(decode("null"), is(nullValue()));
+    }
+
+    @Test
+    void decodeLong() {
+        byte[] bytes = "1614676926172".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(codec.decodeLong(bytes, 0, bytes.length), is(1614676926172L));
+    }
+
+    @Test
+    void decodeTrailingData_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> decode("{} {}"));
+    }
+
+    @Test
+    void encode() {
+        Map<String, Object> claims = Collections.singletonMap("aud", new String[] {"aud1", "aud2"});
+
+        assertThat(new String(codec.encode(claims), StandardCharsets.UTF_8), is("{\"aud\":[\"aud1\",\"aud2\"]}"));
+    }
+}
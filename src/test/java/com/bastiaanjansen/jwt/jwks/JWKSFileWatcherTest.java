@@ -0,0 +1,113 @@
+package com.bastiaanjansen.jwt.jwks;
+
+import com.bastiaanjansen.jwt.Header;
+import com.bastiaanjansen.jwt.RotatingKeyResolver;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+
+import static com.bastiaanjansen.jwt.jwks.JWKSTest.jwks;
+import static com.bastiaanjansen.jwt.jwks.JWKSTest.rsa;
+import static com.bastiaanjansen.jwt.jwks.JWKSTest.rsaKeyPair;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JWKSFileWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private KeyPair first;
+    private KeyPair second;
+    private RotatingKeyResolver resolver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = directory.resolve("jwks.json");
+        first = rsaKeyPair();
+        second = rsaKeyPair();
+        resolver = new RotatingKeyResolver.Builder().build();
+    }
+
+    @Test
+    void watch_loadsKeys() throws IOException {
+        Files.write(file, jwks(rsa("first", first, "")));
+
+        try (JWKSFileWatcher ignored = JWKSFileWatcher.watch(file, resolver)) {
+            assertThat(resolver.resolve(header("first")), is(notNullValue()));
+        }
+    }
+
+    @Test
+    void watch_reloadsChangedFile() throws Exception {
+        Files.write(file, jwks(rsa("first", first, "")));
+
+        try (JWKSFileWatcher ignored = JWKSFileWatcher.watch(file, resolver)) {
+            Files.write(file, jwks(rsa("second", second, "")));
+
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (resolver.resolve(header("second")) == null && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+
+            assertThat(resolver.resolve(header("second")), is(notNullValue()));
+            assertThat(resolver.getSigningKey().getKeyId(), is("second"));
+
+            // The removed key is retiring, not removed
+            assertThat(resolver.getKeys().get(0).getKeyId(), is("first"));
+            assertThat(resolver.getKeys().get(0).isRetiring(), is(true));
+        }
+    }
+
+    @Test
+    void reload_keepsUnchangedAlgorithms() throws IOException {
+        Files.write(file, jwks(rsa("first", first, "")));
+
+        try (JWKSFileWatcher watcher = JWKSFileWatcher.watch(file, resolver)) {
+            Algorithm loaded = resolver.resolve(header("first"));
+
+            Files.write(file, jwks(rsa("first", first, ""), rsa("second", second, "")));
+            watcher.reload();
+
+            assertThat(resolver.resolve(header("first")), is(sameInstance(loaded)));
+            assertThat(resolver.resolve(header("second")), is(notNullValue()));
+        }
+    }
+
+    @Test
+    void reload_withInvalidFile_keepsKeys() throws IOException {
+        Files.write(file, jwks(rsa("first", first, "")));
+
+        try (JWKSFileWatcher watcher = JWKSFileWatcher.watch(file, resolver)) {
+            Files.write(file, "{\"keys\":[".getBytes(StandardCharsets.UTF_8));
+
+            assertThrows(IllegalArgumentException.class, watcher::reload);
+            assertThat(resolver.resolve(header("first")), is(notNullValue()));
+            assertThat(resolver.getKeys().get(0).isRetiring(), is(false));
+        }
+    }
+
+    @Test
+    void watch_withMissingFile_throwsIOException() {
+        assertThrows(IOException.class, () -> JWKSFileWatcher.watch(file, resolver));
+        assertThat(resolver.getSigningKey(), is(nullValue()));
+    }
+
+    private static Header header(String keyId) {
+        Header header = new Header();
+        header.setAlgorithm("RS256");
+        header.setKeyId(keyId);
+        return header;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bastiaanjansen.jwt.jwks;
+
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JWKSTest {
+
+    private static final byte[] DATA = "data".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void parse_RSAKey() throws Exception {
+        KeyPair keyPair = rsaKeyPair();
+
+        Map<String, Algorithm> algorithms = JWKS.parse(jwks(rsa("rsa-1", keyPair, "\"alg\":\"RS384\",")));
+
+        Algorithm algorithm = algorithms.get("rsa-1");
+        assertThat(algorithm.getName(), is("RS384"));
+        assertTrue(algorithm.verify(DATA, Algorithm.RSA384(keyPair).sign(DATA)));
+    }
+
+    @Test
+    void parse_ECKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp384r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+
+        Map<String, Algorithm> algorithms = JWKS.parse(jwks("{\"kty\":\"EC\",\"kid\":\"ec-1\",\"crv\":\"P-384\",\"x\":\""
+                + encode(publicKey.getW().getAffineX()) + "\",\"y\":\"" + encode(publicKey.getW().getAffineY()) + "\"}"));
+
+        Algorithm algorithm = algorithms.get("ec-1");
+        assertThat(algorithm.getName(), is("ES384"));
+        assertTrue(algorithm.verify(DATA, Algorithm.ECDSA384(keyPair).sign(DATA)));
+    }
+
+    @Test
+    void parse_keepsOrderAndSkipsUnusableKeys() throws Exception {
+        KeyPair keyPair = rsaKeyPair();
+
+        Map<String, Algorithm> algorithms = JWKS.parse(jwks(
+                rsa("second", keyPair, ""),
+                rsa("encryption", keyPair, "\"use\":\"enc\","),
+                "{\"kty\":\"RSA\",\"n\":\"AQAB\",\"e\":\"AQAB\"}",
+                "{\"kty\":\"oct\",\"kid\":\"secret\",\"k\":\"c2VjcmV0\"}",
+                rsa("first", keyPair, "\"use\":\"sig\",")));
+
+        assertThat(algorithms.keySet(), is(new java.util.LinkedHashSet<>(Arrays.asList("second", "first"))));
+        assertThat(algorithms.get("second").getName(), is("RS256"));
+    }
+
+    @Test
+    void parse_withInvalidKey_throwsIllegalArgumentException() {
+        byte[] json = jwks("{\"kty\":\"EC\",\"kid\":\"ec-1\",\"crv\":\"P-256\",\"x\":\"AQAB\"}");
+
+        assertThrows(IllegalArgumentException.class, () -> JWKS.parse(json));
+    }
+
+    @Test
+    void parse_withoutKeys_throwsIllegalArgumentException() {
+        byte[] json = "{\"kty\":\"RSA\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> JWKS.parse(json));
+    }
+
+    static KeyPair rsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    static String rsa(String keyId, KeyPair keyPair, String extra) {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return "{\"kty\":\"RSA\"," + extra + "\"kid\":\"" + keyId + "\",\"n\":\"" + encode(publicKey.getModulus())
+                + "\",\"e\":\"" + encode(publicKey.getPublicExponent()) + "\"}";
+    }
+
+    static byte[] jwks(String... keys) {
+        return ("{\"keys\":[" + String.join(",", keys) + "]}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String encode(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0) bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,100 @@
+package com.bastiaanjansen.jwt.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogram_returnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getPercentile(99), is(0L));
+        assertThat(histogram.getMean(), is(0.0));
+    }
+
+    @Test
+    void smallValues_areExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 0; i < 8; i++) histogram.record(i);
+
+        assertThat(histogram.getPercentile(50), is(3L));
+        assertThat(histogram.getPercentile(100), is(7L));
+        assertThat(histogram.getMax(), is(7L));
+        assertThat(histogram.getMean(), is(3.5));
+    }
+
+    @Test
+    void buckets_coverEveryValueOnce() {
+        long[] values = { 8, 9, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+
+        for (long value: values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+
+            assertTrue(LatencyHistogram.highestValueOf(bucket) >= value);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueOf(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    void percentile_isWithinAnEighthOfTheValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) histogram.record(i * 100);
+
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+
+        assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 9 / 8, "p50 " + p50);
+        assertTrue(p99 >= 9_900_000 && p99 <= 10_000_000, "p99 " + p99);
+        assertThat(histogram.getPercentile(100), is(10_000_000L));
+    }
+
+    @Test
+    void negativeDuration_isRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertThat(histogram.getCount(), is(1L));
+        assertThat(histogram.getPercentile(100), is(0L));
+    }
+
+    @Test
+    void invalidPercentile_throwsIllegalArgumentException() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(Double.NaN));
+    }
+
+    @Test
+    void concurrentRecords_areAllCounted() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (long i = 1; i <= 10_000; i++) histogram.record(i);
+                }));
+            }
+            for (Future<?> future: futures) future.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(histogram.getCount(), is(40_000L));
+        assertThat(histogram.getTotal(), is(4 * 10_000L * 10_001 / 2));
+        assertThat(histogram.getMax(), is(10_000L));
+    }
+}
@@ -0,0 +1,127 @@
+package com.bastiaanjansen.jwt.metrics;
+
+import com.bastiaanjansen.jwt.DefaultJWTValidator;
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.JWTTemplate;
+import com.bastiaanjansen.jwt.JWTValidator;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.FailureReason;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import com.bastiaanjansen.jwt.exceptions.JWTException;
+import com.bastiaanjansen.jwt.exceptions.JWTExpiredException;
+import com.bastiaanjansen.jwt.exceptions.JWTValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsListenerTest {
+
+    private final Algorithm algorithm = Algorithm.HMAC256("secret");
+    private MetricsListener metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricsListener();
+        JWTMetrics.setListener(metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JWTMetrics.setListener(JWTListener.NONE);
+    }
+
+    @Test
+    void sign_recordsSignAndAlgorithmSign() throws JWTException {
+        new JWT.Builder(algorithm).withIssuer("issuer").sign();
+
+        assertThat(metrics.getCount(Operation.SIGN, "HS256"), is(1L));
+        assertThat(metrics.getCount(Operation.ALGORITHM_SIGN, "HS256"), is(1L));
+        assertThat(metrics.getLatency(Operation.SIGN).getCount(), is(1L));
+    }
+
+    @Test
+    void templateSign_recordsSign() throws JWTException {
+        JWTTemplate template = new JWTTemplate.Builder(algorithm).withIssuer("issuer").build();
+        template.sign();
+        template.sign();
+
+        assertThat(metrics.getCount(Operation.SIGN, "HS256"), is(2L));
+        assertThat(metrics.getCount(Operation.ALGORITHM_SIGN, "HS256"), is(2L));
+    }
+
+    @Test
+    void parseInvalidSignature_recordsFailure() throws JWTException {
+        String token = new JWT.Builder(Algorithm.HMAC256("other")).withIssuer("issuer").sign();
+
+        assertThrows(JWTValidationException.class, () -> JWT.fromVerifiedRawJWT(algorithm, token));
+
+        assertThat(metrics.getFailureCount(Operation.PARSE, FailureReason.INVALID_SIGNATURE), is(1L));
+        assertThat(metrics.getFailureCount(Operation.ALGORITHM_VERIFY, FailureReason.INVALID_SIGNATURE), is(1L));
+    }
+
+    @Test
+    void parseMalformedToken_recordsDecodeError() {
+        assertThrows(JWTDecodeException.class, () -> JWT.fromRawJWT(algorithm, "not a token"));
+
+        assertThat(metrics.getFailureCount(Operation.PARSE, FailureReason.DECODE_ERROR), is(1L));
+        assertThat(metrics.getCount(Operation.PARSE, "HS256"), is(1L));
+    }
+
+    @Test
+    void validate_recordsEveryStage() throws JWTException {
+        String token = new JWT.Builder(algorithm).withIssuer("issuer").sign();
+        JWTValidator validator = new DefaultJWTValidator.Builder().withIssuer("issuer").build();
+
+        JWT.fromRawJWT(algorithm, token).validate(validator);
+
+        assertThat(metrics.getCount(Operation.PARSE, "HS256"), is(1L));
+        assertThat(metrics.getCount(Operation.VALIDATE, "HS256"), is(1L));
+        assertThat(metrics.getCount(Operation.VALIDATE_SIGNATURE, "HS256"), is(1L));
+        assertThat(metrics.getCount(Operation.VALIDATE_HEADER, "HS256"), is(1L));
+        assertThat(metrics.getCount(Operation.VALIDATE_TIME, "HS256"), is(1L));
+        assertThat(metrics.getCount(Operation.VALIDATE_CLAIMS, "HS256"), is(1L));
+        assertThat(metrics.getCount(Operation.VALIDATE_REVOCATION, "HS256"), is(0L));
+    }
+
+    @Test
+    void validateExpired_recordsFailingStage() throws JWTException {
+        JWT jwt = new JWT.Builder(algorithm).withExpirationTime(new Date(System.currentTimeMillis() - 60_000)).build();
+
+        assertThrows(JWTExpiredException.class, jwt::validate);
+
+        assertThat(metrics.getFailureCount(Operation.VALIDATE, FailureReason.EXPIRED), is(1L));
+        assertThat(metrics.getFailureCount(Operation.VALIDATE_TIME, FailureReason.EXPIRED), is(1L));
+        assertThat(metrics.getCount(Operation.VALIDATE_CLAIMS, "HS256"), is(0L));
+    }
+
+    @Test
+    void validateClaimMismatch_recordsReason() throws JWTException {
+        JWT jwt = new JWT.Builder(algorithm).withIssuer("someone else").build();
+        JWTValidator validator = new DefaultJWTValidator.Builder().withIssuer("issuer").build();
+
+        assertThrows(JWTValidationException.class, () -> jwt.validate(validator));
+
+        assertThat(metrics.getFailureCount(Operation.VALIDATE_CLAIMS, FailureReason.CLAIM_MISMATCH), is(1L));
+        assertThat(metrics.getCounts(Operation.VALIDATE).get("HS256"), is(1L));
+    }
+
+    @Test
+    void noListener_recordsNothing() throws JWTException {
+        JWTMetrics.setListener(JWTListener.NONE);
+
+        new JWT.Builder(algorithm).withIssuer("issuer").sign();
+
+        assertThat(metrics.getCount(Operation.SIGN, "HS256"), is(0L));
+    }
+
+    @Test
+    void setNullListener_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> JWTMetrics.setListener(null));
+    }
+}
@@ -0,0 +1,218 @@
+package com.bastiaanjansen.jwt.schema;
+
+import com.bastiaanjansen.jwt.JWT;
+import com.bastiaanjansen.jwt.Payload;
+import com.bastiaanjansen.jwt.algorithms.Algorithm;
+import com.bastiaanjansen.jwt.exceptions.JWTCreationException;
+import com.bastiaanjansen.jwt.exceptions.JWTDecodeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ClaimsSchemaProcessorTest {
+
+    private static final ClaimsCodec<SessionClaims> CODEC = SessionClaimsCodec.INSTANCE;
+
+    private static SessionClaims decode(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return CODEC.decode(bytes, 0, bytes.length);
+    }
+
+    private static SessionClaims claims() {
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("city", "Amsterdam");
+
+        String json = "{\"sub\":\"subject\",\"tenant\":42,\"roles\":[\"admin\",\"user\"],\"exp\":1614676926172," +
+                "\"admin\":true,\"score\":0.5,\"scopes\":[\"read\"],\"address\":{\"city\":\"Amsterdam\"}}";
+        return decode(json);
+    }
+
+    @Test
+    void decode_readsAllClaims() {
+        SessionClaims claims = claims();
+
+        assertThat(claims.subject(), is("subject"));
+        assertThat(claims.tenant(), is(42L));
+        assertThat(claims.roles(), is(Arrays.asList("admin", "user")));
+        assertThat(claims.expirationTime(), is(new Date(1614676926172L)));
+        assertThat(claims.admin(), is(true));
+        assertThat(claims.score(), is(0.5));
+        assertThat(claims.scopes(), is(new String[] {"read"}));
+        assertThat(claims.address(), is(Collections.singletonMap("city", "Amsterdam")));
+    }
+
+    @Test
+    void encodeThenDecode_returnsEqualClaims() {
+        SessionClaims claims = claims();
+
+        byte[] json = CODEC.encode(claims);
+
+        assertThat(CODEC.decode(json, 0, json.length), is(claims));
+        assertThat(CODEC.decode(json, 0, json.length).hashCode(), is(claims.hashCode()));
+    }
+
+    @Test
+    void decodeWithUnknownMembers_skipsThem() {
+        SessionClaims claims = decode("{\"iss\":\"issuer\",\"nested\":{\"a\":[1,{\"b\":\"c\\\"\"}]},\"sub\":\"subject\",\"n\":-1.5e3}");
+
+        assertThat(claims.subject(), is("subject"));
+        assertThat(claims.tenant(), is(0L));
+    }
+
+    @Test
+    void decodeWithEscapedKey_matchesClaim() {
+        assertThat(decode("{\"s\\u0075b\":\"subject\"}").subject(), is("subject"));
+    }
+
+    @Test
+    void decodeWithNullAndAbsentClaims_returnsDefaults() {
+        SessionClaims claims = decode("{\"sub\":null,\"tenant\":null}");
+
+        assertThat(claims.subject(), is(nullValue()));
+        assertThat(claims.tenant(), is(0L));
+        assertThat(claims.roles(), is(nullValue()));
+        assertThat(claims.admin(), is(false));
+    }
+
+    @Test
+    void decodeWithSingleRole_returnsList() {
+        assertThat(decode("{\"roles\":\"admin\"}").roles(), is(Collections.singletonList("admin")));
+    }
+
+    @Test
+    void encodeWithNullClaims_leavesThemOut() {
+        byte[] json = CODEC.encode(decode("{\"tenant\":7}"));
+
+        assertThat(new String(json, StandardCharsets.UTF_8), is("{\"tenant\":7,\"admin\":false}"));
+    }
+
+    @Test
+    void decodeWithDuplicateClaim_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> decode("{\"sub\":\"a\",\"sub\":\"b\"}"));
+    }
+
+    @Test
+    void decodeWithWrongType_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> decode("{\"tenant\":\"42\"}"));
+        assertThrows(IllegalArgumentException.class, () -> decode("{\"sub\":\"subject\"} x"));
+    }
+
+    @Test
+    void signAndParseWithTypedClaims() throws JWTCreationException, JWTDecodeException {
+        Algorithm algorithm = Algorithm.HMAC256("secret");
+        SessionClaims claims = claims();
+
+        String token = new JWT.Builder(algorithm).withPayload(Payload.of(claims, CODEC)).sign();
+        JWT jwt = JWT.fromRawJWT(algorithm, token);
+
+        assertThat(jwt.getPayload().read(CODEC), is(claims));
+        assertThat(jwt.getPayload().getSubject(), is("subject"));
+        assertThat(jwt.getPayload().getExpirationTime(), is(new Date(1614676926172L)));
+    }
+
+    @Test
+    void readFromBuiltPayload() throws JWTCreationException {
+        JWT jwt = new JWT.Builder(Algorithm.HMAC256("secret"))
+                .withSubject("subject")
+                .withExpirationTime(1614676926172L)
+                .withClaim("tenant", 42)
+                .build();
+
+        SessionClaims claims = jwt.getPayload().read(CODEC);
+
+        assertThat(claims.subject(), is("subject"));
+        assertThat(claims.tenant(), is(42L));
+        assertThat(claims.expirationTime(), is(new Date(1614676926172L)));
+    }
+
+    @Test
+    void processRecord(@TempDir Path directory) throws Exception {
+        assumeTrue(Integer.parseInt(System.getProperty("java.specification.version").replaceFirst("^1\\.", "")) >= 16);
+
+        String source = "package records;\n" +
+                "import com.bastiaanjansen.jwt.schema.*;\n" +
+                "@ClaimsSchema public record Session(@Claim(\"sub\") String subject, int tenant, java.util.List<String> roles) {}\n";
+        ClassLoader loader = compile(directory, "records/Session.java", source, "--release", "16");
+
+        @SuppressWarnings("unchecked")
+        ClaimsCodec<Object> codec = (ClaimsCodec<Object>) loader.loadClass("records.SessionCodec").getField("INSTANCE").get(null);
+        byte[] json = "{\"tenant\":3,\"roles\":[\"admin\"],\"sub\":\"subject\"}".getBytes(StandardCharsets.UTF_8);
+        Object session = codec.decode(json, 0, json.length);
+
+        assertThat(session.toString(), is("Session[subject=subject, tenant=3, roles=[admin]]"));
+        assertThat(new String(codec.encode(session), StandardCharsets.UTF_8), is("{\"sub\":\"subject\",\"tenant\":3,\"roles\":[\"admin\"]}"));
+    }
+
+    @Test
+    void processUnsupportedType_reportsError(@TempDir Path directory) throws Exception {
+        String source = "package invalid;\n" +
+                "import com.bastiaanjansen.jwt.schema.*;\n" +
+                "@ClaimsSchema public interface Invalid { java.util.Set<String> roles(); }\n";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        boolean success = run(directory, "invalid/Invalid.java", source, diagnostics);
+
+        assertFalse(success);
+        assertThat(diagnostics.getDiagnostics().get(0).getMessage(null), containsString("Unsupported claim type"));
+    }
+
+    @Test
+    void processClass_reportsError(@TempDir Path directory) throws Exception {
+        String source = "package invalid;\n" +
+                "import com.bastiaanjansen.jwt.schema.*;\n" +
+                "@ClaimsSchema public class Invalid { }\n";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        assertFalse(run(directory, "invalid/Invalid.java", source, diagnostics));
+        assertThat(diagnostics.getDiagnostics().get(0).getMessage(null), containsString("interfaces and records"));
+    }
+
+    private static ClassLoader compile(Path directory, String path, String source, String... options) throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertTrue(run(directory, path, source, diagnostics, options), diagnostics.getDiagnostics().toString());
+        return new URLClassLoader(new URL[] {directory.resolve("classes").toUri().toURL()}, ClaimsSchemaProcessorTest.class.getClassLoader());
+    }
+
+    private static boolean run(Path directory, String path, String source, DiagnosticCollector<JavaFileObject> diagnostics, String... options) throws Exception {
+        Path file = directory.resolve("sources").resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+
+        Path classes = Files.createDirectories(directory.resolve("classes"));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<String> arguments = new ArrayList<>(Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-processor", ClaimsSchemaProcessor.class.getName(),
+                    "-d", classes.toString()));
+            arguments.addAll(Arrays.asList(options));
+
+            return compiler.getTask(null, fileManager, diagnostics, arguments, null,
+                    fileManager.getJavaFileObjects(file.toFile())).call();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.bastiaanjansen.jwt.schema;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+@ClaimsSchema
+public interface SessionClaims {
+
+    @Claim("sub")
+    String subject();
+
+    long tenant();
+
+    List<String> roles();
+
+    @Claim("exp")
+    Date expirationTime();
+
+    boolean admin();
+
+    Double score();
+
+    String[] scopes();
+
+    Map<String, Object> address();
+}
@@ -0,0 +1,165 @@
+package com.bastiaanjansen.jwt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class Base64UtilsTest {
+
+    @Test
+    void encodeIntoArray_equalsJDKEncoder() {
+        Random random = new Random(42);
+
+        for (int length = 0; length < 40; length++) {
+            byte[] data = new byte[length + 4];
+            random.nextBytes(data);
+            String expected = Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOfRange(data, 2, 2 + length));
+
+            byte[] dst = new byte[Base64Utils.encodedLength(length) + 1];
+            int written = Base64Utils.encodeBase64URL(data, 2, length, dst, 1);
+
+            assertThat(written, is(expected.length()));
+            assertThat(new String(dst, 1, written, StandardCharsets.US_ASCII), is(expected));
+        }
+    }
+
+    @Test
+    void encodeIntoDirectBuffer_equalsJDKEncoder() {
+        Random random = new Random(7);
+
+        for (int length = 0; length < 40; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+            Base64Utils.encodeBase64URL(data, 0, length, buffer);
+            buffer.flip();
+
+            assertThat(StandardCharsets.US_ASCII.decode(buffer).toString(), is(Base64Utils.encodeBase64URL(data)));
+        }
+    }
+
+    @Test
+    void encodeIntoArray_tooSmall_throwsIndexOutOfBoundsException() {
+        assertThrows(IndexOutOfBoundsException.class, () -> Base64Utils.encodeBase64URL(new byte[3], 0, 3, new byte[3], 0));
+    }
+
+    @Test
+    void encodeIntoBuffer_tooSmall_throwsBufferOverflowException() {
+        ByteBuffer buffer = ByteBuffer.allocate(3);
+
+        assertThrows(BufferOverflowException.class, () -> Base64Utils.encodeBase64URL(new byte[3], 0, 3, buffer));
+        assertThat(buffer.position(), is(0));
+    }
+
+    @Test
+    void decodeRange_roundTrips() {
+        byte[] encoded = "xxaGVsbG8x".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(new String(Base64Utils.decodeBase64URL(encoded, 2, 7), StandardCharsets.US_ASCII), is("hello"));
+    }
+
+    @Test
+    void decodeIntoArray_equalsJDKDecoder() {
+        Random random = new Random(11);
+
+        for (int length = 0; length < 300; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            byte[] encoded = ("x" + Base64Utils.encodeBase64URL(data)).getBytes(StandardCharsets.US_ASCII);
+
+            byte[] dst = new byte[length + 2];
+            int written = Base64Utils.decodeBase64URL(encoded, 1, encoded.length - 1, dst, 2);
+
+            assertThat(written, is(length));
+            assertArrayEquals(data, Arrays.copyOfRange(dst, 2, 2 + length));
+        }
+    }
+
+    @Test
+    void decodeIntoBuffer_advancesPositions() {
+        ByteBuffer src = ByteBuffer.wrap("aGVsbG8=".getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer dst = ByteBuffer.allocateDirect(8);
+
+        Base64Utils.decodeBase64URL(src, dst);
+
+        assertThat(src.remaining(), is(0));
+        assertThat(dst.position(), is(5));
+        dst.flip();
+        assertThat(StandardCharsets.US_ASCII.decode(dst).toString(), is("hello"));
+    }
+
+    @Test
+    void decodeRange_invalidCharacter_throwsIllegalArgumentException() {
+        byte[] encoded = Base64Utils.encodeBase64URL(new byte[200]).getBytes(StandardCharsets.US_ASCII);
+
+        for (int position: new int[] { 0, 5, 150, encoded.length - 1 }) {
+            byte[] invalid = encoded.clone();
+            invalid[position] = '+';
+
+            assertThrows(IllegalArgumentException.class, () -> Base64Utils.decodeBase64URL(invalid, 0, invalid.length, new byte[200], 0));
+        }
+    }
+
+    @Test
+    void decodeIntoBuffer_invalidCharacter_keepsPositions() {
+        ByteBuffer src = ByteBuffer.wrap("aGV/bG8".getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer dst = ByteBuffer.allocate(8);
+
+        assertThrows(IllegalArgumentException.class, () -> Base64Utils.decodeBase64URL(src, dst));
+        assertThat(src.position(), is(0));
+        assertThat(dst.position(), is(0));
+    }
+
+    @Test
+    void decodeString_padding_matchesJDKDecoder() {
+        for (String encoded: new String[] { "QQ", "QQ=", "QQ==", "QUI", "QUI=", "QUJD", "QUJD=", "QUJD==" }) {
+            byte[] bytes = encoded.getBytes(StandardCharsets.US_ASCII);
+            boolean valid;
+            try {
+                Base64.getUrlDecoder().decode(encoded);
+                valid = true;
+            } catch (IllegalArgumentException e) {
+                valid = false;
+            }
+
+            if (valid) {
+                assertThat(encoded, Base64Utils.decodeBase64URL(encoded), is(new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8)));
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> Base64Utils.decodeBase64URL(encoded), encoded);
+                assertThrows(IllegalArgumentException.class, () -> Base64Utils.decodeBase64URL(ByteBuffer.wrap(bytes), ByteBuffer.allocate(8)), encoded);
+            }
+
+            assertThat(encoded, Base64Utils.isBase64URL(bytes, 0, bytes.length), is(valid));
+        }
+    }
+
+    @Test
+    void vectors_usedWhenVectorModuleIsAdded() {
+        // Set by the test run of the vector-api profile
+        assumeTrue(Boolean.getBoolean("base64.vectors"));
+
+        assertTrue(Base64Vectors.isAvailable());
+    }
+
+    @Test
+    void isBase64URL_matchesDecoder() {
+        byte[] encoded = Base64Utils.encodeBase64URL(new byte[200]).getBytes(StandardCharsets.US_ASCII);
+
+        assertTrue(Base64Utils.isBase64URL(encoded, 0, encoded.length));
+        assertTrue(Base64Utils.isBase64URL("aGVsbG8=".getBytes(StandardCharsets.US_ASCII), 0, 8));
+        assertFalse(Base64Utils.isBase64URL("aGV/bG8".getBytes(StandardCharsets.US_ASCII), 0, 7));
+        assertFalse(Base64Utils.isBase64URL("aGVsb".getBytes(StandardCharsets.US_ASCII), 0, 5));
+        assertFalse(Base64Utils.isBase64URL(new byte[] { 'a', 'b', (byte) 0xC3 }, 0, 3));
+    }
+}
@@ -0,0 +1,59 @@
+package com.bastiaanjansen.jwt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoarseClockTest {
+
+    @Test
+    void millis_followsSystemClock() throws InterruptedException {
+        try (CoarseClock clock = CoarseClock.start(Duration.ofMillis(1))) {
+            long start = clock.millis();
+            Thread.sleep(50);
+
+            assertTrue(clock.millis() > start);
+            assertTrue(Math.abs(System.currentTimeMillis() - clock.millis()) < 1000);
+        }
+    }
+
+    @Test
+    void millisAfterClose_stopsTicking() throws InterruptedException {
+        CoarseClock clock = CoarseClock.start(Duration.ofMillis(1));
+        clock.close();
+        Thread.sleep(20);
+        long stopped = clock.millis();
+        Thread.sleep(20);
+
+        assertThat(clock.millis(), is(stopped));
+    }
+
+    @Test
+    void withZone_sharesTime() {
+        CoarseClock clock = CoarseClock.getDefault();
+        ZoneId zone = ZoneId.of("Europe/Amsterdam");
+
+        assertThat(clock.withZone(zone).getZone(), is(zone));
+        assertTrue(clock.withZone(zone).millis() >= clock.millis() - 1000);
+    }
+
+    @Test
+    void closeDefault_keepsTicking() throws InterruptedException {
+        CoarseClock.getDefault().close();
+        long start = CoarseClock.getDefault().millis();
+        Thread.sleep(50);
+
+        assertTrue(CoarseClock.getDefault().millis() > start);
+    }
+
+    @Test
+    void startWithNonPositiveTick_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> CoarseClock.start(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> CoarseClock.start(null));
+    }
+}
@@ -0,0 +1,45 @@
+package com.bastiaanjansen.jwt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorUtilsTest {
+
+    @Test
+    void newVirtualThreadPerTaskExecutor() throws Exception {
+        if (!ExecutorUtils.isVirtualThreadSupported()) {
+            assertThrows(UnsupportedOperationException.class, ExecutorUtils::newVirtualThreadPerTaskExecutor);
+            return;
+        }
+
+        ExecutorService executor = ExecutorUtils.newVirtualThreadPerTaskExecutor();
+        try {
+            assertThat(executor.submit(() -> "done").get(), is("done"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void newBoundedExecutor_usesDaemonThreads() throws Exception {
+        ExecutorService executor = ExecutorUtils.newBoundedExecutor(1);
+
+        try {
+            assertTrue(executor.submit(() -> Thread.currentThread().isDaemon()).get());
+            assertThat(executor.submit(() -> Thread.currentThread().getName()).get(), startsWith("jwt-crypto-"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void newBoundedExecutorWithoutThreads_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> ExecutorUtils.newBoundedExecutor(0));
+    }
+}